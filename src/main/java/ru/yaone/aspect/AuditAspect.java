@@ -1,20 +1,50 @@
 package ru.yaone.aspect;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import ru.yaone.constants.SqlScriptsForAudit;
-import ru.yaone.manager.DatabaseConnectionManager;
+import org.aspectj.lang.reflect.MethodSignature;
+import ru.yaone.aspect.annotation.AuditLevel;
+import ru.yaone.audit.AsyncAuditWriter;
+import ru.yaone.audit.AuditEvent;
+import ru.yaone.audit.AuditMode;
+import ru.yaone.audit.AuditPolicy;
+import ru.yaone.audit.AuditPolicyRegistry;
+import ru.yaone.audit.AuditRenderer;
+import ru.yaone.audit.AuditRollupAggregator;
+import ru.yaone.audit.CallSpan;
+import ru.yaone.audit.CallTreeRecorder;
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.manager.TransactionContext;
+import ru.yaone.metrics.MethodLatencyRegistry;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.lang.reflect.Method;
 import java.sql.Timestamp;
-import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Аспект аудита методов классов, отмеченных {@link ru.yaone.aspect.annotation.Loggable}.
+ *
+ * <p>Событие передаётся в {@link AsyncAuditWriter} только после фиксации транзакции запроса
+ * ({@link TransactionContext#afterCommit(Runnable)}); при откате события запроса отбрасываются,
+ * вне транзакции событие передаётся сразу. Сама запись в {@code audit_log} идёт в фоновом потоке
+ * собственной транзакцией, поэтому она не атомарна с изменениями запроса: у зафиксированного
+ * запроса событие может потеряться при переполнении очереди с политикой {@code DROP}/{@code DROP_OLDEST}
+ * или при ошибке записи, если выключен дисковый журнал {@code audit.spill.enabled}.</p>
+ */
 @Aspect
 public class AuditAspect {
 
+    private static final AuditMode MODE = AuditMode.valueOf(ApplicationProperties.getString("audit.mode", "FLAT"));
+    private static final CallTreeRecorder CALL_TREE =
+            new CallTreeRecorder(ApplicationProperties.getInt("audit.tree.maxSpans", 256));
+    private static final ObjectMapper CALL_TREE_MAPPER = new ObjectMapper();
+    private static final AuditRenderer RENDERER =
+            AuditRenderer.createDefault(ApplicationProperties.getInt("audit.render.maxChars", 1024));
+
     @Pointcut("within(@ru.yaone.aspect.annotation.Loggable *) && execution(* * (..))")
     public void loggablePointcut() {
     }
@@ -22,31 +52,92 @@ public class AuditAspect {
 
     @Around("loggablePointcut()")
     public Object audit(ProceedingJoinPoint joinPoint) throws Throwable {
-        String methodName = joinPoint.getSignature().getName();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        AuditPolicy policy = AuditPolicyRegistry.getInstance().resolve(method);
+        if (!policy.enabled()) {
+            return joinPoint.proceed();
+        }
+        if (MODE == AuditMode.TREE) {
+            return auditCallTree(joinPoint, method, policy);
+        }
         Object[] methodArgs = joinPoint.getArgs();
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        Object result;
+        long elapsed;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            elapsed = System.nanoTime() - startTime;
+            recordLatency(method, elapsed);
+        }
+        long executionTime = TimeUnit.NANOSECONDS.toMillis(elapsed);
 
-        Object result = joinPoint.proceed();
+        if (policy.shouldRecord(executionTime)) {
+            saveAuditLog(method.getName(), policy, methodArgs, executionTime, result, null);
+        }
 
-        long endTime = System.currentTimeMillis();
+        return result;
+    }
 
-        saveAuditLog(methodName, methodArgs, endTime - startTime, result);
+    private Object auditCallTree(ProceedingJoinPoint joinPoint, Method method, AuditPolicy policy) throws Throwable {
+        CALL_TREE.enter(AuditPolicyRegistry.keyOf(method));
+        long startTime = System.nanoTime();
+        Object result = null;
+        boolean completed = false;
+        try {
+            result = joinPoint.proceed();
+            completed = true;
+            return result;
+        } finally {
+            recordLatency(method, System.nanoTime() - startTime);
+            CallSpan root = CALL_TREE.exit();
+            if (root != null && completed) {
+                long executionTime = TimeUnit.NANOSECONDS.toMillis(root.getDurationNanos());
+                if (policy.shouldRecord(executionTime)) {
+                    saveAuditLog(method.getName(), policy, joinPoint.getArgs(), executionTime, result,
+                            writeCallTree(root));
+                }
+            }
+        }
+    }
 
-        return result;
+    private static void recordLatency(Method method, long nanos) {
+        String key = AuditPolicyRegistry.keyOf(method);
+        MethodLatencyRegistry.getInstance().record(key, nanos);
+        AuditRollupAggregator rollups = AuditRollupAggregator.getInstance();
+        if (rollups != null) {
+            rollups.record(key, nanos);
+        }
     }
 
-    private void saveAuditLog(String methodName, Object[] methodArgs, long executionTime, Object result) {
-        try (Connection conn = DatabaseConnectionManager.getConnection();
-             PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForAudit.INSERT_EVENTS)) {
+    private void saveAuditLog(String methodName, AuditPolicy policy, Object[] methodArgs, long executionTime,
+                              Object result, String callTree) {
+        boolean full = policy.level() == AuditLevel.FULL;
+        // Строки строятся здесь, в потоке вызова: в очередь не попадают ссылки на аргументы и результат.
+        AuditEvent event = new AuditEvent(
+                methodName,
+                full ? RENDERER.renderArgs(methodArgs) : null,
+                executionTime,
+                full ? RENDERER.renderResult(result) : null,
+                new Timestamp(System.currentTimeMillis()),
+                callTree);
+        TransactionContext.afterCommit(() -> submit(event));
+    }
 
-            preparedStatement.setString(1, methodName);
-            preparedStatement.setString(2, Arrays.toString(methodArgs));
-            preparedStatement.setLong(3, executionTime);
-            preparedStatement.setString(4, result != null ? result.toString() : null);
-            preparedStatement.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
-            preparedStatement.executeUpdate();
+    private static void submit(AuditEvent event) {
+        try {
+            AsyncAuditWriter.getInstance().submit(event);
         } catch (Exception e) {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static String writeCallTree(CallSpan root) {
+        try {
+            return CALL_TREE_MAPPER.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.yaone.aspect.annotation;
+
+/**
+ * Перечисление, определяющее подробность записи аудита.
+ */
+public enum AuditLevel {
+    /**
+     * Записываются только имя метода, время выполнения и временная метка.
+     */
+    BASIC,
+
+    /**
+     * Дополнительно записываются аргументы и результат метода.
+     */
+    FULL
+}
@@ -5,8 +5,43 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Аннотация, включающая аудит методов класса или отдельного метода.
+ *
+ * <p>Атрибуты задают политику аудита по умолчанию; аннотация метода имеет приоритет
+ * над аннотацией класса. Во время работы политику можно переопределить через
+ * {@code ru.yaone.audit.AuditPolicyRegistry}.</p>
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD, ElementType.TYPE})
 public @interface Loggable {
     String value() default "";
+
+    /**
+     * Включён ли аудит.
+     *
+     * @return {@code false}, чтобы не записывать вызовы
+     */
+    boolean enabled() default true;
+
+    /**
+     * Подробность записи.
+     *
+     * @return уровень аудита
+     */
+    AuditLevel level() default AuditLevel.FULL;
+
+    /**
+     * Доля записываемых вызовов от 0.0 до 1.0.
+     *
+     * @return доля выборки
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * Порог медленного вызова: вызовы дольше порога записываются независимо от выборки.
+     *
+     * @return порог в миллисекундах или отрицательное число, если порог не задан
+     */
+    long slowThresholdMillis() default -1;
 }
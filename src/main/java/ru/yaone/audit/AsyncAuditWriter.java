@@ -0,0 +1,266 @@
+package ru.yaone.audit;
+
+import ru.yaone.config.ApplicationProperties;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Класс {@code AsyncAuditWriter} принимает события аудита в ограниченную неблокирующую очередь
+ * и записывает их пакетами в фоновом потоке.
+ *
+ * <p>Пакет отправляется получателю ({@link AuditSink}), когда в очереди набралось
+ * {@code batchSize} событий или истёк интервал {@code flushInterval}. Поведение при
+ * переполнении очереди задаётся {@link OverflowPolicy}. Ошибки получателя не
+ * пробрасываются вызывающему коду: события пакета считаются потерянными и учитываются
+ * в статистике.</p>
+ *
+ * <p>Общий экземпляр приложения создаётся через {@link #getInstance()} по настройкам
+ * {@code audit.*} и записывает события в {@code audit_log} через {@link JdbcAuditSink}, а при
+ * {@code audit.spill.enabled=true} — через {@link SpillingAuditSink}, который переживает
+ * недоступность базы данных.</p>
+ */
+public class AsyncAuditWriter {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static volatile AsyncAuditWriter instance;
+
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final AuditSink sink;
+    private final Thread worker;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * Создаёт и запускает асинхронную запись аудита.
+     *
+     * @param capacity            ёмкость очереди
+     * @param batchSize           максимальный размер пакета
+     * @param flushIntervalMillis максимальная задержка записи события, мс
+     * @param overflowPolicy      политика переполнения очереди
+     * @param sink                получатель пакетов
+     * @throws IllegalArgumentException если ёмкость, размер пакета или интервал не положительны
+     */
+    public AsyncAuditWriter(int capacity, int batchSize, long flushIntervalMillis,
+                            OverflowPolicy overflowPolicy, AuditSink sink) {
+        if (capacity <= 0 || batchSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Ёмкость очереди, размер пакета и интервал записи должны быть положительными");
+        }
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.sink = sink;
+        this.worker = new Thread(this::run, "audit-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Возвращает общий экземпляр, создавая его по настройкам приложения при первом обращении.
+     *
+     * @return общий экземпляр асинхронной записи аудита
+     */
+    public static AsyncAuditWriter getInstance() {
+        AsyncAuditWriter writer = instance;
+        if (writer == null) {
+            synchronized (AsyncAuditWriter.class) {
+                writer = instance;
+                if (writer == null) {
+                    writer = new AsyncAuditWriter(
+                            ApplicationProperties.getInt("audit.queue.capacity", 10_000),
+                            ApplicationProperties.getInt("audit.batch.size", 500),
+                            ApplicationProperties.getLong("audit.flush.intervalMillis", 1_000L),
+                            OverflowPolicy.valueOf(ApplicationProperties.getString("audit.overflow.policy", "BLOCK")),
+                            createSink());
+                    instance = writer;
+                }
+            }
+        }
+        return writer;
+    }
+
+    private static AuditSink createSink() {
+        JdbcAuditSink jdbcSink = new JdbcAuditSink();
+        if (!ApplicationProperties.getBoolean("audit.spill.enabled", true)) {
+            return jdbcSink;
+        }
+        try {
+            AuditSegmentLog segmentLog = new AuditSegmentLog(
+                    Path.of(ApplicationProperties.getString("audit.spill.dir",
+                            Path.of(System.getProperty("java.io.tmpdir"), "car_shop-audit-spill").toString())),
+                    ApplicationProperties.getInt("audit.spill.segmentBytes", 16 * 1024 * 1024),
+                    ApplicationProperties.getInt("audit.spill.maxSegments", 16));
+            return new SpillingAuditSink(jdbcSink, segmentLog,
+                    ApplicationProperties.getLong("audit.spill.slowFlushMillis", 500L),
+                    ApplicationProperties.getInt("audit.batch.size", 500),
+                    ApplicationProperties.getLong("audit.spill.replayIntervalMillis", 1_000L));
+        } catch (IOException e) {
+            System.err.println("Дисковый журнал аудита недоступен: " + e.getMessage());
+            return jdbcSink;
+        }
+    }
+
+    /**
+     * Останавливает общий экземпляр, дописав накопленные события.
+     */
+    public static synchronized void shutdownInstance() {
+        AsyncAuditWriter writer = instance;
+        instance = null;
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Помещает событие в очередь.
+     *
+     * @param event событие аудита
+     * @return {@code true}, если событие принято; {@code false}, если оно отброшено
+     */
+    public boolean submit(AuditEvent event) {
+        while (true) {
+            if (!running) {
+                dropped.increment();
+                return false;
+            }
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    queue.offer(event);
+                    enqueued.increment();
+                    if (current + 1 == batchSize) {
+                        LockSupport.unpark(worker);
+                    }
+                    return true;
+                }
+                continue;
+            }
+            switch (overflowPolicy) {
+                case DROP:
+                    dropped.increment();
+                    return false;
+                case DROP_OLDEST:
+                    if (queue.poll() != null) {
+                        size.decrementAndGet();
+                        dropped.increment();
+                    }
+                    break;
+                case BLOCK:
+                    LockSupport.unpark(worker);
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                    break;
+                default:
+                    throw new IllegalStateException("Неизвестная политика переполнения: " + overflowPolicy);
+            }
+        }
+    }
+
+    /**
+     * Останавливает фоновый поток, предварительно записав все события из очереди,
+     * и закрывает получателя.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+    }
+
+    /**
+     * Возвращает получателя пакетов.
+     *
+     * @return получатель пакетов
+     */
+    public AuditSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Возвращает снимок статистики.
+     *
+     * @return статистика очереди и записи
+     */
+    public AuditWriterStats getStats() {
+        long batchCount = batches.sum();
+        return new AuditWriterStats(
+                size.get(),
+                capacity,
+                overflowPolicy,
+                enqueued.sum(),
+                written.sum(),
+                dropped.sum(),
+                failed.sum(),
+                batchCount,
+                batchCount == 0 ? 0 : flushNanos.sum() / 1_000.0 / batchCount,
+                maxFlushNanos.get() / 1_000.0
+        );
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || size.get() > 0) {
+            if (running && size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drain(batch);
+        }
+    }
+
+    private void drain(List<AuditEvent> batch) {
+        AuditEvent event;
+        while ((event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                flush(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.write(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            batches.increment();
+            flushNanos.add(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+            batch.clear();
+        }
+    }
+}
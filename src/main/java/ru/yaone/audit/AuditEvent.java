@@ -0,0 +1,26 @@
+package ru.yaone.audit;
+
+import java.sql.Timestamp;
+
+/**
+ * Запись (record), представляющая событие аудита, ожидающее записи в {@code audit_log}.
+ *
+ * <p>Аргументы и результат превращаются в строки ограниченной длины через {@link AuditRenderer}
+ * ещё в потоке вызова. Очередь не удерживает сами объекты: большие результаты не доживают
+ * до записи, изменяемые DTO записываются в состоянии на момент вызова, а запрос и ответ
+ * сервлета не читаются после завершения запроса.</p>
+ *
+ * @param methodName    имя вызванного метода
+ * @param methodArgs    представление аргументов метода или {@code null}
+ * @param executionTime время выполнения метода, мс
+ * @param result        представление результата метода или {@code null}
+ * @param timestamp     момент завершения вызова
+ * @param callTree      дерево вложенных вызовов в формате JSON или {@code null} в режиме {@link AuditMode#FLAT}
+ */
+public record AuditEvent(String methodName,
+                         String methodArgs,
+                         long executionTime,
+                         String result,
+                         Timestamp timestamp,
+                         String callTree) {
+}
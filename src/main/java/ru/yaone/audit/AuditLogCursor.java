@@ -0,0 +1,61 @@
+package ru.yaone.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * Запись (record), представляющая позицию в журнале аудита для постраничного чтения.
+ *
+ * <p>Страницы упорядочены по убыванию {@code (timestamp, id)}; курсор указывает на последнюю
+ * отданную строку, и следующая страница начинается строго после неё. Клиенту курсор
+ * передаётся непрозрачной строкой.</p>
+ *
+ * @param timestamp время последней отданной строки
+ * @param id        идентификатор последней отданной строки
+ */
+public record AuditLogCursor(Timestamp timestamp, long id) {
+
+    /**
+     * Создаёт курсор, указывающий на строку журнала.
+     *
+     * @param entry строка журнала
+     * @return курсор
+     */
+    public static AuditLogCursor after(AuditLogEntry entry) {
+        return new AuditLogCursor(entry.timestamp(), entry.id());
+    }
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        long seconds = Math.floorDiv(timestamp.getTime(), 1000);
+        String raw = seconds + "." + timestamp.getNanos() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает курсор из строки, полученной от {@link #encode()}.
+     *
+     * @param value строка курсора
+     * @return курсор
+     * @throws IllegalArgumentException если строка не является курсором
+     */
+    public static AuditLogCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            Timestamp timestamp = new Timestamp(seconds * 1000);
+            timestamp.setNanos(nanos);
+            return new AuditLogCursor(timestamp, Long.parseLong(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор журнала аудита", e);
+        }
+    }
+}
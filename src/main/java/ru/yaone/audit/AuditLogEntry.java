@@ -0,0 +1,23 @@
+package ru.yaone.audit;
+
+import java.sql.Timestamp;
+
+/**
+ * Запись (record), представляющая строку журнала аудита {@code audit_log}.
+ *
+ * @param id            идентификатор записи
+ * @param methodName    имя перехваченного метода
+ * @param methodArgs    представление аргументов метода
+ * @param executionTime время выполнения, мс
+ * @param result        представление результата метода
+ * @param timestamp     время записи
+ * @param callTree      дерево вложенных вызовов в JSON или {@code null}
+ */
+public record AuditLogEntry(long id,
+                            String methodName,
+                            String methodArgs,
+                            long executionTime,
+                            String result,
+                            Timestamp timestamp,
+                            String callTree) {
+}
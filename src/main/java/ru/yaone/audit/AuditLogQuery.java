@@ -0,0 +1,39 @@
+package ru.yaone.audit;
+
+import java.sql.Timestamp;
+
+/**
+ * Запись (record), представляющая фильтр и страницу запроса к журналу аудита.
+ *
+ * <p>Все условия необязательны, кроме размера страницы.</p>
+ *
+ * @param methodName       точное имя метода или {@code null}
+ * @param from             начало интервала включительно или {@code null}
+ * @param to               конец интервала не включительно или {@code null}
+ * @param minExecutionTime минимальное время выполнения, мс, или {@code null}
+ * @param cursor           позиция, после которой начинается страница, или {@code null} для первой страницы
+ * @param limit            размер страницы
+ */
+public record AuditLogQuery(String methodName,
+                            Timestamp from,
+                            Timestamp to,
+                            Long minExecutionTime,
+                            AuditLogCursor cursor,
+                            int limit) {
+
+    /**
+     * Максимальный размер страницы.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Проверяет размер страницы.
+     *
+     * @throws IllegalArgumentException если размер страницы вне диапазона от 1 до {@link #MAX_LIMIT}
+     */
+    public AuditLogQuery {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yaone.audit;
+
+/**
+ * Перечисление, определяющее режим записи аудита.
+ */
+public enum AuditMode {
+    /**
+     * Одна запись {@code audit_log} на каждый перехваченный вызов.
+     */
+    FLAT,
+
+    /**
+     * Одна запись {@code audit_log} на вызов верхнего уровня; вложенные вызовы
+     * сохраняются деревом в колонке {@code call_tree}.
+     */
+    TREE
+}
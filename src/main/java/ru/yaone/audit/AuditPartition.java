@@ -0,0 +1,36 @@
+package ru.yaone.audit;
+
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Запись (record), представляющая секцию таблицы {@code audit_log}.
+ *
+ * @param name       имя секции
+ * @param upperBound верхняя граница диапазона (не включительно);
+ *                   {@code null} для секции {@code DEFAULT} и неограниченных диапазонов
+ */
+public record AuditPartition(String name, LocalDateTime upperBound) {
+
+    private static final Pattern UPPER_BOUND =
+            Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})[ T](\\d{2}:\\d{2}:\\d{2})[^']*'\\)");
+
+    /**
+     * Создаёт секцию по выражению границы из {@code pg_get_expr(relpartbound, oid)}.
+     *
+     * @param name            имя секции
+     * @param boundExpression выражение вида {@code FOR VALUES FROM (...) TO ('2024-05-02 00:00:00')}
+     * @return секция; верхняя граница {@code null}, если её не удалось определить
+     */
+    public static AuditPartition of(String name, String boundExpression) {
+        if (boundExpression == null) {
+            return new AuditPartition(name, null);
+        }
+        Matcher matcher = UPPER_BOUND.matcher(boundExpression);
+        if (!matcher.find()) {
+            return new AuditPartition(name, null);
+        }
+        return new AuditPartition(name, LocalDateTime.parse(matcher.group(1) + "T" + matcher.group(2)));
+    }
+}
@@ -0,0 +1,283 @@
+package ru.yaone.audit;
+
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.constants.SqlScriptsForAudit;
+import ru.yaone.manager.DatabaseConnectionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс {@code AuditPartitionMaintenance} обслуживает секции таблицы {@code audit_log}.
+ *
+ * <p>По расписанию заранее создаёт суточные секции {@code audit_log_pYYYYMMDD} на
+ * {@code audit.partition.aheadDays} дней вперёд и удаляет секции, целиком вышедшие за срок
+ * хранения {@code audit.retention.days}. Удаление секции — операция над каталогом, а не
+ * построчный {@code DELETE}, поэтому не оставляет мёртвых строк для {@code VACUUM}.
+ * Секция {@code DEFAULT} никогда не удаляется; попавшие в неё строки за создаваемый день
+ * переносятся в новую секцию. Если {@code audit_log} не секционирована,
+ * обслуживание ничего не делает.</p>
+ */
+public class AuditPartitionMaintenance {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String DEFAULT_BOUND = "DEFAULT";
+
+    private static volatile AuditPartitionMaintenance instance;
+
+    private final int aheadDays;
+    private final int retentionDays;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Создаёт обслуживание секций.
+     *
+     * @param aheadDays     на сколько дней вперёд создавать секции
+     * @param retentionDays сколько дней хранить записи аудита
+     * @throws IllegalArgumentException если параметры отрицательны или срок хранения нулевой
+     */
+    public AuditPartitionMaintenance(int aheadDays, int retentionDays) {
+        if (aheadDays < 0 || retentionDays <= 0) {
+            throw new IllegalArgumentException("Горизонт создания секций и срок хранения заданы неверно");
+        }
+        this.aheadDays = aheadDays;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Запускает общее обслуживание секций по настройкам приложения, если оно включено.
+     */
+    public static synchronized void startInstance() {
+        if (instance != null || !ApplicationProperties.getBoolean("audit.partition.enabled", true)) {
+            return;
+        }
+        instance = new AuditPartitionMaintenance(
+                ApplicationProperties.getInt("audit.partition.aheadDays", 7),
+                ApplicationProperties.getInt("audit.retention.days", 30));
+        instance.start(ApplicationProperties.getLong("audit.partition.intervalMinutes", 60));
+    }
+
+    /**
+     * Останавливает общее обслуживание секций, если оно было запущено.
+     */
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Запускает обслуживание сразу и далее с заданным интервалом в фоновом потоке.
+     *
+     * @param intervalMinutes интервал между запусками, мин
+     */
+    public synchronized void start(long intervalMinutes) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Останавливает фоновый поток обслуживания.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Выполняет одно обслуживание: создаёт недостающие и удаляет устаревшие секции.
+     *
+     * <p>Каждая секция создаётся в своей транзакции. Если в секции {@code DEFAULT} уже есть строки
+     * за создаваемый день, {@code PARTITION OF} для него завершился бы ошибкой, поэтому секция
+     * {@code DEFAULT} на время транзакции отключается, строки переносятся в новую секцию и
+     * {@code DEFAULT} подключается обратно.</p>
+     *
+     * @param today текущая дата
+     * @throws SQLException если произошла ошибка при работе с базой данных
+     */
+    public void runOnce(LocalDate today) throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!isPartitioned(conn)) {
+                return;
+            }
+            List<AuditPartition> partitions = listPartitions(conn);
+            String defaultPartition = defaultPartition(conn);
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (LocalDate day : daysToCreate(partitions, today, aheadDays)) {
+                    createPartition(conn, stmt, day, defaultPartition);
+                    conn.commit();
+                }
+                for (AuditPartition partition : partitionsToDrop(partitions, today, retentionDays)) {
+                    stmt.execute(String.format(SqlScriptsForAudit.DROP_AUDIT_LOG_PARTITION, partition.name()));
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void createPartition(Connection conn, Statement stmt, LocalDate day, String defaultPartition)
+            throws SQLException {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        String create = String.format(SqlScriptsForAudit.CREATE_AUDIT_LOG_PARTITION,
+                partitionName(day), day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        if (defaultPartition == null || !hasRows(conn, defaultPartition, from, to)) {
+            stmt.execute(create);
+            return;
+        }
+        stmt.execute(String.format(SqlScriptsForAudit.DETACH_AUDIT_LOG_PARTITION, defaultPartition));
+        stmt.execute(create);
+        executeInRange(conn, SqlScriptsForAudit.MOVE_AUDIT_LOG_ROWS, defaultPartition, from, to);
+        executeInRange(conn, SqlScriptsForAudit.DELETE_AUDIT_LOG_ROWS, defaultPartition, from, to);
+        stmt.execute(String.format(SqlScriptsForAudit.ATTACH_AUDIT_LOG_DEFAULT_PARTITION, defaultPartition));
+    }
+
+    private static boolean hasRows(Connection conn, String partition, Timestamp from, Timestamp to)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SqlScriptsForAudit.EXISTS_AUDIT_LOG_ROWS_IN_RANGE, partition))) {
+            stmt.setTimestamp(1, from);
+            stmt.setTimestamp(2, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void executeInRange(Connection conn, String template, String partition, Timestamp from,
+                                       Timestamp to) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(template, partition))) {
+            stmt.setTimestamp(1, from);
+            stmt.setTimestamp(2, to);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Возвращает дни, для которых нужно создать секции.
+     *
+     * <p>Секции создаются с конца уже покрытого диапазона (но не раньше сегодняшнего дня)
+     * до {@code today + aheadDays} включительно, поэтому не пересекаются с существующими.</p>
+     *
+     * @param partitions существующие секции
+     * @param today      текущая дата
+     * @param aheadDays  на сколько дней вперёд создавать секции
+     * @return дни без секций, по возрастанию
+     */
+    static List<LocalDate> daysToCreate(List<AuditPartition> partitions, LocalDate today, int aheadDays) {
+        LocalDate from = today;
+        for (AuditPartition partition : partitions) {
+            if (partition.upperBound() != null) {
+                LocalDate covered = ceilToDay(partition.upperBound());
+                if (covered.isAfter(from)) {
+                    from = covered;
+                }
+            }
+        }
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(today.plusDays(aheadDays)); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        return days;
+    }
+
+    /**
+     * Возвращает секции, все записи которых старше срока хранения.
+     *
+     * @param partitions    существующие секции
+     * @param today         текущая дата
+     * @param retentionDays срок хранения, дней
+     * @return секции для удаления
+     */
+    static List<AuditPartition> partitionsToDrop(List<AuditPartition> partitions, LocalDate today,
+                                                 int retentionDays) {
+        LocalDateTime cutoff = today.minusDays(retentionDays).atStartOfDay();
+        List<AuditPartition> expired = new ArrayList<>();
+        for (AuditPartition partition : partitions) {
+            if (partition.upperBound() != null && !partition.upperBound().isAfter(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Возвращает имя суточной секции.
+     *
+     * @param day день
+     * @return имя вида {@code audit_log_p20240501}
+     */
+    static String partitionName(LocalDate day) {
+        return "audit_log_p" + day.format(NAME_FORMAT);
+    }
+
+    private void runSafely() {
+        try {
+            runOnce(LocalDate.now());
+        } catch (Exception e) {
+            System.err.println("Ошибка обслуживания секций audit_log: " + e.getMessage());
+        }
+    }
+
+    private static boolean isPartitioned(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SqlScriptsForAudit.IS_AUDIT_LOG_PARTITIONED);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    private static List<AuditPartition> listPartitions(Connection conn) throws SQLException {
+        List<AuditPartition> partitions = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SqlScriptsForAudit.SELECT_AUDIT_LOG_PARTITIONS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                partitions.add(AuditPartition.of(rs.getString(1), rs.getString(2)));
+            }
+        }
+        return partitions;
+    }
+
+    private static String defaultPartition(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SqlScriptsForAudit.SELECT_AUDIT_LOG_PARTITIONS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                if (DEFAULT_BOUND.equals(rs.getString(2))) {
+                    return rs.getString(1);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate ceilToDay(LocalDateTime bound) {
+        LocalDate day = bound.toLocalDate();
+        return bound.equals(day.atStartOfDay()) ? day : day.plusDays(1);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yaone.audit;
+
+import ru.yaone.aspect.annotation.AuditLevel;
+import ru.yaone.aspect.annotation.Loggable;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Запись (record), представляющая политику аудита одного метода.
+ *
+ * @param enabled             включён ли аудит
+ * @param level               подробность записи
+ * @param sampleRate          доля записываемых вызовов от 0.0 до 1.0
+ * @param slowThresholdMillis порог медленного вызова, мс; отрицательное значение отключает порог
+ */
+public record AuditPolicy(boolean enabled, AuditLevel level, double sampleRate, long slowThresholdMillis) {
+
+    /**
+     * Политика по умолчанию: записывать все вызовы полностью.
+     */
+    public static final AuditPolicy DEFAULT = new AuditPolicy(true, AuditLevel.FULL, 1.0, -1);
+
+    /**
+     * Политика, отключающая аудит.
+     */
+    public static final AuditPolicy DISABLED = new AuditPolicy(false, AuditLevel.FULL, 1.0, -1);
+
+    /**
+     * Проверяет корректность политики.
+     *
+     * @throws IllegalArgumentException если уровень не задан или доля выборки вне диапазона [0, 1]
+     */
+    public AuditPolicy {
+        if (level == null) {
+            throw new IllegalArgumentException("Уровень аудита не может быть null");
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Доля выборки должна быть в диапазоне [0, 1]: " + sampleRate);
+        }
+    }
+
+    /**
+     * Создаёт политику по атрибутам аннотации.
+     *
+     * @param loggable аннотация или {@code null}
+     * @return политика
+     */
+    public static AuditPolicy of(Loggable loggable) {
+        if (loggable == null) {
+            return DEFAULT;
+        }
+        return new AuditPolicy(loggable.enabled(), loggable.level(), loggable.sampleRate(),
+                loggable.slowThresholdMillis());
+    }
+
+    /**
+     * Решает, нужно ли записать завершившийся вызов.
+     *
+     * @param executionTimeMillis время выполнения вызова, мс
+     * @return {@code true}, если вызов должен попасть в журнал
+     */
+    public boolean shouldRecord(long executionTimeMillis) {
+        if (!enabled) {
+            return false;
+        }
+        if (slowThresholdMillis >= 0 && executionTimeMillis >= slowThresholdMillis) {
+            return true;
+        }
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -0,0 +1,167 @@
+package ru.yaone.audit;
+
+import ru.yaone.aspect.annotation.Loggable;
+import ru.yaone.config.ApplicationProperties;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс {@code AuditPolicyRegistry} определяет политику аудита для каждого перехваченного метода.
+ *
+ * <p>Политика по умолчанию берётся из аннотации {@link Loggable} метода, а при её отсутствии —
+ * из аннотации класса. Во время работы политику можно переопределить по ключу
+ * {@code Класс.метод}; переопределение действует сразу для всех потоков. Чтобы ключи методов
+ * были известны до их первого вызова, классы с аннотацией регистрируются при запуске. Настройка
+ * {@code audit.enabled=false} отключает аудит целиком.</p>
+ */
+public final class AuditPolicyRegistry {
+
+    private static final AuditPolicyRegistry INSTANCE = new AuditPolicyRegistry();
+
+    private final Map<Method, MethodEntry> methods = new ConcurrentHashMap<>();
+    private final Map<String, AuditPolicy> defaults = new ConcurrentHashMap<>();
+    private final Map<String, AuditPolicy> overrides = new ConcurrentHashMap<>();
+    private volatile boolean enabled = ApplicationProperties.getBoolean("audit.enabled", true);
+
+    AuditPolicyRegistry() {
+    }
+
+    /**
+     * Возвращает общий реестр политик.
+     *
+     * @return реестр политик
+     */
+    public static AuditPolicyRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Возвращает ключ метода в формате {@code Класс.метод}.
+     *
+     * @param method метод
+     * @return ключ метода
+     */
+    public static String keyOf(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     * Возвращает действующую политику метода.
+     *
+     * @param method перехваченный метод
+     * @return политика с учётом переопределений и глобального выключателя
+     */
+    public AuditPolicy resolve(Method method) {
+        if (!enabled) {
+            return AuditPolicy.DISABLED;
+        }
+        MethodEntry entry = methods.computeIfAbsent(method, this::register);
+        AuditPolicy override = overrides.get(entry.key());
+        return override != null ? override : entry.defaultPolicy();
+    }
+
+    /**
+     * Регистрирует методы классов, которые перехватывает аспект аудита.
+     *
+     * <p>Аспект перехватывает все методы класса с аннотацией {@link Loggable}, поэтому классы
+     * без неё пропускаются.</p>
+     *
+     * @param classes классы приложения
+     */
+    public void register(Class<?>... classes) {
+        for (Class<?> type : classes) {
+            if (type.isAnnotationPresent(Loggable.class)) {
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!method.isSynthetic()) {
+                        methods.computeIfAbsent(method, this::register);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает действующую политику метода по ключу без учёта глобального выключателя.
+     *
+     * @param key ключ метода в формате {@code Класс.метод}
+     * @return переопределение, политика из аннотации или {@code null}, если метод не зарегистрирован
+     */
+    public AuditPolicy policyOf(String key) {
+        AuditPolicy override = overrides.get(key);
+        return override != null ? override : defaults.get(key);
+    }
+
+    /**
+     * Переопределяет политику метода.
+     *
+     * @param key    ключ метода в формате {@code Класс.метод}
+     * @param policy новая политика
+     */
+    public void setOverride(String key, AuditPolicy policy) {
+        overrides.put(key, policy);
+    }
+
+    /**
+     * Отменяет переопределение политики метода.
+     *
+     * @param key ключ метода в формате {@code Класс.метод}
+     * @return {@code true}, если переопределение существовало
+     */
+    public boolean removeOverride(String key) {
+        return overrides.remove(key) != null;
+    }
+
+    /**
+     * Включает или выключает аудит целиком.
+     *
+     * @param enabled {@code false}, чтобы не записывать ни одного вызова
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Проверяет, включён ли аудит.
+     *
+     * @return {@code true}, если аудит включён
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Возвращает действующие политики всех зарегистрированных или уже вызывавшихся методов
+     * и всех переопределений.
+     *
+     * @return политики, упорядоченные по ключу метода
+     */
+    public Map<String, AuditPolicy> snapshot() {
+        Map<String, AuditPolicy> result = new TreeMap<>();
+        result.putAll(defaults);
+        result.putAll(overrides);
+        return result;
+    }
+
+    private MethodEntry register(Method method) {
+        MethodEntry entry = MethodEntry.of(method);
+        defaults.putIfAbsent(entry.key(), entry.defaultPolicy());
+        return entry;
+    }
+
+    /**
+     * Ключ и политика метода по умолчанию, вычисленные один раз.
+     */
+    private record MethodEntry(String key, AuditPolicy defaultPolicy) {
+
+        static MethodEntry of(Method method) {
+            Loggable loggable = method.getAnnotation(Loggable.class);
+            if (loggable == null) {
+                loggable = method.getDeclaringClass().getAnnotation(Loggable.class);
+            }
+            return new MethodEntry(keyOf(method), AuditPolicy.of(loggable));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package ru.yaone.audit;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.yaone.dto.UserDTO;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс {@code AuditRenderer} превращает аргументы и результат метода в строки для {@code audit_log}.
+ *
+ * <p>Длина каждого поля ограничена {@code maxChars} символами. Коллекции, отображения и массивы
+ * не разворачиваются, а записываются сводкой вида {@code List<CarDTO>[size=12000]}. Для отдельных
+ * типов можно зарегистрировать собственный {@link ValueSummarizer}; стандартный набор скрывает
+ * пароль в {@link UserDTO}. Буферы переиспользуются в пределах потока.</p>
+ *
+ * <p>Работа ограничена лимитом, а не размером значения: строки дописываются только до лимита,
+ * объекты приложения ({@code ru.yaone.*}) разбираются по полям в формате Lombok {@code toString}
+ * с теми же сводками для вложенных коллекций, а запрос и ответ сервлета записываются методом, адресом
+ * и статусом. Полный {@code toString()} вызывается только для прочих типов.</p>
+ */
+public class AuditRenderer {
+
+    private static final String TRUNCATED = "...(truncated)";
+    private static final String REDACTED = "***";
+    private static final String APPLICATION_PACKAGE = "ru.yaone.";
+    private static final int MAX_DEPTH = 2;
+
+    private final int maxChars;
+    private final Map<Class<?>, ValueSummarizer> summarizers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Field[]> fields = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers;
+
+    /**
+     * Создаёт форматировщик без зарегистрированных типов.
+     *
+     * @param maxChars максимальная длина одного поля в символах
+     * @throws IllegalArgumentException если {@code maxChars} меньше длины отметки об усечении
+     */
+    public AuditRenderer(int maxChars) {
+        if (maxChars <= TRUNCATED.length()) {
+            throw new IllegalArgumentException("Лимит длины поля аудита слишком мал: " + maxChars);
+        }
+        this.maxChars = maxChars;
+        this.buffers = ThreadLocal.withInitial(() -> new StringBuilder(Math.min(maxChars, 1024)));
+    }
+
+    /**
+     * Создаёт форматировщик со стандартным набором типов.
+     *
+     * @param maxChars максимальная длина одного поля в символах
+     * @return форматировщик
+     */
+    public static AuditRenderer createDefault(int maxChars) {
+        AuditRenderer renderer = new AuditRenderer(maxChars);
+        renderer.register(UserDTO.class, (value, out) -> {
+            UserDTO user = (UserDTO) value;
+            out.append("UserDTO(id=").append(user.getId())
+                    .append(", username=").append(user.getUsername())
+                    .append(", password=").append(REDACTED)
+                    .append(", role=").append(user.getRole())
+                    .append(')');
+        });
+        return renderer;
+    }
+
+    /**
+     * Регистрирует краткое представление для типа.
+     *
+     * @param type       тип значения (точное совпадение класса)
+     * @param summarizer способ представления
+     */
+    public void register(Class<?> type, ValueSummarizer summarizer) {
+        summarizers.put(type, summarizer);
+    }
+
+    /**
+     * Формирует строку аргументов метода в формате {@code [a, b]}.
+     *
+     * @param args аргументы метода
+     * @return строка не длиннее {@code maxChars} символов или {@code null}, если аргументы не сохранялись
+     */
+    public String renderArgs(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        StringBuilder out = buffer();
+        out.append('[');
+        for (int i = 0; i < args.length && out.length() <= maxChars; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            renderValue(args[i], out);
+        }
+        out.append(']');
+        return finish(out);
+    }
+
+    /**
+     * Формирует строку результата метода.
+     *
+     * @param result результат метода
+     * @return строка не длиннее {@code maxChars} символов или {@code null}, если результат отсутствует
+     */
+    public String renderResult(Object result) {
+        if (result == null) {
+            return null;
+        }
+        StringBuilder out = buffer();
+        renderValue(result, out);
+        return finish(out);
+    }
+
+    private void renderValue(Object value, StringBuilder out) {
+        renderValue(value, out, 0);
+    }
+
+    private void renderValue(Object value, StringBuilder out, int depth) {
+        if (out.length() > maxChars) {
+            return;
+        }
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        ValueSummarizer summarizer = summarizers.get(value.getClass());
+        if (summarizer != null) {
+            summarizer.summarize(value, out);
+        } else if (value instanceof CharSequence text) {
+            append(text, out);
+        } else if (value instanceof Number || value instanceof Boolean
+                || value instanceof Enum<?> || value instanceof TemporalAccessor) {
+            out.append(value);
+        } else if (value instanceof Collection<?> collection) {
+            out.append(collectionKind(collection)).append('<');
+            out.append(collection.isEmpty() ? "?" : elementType(collection.iterator().next()));
+            out.append(">[size=").append(collection.size()).append(']');
+        } else if (value instanceof Map<?, ?> map) {
+            out.append("Map[size=").append(map.size()).append(']');
+        } else if (value.getClass().isArray()) {
+            out.append(value.getClass().getComponentType().getSimpleName())
+                    .append("[length=").append(Array.getLength(value)).append(']');
+        } else if (value instanceof ServletRequest request) {
+            renderRequest(request, out);
+        } else if (value instanceof ServletResponse response) {
+            out.append("HttpServletResponse");
+            if (response instanceof HttpServletResponse http) {
+                out.append("(status=").append(http.getStatus()).append(')');
+            }
+        } else if (value.getClass().getName().startsWith(APPLICATION_PACKAGE)) {
+            renderFields(value, out, depth);
+        } else {
+            append(String.valueOf(value), out);
+        }
+    }
+
+    private void renderRequest(ServletRequest request, StringBuilder out) {
+        out.append("HttpServletRequest");
+        if (request instanceof HttpServletRequest http) {
+            out.append('(').append(http.getMethod()).append(' ');
+            append(String.valueOf(http.getRequestURI()), out);
+            out.append(')');
+        }
+    }
+
+    /**
+     * Записывает объект приложения в формате Lombok {@code toString}, не вызывая его:
+     * вложенные коллекции сводятся к размеру, глубже {@code MAX_DEPTH} пишется только имя типа.
+     */
+    private void renderFields(Object value, StringBuilder out, int depth) {
+        out.append(value.getClass().getSimpleName());
+        if (depth >= MAX_DEPTH) {
+            return;
+        }
+        out.append('(');
+        Field[] declared = fields.computeIfAbsent(value.getClass(), AuditRenderer::instanceFields);
+        for (int i = 0; i < declared.length && out.length() <= maxChars; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(declared[i].getName()).append('=');
+            try {
+                renderValue(declared[i].get(value), out, depth + 1);
+            } catch (IllegalAccessException e) {
+                out.append('?');
+            }
+        }
+        out.append(')');
+    }
+
+    private static Field[] instanceFields(Class<?> type) {
+        List<Field> result = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic() && field.trySetAccessible()) {
+                result.add(field);
+            }
+        }
+        return result.toArray(new Field[0]);
+    }
+
+    /**
+     * Дописывает не больше символов, чем нужно, чтобы заметить превышение лимита.
+     */
+    private void append(CharSequence text, StringBuilder out) {
+        int room = maxChars + 1 - out.length();
+        if (room > 0) {
+            out.append(text, 0, Math.min(text.length(), room));
+        }
+    }
+
+    private static String collectionKind(Collection<?> collection) {
+        if (collection instanceof List<?>) {
+            return "List";
+        }
+        if (collection instanceof Set<?>) {
+            return "Set";
+        }
+        return "Collection";
+    }
+
+    private static String elementType(Object element) {
+        return element == null ? "?" : element.getClass().getSimpleName();
+    }
+
+    private StringBuilder buffer() {
+        StringBuilder out = buffers.get();
+        if (out.capacity() > maxChars * 4) {
+            out = new StringBuilder(Math.min(maxChars, 1024));
+            buffers.set(out);
+        }
+        out.setLength(0);
+        return out;
+    }
+
+    private String finish(StringBuilder out) {
+        if (out.length() > maxChars) {
+            int cut = maxChars - TRUNCATED.length();
+            if (Character.isHighSurrogate(out.charAt(cut - 1))) {
+                cut--;
+            }
+            out.setLength(cut);
+            out.append(TRUNCATED);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.yaone.audit;
+
+import java.sql.Timestamp;
+
+/**
+ * Запись (record), представляющая агрегат вызовов метода за одну минуту.
+ *
+ * @param methodName   ключ метода в формате {@code Класс.метод}
+ * @param minute       начало минуты
+ * @param callCount    число вызовов
+ * @param totalMicros  суммарное время выполнения, мкс
+ * @param maxMicros    максимальное время выполнения, мкс
+ * @param bucketCounts число вызовов в корзинах {@link AuditRollupAggregator#BUCKET_BOUNDS_MICROS}
+ */
+public record AuditRollup(String methodName,
+                          Timestamp minute,
+                          long callCount,
+                          long totalMicros,
+                          long maxMicros,
+                          long[] bucketCounts) {
+}
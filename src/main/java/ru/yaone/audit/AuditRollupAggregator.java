@@ -0,0 +1,226 @@
+package ru.yaone.audit;
+
+import ru.yaone.config.ApplicationProperties;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Класс {@code AuditRollupAggregator} накапливает в памяти поминутные агрегаты вызовов
+ * каждого метода и раз в минуту записывает их в таблицу {@code audit_rollup}.
+ *
+ * <p>Счётчики ячейки {@code (метод, минута)} — {@link LongAdder} и {@link LongAccumulator},
+ * которые распределяют обновления по ячейкам-полосам и не создают конкуренции между
+ * потоками. Ячейка текущей минуты кэшируется по методу, поэтому запись вызова не
+ * выделяет память. Записываются только минуты, завершившиеся больше минуты назад,
+ * чтобы в них уже не попадали опоздавшие вызовы; при остановке записываются все.</p>
+ */
+public class AuditRollupAggregator {
+
+    /**
+     * Верхние границы корзин гистограммы времени выполнения, мкс; последняя корзина не ограничена.
+     */
+    public static final long[] BUCKET_BOUNDS_MICROS =
+            {1_000, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000};
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long GRACE_MINUTES = 1;
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("audit.rollup.enabled", true);
+
+    private static volatile AuditRollupAggregator instance;
+
+    private final Map<RollupKey, RollupCell> cells = new ConcurrentHashMap<>();
+    private final Map<String, RollupCell> currentCells = new ConcurrentHashMap<>();
+    private final AuditRollupSink sink;
+    private final LongSupplier clockMillis;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Создаёт агрегатор.
+     *
+     * @param sink        получатель агрегатов
+     * @param clockMillis источник текущего времени, мс
+     */
+    public AuditRollupAggregator(AuditRollupSink sink, LongSupplier clockMillis) {
+        this.sink = sink;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Возвращает общий агрегатор или {@code null}, если {@code audit.rollup.enabled=false}.
+     *
+     * @return общий агрегатор
+     */
+    public static AuditRollupAggregator getInstance() {
+        AuditRollupAggregator aggregator = instance;
+        if (aggregator == null && ENABLED) {
+            synchronized (AuditRollupAggregator.class) {
+                aggregator = instance;
+                if (aggregator == null) {
+                    aggregator = new AuditRollupAggregator(new JdbcAuditRollupSink(), System::currentTimeMillis);
+                    aggregator.start(ApplicationProperties.getLong("audit.rollup.flushIntervalSeconds", 60));
+                    instance = aggregator;
+                }
+            }
+        }
+        return aggregator;
+    }
+
+    /**
+     * Останавливает общий агрегатор, записав все накопленные агрегаты.
+     */
+    public static synchronized void shutdownInstance() {
+        AuditRollupAggregator aggregator = instance;
+        instance = null;
+        if (aggregator != null) {
+            aggregator.shutdown();
+        }
+    }
+
+    /**
+     * Учитывает вызов метода.
+     *
+     * @param method ключ метода в формате {@code Класс.метод}
+     * @param nanos  время выполнения, нс
+     */
+    public void record(String method, long nanos) {
+        long minute = Math.floorDiv(clockMillis.getAsLong(), MINUTE_MILLIS);
+        RollupCell cell = currentCells.get(method);
+        if (cell == null || cell.key.minute() != minute) {
+            cell = cells.computeIfAbsent(new RollupKey(method, minute), RollupCell::new);
+            currentCells.put(method, cell);
+        }
+        cell.add(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Записывает агрегаты завершившихся минут и удаляет их из памяти.
+     *
+     * <p>Если получатель завершился ошибкой, агрегаты остаются в памяти до следующей попытки.</p>
+     *
+     * @param all {@code true}, чтобы записать и незавершённые минуты
+     * @return число записанных агрегатов
+     * @throws Exception если агрегаты не удалось записать
+     */
+    public int flush(boolean all) throws Exception {
+        long beforeMinute = all ? Long.MAX_VALUE
+                : Math.floorDiv(clockMillis.getAsLong(), MINUTE_MILLIS) - GRACE_MINUTES;
+        List<RollupCell> ready = new ArrayList<>();
+        for (RollupCell cell : cells.values()) {
+            if (cell.key.minute() < beforeMinute) {
+                ready.add(cell);
+            }
+        }
+        if (ready.isEmpty()) {
+            return 0;
+        }
+        List<AuditRollup> rollups = new ArrayList<>(ready.size());
+        for (RollupCell cell : ready) {
+            rollups.add(cell.snapshot());
+        }
+        sink.write(rollups);
+        for (RollupCell cell : ready) {
+            cells.remove(cell.key, cell);
+            currentCells.remove(cell.key.method(), cell);
+        }
+        return rollups.size();
+    }
+
+    /**
+     * Запускает запись агрегатов в фоновом потоке с заданным интервалом.
+     *
+     * @param intervalSeconds интервал записи, с
+     */
+    public synchronized void start(long intervalSeconds) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> flushSafely(false), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Останавливает фоновый поток и записывает все накопленные агрегаты.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        flushSafely(true);
+    }
+
+    /**
+     * Возвращает индекс корзины гистограммы для времени выполнения.
+     *
+     * @param micros время выполнения, мкс
+     * @return индекс корзины
+     */
+    static int bucketOf(long micros) {
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            if (micros <= BUCKET_BOUNDS_MICROS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MICROS.length;
+    }
+
+    private void flushSafely(boolean all) {
+        try {
+            flush(all);
+        } catch (Exception e) {
+            System.err.println("Ошибка записи агрегатов аудита: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ключ ячейки агрегата: метод и номер минуты от начала эпохи.
+     */
+    private record RollupKey(String method, long minute) {
+    }
+
+    /**
+     * Счётчики вызовов метода за одну минуту.
+     */
+    private static final class RollupCell {
+
+        private final RollupKey key;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+
+        RollupCell(RollupKey key) {
+            this.key = key;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void add(long micros) {
+            count.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+            buckets[bucketOf(micros)].increment();
+        }
+
+        AuditRollup snapshot() {
+            long[] bucketCounts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                bucketCounts[i] = buckets[i].sum();
+            }
+            return new AuditRollup(key.method(), new Timestamp(key.minute() * MINUTE_MILLIS),
+                    count.sum(), totalMicros.sum(), maxMicros.get(), bucketCounts);
+        }
+    }
+}
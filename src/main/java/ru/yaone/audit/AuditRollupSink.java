@@ -0,0 +1,18 @@
+package ru.yaone.audit;
+
+import java.util.List;
+
+/**
+ * Интерфейс получателя поминутных агрегатов аудита.
+ */
+@FunctionalInterface
+public interface AuditRollupSink {
+
+    /**
+     * Записывает агрегаты, прибавляя их к уже записанным за те же метод и минуту.
+     *
+     * @param rollups непустой список агрегатов
+     * @throws Exception если агрегаты не удалось записать
+     */
+    void write(List<AuditRollup> rollups) throws Exception;
+}
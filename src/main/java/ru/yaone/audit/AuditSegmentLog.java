@@ -0,0 +1,358 @@
+package ru.yaone.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Класс {@code AuditSegmentLog} — журнал записей аудита на локальном диске, ожидающих
+ * вставки в {@code audit_log}.
+ *
+ * <p>Журнал состоит из кольца файлов-сегментов фиксированного размера, отображённых в память
+ * ({@link MappedByteBuffer}). Сегмент с порядковым номером {@code seq} хранится в файле
+ * {@code segment-(seq % maxSegments).seg}, поэтому диск занят не более чем
+ * {@code maxSegments * segmentBytes} байтами. Если кольцо заполнено, самый старый
+ * непрочитанный сегмент перезаписывается и учитывается как потерянный.</p>
+ *
+ * <p>Формат записи: длина данных ({@code int}), CRC32 данных ({@code int}), номер сегмента
+ * ({@code long}), данные. Длина пишется последней. Чтение сегмента останавливается на первой
+ * записи с нулевой длиной, чужим номером сегмента (остаток прошлого круга) или неверной
+ * контрольной суммой (запись, оборванная падением процесса).</p>
+ *
+ * <p>Позиция чтения сохраняется в файле {@code checkpoint} после каждого подтверждённого
+ * пакета, поэтому после перезапуска повторно вставляется не больше одного пакета.
+ * Методы синхронизированы: журнал пишет поток записи аудита, а читает поток повтора.</p>
+ */
+public class AuditSegmentLog implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+    private static final int NULL_LENGTH = -1;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final FileChannel checkpointChannel;
+    private final ByteBuffer checkpointBuffer = ByteBuffer.allocate(Long.BYTES * 2);
+    private final ByteArrayOutputStream encodeBuffer = new ByteArrayOutputStream(1024);
+    private final DataOutputStream encoder = new DataOutputStream(encodeBuffer);
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer writeSegment;
+    private long writeSeq;
+    private int writeOffset;
+
+    private MappedByteBuffer readSegment;
+    private long readSeq = -1;
+    private long replaySeq;
+    private int replayOffset;
+
+    private long appended;
+    private long replayed;
+    private long lostSegments;
+    private long rejected;
+
+    /**
+     * Открывает журнал в каталоге, восстанавливая позиции записи и чтения.
+     *
+     * @param directory    каталог сегментов
+     * @param segmentBytes размер сегмента, байт
+     * @param maxSegments  число сегментов в кольце
+     * @throws IOException если каталог или файлы сегментов недоступны
+     */
+    public AuditSegmentLog(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes <= HEADER_BYTES || maxSegments < 2) {
+            throw new IllegalArgumentException("Размер сегмента или число сегментов заданы неверно");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.checkpointChannel = FileChannel.open(directory.resolve("checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        readCheckpoint();
+        recover();
+    }
+
+    /**
+     * Дописывает события в журнал.
+     *
+     * @param events события аудита
+     * @throws IOException если не удалось отобразить очередной сегмент
+     */
+    public synchronized void append(List<AuditEvent> events) throws IOException {
+        for (AuditEvent event : events) {
+            byte[] payload = encode(event);
+            if (HEADER_BYTES + payload.length > segmentBytes) {
+                rejected++;
+                continue;
+            }
+            if (writeOffset + HEADER_BYTES + payload.length > segmentBytes) {
+                roll();
+            }
+            crc.reset();
+            crc.update(payload);
+            writeSegment.put(writeOffset + HEADER_BYTES, payload);
+            writeSegment.putLong(writeOffset + Integer.BYTES * 2, writeSeq);
+            writeSegment.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            writeSegment.putInt(writeOffset, payload.length);
+            writeOffset += HEADER_BYTES + payload.length;
+            appended++;
+        }
+    }
+
+    /**
+     * Читает очередной пакет записей, не сдвигая сохранённую позицию чтения.
+     *
+     * @param maxRecords максимальное число записей в пакете
+     * @return пакет записей и позиция сразу после него; пустой пакет, если журнал прочитан
+     * @throws IOException если не удалось отобразить сегмент
+     */
+    public synchronized ReplayBatch read(int maxRecords) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        long seq = replaySeq;
+        int offset = replayOffset;
+        while (events.size() < maxRecords && (seq < writeSeq || offset < writeOffset)) {
+            MappedByteBuffer segment = segmentFor(seq);
+            int length = recordLength(segment, offset, seq);
+            if (length < 0) {
+                if (seq < writeSeq) {
+                    seq++;
+                    offset = 0;
+                } else {
+                    offset = writeOffset;
+                }
+                continue;
+            }
+            events.add(decode(segment.slice(offset + HEADER_BYTES, length)));
+            offset += HEADER_BYTES + length;
+        }
+        return new ReplayBatch(events, seq, offset);
+    }
+
+    /**
+     * Подтверждает, что пакет вставлен в базу данных, и сохраняет позицию чтения.
+     *
+     * @param batch пакет, полученный от {@link #read(int)}
+     * @throws IOException если не удалось записать файл позиции
+     */
+    public synchronized void commit(ReplayBatch batch) throws IOException {
+        replayed += batch.events().size();
+        if (batch.seq() < replaySeq || batch.seq() == replaySeq && batch.offset() <= replayOffset) {
+            return;
+        }
+        replaySeq = batch.seq();
+        replayOffset = batch.offset();
+        writeCheckpoint();
+    }
+
+    /**
+     * Проверяет, что все записи журнала прочитаны и подтверждены.
+     *
+     * @return {@code true}, если журнал пуст
+     */
+    public synchronized boolean isEmpty() {
+        return replaySeq == writeSeq && replayOffset >= writeOffset;
+    }
+
+    /**
+     * Возвращает снимок статистики журнала.
+     *
+     * @param degraded находится ли запись аудита в режиме записи на диск
+     * @return статистика журнала
+     */
+    public synchronized SpillStats getStats(boolean degraded) {
+        return new SpillStats(
+                degraded,
+                isEmpty() ? 0 : writeSeq - replaySeq + 1,
+                appended,
+                replayed,
+                lostSegments,
+                rejected);
+    }
+
+    /**
+     * Сбрасывает сегмент и позицию чтения на диск и закрывает журнал.
+     *
+     * @throws IOException если не удалось записать файл позиции
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writeSegment.force();
+        writeCheckpoint();
+        checkpointChannel.force(true);
+        checkpointChannel.close();
+    }
+
+    private void roll() throws IOException {
+        writeSegment.force();
+        writeSeq++;
+        writeOffset = 0;
+        if (writeSeq - replaySeq >= maxSegments) {
+            long oldest = writeSeq - maxSegments + 1;
+            lostSegments += oldest - replaySeq;
+            replaySeq = oldest;
+            replayOffset = 0;
+            readSeq = -1;
+            writeCheckpoint();
+        }
+        writeSegment = map(writeSeq);
+    }
+
+    private MappedByteBuffer segmentFor(long seq) throws IOException {
+        if (seq == writeSeq) {
+            return writeSegment;
+        }
+        if (seq != readSeq) {
+            readSegment = map(seq);
+            readSeq = seq;
+        }
+        return readSegment;
+    }
+
+    private int recordLength(MappedByteBuffer segment, int offset, long seq) {
+        if (offset + HEADER_BYTES > segmentBytes) {
+            return -1;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes
+                || segment.getLong(offset + Integer.BYTES * 2) != seq) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(segment.slice(offset + HEADER_BYTES, length));
+        return (int) crc.getValue() == segment.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    private void recover() throws IOException {
+        long lastSeq = -1;
+        for (int slot = 0; slot < maxSegments; slot++) {
+            Path path = segmentPath(slot);
+            if (!Files.exists(path) || Files.size(path) < segmentBytes) {
+                continue;
+            }
+            MappedByteBuffer segment = mapPath(path);
+            long seq = segment.getLong(Integer.BYTES * 2);
+            if (seq >= replaySeq && seq % maxSegments == slot && recordLength(segment, 0, seq) > 0) {
+                lastSeq = Math.max(lastSeq, seq);
+            }
+        }
+        if (lastSeq < 0) {
+            writeSeq = replaySeq;
+            writeOffset = 0;
+            replayOffset = 0;
+            writeSegment = map(writeSeq);
+            return;
+        }
+        writeSeq = lastSeq;
+        writeSegment = map(writeSeq);
+        int offset = 0;
+        int length;
+        while ((length = recordLength(writeSegment, offset, writeSeq)) > 0) {
+            offset += HEADER_BYTES + length;
+        }
+        writeOffset = offset;
+        if (replaySeq == writeSeq) {
+            replayOffset = Math.min(replayOffset, writeOffset);
+        }
+    }
+
+    private void readCheckpoint() throws IOException {
+        checkpointBuffer.clear();
+        if (checkpointChannel.read(checkpointBuffer, 0) == checkpointBuffer.capacity()) {
+            checkpointBuffer.flip();
+            replaySeq = checkpointBuffer.getLong();
+            replayOffset = (int) checkpointBuffer.getLong();
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        checkpointBuffer.clear();
+        checkpointBuffer.putLong(replaySeq).putLong(replayOffset).flip();
+        checkpointChannel.write(checkpointBuffer, 0);
+    }
+
+    private MappedByteBuffer map(long seq) throws IOException {
+        return mapPath(segmentPath((int) (seq % maxSegments)));
+    }
+
+    private MappedByteBuffer mapPath(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(int slot) {
+        return directory.resolve("segment-" + slot + ".seg");
+    }
+
+    private byte[] encode(AuditEvent event) throws IOException {
+        encodeBuffer.reset();
+        writeString(event.methodName());
+        writeString(event.methodArgs());
+        encoder.writeLong(event.executionTime());
+        writeString(event.result());
+        encoder.writeBoolean(event.timestamp() != null);
+        if (event.timestamp() != null) {
+            encoder.writeLong(event.timestamp().getTime());
+            encoder.writeInt(event.timestamp().getNanos());
+        }
+        writeString(event.callTree());
+        encoder.flush();
+        return encodeBuffer.toByteArray();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            encoder.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        encoder.writeInt(bytes.length);
+        encoder.write(bytes);
+    }
+
+    private static AuditEvent decode(ByteBuffer payload) {
+        String methodName = readString(payload);
+        String methodArgs = readString(payload);
+        long executionTime = payload.getLong();
+        String result = readString(payload);
+        Timestamp timestamp = null;
+        if (payload.get() != 0) {
+            timestamp = new Timestamp(payload.getLong());
+            timestamp.setNanos(payload.getInt());
+        }
+        return new AuditEvent(methodName, methodArgs, executionTime, result, timestamp, readString(payload));
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Запись (record), представляющая пакет событий, прочитанных из журнала.
+     *
+     * @param events  события пакета
+     * @param seq     номер сегмента позиции сразу после пакета
+     * @param offset  смещение позиции сразу после пакета
+     */
+    public record ReplayBatch(List<AuditEvent> events, long seq, int offset) {
+    }
+}
@@ -0,0 +1,24 @@
+package ru.yaone.audit;
+
+import java.util.List;
+
+/**
+ * Интерфейс получателя пакетов событий аудита.
+ */
+@FunctionalInterface
+public interface AuditSink {
+
+    /**
+     * Записывает пакет событий.
+     *
+     * @param events непустой список событий; список переиспользуется после возврата из метода
+     * @throws Exception если пакет не удалось записать
+     */
+    void write(List<AuditEvent> events) throws Exception;
+
+    /**
+     * Освобождает ресурсы получателя после записи последнего пакета.
+     */
+    default void close() {
+    }
+}
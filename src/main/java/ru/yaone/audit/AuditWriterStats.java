@@ -0,0 +1,27 @@
+package ru.yaone.audit;
+
+/**
+ * Запись (record), представляющая снимок состояния асинхронной записи аудита.
+ *
+ * @param queueDepth      число событий в очереди
+ * @param capacity        ёмкость очереди
+ * @param overflowPolicy  политика переполнения очереди
+ * @param enqueued        число событий, принятых в очередь
+ * @param written         число событий, записанных получателем
+ * @param dropped         число событий, потерянных из-за переполнения очереди
+ * @param failed          число событий, потерянных из-за ошибок записи
+ * @param batches         число записанных пакетов
+ * @param meanFlushMicros среднее время записи пакета, мкс
+ * @param maxFlushMicros  максимальное время записи пакета, мкс
+ */
+public record AuditWriterStats(int queueDepth,
+                               int capacity,
+                               OverflowPolicy overflowPolicy,
+                               long enqueued,
+                               long written,
+                               long dropped,
+                               long failed,
+                               long batches,
+                               double meanFlushMicros,
+                               double maxFlushMicros) {
+}
@@ -0,0 +1,66 @@
+package ru.yaone.audit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Узел дерева вызовов, собранного аспектом аудита за один вызов верхнего уровня.
+ *
+ * <p>Смещение и длительность хранятся в наносекундах; смещение отсчитывается
+ * от начала корневого вызова.</p>
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CallSpan {
+
+    private final String name;
+    private final long offsetNanos;
+    private long durationNanos;
+    private final List<CallSpan> children = new ArrayList<>(2);
+
+    CallSpan(String name, long offsetNanos) {
+        this.name = name;
+        this.offsetNanos = offsetNanos;
+    }
+
+    /**
+     * Возвращает имя вызова в виде {@code Класс.метод}.
+     *
+     * @return имя вызова
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает смещение начала вызова относительно начала корневого вызова.
+     *
+     * @return смещение, нс
+     */
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    /**
+     * Возвращает длительность вызова.
+     *
+     * @return длительность, нс
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Возвращает вложенные вызовы в порядке их начала.
+     *
+     * @return список вложенных вызовов
+     */
+    public List<CallSpan> getChildren() {
+        return children;
+    }
+
+    void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+}
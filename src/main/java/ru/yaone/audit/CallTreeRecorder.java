@@ -0,0 +1,91 @@
+package ru.yaone.audit;
+
+import java.util.ArrayDeque;
+
+/**
+ * Класс {@code CallTreeRecorder} собирает вложенные вызовы текущего потока в дерево {@link CallSpan}.
+ *
+ * <p>Первый вызов {@link #enter(String)} в потоке открывает корень дерева, каждый следующий
+ * добавляет дочерний узел к текущему. {@link #exit()} закрывает текущий узел и возвращает
+ * корень, когда закрыт последний из них. Число узлов в одном дереве ограничено:
+ * вызовы сверх лимита учитываются в длительности родителя, но в дерево не попадают.</p>
+ */
+public final class CallTreeRecorder {
+
+    private static final CallSpan OVERFLOW = new CallSpan("", 0);
+
+    private final int maxSpans;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * Создаёт регистратор дерева вызовов.
+     *
+     * @param maxSpans максимальное число узлов в одном дереве
+     */
+    public CallTreeRecorder(int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * Открывает узел для начавшегося вызова.
+     *
+     * @param name имя вызова
+     */
+    public void enter(String name) {
+        State current = state.get();
+        long now = System.nanoTime();
+        if (current.stack.isEmpty()) {
+            current.rootStartNanos = now;
+            current.spanCount = 1;
+            current.stack.push(new CallSpan(name, 0));
+            return;
+        }
+        if (current.spanCount >= maxSpans) {
+            current.stack.push(OVERFLOW);
+            return;
+        }
+        CallSpan span = new CallSpan(name, now - current.rootStartNanos);
+        current.spanCount++;
+        CallSpan parent = current.stack.peek();
+        if (parent != OVERFLOW) {
+            parent.getChildren().add(span);
+        }
+        current.stack.push(span);
+    }
+
+    /**
+     * Закрывает текущий узел.
+     *
+     * @return корень дерева, если закрыт корневой вызов, иначе {@code null}
+     * @throws IllegalStateException если в потоке нет открытых узлов
+     */
+    public CallSpan exit() {
+        State current = state.get();
+        CallSpan span = current.stack.poll();
+        if (span == null) {
+            throw new IllegalStateException("Нет открытого вызова в текущем потоке");
+        }
+        if (span != OVERFLOW) {
+            span.setDurationNanos(System.nanoTime() - current.rootStartNanos - span.getOffsetNanos());
+        }
+        return current.stack.isEmpty() ? span : null;
+    }
+
+    /**
+     * Проверяет, открыт ли в текущем потоке корневой вызов.
+     *
+     * @return {@code true}, если текущий вызов вложенный
+     */
+    public boolean isNested() {
+        return !state.get().stack.isEmpty();
+    }
+
+    /**
+     * Состояние дерева вызовов одного потока.
+     */
+    private static final class State {
+        private final ArrayDeque<CallSpan> stack = new ArrayDeque<>();
+        private long rootStartNanos;
+        private int spanCount;
+    }
+}
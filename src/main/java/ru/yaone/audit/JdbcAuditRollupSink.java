@@ -0,0 +1,55 @@
+package ru.yaone.audit;
+
+import ru.yaone.constants.SqlScriptsForAudit;
+import ru.yaone.manager.DatabaseConnectionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Получатель поминутных агрегатов, записывающий их в таблицу {@code audit_rollup}
+ * одним JDBC-пакетом в одной транзакции.
+ *
+ * <p>Запись выполняется как {@code INSERT ... ON CONFLICT DO UPDATE}: агрегаты нескольких
+ * экземпляров приложения за одну минуту складываются, а не перезаписывают друг друга.</p>
+ */
+public class JdbcAuditRollupSink implements AuditRollupSink {
+
+    /**
+     * Записывает агрегаты в базу данных.
+     *
+     * @param rollups агрегаты для записи
+     * @throws SQLException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Override
+    public void write(List<AuditRollup> rollups) throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForAudit.UPSERT_ROLLUP)) {
+                for (AuditRollup rollup : rollups) {
+                    Long[] bucketCounts = new Long[rollup.bucketCounts().length];
+                    for (int i = 0; i < bucketCounts.length; i++) {
+                        bucketCounts[i] = rollup.bucketCounts()[i];
+                    }
+                    preparedStatement.setString(1, rollup.methodName());
+                    preparedStatement.setTimestamp(2, rollup.minute());
+                    preparedStatement.setLong(3, rollup.callCount());
+                    preparedStatement.setLong(4, rollup.totalMicros());
+                    preparedStatement.setLong(5, rollup.maxMicros());
+                    preparedStatement.setArray(6, conn.createArrayOf("bigint", bucketCounts));
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
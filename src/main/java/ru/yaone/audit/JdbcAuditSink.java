@@ -0,0 +1,50 @@
+package ru.yaone.audit;
+
+import ru.yaone.constants.SqlScriptsForAudit;
+import ru.yaone.manager.DatabaseConnectionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Получатель событий аудита, записывающий их в таблицу {@code audit_log}
+ * одним JDBC-пакетом ({@code addBatch/executeBatch}) в одной транзакции.
+ *
+ * <p>Аргументы и результат приходят уже превращёнными в строки в потоке вызова.</p>
+ */
+public class JdbcAuditSink implements AuditSink {
+
+    /**
+     * Записывает пакет событий в базу данных.
+     *
+     * @param events события для записи
+     * @throws SQLException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Override
+    public void write(List<AuditEvent> events) throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForAudit.INSERT_EVENTS)) {
+                for (AuditEvent event : events) {
+                    preparedStatement.setString(1, event.methodName());
+                    preparedStatement.setString(2, event.methodArgs());
+                    preparedStatement.setLong(3, event.executionTime());
+                    preparedStatement.setString(4, event.result());
+                    preparedStatement.setTimestamp(5, event.timestamp());
+                    preparedStatement.setString(6, event.callTree());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
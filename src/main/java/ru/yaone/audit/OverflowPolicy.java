@@ -0,0 +1,21 @@
+package ru.yaone.audit;
+
+/**
+ * Перечисление, определяющее поведение очереди аудита при переполнении.
+ */
+public enum OverflowPolicy {
+    /**
+     * Поток, записывающий событие, ждёт освобождения места в очереди.
+     */
+    BLOCK,
+
+    /**
+     * Из очереди вытесняется самое старое событие.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Новое событие отбрасывается, счётчик потерь увеличивается.
+     */
+    DROP
+}
@@ -0,0 +1,19 @@
+package ru.yaone.audit;
+
+/**
+ * Запись (record), представляющая снимок состояния дискового журнала аудита.
+ *
+ * @param degraded        пишутся ли новые пакеты на диск вместо базы данных
+ * @param pendingSegments число сегментов с непрочитанными записями
+ * @param spilled         число записей, сохранённых на диск
+ * @param replayed        число записей, повторно вставленных в базу данных
+ * @param lostSegments    число сегментов, перезаписанных до повтора из-за переполнения кольца
+ * @param rejected        число записей, не поместившихся в один сегмент
+ */
+public record SpillStats(boolean degraded,
+                         long pendingSegments,
+                         long spilled,
+                         long replayed,
+                         long lostSegments,
+                         long rejected) {
+}
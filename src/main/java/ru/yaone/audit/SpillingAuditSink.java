@@ -0,0 +1,138 @@
+package ru.yaone.audit;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Получатель событий аудита, который при недоступной или медленной базе данных
+ * сохраняет записи в дисковый журнал {@link AuditSegmentLog}.
+ *
+ * <p>Пока база данных отвечает быстрее {@code slowFlushMillis}, пакеты вставляются
+ * напрямую. Ошибка вставки или медленная вставка переводят получателя в режим записи
+ * на диск: следующие пакеты только дописываются в журнал, и очередь аудита не
+ * упирается в базу данных. Фоновый поток повтора переносит журнал в {@code audit_log}
+ * и возвращает прямую запись, как только журнал опустеет.</p>
+ */
+public class SpillingAuditSink implements AuditSink {
+
+    private final JdbcAuditSink jdbcSink;
+    private final AuditSegmentLog segmentLog;
+    private final long slowFlushNanos;
+    private final int replayBatchSize;
+    private final long replayIntervalNanos;
+    private final Thread replayer;
+
+    private volatile boolean degraded;
+    private volatile boolean running = true;
+
+    /**
+     * Создаёт получателя и запускает поток повтора.
+     *
+     * @param jdbcSink             получатель, вставляющий записи в базу данных
+     * @param segmentLog           дисковый журнал
+     * @param slowFlushMillis      время вставки пакета, после которого запись уходит на диск, мс
+     * @param replayBatchSize      размер пакета повтора
+     * @param replayIntervalMillis интервал попыток повтора, мс
+     */
+    public SpillingAuditSink(JdbcAuditSink jdbcSink, AuditSegmentLog segmentLog, long slowFlushMillis,
+                             int replayBatchSize, long replayIntervalMillis) {
+        this.jdbcSink = jdbcSink;
+        this.segmentLog = segmentLog;
+        this.slowFlushNanos = TimeUnit.MILLISECONDS.toNanos(slowFlushMillis);
+        this.replayBatchSize = replayBatchSize;
+        this.replayIntervalNanos = TimeUnit.MILLISECONDS.toNanos(replayIntervalMillis);
+        this.degraded = !segmentLog.isEmpty();
+        this.replayer = new Thread(this::runReplay, "audit-replayer");
+        this.replayer.setDaemon(true);
+        this.replayer.start();
+    }
+
+    /**
+     * Записывает пакет в базу данных или, в режиме записи на диск, в журнал.
+     *
+     * @param events события для записи
+     * @throws IOException если пакет не удалось записать и на диск
+     */
+    @Override
+    public void write(List<AuditEvent> events) throws IOException {
+        if (degraded) {
+            segmentLog.append(events);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            jdbcSink.write(events);
+        } catch (SQLException e) {
+            degraded = true;
+            segmentLog.append(events);
+            System.err.println("Аудит переключён на запись на диск: " + e.getMessage());
+            return;
+        }
+        if (System.nanoTime() - start > slowFlushNanos) {
+            degraded = true;
+        }
+    }
+
+    /**
+     * Останавливает поток повтора и закрывает журнал; непрочитанные записи
+     * останутся на диске до следующего запуска.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(replayer);
+        try {
+            replayer.join(TimeUnit.NANOSECONDS.toMillis(replayIntervalNanos) + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            segmentLog.close();
+        } catch (IOException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает снимок статистики дискового журнала.
+     *
+     * @return статистика журнала
+     */
+    public SpillStats getStats() {
+        return segmentLog.getStats(degraded);
+    }
+
+    /**
+     * Переносит журнал в базу данных, пока он не опустеет или вставка не завершится ошибкой.
+     */
+    void replayPending() {
+        try {
+            while (running) {
+                AuditSegmentLog.ReplayBatch batch = segmentLog.read(replayBatchSize);
+                if (batch.events().isEmpty()) {
+                    segmentLog.commit(batch);
+                    if (segmentLog.isEmpty()) {
+                        degraded = false;
+                    }
+                    return;
+                }
+                jdbcSink.write(batch.events());
+                segmentLog.commit(batch);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Ошибка повтора записей аудита: " + e.getMessage());
+        }
+    }
+
+    private void runReplay() {
+        while (running) {
+            LockSupport.parkNanos(this, replayIntervalNanos);
+            if (running && (degraded || !segmentLog.isEmpty())) {
+                replayPending();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.yaone.audit;
+
+/**
+ * Интерфейс краткого представления значения определённого типа в журнале аудита.
+ */
+@FunctionalInterface
+public interface ValueSummarizer {
+
+    /**
+     * Дописывает краткое представление значения в буфер.
+     *
+     * @param value значение, не {@code null}
+     * @param out   буфер для записи
+     */
+    void summarize(Object value, StringBuilder out);
+}
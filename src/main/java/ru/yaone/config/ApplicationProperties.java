@@ -0,0 +1,104 @@
+package ru.yaone.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Класс {@code ApplicationProperties} предоставляет доступ к настройкам приложения.
+ *
+ * <p>Настройки читаются один раз из файла {@code application.properties} в classpath.
+ * Любое значение можно переопределить системным свойством JVM с тем же ключом
+ * (например, {@code -Ddb.url=...}).</p>
+ */
+public final class ApplicationProperties {
+
+    /**
+     * Имя файла настроек в classpath.
+     */
+    public static final String FILE_NAME = "application.properties";
+
+    private static final Properties PROPERTIES = load();
+
+    private ApplicationProperties() {
+    }
+
+    /**
+     * Возвращает строковое значение настройки.
+     *
+     * @param key          ключ настройки
+     * @param defaultValue значение по умолчанию, если настройка не задана
+     * @return значение настройки или {@code defaultValue}
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPERTIES.getProperty(key);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Возвращает целочисленное значение настройки.
+     *
+     * @param key          ключ настройки
+     * @param defaultValue значение по умолчанию, если настройка не задана
+     * @return значение настройки или {@code defaultValue}
+     * @throws IllegalArgumentException если значение не является числом
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное числовое значение настройки " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Возвращает значение настройки типа {@code long}.
+     *
+     * @param key          ключ настройки
+     * @param defaultValue значение по умолчанию, если настройка не задана
+     * @return значение настройки или {@code defaultValue}
+     * @throws IllegalArgumentException если значение не является числом
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное числовое значение настройки " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Возвращает логическое значение настройки.
+     *
+     * @param key          ключ настройки
+     * @param defaultValue значение по умолчанию, если настройка не задана
+     * @return значение настройки или {@code defaultValue}
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = ApplicationProperties.class.getClassLoader().getResourceAsStream(FILE_NAME)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Ошибка чтения " + FILE_NAME + ": " + e.getMessage());
+        }
+        return properties;
+    }
+}
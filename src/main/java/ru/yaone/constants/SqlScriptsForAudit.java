@@ -16,10 +16,129 @@ public class SqlScriptsForAudit {
      * SQL-запрос для вставки новой записи в таблицу аудита.
      *
      * <p>Запрос вставляет имя метода, аргументы метода, время выполнения,
-     * результат и временную метку в таблицу {@code audit_log}.</p>
+     * результат, временную метку и дерево вложенных вызовов (jsonb) в таблицу {@code audit_log}.</p>
      */
     public static final String INSERT_EVENTS = """
-            INSERT INTO car_shop.audit_log (method_name, method_args, execution_time, result, timestamp)
-            VALUES (?, ?, ?, ?, ?)
+            INSERT INTO car_shop.audit_log (method_name, method_args, execution_time, result, timestamp, call_tree)
+            VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb))
             """;
-}
\ No newline at end of file
+
+    /**
+     * SQL-запрос для записи поминутного агрегата аудита.
+     *
+     * <p>Если агрегат за тот же метод и минуту уже записан, счётчики и корзины гистограммы
+     * складываются, а максимум пересчитывается.</p>
+     */
+    public static final String UPSERT_ROLLUP = """
+            INSERT INTO car_shop.audit_rollup (method_name, minute, call_count, total_micros, max_micros, bucket_counts)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (method_name, minute) DO UPDATE
+            SET call_count    = audit_rollup.call_count + EXCLUDED.call_count,
+                total_micros  = audit_rollup.total_micros + EXCLUDED.total_micros,
+                max_micros    = greatest(audit_rollup.max_micros, EXCLUDED.max_micros),
+                bucket_counts = (SELECT array_agg(t.a + t.b ORDER BY t.i)
+                                 FROM unnest(audit_rollup.bucket_counts, EXCLUDED.bucket_counts)
+                                          WITH ORDINALITY AS t(a, b, i))
+            """;
+
+    /**
+     * Начало SQL-запроса для чтения страницы журнала аудита.
+     *
+     * <p>К нему добавляются условия фильтра и {@link #ORDER_AUDIT_LOG_PAGE}.</p>
+     */
+    public static final String SELECT_AUDIT_LOG_PAGE = """
+            SELECT id, method_name, method_args, execution_time, result, timestamp, call_tree
+            FROM car_shop.audit_log
+            """;
+
+    /**
+     * Окончание SQL-запроса страницы журнала аудита: порядок по убыванию {@code (timestamp, id)} и размер страницы.
+     *
+     * <p>Порядок совпадает с индексами {@code idx_audit_log_timestamp_id} и
+     * {@code idx_audit_log_method_timestamp_id}, поэтому страница читается обратным проходом по индексу.</p>
+     */
+    public static final String ORDER_AUDIT_LOG_PAGE = """
+            ORDER BY timestamp DESC, id DESC
+            LIMIT ?
+            """;
+
+    /**
+     * SQL-запрос, проверяющий, что таблица {@code audit_log} секционирована.
+     */
+    public static final String IS_AUDIT_LOG_PARTITIONED = """
+            SELECT count(*)
+            FROM pg_partitioned_table pt
+                     JOIN pg_class c ON c.oid = pt.partrelid
+                     JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE n.nspname = 'car_shop'
+              AND c.relname = 'audit_log'
+            """;
+
+    /**
+     * SQL-запрос для получения секций таблицы {@code audit_log} и их границ.
+     *
+     * <p>Граница возвращается в виде {@code FOR VALUES FROM (...) TO (...)} или {@code DEFAULT}.</p>
+     */
+    public static final String SELECT_AUDIT_LOG_PARTITIONS = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+                     JOIN pg_class p ON p.oid = i.inhparent
+                     JOIN pg_namespace n ON n.oid = p.relnamespace
+            WHERE n.nspname = 'car_shop'
+              AND p.relname = 'audit_log'
+            """;
+
+    /**
+     * Шаблон DDL для создания суточной секции {@code audit_log}: имя секции, начало и конец диапазона.
+     */
+    public static final String CREATE_AUDIT_LOG_PARTITION = """
+            CREATE TABLE IF NOT EXISTS car_shop.%s PARTITION OF car_shop.audit_log
+            FOR VALUES FROM ('%s') TO ('%s')
+            """;
+
+    /**
+     * Шаблон DDL для удаления секции {@code audit_log} по имени.
+     */
+    public static final String DROP_AUDIT_LOG_PARTITION = """
+            DROP TABLE IF EXISTS car_shop.%s
+            """;
+
+    /**
+     * Шаблон запроса, проверяющего, есть ли в секции (обычно {@code DEFAULT}) строки
+     * из полуинтервала {@code [?, ?)}: имя секции.
+     */
+    public static final String EXISTS_AUDIT_LOG_ROWS_IN_RANGE = """
+            SELECT EXISTS (SELECT 1 FROM car_shop.%s WHERE "timestamp" >= ? AND "timestamp" < ?)
+            """;
+
+    /**
+     * Шаблон DDL для отключения секции от {@code audit_log} по имени.
+     */
+    public static final String DETACH_AUDIT_LOG_PARTITION = """
+            ALTER TABLE car_shop.audit_log DETACH PARTITION car_shop.%s
+            """;
+
+    /**
+     * Шаблон DDL для подключения таблицы секцией {@code DEFAULT} таблицы {@code audit_log}.
+     */
+    public static final String ATTACH_AUDIT_LOG_DEFAULT_PARTITION = """
+            ALTER TABLE car_shop.audit_log ATTACH PARTITION car_shop.%s DEFAULT
+            """;
+
+    /**
+     * Шаблон запроса, копирующего строки полуинтервала {@code [?, ?)} из отключённой секции
+     * в {@code audit_log}, где они попадают в новую суточную секцию: имя секции.
+     */
+    public static final String MOVE_AUDIT_LOG_ROWS = """
+            INSERT INTO car_shop.audit_log
+            SELECT * FROM car_shop.%s WHERE "timestamp" >= ? AND "timestamp" < ?
+            """;
+
+    /**
+     * Шаблон запроса, удаляющего из секции строки полуинтервала {@code [?, ?)}: имя секции.
+     */
+    public static final String DELETE_AUDIT_LOG_ROWS = """
+            DELETE FROM car_shop.%s WHERE "timestamp" >= ? AND "timestamp" < ?
+            """;
+}
@@ -67,13 +67,140 @@ public class SqlScriptsForCar {
             """;
 
     /**
-     * SQL-запрос для поиска автомобилей по различным критериям.
+     * Начало SQL-запроса для поиска автомобилей.
      *
-     * <p>Возвращает список автомобилей, удовлетворяющих критериям поиска по марке,
-     * модели, году, цене и состоянию.</p>
+     * <p>Условия поиска добавляются к нему построителем {@code CarQueryBuilder} только для
+     * заданных критериев, в виде сравнений на равенство и диапазонов, которые используют
+     * индексы {@code idx_cars_make_model_year} и {@code idx_cars_condition_price}.</p>
      */
     public static final String SEARCH_CARS = """
             SELECT id, make, model, year, price, condition FROM car_shop.cars
-            WHERE make LIKE ? AND model LIKE ? AND year LIKE ? AND price >= ? AND condition LIKE ?;
             """;
-}
\ No newline at end of file
+
+    /**
+     * SQL-запрос, устанавливающий порог сходства оператора {@code %} из {@code pg_trgm}
+     * до конца текущей транзакции.
+     */
+    public static final String SET_SIMILARITY_THRESHOLD = """
+            SELECT set_config('pg_trgm.similarity_threshold', ?, true)
+            """;
+
+    /**
+     * Начало SQL-запроса фасетов автомобилей: интервалы года и цены во вложенном запросе.
+     *
+     * <p>Параметры: ширина интервала года (дважды) и ширина интервала цены (дважды).
+     * Далее следует условие фильтра {@code CarQueryBuilder} и {@link #GROUP_CAR_FACETS}.</p>
+     */
+    public static final String SELECT_CAR_FACETS = """
+            SELECT make, condition, year_bucket, price_bucket,
+                   GROUPING(make, condition, year_bucket, price_bucket) AS grouping_id, count(*) AS car_count
+            FROM (SELECT make, condition, (year / ?) * ? AS year_bucket, floor(price / ?) * ? AS price_bucket
+                  FROM car_shop.cars
+            """;
+
+    /**
+     * Окончание SQL-запроса фасетов: все разрезы и общее число считаются за один проход
+     * по отфильтрованным строкам с помощью {@code GROUPING SETS}.
+     *
+     * <p>{@code grouping_id} указывает разрез строки: 7 — марка, 11 — состояние,
+     * 13 — интервал года, 14 — интервал цены, 15 — общее число.</p>
+     */
+    public static final String GROUP_CAR_FACETS = """
+                 ) filtered
+            GROUP BY GROUPING SETS ((make), (condition), (year_bucket), (price_bucket), ())
+            """;
+
+    /**
+     * SQL-запрос автомобилей с идентификатором в промежутке {@code (?, ?]}, например изменённых
+     * одной пачкой массового изменения цен.
+     */
+    public static final String GET_CARS_IN_ID_RANGE = """
+            SELECT id, make, model, year, price, condition FROM car_shop.cars WHERE id > ? AND id <= ?
+            """;
+
+    /**
+     * Условие допустимой цены для столбца {@code decimal(10,2)}: больше нуля и меньше 100 000 000.
+     */
+    public static final String VALID_PRICE = "BETWEEN 0.01 AND 99999999.99";
+
+    /**
+     * SQL-запрос похожих автомобилей, если их индекс не загружен: автомобили того же состояния
+     * по возрастанию расстояния {@code CarSimilarityIndex}.
+     *
+     * <p>Параметры: состояние, идентификатор автомобиля, марка, штраф за другую марку, год, число лет
+     * в единице расстояния, логарифм цены, логарифм шага цены, число автомобилей. Цена ограничена снизу
+     * одной копейкой, как в {@code CarSimilarityIndex.logPrice}, чтобы логарифм был определён.</p>
+     */
+    public static final String SIMILAR_CARS = """
+            SELECT id, make, model, year, price, condition
+            FROM car_shop.cars
+            WHERE condition = ? AND id <> ?
+            ORDER BY CASE WHEN make = ? THEN 0 ELSE ? END
+                         + sqrt(power((year - ?) / ?, 2) + power((ln(greatest(price, 0.01)) - ?) / ?, 2)), id
+            LIMIT ?
+            """;
+
+    /**
+     * SQL-запрос марок и моделей всех автомобилей для загрузки подсказок автодополнения.
+     */
+    public static final String GET_CAR_NAMES = """
+            SELECT id, make, model FROM car_shop.cars
+            """;
+
+    /**
+     * SQL-запрос подсказок автодополнения, если их индекс не загружен: марки и модели,
+     * начинающиеся с шаблона {@code LIKE} без учёта регистра, по убыванию числа автомобилей.
+     */
+    public static final String SUGGEST_CAR_NAMES = """
+            SELECT field, name, car_count
+            FROM (SELECT 'make' AS field, make AS name, count(*) AS car_count
+                  FROM car_shop.cars WHERE lower(make) LIKE ? ESCAPE '\\' GROUP BY make
+                  UNION ALL
+                  SELECT 'model', model, count(*)
+                  FROM car_shop.cars WHERE lower(model) LIKE ? ESCAPE '\\' GROUP BY model) names
+            ORDER BY car_count DESC, name, field
+            LIMIT ?
+            """;
+
+    /**
+     * Агрегаты SQL-запроса статистики цен; перед ними {@code CarQueryBuilder} ставит столбцы
+     * группировки, после — условие фильтра и {@code GROUP BY}.
+     */
+    public static final String AGGREGATE_CARS = """
+            count(*) AS car_count, sum(price) AS total_price, min(price) AS min_price, max(price) AS max_price
+            FROM car_shop.cars
+            """;
+
+    /**
+     * SQL-запрос для пакетной вставки автомобилей при импорте; идентификатор назначается
+     * значением по умолчанию столбца и возвращается как сгенерированный ключ.
+     */
+    public static final String IMPORT_CAR = """
+            INSERT INTO car_shop.cars (make, model, year, price, condition)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * SQL-запрос, резервирующий заданное число идентификаторов автомобилей одним обращением
+     * к последовательности {@code cars_id_seq}.
+     */
+    public static final String RESERVE_CAR_IDS = """
+            SELECT nextval('car_shop.cars_id_seq') FROM generate_series(1, ?)
+            """;
+
+    /**
+     * Команда PostgreSQL {@code COPY} для загрузки пачки автомобилей в формате CSV
+     * с заранее зарезервированными идентификаторами.
+     */
+    public static final String COPY_CARS = """
+            COPY car_shop.cars (id, make, model, year, price, condition) FROM STDIN (FORMAT csv)
+            """;
+
+    /**
+     * Шаблон команды PostgreSQL {@code COPY} для выгрузки результата запроса в формате CSV
+     * с заголовком; подставляется текст запроса без параметров.
+     */
+    public static final String COPY_CARS_OUT = """
+            COPY (%s) TO STDOUT (FORMAT csv, HEADER)
+            """;
+}
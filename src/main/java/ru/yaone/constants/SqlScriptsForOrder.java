@@ -27,36 +27,60 @@ public class SqlScriptsForOrder {
             """;
 
     /**
-     * SQL-запрос для получения всех заказов из таблицы {@code orders}.
+     * Столбцы таблицы {@code orders}, которые читаются всегда.
      *
-     * <p>Возвращает список всех заказов с информацией о клиентах и автомобилях,
-     * включая идентификаторы, имя клиента, контактные данные, идентификатор автомобиля,
-     * информацию о машине, дату создания заказа и его статус.</p>
+     * <p>Запросы чтения заказов собираются из этих фрагментов: соединения с {@code clients}
+     * и {@code cars} добавляются только для запрошенных через {@code expand} данных.</p>
      */
-    public static final String GET_ALL_ORDERS = """ 
-            SELECT o.id, o.client_id, c.client_name, c.contact_info,
-                   o.car_id, car.make, car.model, car.year, car.price, car.condition,
-                   o.creation_date, o.status
-            FROM car_shop.orders o
-            JOIN car_shop.clients c ON o.client_id = c.id
-            JOIN car_shop.cars car ON o.car_id = car.id;
-            """;
+    public static final String ORDER_COLUMNS = "o.id, o.client_id, o.car_id, o.creation_date, o.status";
+
+    /**
+     * Столбцы клиента заказа, читаются вместе с {@link #JOIN_CLIENTS}.
+     */
+    public static final String CLIENT_COLUMNS = "c.client_name, c.contact_info";
+
+    /**
+     * Столбцы автомобиля заказа, читаются вместе с {@link #JOIN_CARS}.
+     */
+    public static final String CAR_COLUMNS = "car.make, car.model, car.year, car.price, car.condition";
+
+    /**
+     * Основная таблица запросов чтения заказов.
+     */
+    public static final String FROM_ORDERS = "FROM car_shop.orders o";
+
+    /**
+     * Соединение с клиентом заказа.
+     */
+    public static final String JOIN_CLIENTS = "JOIN car_shop.clients c ON o.client_id = c.id";
 
     /**
-     * SQL-запрос для получения заказа по его идентификатору.
+     * Соединение с автомобилем заказа.
+     */
+    public static final String JOIN_CARS = "JOIN car_shop.cars car ON o.car_id = car.id";
+
+    /**
+     * Условие выбора заказа по его идентификатору.
+     */
+    public static final String BY_ID = "WHERE o.id = ?";
+
+    /**
+     * Условие выбора заказов, созданных в полуинтервале дат {@code [?, ?)}.
      *
-     * <p>Возвращает данные о конкретном заказе, включая информацию о клиенте и автомобиле,
-     * если заказ существует, с помощью его уникального идентификатора.</p>
+     * <p>Проверяется диапазоном индекса {@code idx_orders_creation_date_id}, поэтому время ответа
+     * зависит от числа заказов за период, а не от размера таблицы.</p>
      */
-    public static final String GET_ORDER_BY_ID = """
-            SELECT o.id, o.client_id, c.client_name, c.contact_info,
-                   o.car_id, car.make, car.model, car.year, car.price, car.condition,
-                   o.creation_date, o.status
-            FROM car_shop.orders o
-            JOIN car_shop.clients c ON o.client_id = c.id
-            JOIN car_shop.cars car ON o.car_id = car.id
-            WHERE o.id = ?;
-            """;
+    public static final String BY_CREATION_DATE = "WHERE o.creation_date >= ? AND o.creation_date < ?";
+
+    /**
+     * Дополнительное условие на статус заказа.
+     */
+    public static final String AND_STATUS = "AND o.status = ?";
+
+    /**
+     * Порядок заказов по дате создания, совпадающий с порядком индекса {@code idx_orders_creation_date_id}.
+     */
+    public static final String ORDER_BY_CREATION_DATE = "ORDER BY o.creation_date, o.id";
 
     /**
      * SQL-запрос для обновления информации о заказе.
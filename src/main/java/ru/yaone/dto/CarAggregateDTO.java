@@ -0,0 +1,54 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Класс {@code CarAggregateDTO} представляет статистику одной группы автомобилей.
+ *
+ * <p>Без полей группировки результат состоит из одной группы со всеми отобранными
+ * автомобилями; если их нет, число равно нулю, а цены — {@code null}.</p>
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarAggregateDTO {
+
+    /**
+     * Значения полей группировки в порядке запроса, например {@code {"year":2020,"condition":"NEW"}}.
+     */
+    private Map<String, Object> group = new LinkedHashMap<>();
+
+    /**
+     * Число автомобилей в группе.
+     */
+    private long count;
+
+    /**
+     * Сумма цен.
+     */
+    private BigDecimal totalPrice;
+
+    /**
+     * Средняя цена, округлённая до копеек.
+     */
+    private BigDecimal averagePrice;
+
+    /**
+     * Минимальная цена.
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * Максимальная цена.
+     */
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,72 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Класс {@code CarFacetsDTO} содержит число автомобилей, удовлетворяющих фильтру,
+ * в разрезе марки, состояния, интервала года выпуска и интервала цены.
+ *
+ * <p>Интервалы задаются нижней границей: {@code 2015} при ширине 5 означает годы
+ * 2015–2019, {@code 10000} при ширине 5000 — цены от 10000 до 15000 (не включая).</p>
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarFacetsDTO {
+
+    /**
+     * Общее число автомобилей, удовлетворяющих фильтру.
+     */
+    private long total;
+
+    /**
+     * Ширина интервала года выпуска.
+     */
+    private int yearBucketSize;
+
+    /**
+     * Ширина интервала цены.
+     */
+    private long priceBucketSize;
+
+    /**
+     * Число автомобилей по марке.
+     */
+    private Map<String, Long> makes;
+
+    /**
+     * Число автомобилей по состоянию.
+     */
+    private Map<String, Long> conditions;
+
+    /**
+     * Число автомобилей по нижней границе интервала года выпуска.
+     */
+    private Map<Integer, Long> years;
+
+    /**
+     * Число автомобилей по нижней границе интервала цены.
+     */
+    private Map<Long, Long> prices;
+
+    /**
+     * Создаёт пустые фасеты с упорядоченными разрезами.
+     *
+     * @param yearBucketSize  ширина интервала года выпуска
+     * @param priceBucketSize ширина интервала цены
+     * @return фасеты без автомобилей
+     */
+    public static CarFacetsDTO empty(int yearBucketSize, long priceBucketSize) {
+        return new CarFacetsDTO(0, yearBucketSize, priceBucketSize,
+                new TreeMap<>(), new LinkedHashMap<>(), new TreeMap<>(), new TreeMap<>());
+    }
+}
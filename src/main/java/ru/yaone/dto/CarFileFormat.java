@@ -0,0 +1,48 @@
+package ru.yaone.dto;
+
+import java.util.Locale;
+
+/**
+ * Перечисление, представляющее формат файла массового импорта и экспорта автомобилей.
+ */
+public enum CarFileFormat {
+    /**
+     * CSV с заголовком: при импорте столбцы {@code make}, {@code model}, {@code year}, {@code price}
+     * и {@code condition} в любом порядке, при экспорте перед ними ещё {@code id}.
+     */
+    CSV,
+
+    /**
+     * NDJSON: по одному JSON-объекту автомобиля в строке.
+     */
+    NDJSON;
+
+    /**
+     * Определяет формат по явному имени или по типу содержимого запроса.
+     *
+     * @param format      имя формата ({@code csv} или {@code ndjson}) или {@code null}
+     * @param contentType тип содержимого, например {@code text/csv; charset=UTF-8}, или {@code null}
+     * @return формат файла
+     * @throws IllegalArgumentException если формат не поддерживается
+     */
+    public static CarFileFormat of(String format, String contentType) {
+        if (format != null) {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+        String mediaType = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return switch (mediaType) {
+            case "text/csv" -> CSV;
+            case "application/x-ndjson", "application/ndjson", "application/jsonl" -> NDJSON;
+            default -> throw new IllegalArgumentException("Неподдерживаемый формат импорта: " + mediaType);
+        };
+    }
+
+    /**
+     * Возвращает тип содержимого HTTP-ответа с файлом этого формата.
+     *
+     * @return тип содержимого с кодировкой UTF-8
+     */
+    public String contentType() {
+        return this == CSV ? "text/csv; charset=UTF-8" : "application/x-ndjson; charset=UTF-8";
+    }
+}
@@ -0,0 +1,54 @@
+package ru.yaone.dto;
+
+import java.util.Locale;
+
+/**
+ * Перечисление, представляющее поле группировки статистики автомобилей.
+ */
+public enum CarGroupField {
+    /**
+     * Группировка по марке.
+     */
+    MAKE("make"),
+
+    /**
+     * Группировка по модели.
+     */
+    MODEL("model"),
+
+    /**
+     * Группировка по году выпуска.
+     */
+    YEAR("year"),
+
+    /**
+     * Группировка по состоянию.
+     */
+    CONDITION("condition");
+
+    private final String column;
+
+    CarGroupField(String column) {
+        this.column = column;
+    }
+
+    /**
+     * Возвращает имя столбца таблицы {@code cars}, оно же ключ поля в группе результата.
+     *
+     * @return имя столбца
+     */
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Возвращает поле группировки по имени столбца без учёта регистра.
+     *
+     * @param value имя поля, например {@code year}
+     * @return поле группировки
+     * @throws IllegalArgumentException если поле не поддерживается
+     */
+    public static CarGroupField of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.yaone.dto;
+
+import java.util.List;
+
+/**
+ * Запись (record), представляющая строку файла импорта, которая не была загружена.
+ *
+ * @param row      номер строки файла, с которой начинается запись, начиная с 1
+ * @param messages описания ошибок разбора и валидации
+ */
+public record CarImportError(long row, List<String> messages) {
+}
@@ -0,0 +1,48 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс {@code CarImportReportDTO} представляет итог массового импорта автомобилей.
+ *
+ * <p>Ошибочные строки пропускаются, остальные загружаются. В отчёт попадают ошибки
+ * не более чем {@code cars.import.maxErrors} строк; остальные учитываются только в {@link #failed}.</p>
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarImportReportDTO {
+
+    /**
+     * Число прочитанных строк с данными.
+     */
+    private long received;
+
+    /**
+     * Число загруженных автомобилей.
+     */
+    private long imported;
+
+    /**
+     * Число пропущенных строк.
+     */
+    private long failed;
+
+    /**
+     * Ошибки пропущенных строк в порядке следования в файле.
+     */
+    private List<CarImportError> errors = new ArrayList<>();
+
+    /**
+     * {@code true}, если ошибок больше, чем вошло в {@link #errors}.
+     */
+    private boolean errorsTruncated;
+}
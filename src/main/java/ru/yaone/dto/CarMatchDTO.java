@@ -0,0 +1,27 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+/**
+ * Класс {@code CarMatchDTO} представляет автомобиль, найденный нечётким поиском, и его оценку сходства.
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarMatchDTO {
+
+    /**
+     * Найденный автомобиль.
+     */
+    private CarDTO car;
+
+    /**
+     * Сходство марки и модели с поисковым запросом, от 0 до 1.
+     */
+    private double score;
+}
@@ -0,0 +1,52 @@
+package ru.yaone.dto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Запись (record), представляющая позицию в постраничном списке автомобилей.
+ *
+ * <p>Курсор указывает на последний отданный автомобиль: следующая страница начинается строго
+ * после пары {@code (значение поля сортировки, id)}. Поле и направление сортировки входят
+ * в курсор, чтобы его нельзя было применить к списку с другим порядком. Клиенту курсор
+ * передаётся непрозрачной строкой.</p>
+ *
+ * @param sort       поле сортировки
+ * @param descending {@code true} для сортировки по убыванию
+ * @param key        значение поля сортировки последнего автомобиля
+ * @param id         идентификатор последнего автомобиля
+ */
+public record CarPageCursor(CarSort sort, boolean descending, BigDecimal key, int id) {
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        String raw = sort.column() + ":" + (descending ? "d" : "a") + ":" + key.toPlainString() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает курсор из строки, полученной от {@link #encode()}.
+     *
+     * @param value строка курсора
+     * @return курсор
+     * @throws IllegalArgumentException если строка не является курсором
+     */
+    public static CarPageCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 4 || !(parts[1].equals("a") || parts[1].equals("d"))) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new CarPageCursor(CarSort.of(parts[0]), parts[1].equals("d"),
+                    new BigDecimal(parts[2]), Integer.parseInt(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор списка автомобилей", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Класс {@code CarPageDTO} представляет страницу списка автомобилей.
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarPageDTO {
+
+    /**
+     * Автомобили страницы.
+     */
+    private List<CarDTO> items;
+
+    /**
+     * Курсор следующей страницы или {@code null}, если страница последняя.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,37 @@
+package ru.yaone.dto;
+
+/**
+ * Запись (record), представляющая запрос страницы списка автомобилей.
+ *
+ * @param criteria   фильтр автомобилей
+ * @param sort       поле сортировки
+ * @param descending {@code true} для сортировки по убыванию
+ * @param cursor     позиция, после которой начинается страница, или {@code null} для первой страницы
+ * @param limit      размер страницы
+ */
+public record CarPageRequest(CarSearchCriteria criteria,
+                             CarSort sort,
+                             boolean descending,
+                             CarPageCursor cursor,
+                             int limit) {
+
+    /**
+     * Максимальный размер страницы.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Проверяет размер страницы и соответствие курсора порядку сортировки.
+     *
+     * @throws IllegalArgumentException если размер страницы вне диапазона от 1 до {@link #MAX_LIMIT}
+     *                                  или курсор получен для другого порядка
+     */
+    public CarPageRequest {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_LIMIT);
+        }
+        if (cursor != null && (cursor.sort() != sort || cursor.descending() != descending)) {
+            throw new IllegalArgumentException("Курсор получен для другого порядка сортировки");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Класс {@code CarPriceAdjustmentDTO} описывает массовое изменение цен автомобилей.
+ *
+ * <p>Новая цена — {@code price * (1 + percent / 100) + amount}, округлённая до кратного
+ * {@code roundTo}, если он задан, иначе до копеек. Незаданные поля не меняют цену.</p>
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarPriceAdjustmentDTO {
+
+    /**
+     * Изменение в процентах, например {@code -5}; больше -100.
+     */
+    private BigDecimal percent;
+
+    /**
+     * Прибавка к цене после изменения в процентах; может быть отрицательной.
+     */
+    private BigDecimal amount;
+
+    /**
+     * Шаг округления новой цены, например {@code 100}; положительный.
+     */
+    private BigDecimal roundTo;
+
+    /**
+     * Проверяет, что изменение задано и его поля допустимы.
+     *
+     * @throws IllegalArgumentException если ни одно поле не задано или поле вне допустимого диапазона
+     */
+    public void validate() {
+        if (percent == null && amount == null && roundTo == null) {
+            throw new IllegalArgumentException("Не задано изменение цены");
+        }
+        if (percent != null && percent.compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new IllegalArgumentException("Изменение в процентах должно быть больше -100");
+        }
+        if (roundTo != null && roundTo.signum() <= 0) {
+            throw new IllegalArgumentException("Шаг округления должен быть положительным");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+/**
+ * Класс {@code CarPriceAdjustmentReportDTO} представляет ход и итог массового изменения цен.
+ *
+ * <p>Во время изменения отчёт отправляется после каждой зафиксированной пачки, итоговый отчёт
+ * отмечен {@code done}.</p>
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarPriceAdjustmentReportDTO {
+
+    /**
+     * Пробный запуск: цены не меняются, считаются только автомобили.
+     */
+    private boolean dryRun;
+
+    /**
+     * Число автомобилей, подходящих под фильтр.
+     */
+    private long matched;
+
+    /**
+     * Число автомобилей, цена которых изменена или была бы изменена при пробном запуске.
+     */
+    private long updated;
+
+    /**
+     * Число подходящих автомобилей, новая цена которых вышла бы за допустимые пределы;
+     * их цена не меняется.
+     */
+    private long skipped;
+
+    /**
+     * Число зафиксированных пачек.
+     */
+    private int chunks;
+
+    /**
+     * Изменение завершено.
+     */
+    private boolean done;
+}
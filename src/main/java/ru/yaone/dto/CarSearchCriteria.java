@@ -0,0 +1,70 @@
+package ru.yaone.dto;
+
+import lombok.*;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Класс {@code CarSearchCriteria} описывает условия поиска автомобилей.
+ *
+ * <p>Каждое условие необязательно: {@code null} (или пустое множество состояний) означает
+ * «любое значение», и такое условие не попадает в SQL-запрос. Границы диапазонов
+ * года и цены включительные.</p>
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class CarSearchCriteria {
+
+    /**
+     * Марка автомобиля, точное совпадение.
+     */
+    private String make;
+
+    /**
+     * Модель автомобиля, точное совпадение.
+     */
+    private String model;
+
+    /**
+     * Минимальный год выпуска.
+     */
+    private Integer yearFrom;
+
+    /**
+     * Максимальный год выпуска.
+     */
+    private Integer yearTo;
+
+    /**
+     * Минимальная цена.
+     */
+    private Double minPrice;
+
+    /**
+     * Максимальная цена.
+     */
+    private Double maxPrice;
+
+    /**
+     * Допустимые состояния автомобиля.
+     */
+    private Set<CarCondition> conditions = EnumSet.noneOf(CarCondition.class);
+
+    /**
+     * Проверяет, что не задано ни одно условие.
+     *
+     * @return {@code true}, если условия поиска пусты
+     */
+    public boolean isEmpty() {
+        return make == null && model == null && yearFrom == null && yearTo == null
+                && minPrice == null && maxPrice == null && (conditions == null || conditions.isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package ru.yaone.dto;
+
+import java.util.Locale;
+
+/**
+ * Перечисление, представляющее поле сортировки постраничного списка автомобилей.
+ *
+ * <p>Страницы упорядочены по паре {@code (поле, id)}, поэтому порядок однозначен
+ * и при совпадающих значениях поля.</p>
+ */
+public enum CarSort {
+    /**
+     * Сортировка по идентификатору.
+     */
+    ID("id"),
+
+    /**
+     * Сортировка по цене.
+     */
+    PRICE("price"),
+
+    /**
+     * Сортировка по году выпуска.
+     */
+    YEAR("year");
+
+    private final String column;
+
+    CarSort(String column) {
+        this.column = column;
+    }
+
+    /**
+     * Возвращает имя столбца таблицы {@code cars}.
+     *
+     * @return имя столбца
+     */
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Возвращает поле сортировки по имени столбца без учёта регистра.
+     *
+     * @param value имя поля, например {@code price}
+     * @return поле сортировки
+     * @throws IllegalArgumentException если поле не поддерживается
+     */
+    public static CarSort of(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yaone.dto;
+
+import lombok.*;
+
+/**
+ * Класс {@code CarSuggestionDTO} представляет подсказку автодополнения: марку или модель
+ * и число автомобилей с ней в наличии.
+ *
+ * @author Ваше имя
+ * @version 1.0
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CarSuggestionDTO {
+
+    /**
+     * Поле подсказки: {@code make} или {@code model}.
+     */
+    private String field;
+
+    /**
+     * Значение марки или модели в написании из базы данных.
+     */
+    private String value;
+
+    /**
+     * Число автомобилей с этим значением.
+     */
+    private long count;
+}
@@ -1,5 +1,6 @@
 package ru.yaone.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
@@ -64,4 +65,33 @@ public class OrderDTO {
      */
     @NotNull(message = "Order status cannot be null")
     private OrderStatus status;
+
+    /**
+     * Клиент заказа.
+     *
+     * <p>Заполняется только при {@code expand=client}, иначе не попадает в JSON.</p>
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ClientDTO client;
+
+    /**
+     * Автомобиль заказа.
+     *
+     * <p>Заполняется только при {@code expand=car}, иначе не попадает в JSON.</p>
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CarDTO car;
+
+    /**
+     * Создаёт заказ без встроенных клиента и автомобиля.
+     *
+     * @param id           идентификатор заказа
+     * @param clientId     идентификатор клиента
+     * @param carId        идентификатор автомобиля
+     * @param creationDate дата и время создания заказа
+     * @param status       статус заказа
+     */
+    public OrderDTO(int id, int clientId, int carId, Instant creationDate, OrderStatus status) {
+        this(id, clientId, carId, creationDate, status, null, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.yaone.dto;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Перечисление связанных с заказом данных, которые можно встроить в ответ параметром {@code expand}.
+ *
+ * <p>Без {@code expand} заказ читается только из таблицы {@code orders}; каждое значение добавляет
+ * к запросу соединение с одной таблицей.</p>
+ */
+public enum OrderExpand {
+    /**
+     * Клиент, оформивший заказ.
+     */
+    CLIENT,
+
+    /**
+     * Заказанный автомобиль.
+     */
+    CAR;
+
+    /**
+     * Разбирает список значений через запятую без учёта регистра, например {@code client,car}.
+     *
+     * @param value список значений или {@code null}
+     * @return набор значений; пустой, если список не задан
+     * @throws IllegalArgumentException если значение не поддерживается
+     */
+    public static Set<OrderExpand> parse(String value) {
+        Set<OrderExpand> expand = EnumSet.noneOf(OrderExpand.class);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                expand.add(valueOf(item.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return expand;
+    }
+}
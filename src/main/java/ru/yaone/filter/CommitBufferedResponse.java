@@ -0,0 +1,160 @@
+package ru.yaone.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ответ, тело которого копится в памяти до фиксации транзакции запроса.
+ *
+ * <p>{@link TransactionFilter} оборачивает им ответы на изменяющие запросы: клиент получает тело
+ * только после успешной фиксации, а при ошибке фиксации буфер сбрасывается, и клиент видит ошибку
+ * вместо сообщения об успехе. Сброс потока сервлетом данные клиенту не отправляет.</p>
+ *
+ * <p>Сервлет, который пишет только уже зафиксированные данные (например, отчёты о пачках
+ * изменения цен), вызывает {@link #stream(ServletResponse)} до первой записи, и дальше ответ
+ * передаётся клиенту напрямую.</p>
+ */
+public class CommitBufferedResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean streaming;
+
+    CommitBufferedResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Переключает ответ на прямую запись, если он буферизуется до фиксации транзакции.
+     *
+     * @param response ответ сервлета, возможно обёрнутый
+     * @throws IOException если накопленные данные не удалось отправить
+     */
+    public static void stream(ServletResponse response) throws IOException {
+        while (response instanceof ServletResponseWrapper wrapper) {
+            if (wrapper instanceof CommitBufferedResponse buffered) {
+                buffered.release();
+                buffered.streaming = true;
+                return;
+            }
+            response = wrapper.getResponse();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (streaming) {
+            return super.getOutputStream();
+        }
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() уже вызван для этого ответа");
+        }
+        if (outputStream == null) {
+            outputStream = new BufferOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (streaming) {
+            return super.getWriter();
+        }
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() уже вызван для этого ответа");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(buffer, charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (streaming) {
+            super.flushBuffer();
+        } else if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        discard();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        discard();
+        super.reset();
+    }
+
+    /**
+     * Отправляет накопленное тело клиенту.
+     *
+     * @throws IOException если запись в ответ не удалась
+     */
+    void release() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (buffer.size() > 0) {
+            if (writer != null) {
+                super.getWriter().write(buffer.toString(charset()));
+            } else {
+                super.getOutputStream().write(buffer.toByteArray());
+            }
+            buffer.reset();
+        }
+    }
+
+    private void discard() {
+        buffer.reset();
+        outputStream = null;
+        writer = null;
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Поток, пишущий тело ответа в буфер.
+     */
+    private final class BufferOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Асинхронная запись не поддерживается");
+        }
+    }
+}
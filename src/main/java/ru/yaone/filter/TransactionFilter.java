@@ -0,0 +1,88 @@
+package ru.yaone.filter;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.yaone.manager.TransactionContext;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Фильтр, выполняющий каждый запрос к API в одной транзакции.
+ *
+ * <p>Перед вызовом сервлета открывает {@link TransactionContext}; все сервисы и аспект аудита,
+ * вызванные в рамках запроса, используют одно соединение из пула. Если обработка завершилась
+ * исключением, транзакция откатывается, иначе фиксируется. Запросы к {@code /api/metrics}
+ * выполняются без транзакции.</p>
+ *
+ * <p>Ответы на изменяющие запросы (все, кроме {@code GET}, {@code HEAD} и {@code OPTIONS})
+ * копятся в {@link CommitBufferedResponse} и отправляются клиенту только после фиксации: если она
+ * не удалась, накопленный ответ сбрасывается, и клиент получает ошибку вместо кода успеха.</p>
+ */
+@WebFilter(filterName = "TransactionFilter", urlPatterns = "/api/*")
+public class TransactionFilter implements Filter {
+
+    private static final String METRICS_PATH = "/api/metrics";
+
+    /**
+     * Выполняет запрос в рамках транзакции.
+     *
+     * @param request  объект {@link ServletRequest}, представляющий запрос
+     * @param response объект {@link ServletResponse}, представляющий ответ
+     * @param chain    цепочка фильтров
+     * @throws IOException      если происходит ошибка ввода/вывода
+     * @throws ServletException если происходит ошибка обработки запроса или фиксации транзакции
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (isExcluded(request) || TransactionContext.current() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CommitBufferedResponse buffered = isWrite(request, response)
+                ? new CommitBufferedResponse((HttpServletResponse) response)
+                : null;
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            try {
+                chain.doFilter(request, buffered != null ? buffered : response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+            try {
+                transaction.commit();
+            } catch (SQLException e) {
+                if (buffered != null && !response.isCommitted()) {
+                    buffered.reset();
+                }
+                throw new ServletException("Ошибка при фиксации транзакции", e);
+            }
+        }
+        if (buffered != null) {
+            buffered.release();
+        }
+    }
+
+    private static boolean isWrite(ServletRequest request, ServletResponse response) {
+        if (request instanceof HttpServletRequest httpRequest && response instanceof HttpServletResponse) {
+            String method = httpRequest.getMethod();
+            return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+        }
+        return false;
+    }
+
+    private static boolean isExcluded(ServletRequest request) {
+        if (request instanceof HttpServletRequest httpRequest) {
+            String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+            return path.startsWith(METRICS_PATH);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.yaone.impl;
+
+import ru.yaone.audit.AuditLogCursor;
+import ru.yaone.audit.AuditLogEntry;
+import ru.yaone.audit.AuditLogQuery;
+import ru.yaone.constants.SqlScriptsForAudit;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.services.AuditLogService;
+import ru.yaone.services.RowHandler;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация интерфейса AuditLogService, читающая журнал аудита страницами с курсором.
+ *
+ * <p>Класс намеренно не отмечен {@code @Loggable}: чтение журнала не должно порождать новые записи аудита.</p>
+ */
+public class AuditLogServiceImpl implements AuditLogService {
+
+    private static final int MAX_FETCH_SIZE = 500;
+
+    /**
+     * Потоково передаёт обработчику одну страницу журнала аудита.
+     *
+     * <p>Выбирается на одну строку больше размера страницы: если она нашлась, страница не
+     * последняя, и курсор указывает на последнюю отданную строку. Строки читаются порциями
+     * по {@code fetchSize}, поэтому страница не материализуется в памяти целиком.</p>
+     *
+     * @param query   фильтр и страница запроса
+     * @param handler обработчик строк страницы
+     * @return курсор следующей страницы или {@code null}, если страница последняя
+     * @throws IOException      если обработчик не смог записать строку
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Override
+    public AuditLogCursor streamAuditLog(AuditLogQuery query, RowHandler<AuditLogEntry> handler) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(query, params);
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            stmt.setFetchSize(Math.min(query.limit() + 1, MAX_FETCH_SIZE));
+            try (ResultSet rs = stmt.executeQuery()) {
+                AuditLogEntry last = null;
+                int count = 0;
+                while (rs.next()) {
+                    if (count == query.limit()) {
+                        return AuditLogCursor.after(last);
+                    }
+                    last = new AuditLogEntry(
+                            rs.getLong("id"),
+                            rs.getString("method_name"),
+                            rs.getString("method_args"),
+                            rs.getLong("execution_time"),
+                            rs.getString("result"),
+                            rs.getTimestamp("timestamp"),
+                            rs.getString("call_tree")
+                    );
+                    handler.handle(last);
+                    count++;
+                }
+                return null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при чтении журнала аудита", e);
+        }
+    }
+
+    /**
+     * Собирает SQL-запрос страницы по заданным условиям фильтра.
+     *
+     * @param query  фильтр и страница запроса
+     * @param params список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    static String buildQuery(AuditLogQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (query.methodName() != null) {
+            conditions.add("method_name = ?");
+            params.add(query.methodName());
+        }
+        if (query.from() != null) {
+            conditions.add("timestamp >= ?");
+            params.add(query.from());
+        }
+        if (query.to() != null) {
+            conditions.add("timestamp < ?");
+            params.add(query.to());
+        }
+        if (query.minExecutionTime() != null) {
+            conditions.add("execution_time >= ?");
+            params.add(query.minExecutionTime());
+        }
+        if (query.cursor() != null) {
+            conditions.add("(timestamp, id) < (?, ?)");
+            params.add(query.cursor().timestamp());
+            params.add(query.cursor().id());
+        }
+        params.add(query.limit() + 1);
+
+        StringBuilder sql = new StringBuilder(SqlScriptsForAudit.SELECT_AUDIT_LOG_PAGE);
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        return sql.append(SqlScriptsForAudit.ORDER_AUDIT_LOG_PAGE).toString();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.yaone.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFileFormat;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Класс {@code CarExportWriter} записывает автомобили в поток выгрузки по одному.
+ *
+ * <p>Запись буферизуется, но не накапливается: буфер сбрасывается в поток по заполнении,
+ * поэтому память не зависит от размера выгрузки. Поток не закрывается — им владеет вызывающий.</p>
+ */
+abstract class CarExportWriter implements Flushable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Открывает запись в заданном формате в кодировке UTF-8.
+     *
+     * @param format формат выгрузки
+     * @param output поток выгрузки
+     * @return писатель автомобилей
+     * @throws IOException если заголовок не удалось записать
+     */
+    static CarExportWriter open(CarFileFormat format, OutputStream output) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(output);
+            case NDJSON -> new Ndjson(output);
+        };
+    }
+
+    /**
+     * Записывает автомобиль.
+     *
+     * @param car автомобиль
+     * @throws IOException если запись не удалась
+     */
+    abstract void write(CarDTO car) throws IOException;
+
+    /**
+     * CSV с заголовком {@code id,make,model,year,price,condition}, совместимый с выводом
+     * {@code COPY ... TO STDOUT (FORMAT csv, HEADER)}: поле берётся в кавычки, только если
+     * оно пустое или содержит запятую, кавычку или перевод строки; цена — с двумя знаками.
+     */
+    static final class Csv extends CarExportWriter {
+
+        private final Writer writer;
+
+        Csv(OutputStream output) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("id,make,model,year,price,condition\n");
+        }
+
+        @Override
+        void write(CarDTO car) throws IOException {
+            writer.write(Integer.toString(car.getId()));
+            writer.write(',');
+            writeText(car.getMake());
+            writer.write(',');
+            writeText(car.getModel());
+            writer.write(',');
+            writer.write(Integer.toString(car.getYear()));
+            writer.write(',');
+            writer.write(BigDecimal.valueOf(car.getPrice()).setScale(2, RoundingMode.HALF_UP).toPlainString());
+            writer.write(',');
+            writer.write(car.getCondition().name());
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeText(String value) throws IOException {
+            boolean quote = value.isEmpty();
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (quote) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+    }
+
+    /**
+     * NDJSON: JSON-объект автомобиля в том же виде, что и в ответах {@code /api/cars}, и перевод строки.
+     */
+    static final class Ndjson extends CarExportWriter {
+
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream output) throws IOException {
+            generator = OBJECT_MAPPER.getFactory().createGenerator(output, JsonEncoding.UTF8);
+            // Объекты разделяются только переводом строки, без пробела между корневыми значениями.
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(CarDTO car) throws IOException {
+            generator.writeObject(car);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package ru.yaone.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.model.enumeration.CarCondition;
+import ru.yaone.validator.CarDTOValidator;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Класс {@code CarImportReader} читает файл импорта автомобилей по одной записи.
+ *
+ * <p>Файл разбирается по мере чтения из потока, поэтому в памяти держится только текущая
+ * запись. Каждая запись сразу проверяется {@link CarDTOValidator#validateNew(CarDTO)};
+ * ошибочная запись возвращается вместе с описаниями ошибок, и чтение продолжается
+ * со следующей.</p>
+ */
+abstract class CarImportReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] CSV_COLUMNS = {"make", "model", "year", "price", "condition"};
+
+    /**
+     * Запись файла импорта.
+     *
+     * @param line   номер строки файла, с которой начинается запись
+     * @param car    прочитанный автомобиль или {@code null}, если запись не разобрана
+     * @param errors ошибки разбора и валидации; пусто, если запись корректна
+     */
+    record Row(long line, CarDTO car, List<String> errors) {
+
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+
+    /**
+     * Открывает чтение файла заданного формата в кодировке UTF-8.
+     *
+     * @param format формат файла
+     * @param input  поток файла
+     * @return читатель записей
+     * @throws IOException              если поток не удалось прочитать
+     * @throws IllegalArgumentException если в заголовке CSV нет обязательного столбца
+     */
+    static CarImportReader open(CarFileFormat format, InputStream input) throws IOException {
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        return switch (format) {
+            case CSV -> new Csv(reader);
+            case NDJSON -> new Ndjson(reader);
+        };
+    }
+
+    /**
+     * Возвращает следующую запись.
+     *
+     * @return запись или {@code null}, если файл прочитан
+     * @throws IOException если поток не удалось прочитать
+     */
+    abstract Row next() throws IOException;
+
+    private static Row validated(long line, CarDTO car, List<String> errors) {
+        if (errors.isEmpty()) {
+            errors.addAll(CarDTOValidator.validateNew(car));
+        }
+        return new Row(line, errors.isEmpty() ? car : null, errors);
+    }
+
+    /**
+     * Чтение CSV по RFC 4180: поля в двойных кавычках могут содержать запятые,
+     * переводы строк и удвоенные кавычки. Первая запись — заголовок.
+     */
+    static final class Csv extends CarImportReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private final int[] columns = new int[CSV_COLUMNS.length];
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> fields = new ArrayList<>();
+        private final int columnCount;
+        private int position;
+        private int limit;
+        private long line = 1;
+        private long recordLine;
+        private boolean unterminated;
+
+        Csv(Reader reader) throws IOException {
+            this.reader = reader;
+            if (!readRecord()) {
+                throw new IllegalArgumentException("Файл CSV пуст");
+            }
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String name = fields.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                header.putIfAbsent(name, i);
+            }
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                Integer column = header.get(CSV_COLUMNS[i]);
+                if (column == null) {
+                    throw new IllegalArgumentException("В заголовке CSV нет столбца " + CSV_COLUMNS[i]);
+                }
+                columns[i] = column;
+            }
+            columnCount = fields.size();
+        }
+
+        @Override
+        Row next() throws IOException {
+            while (readRecord()) {
+                if (fields.size() == 1 && fields.get(0).isEmpty() && !unterminated) {
+                    continue;
+                }
+                List<String> errors = new ArrayList<>();
+                if (unterminated) {
+                    errors.add("Кавычка поля не закрыта до конца файла");
+                    return new Row(recordLine, null, errors);
+                }
+                if (fields.size() != columnCount) {
+                    errors.add("Ожидалось столбцов: " + columnCount + ", получено: " + fields.size());
+                    return new Row(recordLine, null, errors);
+                }
+                CarDTO car = new CarDTO();
+                car.setMake(fields.get(columns[0]).trim());
+                car.setModel(fields.get(columns[1]).trim());
+                String year = fields.get(columns[2]).trim();
+                try {
+                    car.setYear(Integer.parseInt(year));
+                } catch (NumberFormatException e) {
+                    errors.add("Год должен быть целым числом: '" + year + "'");
+                }
+                String price = fields.get(columns[3]).trim();
+                try {
+                    BigDecimal value = new BigDecimal(price);
+                    if (value.scale() > 2) {
+                        errors.add("Цена должна содержать не больше двух знаков после запятой: '" + price + "'");
+                    }
+                    car.setPrice(value.doubleValue());
+                } catch (NumberFormatException e) {
+                    errors.add("Цена должна быть числом: '" + price + "'");
+                }
+                String condition = fields.get(columns[4]).trim();
+                if (!condition.isEmpty()) {
+                    try {
+                        car.setCondition(CarCondition.valueOf(condition.toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        errors.add("Неизвестное состояние автомобиля: '" + condition + "'");
+                    }
+                }
+                return validated(recordLine, car, errors);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        /**
+         * Читает следующую запись в {@link #fields}.
+         *
+         * @return {@code false}, если файл прочитан
+         */
+        private boolean readRecord() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            unterminated = false;
+            recordLine = line;
+            int c = read();
+            if (c < 0) {
+                return false;
+            }
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        unterminated = true;
+                        fields.add(field.toString());
+                        return true;
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c < 0) {
+                    fields.add(field.toString());
+                    if (c == '\r') {
+                        c = read();
+                        if (c != '\n' && c >= 0) {
+                            position--;
+                        }
+                    }
+                    if (c >= 0) {
+                        line++;
+                    }
+                    return true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+
+    /**
+     * Чтение NDJSON: каждая непустая строка — JSON-объект автомобиля.
+     * Поле {@code id}, если оно есть, не используется: идентификатор назначает база данных.
+     */
+    static final class Ndjson extends CarImportReader {
+
+        private static final ObjectReader CAR_READER = new ObjectMapper().readerFor(CarDTO.class);
+
+        private final BufferedReader reader;
+        private long line;
+
+        Ndjson(Reader reader) {
+            this.reader = new BufferedReader(reader, BUFFER_SIZE);
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                List<String> errors = new ArrayList<>();
+                try {
+                    CarDTO car = CAR_READER.readValue(text);
+                    if (car == null) {
+                        errors.add("Строка должна быть JSON-объектом автомобиля");
+                        return new Row(line, null, errors);
+                    }
+                    return validated(line, car, errors);
+                } catch (JsonProcessingException e) {
+                    errors.add("Некорректный JSON: " + e.getOriginalMessage());
+                    return new Row(line, null, errors);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package ru.yaone.impl;
+
+import org.postgresql.core.Utils;
+import ru.yaone.constants.SqlScriptsForCar;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarPageRequest;
+import ru.yaone.dto.CarPriceAdjustmentDTO;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.dto.CarSort;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс {@code CarQueryBuilder} строит SQL-запросы поиска автомобилей по {@link CarSearchCriteria}.
+ *
+ * <p>В запрос попадают только заданные условия: равенство по марке и модели, диапазоны года
+ * и цены, {@code IN} по состояниям. Цена передаётся как {@link BigDecimal}, чтобы сравнение
+ * с {@code decimal} не приводило столбец к {@code double precision} и не отключало индекс.</p>
+ */
+public final class CarQueryBuilder {
+
+    private CarQueryBuilder() {
+    }
+
+    /**
+     * Строит запрос поиска автомобилей.
+     *
+     * @param criteria условия поиска
+     * @param params   список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String search(CarSearchCriteria criteria, List<Object> params) {
+        return SqlScriptsForCar.SEARCH_CARS + where(criteria, params) + "ORDER BY id\n";
+    }
+
+    /**
+     * Строит запрос фасетов автомобилей, удовлетворяющих критериям.
+     *
+     * @param criteria        условия поиска
+     * @param yearBucketSize  ширина интервала года
+     * @param priceBucketSize ширина интервала цены
+     * @param params          список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String facets(CarSearchCriteria criteria, int yearBucketSize, long priceBucketSize,
+                                List<Object> params) {
+        params.add(yearBucketSize);
+        params.add(yearBucketSize);
+        params.add(BigDecimal.valueOf(priceBucketSize));
+        params.add(BigDecimal.valueOf(priceBucketSize));
+        return SqlScriptsForCar.SELECT_CAR_FACETS + where(criteria, params) + SqlScriptsForCar.GROUP_CAR_FACETS;
+    }
+
+    /**
+     * Строит запрос статистики цен автомобилей в группах по заданным полям.
+     *
+     * @param criteria условия поиска
+     * @param groupBy  поля группировки; при пустом списке запрос возвращает одну строку
+     * @param params   список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String aggregate(CarSearchCriteria criteria, List<CarGroupField> groupBy, List<Object> params) {
+        List<String> columns = new ArrayList<>();
+        for (CarGroupField field : groupBy) {
+            columns.add(field.column());
+        }
+        String groupColumns = String.join(", ", columns);
+        String sql = "SELECT " + (columns.isEmpty() ? "" : groupColumns + ", ") + SqlScriptsForCar.AGGREGATE_CARS
+                + where(criteria, params);
+        return columns.isEmpty() ? sql : sql + "GROUP BY " + groupColumns + "\nORDER BY " + groupColumns + "\n";
+    }
+
+    /**
+     * Строит выражение новой цены автомобиля.
+     *
+     * @param adjustment изменение цены
+     * @param params     список, в который добавляются параметры выражения по порядку
+     * @return SQL-выражение от столбца {@code price}
+     */
+    public static String adjustedPrice(CarPriceAdjustmentDTO adjustment, List<Object> params) {
+        params.add(adjustment.getPercent() == null ? BigDecimal.ONE
+                : BigDecimal.ONE.add(adjustment.getPercent().movePointLeft(2)));
+        params.add(adjustment.getAmount() == null ? BigDecimal.ZERO : adjustment.getAmount());
+        if (adjustment.getRoundTo() == null) {
+            return "round(price * ? + ?, 2)";
+        }
+        params.add(adjustment.getRoundTo());
+        params.add(adjustment.getRoundTo());
+        return "round((price * ? + ?) / ?) * ?";
+    }
+
+    /**
+     * Строит запрос пробного изменения цен: число подходящих под фильтр автомобилей
+     * и число тех, чья новая цена допустима.
+     *
+     * @param criteria   фильтр автомобилей
+     * @param adjustment изменение цены
+     * @param params     список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String countPriceAdjustment(CarSearchCriteria criteria, CarPriceAdjustmentDTO adjustment,
+                                              List<Object> params) {
+        return "SELECT count(*) AS car_count,\n"
+                + "       count(CASE WHEN " + adjustedPrice(adjustment, params) + " " + SqlScriptsForCar.VALID_PRICE
+                + " THEN 1 END) AS updated_count\n"
+                + "FROM car_shop.cars\n"
+                + where(criteria, params);
+    }
+
+    /**
+     * Строит запрос границы следующей пачки изменения цен: наибольшего идентификатора и числа
+     * подходящих под фильтр автомобилей среди {@code size} следующих за {@code afterId}.
+     *
+     * @param criteria фильтр автомобилей
+     * @param afterId  идентификатор, после которого начинается пачка
+     * @param size     размер пачки
+     * @param params   список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String priceAdjustmentChunk(CarSearchCriteria criteria, int afterId, int size,
+                                              List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("id > ?");
+        params.add(afterId);
+        conditions.addAll(conditions(criteria, params));
+        params.add(size);
+        return "SELECT max(id) AS upper_id, count(*) AS car_count\n"
+                + "FROM (SELECT id FROM car_shop.cars WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY id LIMIT ?) chunk\n";
+    }
+
+    /**
+     * Строит запрос изменения цен подходящих под фильтр автомобилей с идентификатором
+     * в промежутке {@code (afterId, upperId]}; автомобили с недопустимой новой ценой не меняются.
+     *
+     * @param criteria   фильтр автомобилей
+     * @param adjustment изменение цены
+     * @param afterId    нижняя граница идентификатора, не включая
+     * @param upperId    верхняя граница идентификатора, включая
+     * @param params     список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String adjustPrices(CarSearchCriteria criteria, CarPriceAdjustmentDTO adjustment,
+                                      int afterId, int upperId, List<Object> params) {
+        String price = adjustedPrice(adjustment, params);
+        List<String> conditions = new ArrayList<>();
+        conditions.add("id > ?");
+        conditions.add("id <= ?");
+        params.add(afterId);
+        params.add(upperId);
+        conditions.addAll(conditions(criteria, params));
+        conditions.add(adjustedPrice(adjustment, params) + " " + SqlScriptsForCar.VALID_PRICE);
+        return "UPDATE car_shop.cars SET price = " + price + "\n"
+                + "WHERE " + String.join(" AND ", conditions) + "\n";
+    }
+
+    /**
+     * Строит условие {@code WHERE} по заданным критериям.
+     *
+     * @param criteria условия поиска
+     * @param params   список, в который добавляются параметры условия по порядку
+     * @return условие с переводом строки в конце или пустая строка, если критерии пусты
+     */
+    public static String where(CarSearchCriteria criteria, List<Object> params) {
+        List<String> conditions = conditions(criteria, params);
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n";
+    }
+
+    /**
+     * Строит запрос страницы списка автомобилей с поиском по ключу {@code (поле сортировки, id)}.
+     *
+     * <p>Следующая страница отбирается сравнением строк {@code (поле, id) > (?, ?)}, которое
+     * проходится индексом {@code (поле, id)} с позиции курсора, поэтому время страницы
+     * не зависит от её номера.</p>
+     *
+     * @param request запрос страницы
+     * @param params  список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса; выбирает на одну строку больше размера страницы
+     */
+    public static String page(CarPageRequest request, List<Object> params) {
+        List<String> conditions = conditions(request.criteria(), params);
+        String column = request.sort().column();
+        String direction = request.descending() ? " DESC" : "";
+        String comparison = request.descending() ? "<" : ">";
+        if (request.cursor() != null) {
+            if (request.sort() == CarSort.ID) {
+                conditions.add("id " + comparison + " ?");
+            } else {
+                conditions.add("(" + column + ", id) " + comparison + " (?, ?)");
+                params.add(request.sort() == CarSort.YEAR
+                        ? (Object) request.cursor().key().intValueExact()
+                        : request.cursor().key());
+            }
+            params.add(request.cursor().id());
+        }
+        params.add(request.limit() + 1);
+        String order = request.sort() == CarSort.ID
+                ? "ORDER BY id" + direction
+                : "ORDER BY " + column + direction + ", id" + direction;
+        return SqlScriptsForCar.SEARCH_CARS
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n")
+                + order + "\n"
+                + "LIMIT ?\n";
+    }
+
+    /**
+     * Строит запрос выгрузки автомобилей в порядке идентификатора.
+     *
+     * <p>Выгрузка, прерванная на автомобиле с идентификатором {@code afterId}, продолжается
+     * запросом с тем же фильтром и этим {@code afterId}: условие {@code id > ?} проходится
+     * первичным ключом с нужной позиции.</p>
+     *
+     * @param criteria условия поиска
+     * @param afterId  идентификатор, после которого начинается выгрузка, или 0 для выгрузки с начала
+     * @param params   список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String export(CarSearchCriteria criteria, int afterId, List<Object> params) {
+        List<String> conditions = conditions(criteria, params);
+        if (afterId > 0) {
+            conditions.add("id > ?");
+            params.add(afterId);
+        }
+        return SqlScriptsForCar.SEARCH_CARS
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n")
+                + "ORDER BY id\n";
+    }
+
+    /**
+     * Подставляет параметры в текст запроса литералами SQL.
+     *
+     * <p>Нужно для {@code COPY (запрос) TO STDOUT}, который не принимает параметров. Строки
+     * экранируются драйвером PostgreSQL по текущему значению {@code standard_conforming_strings}
+     * соединения: при выключенном значении удваиваются и обратные косые черты, иначе ими можно
+     * закрыть литерал. Числа подставляются как есть. Знаки {@code ?} внутри подставленных строк
+     * не заменяются.</p>
+     *
+     * @param sql                       текст запроса с параметрами {@code ?}
+     * @param params                    параметры по порядку: строки, {@link Integer} или {@link BigDecimal}
+     * @param standardConformingStrings значение {@code standard_conforming_strings} соединения
+     * @return текст запроса без параметров
+     * @throws SQLException если строку нельзя записать литералом, например из-за нулевого символа
+     */
+    public static String inline(String sql, List<Object> params, boolean standardConformingStrings)
+            throws SQLException {
+        StringBuilder result = new StringBuilder(sql.length() + params.size() * 16);
+        int next = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c != '?') {
+                result.append(c);
+                continue;
+            }
+            Object param = params.get(next++);
+            if (param instanceof String text) {
+                result.append('\'');
+                Utils.escapeLiteral(result, text, standardConformingStrings);
+                result.append('\'');
+            } else if (param instanceof Integer || param instanceof BigDecimal) {
+                result.append(param instanceof BigDecimal decimal ? decimal.toPlainString() : param.toString());
+            } else {
+                throw new IllegalArgumentException("Неподдерживаемый тип параметра: " + param.getClass().getName());
+            }
+        }
+        return result.toString();
+    }
+
+    private static List<String> conditions(CarSearchCriteria criteria, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (criteria.getMake() != null) {
+            conditions.add("make = ?");
+            params.add(criteria.getMake());
+        }
+        if (criteria.getModel() != null) {
+            conditions.add("model = ?");
+            params.add(criteria.getModel());
+        }
+        if (criteria.getYearFrom() != null) {
+            conditions.add("year >= ?");
+            params.add(criteria.getYearFrom());
+        }
+        if (criteria.getYearTo() != null) {
+            conditions.add("year <= ?");
+            params.add(criteria.getYearTo());
+        }
+        if (criteria.getMinPrice() != null) {
+            conditions.add("price >= ?");
+            params.add(BigDecimal.valueOf(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            conditions.add("price <= ?");
+            params.add(BigDecimal.valueOf(criteria.getMaxPrice()));
+        }
+        if (criteria.getConditions() != null && !criteria.getConditions().isEmpty()) {
+            List<String> placeholders = new ArrayList<>();
+            for (CarCondition condition : criteria.getConditions()) {
+                placeholders.add("?");
+                params.add(condition.name());
+            }
+            conditions.add("condition IN (" + String.join(", ", placeholders) + ")");
+        }
+        return conditions;
+    }
+
+    /**
+     * Строит запрос нечёткого поиска по марке и модели для {@code pg_trgm}.
+     *
+     * <p>Оценка автомобиля — среднее по словам запроса лучшего из сходств слова с маркой
+     * и с моделью. Отбор кандидатов оператором {@code %} использует GIN-индексы триграмм;
+     * если средняя оценка не ниже порога, хотя бы одно слово проходит порог оператора,
+     * поэтому отбор не теряет строк.</p>
+     *
+     * @param words     слова поискового запроса, не пустой список
+     * @param threshold минимальная оценка
+     * @param limit     максимальное число автомобилей
+     * @param params    список, в который добавляются параметры запроса по порядку
+     * @return текст SQL-запроса
+     */
+    public static String fuzzy(List<String> words, double threshold, int limit, List<Object> params) {
+        List<String> scores = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        for (String word : words) {
+            scores.add("greatest(similarity(make, ?), similarity(model, ?))");
+            params.add(word);
+            params.add(word);
+        }
+        for (String word : words) {
+            conditions.add("make % ? OR model % ?");
+            params.add(word);
+            params.add(word);
+        }
+        params.add(threshold);
+        params.add(limit);
+        return "SELECT id, make, model, year, price, condition, score\n"
+                + "FROM (SELECT id, make, model, year, price, condition,\n"
+                + "             (" + String.join(" + ", scores) + ") / " + words.size() + " AS score\n"
+                + "      FROM car_shop.cars\n"
+                + "      WHERE " + String.join(" OR ", conditions) + ") matches\n"
+                + "WHERE score >= ?\n"
+                + "ORDER BY score DESC, id\n"
+                + "LIMIT ?\n";
+    }
+
+    /**
+     * Устанавливает параметры запроса.
+     *
+     * @param preparedStatement подготовленный запрос
+     * @param params            параметры по порядку
+     * @throws SQLException если параметр не удалось установить
+     */
+    public static void bind(PreparedStatement preparedStatement, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            preparedStatement.setObject(i + 1, params.get(i));
+        }
+    }
+}
@@ -1,15 +1,52 @@
 package ru.yaone.impl;
 
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
 import ru.yaone.aspect.annotation.Loggable;
+import ru.yaone.config.ApplicationProperties;
 import ru.yaone.constants.SqlScriptsForCar;
+import ru.yaone.dto.CarAggregateDTO;
 import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFacetsDTO;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarImportError;
+import ru.yaone.dto.CarImportReportDTO;
+import ru.yaone.dto.CarMatchDTO;
+import ru.yaone.dto.CarPageCursor;
+import ru.yaone.dto.CarPageDTO;
+import ru.yaone.dto.CarPageRequest;
+import ru.yaone.dto.CarPriceAdjustmentDTO;
+import ru.yaone.dto.CarPriceAdjustmentReportDTO;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.dto.CarSuggestionDTO;
+import ru.yaone.index.CarAutocompleteIndex;
+import ru.yaone.index.CarFacetsCache;
+import ru.yaone.index.CarIndex;
+import ru.yaone.index.CarInventoryIndex;
+import ru.yaone.index.CarSimilarityIndex;
+import ru.yaone.index.TrigramMatcher;
 import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TransactionContext;
 import ru.yaone.model.enumeration.CarCondition;
 import ru.yaone.services.CarService;
+import ru.yaone.services.RowHandler;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Реализация сервиса для управления автомобилями в магазине.
@@ -23,6 +60,16 @@ import java.util.List;
 @Loggable("Логирование класса CarServiceImpl")
 public class CarServiceImpl implements CarService {
 
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final int YEAR_BUCKET_SIZE = ApplicationProperties.getInt("cars.facets.yearBucketSize", 5);
+    private static final long PRICE_BUCKET_SIZE = ApplicationProperties.getLong("cars.facets.priceBucketSize", 5000);
+    private static final CarFacetsCache FACETS_CACHE =
+            new CarFacetsCache(ApplicationProperties.getInt("cars.facets.cacheSize", 1000));
+    private static final int IMPORT_CHUNK_SIZE = ApplicationProperties.getInt("cars.import.chunkSize", 5000);
+    private static final int PRICES_CHUNK_SIZE = ApplicationProperties.getInt("cars.prices.chunkSize", 1000);
+    private static final int IMPORT_MAX_ERRORS = ApplicationProperties.getInt("cars.import.maxErrors", 1000);
+    private static final boolean EXPORT_COPY = ApplicationProperties.getBoolean("cars.export.copy", true);
+
     /**
      * Добавляет новый автомобиль в базу данных.
      *
@@ -45,12 +92,13 @@ public class CarServiceImpl implements CarService {
             preparedStatement.setString(5, carDTO.getCondition().toString());
             try (ResultSet rs = preparedStatement.executeQuery()) {
                 if (rs.next()) {
-                    new CarDTO(rs.getInt(1),
+                    CarDTO added = new CarDTO(rs.getInt(1),
                             carDTO.getMake(),
                             carDTO.getModel(),
                             carDTO.getYear(),
                             carDTO.getPrice(),
                             carDTO.getCondition());
+                    afterCarWrite(index -> index.put(added));
                 }
             }
         } catch (SQLException e) {
@@ -68,7 +116,7 @@ public class CarServiceImpl implements CarService {
      * @return список всех автомобилей
      * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
      */
-    @Loggable("Логирование метода CarServiceImpl.getAllCars")
+    @Loggable(value = "Логирование метода CarServiceImpl.getAllCars", sampleRate = 0.01, slowThresholdMillis = 200)
     @Override
     public List<CarDTO> getAllCars() {
         List<CarDTO> carsDTO = new ArrayList<>();
@@ -93,6 +141,27 @@ public class CarServiceImpl implements CarService {
         return carsDTO;
     }
 
+    /**
+     * Передаёт обработчику все автомобили по одному.
+     *
+     * <p>Строки читаются курсором на сервере порциями, поэтому память не зависит
+     * от числа автомобилей в таблице.</p>
+     *
+     * @param handler обработчик автомобилей
+     * @throws IOException      если обработчик не смог записать автомобиль
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable(value = "Логирование метода CarServiceImpl.streamAllCars", sampleRate = 0.01, slowThresholdMillis = 200)
+    @Override
+    public void streamAllCars(RowHandler<CarDTO> handler) throws IOException {
+        try {
+            JdbcStreaming.stream(SqlScriptsForCar.GET_ALL_CARS, CarServiceImpl::readCar, handler);
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при получении автомобилей", e);
+        }
+    }
+
     /**
      * Получает автомобиль по его идентификатору.
      *
@@ -105,7 +174,7 @@ public class CarServiceImpl implements CarService {
      * если автомобиль не найден
      * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
      */
-    @Loggable("Логирование метода CarServiceImpl.getCarById")
+    @Loggable(value = "Логирование метода CarServiceImpl.getCarById", sampleRate = 0.01, slowThresholdMillis = 200)
     @Override
     public CarDTO getCarById(int id) {
         try (Connection conn = DatabaseConnectionManager.getConnection();
@@ -170,6 +239,15 @@ public class CarServiceImpl implements CarService {
             preparedStatement.setDouble(4, updatedCarDTO.getPrice());
             preparedStatement.setString(5, updatedCarDTO.getCondition().toString());
             preparedStatement.setInt(6, id);
+            if (preparedStatement.executeUpdate() > 0) {
+                CarDTO updated = new CarDTO(id,
+                        updatedCarDTO.getMake(),
+                        updatedCarDTO.getModel(),
+                        updatedCarDTO.getYear(),
+                        updatedCarDTO.getPrice(),
+                        updatedCarDTO.getCondition());
+                afterCarWrite(index -> index.put(updated));
+            }
         } catch (SQLException e) {
             System.err.println("Ошибка SQL: " + e.getMessage());
             throw new RuntimeException("Ошибка при обновлении автомобилей", e);
@@ -193,6 +271,7 @@ public class CarServiceImpl implements CarService {
             preparedStatement.setInt(1, id);
             int affectedRows = preparedStatement.executeUpdate();
             if (affectedRows > 0) {
+                afterCarWrite(index -> index.remove(id));
                 System.out.println("Клиент успешно удален.");
                 return true;
             } else {
@@ -207,29 +286,27 @@ public class CarServiceImpl implements CarService {
     /**
      * Ищет автомобили в базе данных по заданным критериям.
      *
-     * <p>Метод выполняет SQL-запрос для поиска автомобилей по марке, модели,
-     * году выпуска, цене и состоянию. Возвращает список автомобилей,
-     * соответствующих критериям поиска.</p>
+     * <p>Если загружен {@link CarInventoryIndex}, поиск выполняется по нему без обращения
+     * к базе данных. Иначе запрос строится {@link CarQueryBuilder} и содержит только заданные
+     * условия, поэтому пустые критерии не ограничивают выборку, а заданные используют индексы.</p>
      *
-     * @param make      марка автомобилей для поиска
-     * @param model     модель автомобилей для поиска
-     * @param year      год выпуска автомобилей для поиска
-     * @param price     минимальная цена автомобилей для поиска
-     * @param condition состояние автомобилей для поиска
+     * @param criteria условия поиска
      * @return список автомобилей, соответствующих критериям поиска
      * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
      */
     @Loggable("Логирование метода CarServiceImpl.searchCars")
     @Override
-    public List<CarDTO> searchCars(String make, String model, int year, double price, CarCondition condition) {
+    public List<CarDTO> searchCars(CarSearchCriteria criteria) {
+        CarInventoryIndex index = CarInventoryIndex.getInstance();
+        if (index != null) {
+            return index.search(criteria);
+        }
         List<CarDTO> carDTOs = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.search(criteria, params);
         try (Connection conn = DatabaseConnectionManager.getConnection();
-             PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.SEARCH_CARS)) {
-            preparedStatement.setString(1, "%" + make + "%");
-            preparedStatement.setString(2, "%" + model + "%");
-            preparedStatement.setInt(3, year);
-            preparedStatement.setDouble(4, price);
-            preparedStatement.setString(5, condition.toString());
+             PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            CarQueryBuilder.bind(preparedStatement, params);
             try (ResultSet rs = preparedStatement.executeQuery()) {
                 while (rs.next()) {
                     CarDTO carDTO = new CarDTO(
@@ -245,9 +322,651 @@ public class CarServiceImpl implements CarService {
             }
         } catch (SQLException e) {
             System.err.println("Ошибка SQL: " + e.getMessage());
-
             throw new RuntimeException("Ошибка при поиске автомобилей", e);
         }
         return carDTOs;
     }
+
+    /**
+     * Возвращает страницу списка автомобилей.
+     *
+     * <p>Запрос строится {@link CarQueryBuilder#page} и читает на одну строку больше размера
+     * страницы: по ней определяется, есть ли следующая страница.</p>
+     *
+     * @param request запрос страницы
+     * @return автомобили страницы и курсор следующей страницы
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable(value = "Логирование метода CarServiceImpl.getCarsPage", sampleRate = 0.01, slowThresholdMillis = 200)
+    @Override
+    public CarPageDTO getCarsPage(CarPageRequest request) {
+        List<CarDTO> carDTOs = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.page(request, params);
+        CarPageCursor next = null;
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            CarQueryBuilder.bind(preparedStatement, params);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                BigDecimal lastKey = null;
+                while (rs.next()) {
+                    if (carDTOs.size() == request.limit()) {
+                        CarDTO last = carDTOs.get(carDTOs.size() - 1);
+                        next = new CarPageCursor(request.sort(), request.descending(), lastKey, last.getId());
+                        break;
+                    }
+                    carDTOs.add(readCar(rs));
+                    lastKey = switch (request.sort()) {
+                        case PRICE -> rs.getBigDecimal("price");
+                        case YEAR -> BigDecimal.valueOf(rs.getInt("year"));
+                        default -> BigDecimal.valueOf(rs.getInt("id"));
+                    };
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при получении страницы автомобилей", e);
+        }
+        return new CarPageDTO(carDTOs, next != null ? next.encode() : null);
+    }
+
+    /**
+     * Ищет автомобили по марке и модели с учётом опечаток.
+     *
+     * <p>На PostgreSQL запрос строится {@link CarQueryBuilder#fuzzy} и использует GIN-индексы
+     * {@code pg_trgm}; порог оператора {@code %} устанавливается до конца транзакции запроса.
+     * На других базах данных, например на H2 в тестах, автомобили оцениваются в памяти
+     * {@link TrigramMatcher} по тем же правилам.</p>
+     *
+     * @param query     поисковая строка
+     * @param threshold минимальная оценка сходства, от 0 до 1
+     * @param limit     максимальное число автомобилей
+     * @return найденные автомобили по убыванию оценки сходства
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода CarServiceImpl.fuzzySearchCars")
+    @Override
+    public List<CarMatchDTO> fuzzySearchCars(String query, double threshold, int limit) {
+        List<String> words = TrigramMatcher.words(query);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            if (POSTGRESQL.equals(conn.getMetaData().getDatabaseProductName())) {
+                return fuzzySearchWithTrigramIndex(conn, words, threshold, limit);
+            }
+            return fuzzySearchInMemory(conn, words, threshold, limit);
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при нечётком поиске автомобилей", e);
+        }
+    }
+
+    /**
+     * Ищет автомобили оператором {@code %} по триграммному индексу.
+     *
+     * <p>Порог задаётся через {@code set_config(..., true)} и действует только до конца транзакции,
+     * поэтому при включённом auto-commit оба запроса выполняются в отдельной транзакции,
+     * после которой auto-commit восстанавливается.</p>
+     */
+    private static List<CarMatchDTO> fuzzySearchWithTrigramIndex(Connection conn, List<String> words,
+                                                                 double threshold, int limit) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        if (autoCommit) {
+            conn.setAutoCommit(false);
+        }
+        try {
+            try (PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.SET_SIMILARITY_THRESHOLD)) {
+                preparedStatement.setString(1, String.valueOf(threshold));
+                preparedStatement.execute();
+            }
+            List<Object> params = new ArrayList<>();
+            List<CarMatchDTO> matches = new ArrayList<>();
+            try (PreparedStatement preparedStatement = conn.prepareStatement(
+                    CarQueryBuilder.fuzzy(words, threshold, limit, params))) {
+                CarQueryBuilder.bind(preparedStatement, params);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        matches.add(new CarMatchDTO(readCar(rs), rs.getDouble("score")));
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            if (autoCommit) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static List<CarMatchDTO> fuzzySearchInMemory(Connection conn, List<String> words,
+                                                         double threshold, int limit) throws SQLException {
+        List<Set<String>> wordTrigrams = new ArrayList<>();
+        for (String word : words) {
+            wordTrigrams.add(TrigramMatcher.trigrams(word));
+        }
+        List<CarMatchDTO> matches = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlScriptsForCar.GET_ALL_CARS)) {
+            while (rs.next()) {
+                CarDTO carDTO = readCar(rs);
+                double score = TrigramMatcher.score(carDTO.getMake(), carDTO.getModel(), wordTrigrams);
+                if (score >= threshold) {
+                    matches.add(new CarMatchDTO(carDTO, score));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(CarMatchDTO::getScore).reversed()
+                .thenComparingInt(match -> match.getCar().getId()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private static CarDTO readCar(ResultSet rs) throws SQLException {
+        return new CarDTO(
+                rs.getInt("id"),
+                rs.getString("make"),
+                rs.getString("model"),
+                rs.getInt("year"),
+                rs.getDouble("price"),
+                CarCondition.valueOf(rs.getString("condition"))
+        );
+    }
+
+    /**
+     * Изменяет цены автомобилей, подходящих под фильтр, запросами {@code UPDATE} по пачкам.
+     *
+     * <p>Автомобили обходятся по возрастанию идентификатора пачками по {@code cars.prices.chunkSize}:
+     * граница пачки находится по индексу первичного ключа, после чего одна команда {@code UPDATE}
+     * меняет цены всех подходящих автомобилей пачки. Каждая пачка фиксируется сразу, в том числе
+     * внутри транзакции запроса, чтобы блокировки строк держались не дольше одной пачки; при ошибке
+     * зафиксированные пачки остаются изменёнными. Автомобили, новая цена которых недопустима,
+     * не меняются и учитываются как пропущенные. Пробный запуск выполняет один запрос подсчёта.</p>
+     *
+     * @param criteria   фильтр автомобилей
+     * @param adjustment изменение цены
+     * @param dryRun     только подсчитать автомобили, не меняя цены
+     * @param progress   получает отчёт после каждой зафиксированной пачки
+     * @return итоговый отчёт
+     * @throws IllegalArgumentException если изменение цены задано неверно
+     * @throws RuntimeException         если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода CarServiceImpl.adjustPrices")
+    @Override
+    public CarPriceAdjustmentReportDTO adjustPrices(CarSearchCriteria criteria, CarPriceAdjustmentDTO adjustment,
+                                                    boolean dryRun, Consumer<CarPriceAdjustmentReportDTO> progress) {
+        adjustment.validate();
+        CarPriceAdjustmentReportDTO report = new CarPriceAdjustmentReportDTO();
+        report.setDryRun(dryRun);
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            if (dryRun) {
+                List<Object> params = new ArrayList<>();
+                String sql = CarQueryBuilder.countPriceAdjustment(criteria, adjustment, params);
+                try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+                    CarQueryBuilder.bind(preparedStatement, params);
+                    try (ResultSet rs = preparedStatement.executeQuery()) {
+                        rs.next();
+                        report.setMatched(rs.getLong("car_count"));
+                        report.setUpdated(rs.getLong("updated_count"));
+                    }
+                }
+            } else {
+                int afterId = 0;
+                int[] chunk;
+                while ((chunk = nextPriceChunk(conn, criteria, afterId)) != null) {
+                    int upperId = chunk[0];
+                    int updated = updatePriceChunk(conn, criteria, adjustment, afterId, upperId);
+                    List<CarDTO> changed = loadedIndexes().isEmpty() ? List.of() : readCars(conn, afterId, upperId);
+                    afterCarWrite(index -> index.putAll(changed));
+                    commitChunk(conn);
+                    report.setMatched(report.getMatched() + chunk[1]);
+                    report.setUpdated(report.getUpdated() + updated);
+                    report.setSkipped(report.getMatched() - report.getUpdated());
+                    report.setChunks(report.getChunks() + 1);
+                    progress.accept(report);
+                    afterId = upperId;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при изменении цен автомобилей", e);
+        }
+        report.setSkipped(report.getMatched() - report.getUpdated());
+        report.setDone(true);
+        return report;
+    }
+
+    /**
+     * Находит следующую пачку изменения цен.
+     *
+     * @return наибольший идентификатор и число подходящих автомобилей пачки или {@code null}, если их нет
+     */
+    private static int[] nextPriceChunk(Connection conn, CarSearchCriteria criteria, int afterId)
+            throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.priceAdjustmentChunk(criteria, afterId, PRICES_CHUNK_SIZE, params);
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            CarQueryBuilder.bind(preparedStatement, params);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                rs.next();
+                int count = rs.getInt("car_count");
+                return count == 0 ? null : new int[]{rs.getInt("upper_id"), count};
+            }
+        }
+    }
+
+    private static int updatePriceChunk(Connection conn, CarSearchCriteria criteria, CarPriceAdjustmentDTO adjustment,
+                                        int afterId, int upperId) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.adjustPrices(criteria, adjustment, afterId, upperId, params);
+        try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            CarQueryBuilder.bind(preparedStatement, params);
+            return preparedStatement.executeUpdate();
+        }
+    }
+
+    private static List<CarDTO> readCars(Connection conn, int afterId, int upperId) throws SQLException {
+        List<CarDTO> carDTOs = new ArrayList<>();
+        try (PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.GET_CARS_IN_ID_RANGE)) {
+            preparedStatement.setInt(1, afterId);
+            preparedStatement.setInt(2, upperId);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    carDTOs.add(readCar(rs));
+                }
+            }
+        }
+        return carDTOs;
+    }
+
+    /**
+     * Фиксирует пачку: внутри транзакции запроса — фиксацией контекста вместе с действиями
+     * после фиксации, вне её — фиксацией соединения, если auto-commit выключен.
+     */
+    private static void commitChunk(Connection conn) throws SQLException {
+        TransactionContext context = TransactionContext.current();
+        if (context != null) {
+            context.commit();
+        } else if (!conn.getAutoCommit()) {
+            conn.commit();
+        }
+    }
+
+    /**
+     * Находит автомобили, похожие на заданный: того же состояния, близкие по году и цене,
+     * предпочтительно той же марки.
+     *
+     * <p>Если загружен {@link CarSimilarityIndex}, соседи ищутся по его сетке без обращения к базе данных,
+     * иначе запросом, упорядочивающим автомобили того же состояния по тому же расстоянию.</p>
+     *
+     * @param id    идентификатор автомобиля
+     * @param limit максимальное число похожих автомобилей
+     * @return похожие автомобили по возрастанию расстояния или {@code null}, если автомобиль не найден
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable(value = "Логирование метода CarServiceImpl.getSimilarCars", sampleRate = 0.01)
+    @Override
+    public List<CarDTO> getSimilarCars(int id, int limit) {
+        CarSimilarityIndex index = CarSimilarityIndex.getInstance();
+        if (index != null) {
+            return index.similar(id, limit);
+        }
+        CarDTO target = getCarById(id);
+        if (target == null) {
+            return null;
+        }
+        List<CarDTO> carDTOs = new ArrayList<>();
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.SIMILAR_CARS)) {
+            preparedStatement.setString(1, target.getCondition().name());
+            preparedStatement.setInt(2, id);
+            preparedStatement.setString(3, target.getMake());
+            preparedStatement.setDouble(4, CarSimilarityIndex.MAKE_PENALTY);
+            preparedStatement.setInt(5, target.getYear());
+            preparedStatement.setDouble(6, CarSimilarityIndex.YEAR_SCALE);
+            preparedStatement.setDouble(7, CarSimilarityIndex.logPrice(target.getPrice()));
+            preparedStatement.setDouble(8, Math.log1p(CarSimilarityIndex.PRICE_RATIO));
+            preparedStatement.setInt(9, limit);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    carDTOs.add(readCar(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при подборе похожих автомобилей", e);
+        }
+        return carDTOs;
+    }
+
+    /**
+     * Подсказывает марки и модели, начинающиеся с префикса.
+     *
+     * <p>Если загружен {@link CarAutocompleteIndex}, подсказки берутся из префиксного дерева
+     * без обращения к базе данных, иначе считаются запросом с {@code LIKE} по началу строки.</p>
+     *
+     * @param prefix начало марки или модели
+     * @param limit  максимальное число подсказок
+     * @return подсказки по убыванию числа автомобилей
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable(value = "Логирование метода CarServiceImpl.suggestCars", sampleRate = 0.01)
+    @Override
+    public List<CarSuggestionDTO> suggestCars(String prefix, int limit) {
+        CarAutocompleteIndex index = CarAutocompleteIndex.getInstance();
+        if (index != null) {
+            return index.suggest(prefix, limit);
+        }
+        String pattern = prefix.toLowerCase(Locale.ROOT).replace("\\", "\\\\")
+                .replace("%", "\\%").replace("_", "\\_") + "%";
+        List<CarSuggestionDTO> suggestions = new ArrayList<>();
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.SUGGEST_CAR_NAMES)) {
+            preparedStatement.setString(1, pattern);
+            preparedStatement.setString(2, pattern);
+            preparedStatement.setInt(3, limit);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    suggestions.add(new CarSuggestionDTO(rs.getString("field"), rs.getString("name"),
+                            rs.getLong("car_count")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при подборе подсказок автомобилей", e);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Считает фасеты автомобилей, удовлетворяющих критериям.
+     *
+     * <p>Если загружен {@link CarInventoryIndex}, фасеты считаются одним проходом по индексу,
+     * иначе одним запросом с {@code GROUPING SETS}. Результат кэшируется по фильтру
+     * до следующего изменения автомобилей.</p>
+     *
+     * @param criteria условия поиска
+     * @return число автомобилей по марке, состоянию, интервалам года и цены
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода CarServiceImpl.getCarFacets")
+    @Override
+    public CarFacetsDTO getCarFacets(CarSearchCriteria criteria) {
+        return FACETS_CACHE.get(criteria.toString(), () -> {
+            CarInventoryIndex index = CarInventoryIndex.getInstance();
+            if (index != null) {
+                return index.facets(criteria, YEAR_BUCKET_SIZE, PRICE_BUCKET_SIZE);
+            }
+            return queryCarFacets(criteria);
+        });
+    }
+
+    private static CarFacetsDTO queryCarFacets(CarSearchCriteria criteria) {
+        CarFacetsDTO facets = CarFacetsDTO.empty(YEAR_BUCKET_SIZE, PRICE_BUCKET_SIZE);
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.facets(criteria, YEAR_BUCKET_SIZE, PRICE_BUCKET_SIZE, params);
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            CarQueryBuilder.bind(preparedStatement, params);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    long count = rs.getLong("car_count");
+                    switch (rs.getInt("grouping_id")) {
+                        case 7 -> facets.getMakes().put(rs.getString("make"), count);
+                        case 11 -> facets.getConditions().put(rs.getString("condition"), count);
+                        case 13 -> facets.getYears().put(rs.getInt("year_bucket"), count);
+                        case 14 -> facets.getPrices().put(rs.getLong("price_bucket"), count);
+                        default -> facets.setTotal(count);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при подсчёте фасетов автомобилей", e);
+        }
+        return facets;
+    }
+
+    /**
+     * Считает статистику цен автомобилей в группах по заданным полям.
+     *
+     * <p>Если загружен {@link CarInventoryIndex}, группы считаются циклами по его примитивным
+     * столбцам, иначе одним запросом с {@code GROUP BY}. Средняя цена в обоих случаях —
+     * сумма, делённая на число автомобилей, с округлением до копеек.</p>
+     *
+     * @param criteria условия поиска
+     * @param groupBy  поля группировки
+     * @return группы, упорядоченные по значениям полей группировки
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода CarServiceImpl.getCarStats")
+    @Override
+    public List<CarAggregateDTO> getCarStats(CarSearchCriteria criteria, List<CarGroupField> groupBy) {
+        CarInventoryIndex index = CarInventoryIndex.getInstance();
+        List<CarAggregateDTO> stats = index != null ? index.aggregate(criteria, groupBy) : queryCarStats(criteria, groupBy);
+        for (CarAggregateDTO aggregate : stats) {
+            if (aggregate.getCount() > 0) {
+                aggregate.setAveragePrice(aggregate.getTotalPrice()
+                        .divide(BigDecimal.valueOf(aggregate.getCount()), 2, RoundingMode.HALF_UP));
+            }
+        }
+        return stats;
+    }
+
+    private static List<CarAggregateDTO> queryCarStats(CarSearchCriteria criteria, List<CarGroupField> groupBy) {
+        List<CarAggregateDTO> stats = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.aggregate(criteria, groupBy, params);
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            CarQueryBuilder.bind(preparedStatement, params);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    CarAggregateDTO aggregate = new CarAggregateDTO();
+                    for (CarGroupField field : groupBy) {
+                        aggregate.getGroup().put(field.column(), rs.getObject(field.column()));
+                    }
+                    aggregate.setCount(rs.getLong("car_count"));
+                    aggregate.setTotalPrice(rs.getBigDecimal("total_price"));
+                    aggregate.setMinPrice(rs.getBigDecimal("min_price"));
+                    aggregate.setMaxPrice(rs.getBigDecimal("max_price"));
+                    stats.add(aggregate);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при подсчёте статистики автомобилей", e);
+        }
+        return stats;
+    }
+
+    /**
+     * Загружает автомобили из файла CSV или NDJSON.
+     *
+     * <p>Файл разбирается потоково {@link CarImportReader}; корректные строки копятся в пачку
+     * по {@code cars.import.chunkSize} штук. На PostgreSQL пачка резервирует идентификаторы одним
+     * запросом к последовательности и загружается командой {@code COPY}, на других базах данных —
+     * пакетом {@code INSERT}. Каждая пачка фиксируется сразу, в том числе внутри транзакции запроса,
+     * как при изменении цен: при ошибке уже загруженные пачки остаются в базе. Индексы в памяти и кэш
+     * фасетов обновляются после фиксации каждой пачки, поэтому пачка не удерживается до конца импорта.</p>
+     *
+     * @param input  поток файла в кодировке UTF-8
+     * @param format формат файла
+     * @return отчёт об импорте
+     * @throws IOException      если поток не удалось прочитать
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода CarServiceImpl.importCars")
+    @Override
+    public CarImportReportDTO importCars(InputStream input, CarFileFormat format) throws IOException {
+        CarImportReportDTO report = new CarImportReportDTO();
+        try (CarImportReader reader = CarImportReader.open(format, input);
+             Connection conn = DatabaseConnectionManager.getConnection()) {
+            boolean copy = POSTGRESQL.equals(conn.getMetaData().getDatabaseProductName());
+            List<CarDTO> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            CarImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                report.setReceived(report.getReceived() + 1);
+                if (!row.isValid()) {
+                    report.setFailed(report.getFailed() + 1);
+                    if (report.getErrors().size() < IMPORT_MAX_ERRORS) {
+                        report.getErrors().add(new CarImportError(row.line(), row.errors()));
+                    } else {
+                        report.setErrorsTruncated(true);
+                    }
+                    continue;
+                }
+                chunk.add(row.car());
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    loadChunk(conn, chunk, copy);
+                    report.setImported(report.getImported() + chunk.size());
+                    chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                loadChunk(conn, chunk, copy);
+                report.setImported(report.getImported() + chunk.size());
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при импорте автомобилей", e);
+        }
+        return report;
+    }
+
+    private static void loadChunk(Connection conn, List<CarDTO> chunk, boolean copy) throws SQLException, IOException {
+        if (copy) {
+            copyChunk(conn, chunk);
+        } else {
+            insertChunk(conn, chunk);
+        }
+        List<CarDTO> added = loadedIndexes().isEmpty() ? List.of() : chunk;
+        afterCarWrite(index -> index.putAll(added));
+        commitChunk(conn);
+    }
+
+    private static void copyChunk(Connection conn, List<CarDTO> chunk) throws SQLException, IOException {
+        try (PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.RESERVE_CAR_IDS)) {
+            preparedStatement.setInt(1, chunk.size());
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                for (CarDTO car : chunk) {
+                    if (!rs.next()) {
+                        throw new SQLException("Последовательность вернула меньше идентификаторов, чем запрошено");
+                    }
+                    car.setId(rs.getInt(1));
+                }
+            }
+        }
+        StringBuilder csv = new StringBuilder(chunk.size() * 64);
+        for (CarDTO car : chunk) {
+            csv.append(car.getId()).append(',');
+            appendCsvText(csv, car.getMake());
+            appendCsvText(csv, car.getModel());
+            csv.append(car.getYear()).append(',')
+                    .append(importPrice(car).toPlainString()).append(',')
+                    .append(car.getCondition().name()).append('\n');
+        }
+        conn.unwrap(PGConnection.class).getCopyAPI().copyIn(SqlScriptsForCar.COPY_CARS, new StringReader(csv.toString()));
+    }
+
+    private static void appendCsvText(StringBuilder csv, String value) {
+        csv.append('"').append(value.replace("\"", "\"\"")).append("\",");
+    }
+
+    private static void insertChunk(Connection conn, List<CarDTO> chunk) throws SQLException {
+        try (PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForCar.IMPORT_CAR, new String[]{"id"})) {
+            for (CarDTO car : chunk) {
+                preparedStatement.setString(1, car.getMake());
+                preparedStatement.setString(2, car.getModel());
+                preparedStatement.setInt(3, car.getYear());
+                preparedStatement.setBigDecimal(4, importPrice(car));
+                preparedStatement.setString(5, car.getCondition().name());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                for (CarDTO car : chunk) {
+                    if (!keys.next()) {
+                        throw new SQLException("База данных вернула меньше идентификаторов, чем вставлено строк");
+                    }
+                    car.setId(keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    private static BigDecimal importPrice(CarDTO car) {
+        return BigDecimal.valueOf(car.getPrice()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Выгружает автомобили в поток.
+     *
+     * <p>Строки читаются курсором {@link JdbcStreaming} и сразу записываются {@link CarExportWriter}.
+     * CSV на PostgreSQL при {@code cars.export.copy=true} выдаёт сама база данных командой
+     * {@code COPY (запрос) TO STDOUT}, и драйвер копирует её вывод в поток без разбора строк.</p>
+     *
+     * @param criteria условия поиска
+     * @param afterId  идентификатор, после которого начинается выгрузка, или 0
+     * @param format   формат выгрузки
+     * @param output   поток выгрузки
+     * @throws IOException      если запись в поток не удалась
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода CarServiceImpl.exportCars")
+    @Override
+    public void exportCars(CarSearchCriteria criteria, int afterId, CarFileFormat format, OutputStream output)
+            throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = CarQueryBuilder.export(criteria, afterId, params);
+        try {
+            if (format == CarFileFormat.CSV && EXPORT_COPY && copyOut(sql, params, output)) {
+                return;
+            }
+            CarExportWriter writer = CarExportWriter.open(format, output);
+            JdbcStreaming.stream(sql, params, CarServiceImpl::readCar, writer::write);
+            writer.flush();
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при выгрузке автомобилей", e);
+        }
+    }
+
+    private static boolean copyOut(String sql, List<Object> params, OutputStream output)
+            throws SQLException, IOException {
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            if (!POSTGRESQL.equals(conn.getMetaData().getDatabaseProductName())) {
+                return false;
+            }
+            boolean standardConformingStrings = conn.unwrap(BaseConnection.class).getStandardConformingStrings();
+            String copy = SqlScriptsForCar.COPY_CARS_OUT.formatted(
+                    CarQueryBuilder.inline(sql, params, standardConformingStrings));
+            conn.unwrap(PGConnection.class).getCopyAPI().copyOut(copy, output);
+            return true;
+        }
+    }
+
+    /**
+     * Применяет изменение автомобилей к индексам в памяти и сбрасывает кэш фасетов после фиксации
+     * текущей транзакции.
+     *
+     * <p>При откате транзакции ни индексы, ни кэш не меняются.</p>
+     *
+     * @param change изменение индекса; применяется к каждому загруженному индексу
+     */
+    private static void afterCarWrite(Consumer<CarIndex> change) {
+        List<CarIndex> indexes = loadedIndexes();
+        TransactionContext.afterCommit(() -> {
+            indexes.forEach(change);
+            FACETS_CACHE.invalidate();
+        });
+    }
+
+    private static List<CarIndex> loadedIndexes() {
+        return Stream.of(CarInventoryIndex.getInstance(), CarAutocompleteIndex.getInstance(),
+                        CarSimilarityIndex.getInstance())
+                .filter(Objects::nonNull)
+                .map(CarIndex.class::cast)
+                .toList();
+    }
 }
\ No newline at end of file
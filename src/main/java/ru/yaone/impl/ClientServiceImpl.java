@@ -6,7 +6,9 @@ import ru.yaone.dto.ClientDTO;
 import ru.yaone.manager.DatabaseConnectionManager;
 import ru.yaone.model.Client;
 import ru.yaone.services.ClientService;
+import ru.yaone.services.RowHandler;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -61,12 +63,7 @@ public class ClientServiceImpl implements ClientService {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(SqlScriptsForClients.GET_ALL_CLIENTS)) {
             while (rs.next()) {
-                ClientDTO clientDTO = new ClientDTO(
-                        rs.getInt("id"),
-                        rs.getString("client_name"),
-                        rs.getString("contact_info")
-                );
-                clientDTOS.add(clientDTO);
+                clientDTOS.add(readClient(rs));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка SQL: " + e.getMessage());
@@ -75,6 +72,32 @@ public class ClientServiceImpl implements ClientService {
         return clientDTOS;
     }
 
+    /**
+     * Передаёт обработчику всех клиентов по одному, читая таблицу курсором на сервере.
+     *
+     * @param handler обработчик клиентов
+     * @throws IOException      если обработчик не смог записать клиента
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода ClientServiceImpl.streamAllClients")
+    @Override
+    public void streamAllClients(RowHandler<ClientDTO> handler) throws IOException {
+        try {
+            JdbcStreaming.stream(SqlScriptsForClients.GET_ALL_CLIENTS, ClientServiceImpl::readClient, handler);
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при получении клиентов", e);
+        }
+    }
+
+    private static ClientDTO readClient(ResultSet rs) throws SQLException {
+        return new ClientDTO(
+                rs.getInt("id"),
+                rs.getString("client_name"),
+                rs.getString("contact_info")
+        );
+    }
+
 
     /**
      * Получает информацию о клиенте по его идентификатору.
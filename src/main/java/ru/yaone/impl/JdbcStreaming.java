@@ -0,0 +1,97 @@
+package ru.yaone.impl;
+
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.services.RowHandler;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Класс {@code JdbcStreaming} выполняет запрос и передаёт строки обработчику по одной.
+ *
+ * <p>Драйвер PostgreSQL читает результат порциями по {@code fetchSize} через курсор на сервере
+ * только при выключенном auto-commit. Внутри {@code TransactionFilter} он уже выключен;
+ * вне транзакции запроса auto-commit выключается на время чтения и затем восстанавливается.
+ * Поэтому память на чтение не зависит от размера результата.</p>
+ *
+ * <p>Через него же загружаются индексы автомобилей в памяти при запуске приложения.</p>
+ */
+public final class JdbcStreaming {
+
+    private static final int FETCH_SIZE = ApplicationProperties.getInt("db.stream.fetchSize", 500);
+
+    private JdbcStreaming() {
+    }
+
+    /**
+     * Преобразует текущую строку {@link ResultSet} в объект.
+     *
+     * @param <T> тип объекта
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+
+        /**
+         * Читает текущую строку.
+         *
+         * @param rs результат запроса, установленный на строку
+         * @return объект строки
+         * @throws SQLException если строку не удалось прочитать
+         */
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Выполняет запрос без параметров и передаёт строки обработчику по мере чтения.
+     *
+     * @param sql     текст запроса
+     * @param mapper  преобразование строки
+     * @param handler обработчик строк
+     * @param <T>     тип строки
+     * @throws SQLException если произошла ошибка во время выполнения SQL-запроса
+     * @throws IOException  если обработчик не смог записать строку
+     */
+    public static <T> void stream(String sql, RowMapper<T> mapper, RowHandler<T> handler) throws SQLException, IOException {
+        stream(sql, List.of(), mapper, handler);
+    }
+
+    /**
+     * Выполняет запрос с параметрами и передаёт строки обработчику по мере чтения.
+     *
+     * @param sql     текст запроса
+     * @param params  параметры запроса по порядку
+     * @param mapper  преобразование строки
+     * @param handler обработчик строк
+     * @param <T>     тип строки
+     * @throws SQLException если произошла ошибка во время выполнения SQL-запроса
+     * @throws IOException  если обработчик не смог записать строку
+     */
+    public static <T> void stream(String sql, List<Object> params, RowMapper<T> mapper, RowHandler<T> handler)
+            throws SQLException, IOException {
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                CarQueryBuilder.bind(preparedStatement, params);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(mapper.map(rs));
+                    }
+                }
+            } finally {
+                if (autoCommit) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+    }
+}
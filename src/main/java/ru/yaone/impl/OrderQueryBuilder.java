@@ -0,0 +1,52 @@
+package ru.yaone.impl;
+
+import ru.yaone.dto.OrderExpand;
+
+import java.util.Set;
+
+import static ru.yaone.constants.SqlScriptsForOrder.CAR_COLUMNS;
+import static ru.yaone.constants.SqlScriptsForOrder.CLIENT_COLUMNS;
+import static ru.yaone.constants.SqlScriptsForOrder.FROM_ORDERS;
+import static ru.yaone.constants.SqlScriptsForOrder.JOIN_CARS;
+import static ru.yaone.constants.SqlScriptsForOrder.JOIN_CLIENTS;
+import static ru.yaone.constants.SqlScriptsForOrder.ORDER_COLUMNS;
+
+/**
+ * Класс {@code OrderQueryBuilder} собирает запросы чтения заказов из фрагментов {@code SqlScriptsForOrder}.
+ *
+ * <p>Таблицы {@code clients} и {@code cars} присоединяются только для значений {@link OrderExpand},
+ * которые попросил клиент, поэтому запрос без {@code expand} читает одну таблицу {@code orders}.</p>
+ */
+final class OrderQueryBuilder {
+
+    private OrderQueryBuilder() {
+    }
+
+    /**
+     * Собирает запрос заказов со встроенными данными.
+     *
+     * @param expand  присоединяемые данные
+     * @param clauses условия и порядок после {@code FROM}, например {@code WHERE o.id = ?}
+     * @return текст запроса
+     */
+    static String select(Set<OrderExpand> expand, String... clauses) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(ORDER_COLUMNS);
+        if (expand.contains(OrderExpand.CLIENT)) {
+            sql.append(", ").append(CLIENT_COLUMNS);
+        }
+        if (expand.contains(OrderExpand.CAR)) {
+            sql.append(", ").append(CAR_COLUMNS);
+        }
+        sql.append(' ').append(FROM_ORDERS);
+        if (expand.contains(OrderExpand.CLIENT)) {
+            sql.append(' ').append(JOIN_CLIENTS);
+        }
+        if (expand.contains(OrderExpand.CAR)) {
+            sql.append(' ').append(JOIN_CARS);
+        }
+        for (String clause : clauses) {
+            sql.append(' ').append(clause);
+        }
+        return sql.toString();
+    }
+}
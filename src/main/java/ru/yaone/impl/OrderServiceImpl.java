@@ -2,24 +2,33 @@ package ru.yaone.impl;
 
 import ru.yaone.aspect.annotation.Loggable;
 import ru.yaone.constants.SqlScriptsForOrder;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.ClientDTO;
 import ru.yaone.dto.OrderDTO;
+import ru.yaone.dto.OrderExpand;
 import ru.yaone.manager.DatabaseConnectionManager;
-import ru.yaone.model.Car;
-import ru.yaone.model.Client;
 import ru.yaone.model.enumeration.CarCondition;
 import ru.yaone.model.enumeration.OrderStatus;
 import ru.yaone.services.OrderService;
+import ru.yaone.services.RowHandler;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Реализация интерфейса OrderService, предоставляющая методы для работы с заказами в системе.
  */
 @Loggable("Логирование класса OrderServiceImpl")
 public class OrderServiceImpl implements OrderService {
+
+    private static final Set<OrderExpand> NO_EXPAND = Collections.unmodifiableSet(EnumSet.noneOf(OrderExpand.class));
+
     @Override
     public void addOrder(OrderDTO orderDTO) {
         try (Connection conn = DatabaseConnectionManager.getConnection();
@@ -42,8 +51,8 @@ public class OrderServiceImpl implements OrderService {
     /**
      * Получает все заказы из базы данных.
      *
-     * <p>Метод выполняет SQL-запрос для получения всех заказов из таблицы <code>orders</code>,
-     * включая информацию о клиенте и автомобиле. Возвращает список заказов.</p>
+     * <p>Метод выполняет SQL-запрос для получения всех заказов из таблицы <code>orders</code>
+     * без соединения с клиентами и автомобилями. Возвращает список заказов.</p>
      *
      * @return список объектов Order, представляющих все заказы в системе
      * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
@@ -54,30 +63,9 @@ public class OrderServiceImpl implements OrderService {
         List<OrderDTO> ordersDTO = new ArrayList<>();
         try (Connection conn = DatabaseConnectionManager.getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SqlScriptsForOrder.GET_ALL_ORDERS)) {
+             ResultSet rs = stmt.executeQuery(OrderQueryBuilder.select(NO_EXPAND))) {
             while (rs.next()) {
-                Client client = new Client(
-                        rs.getInt("client_id"),
-                        rs.getString("client_name"),
-                        rs.getString("contact_info")
-                );
-                Car car = new Car(
-
-                        rs.getInt("car_id"),
-                        rs.getString("make"),
-                        rs.getString("model"),
-                        rs.getInt("year"),
-                        rs.getDouble("price"),
-                        CarCondition.valueOf(rs.getString("condition"))
-                );
-                OrderDTO orderDTO = new OrderDTO(
-                        rs.getInt("id"),
-                        client.id(),
-                        car.id(),
-                        rs.getTimestamp("creation_date").toInstant(),
-                        OrderStatus.valueOf(rs.getString("status"))
-                );
-                ordersDTO.add(orderDTO);
+                ordersDTO.add(readOrder(rs, NO_EXPAND));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка SQL: " + e.getMessage());
@@ -86,44 +74,146 @@ public class OrderServiceImpl implements OrderService {
         return ordersDTO;
     }
 
+    /**
+     * Передаёт обработчику все заказы без встроенных данных.
+     *
+     * <p>Запрос читает только таблицу <code>orders</code>, без соединений с клиентами и автомобилями.
+     * Соединение вызывающему не передаётся: {@link JdbcStreaming} берёт его у
+     * {@link DatabaseConnectionManager}. Внутри транзакции запроса это соединение
+     * {@code TransactionContext}: курсор видит её данные, а в пул соединение возвращает сам контекст.
+     * Вне транзакции соединение берётся из пула только на время чтения.</p>
+     *
+     * @param handler обработчик заказов
+     * @throws IOException      если обработчик не смог записать заказ
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Override
+    public void streamAllOrders(RowHandler<OrderDTO> handler) throws IOException {
+        streamAllOrders(NO_EXPAND, handler);
+    }
+
+    /**
+     * Передаёт обработчику все заказы по одному, читая результат курсором на сервере.
+     *
+     * <p>Клиенты и автомобили присоединяются к запросу, только если они есть в {@code expand}.</p>
+     *
+     * @param expand  встраиваемые клиент и/или автомобиль
+     * @param handler обработчик заказов
+     * @throws IOException      если обработчик не смог записать заказ
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода OrderServiceImpl.streamAllOrders")
+    @Override
+    public void streamAllOrders(Set<OrderExpand> expand, RowHandler<OrderDTO> handler) throws IOException {
+        try {
+            JdbcStreaming.stream(OrderQueryBuilder.select(expand), rs -> readOrder(rs, expand), handler);
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при получении заказов", e);
+        }
+    }
+
+    /**
+     * Передаёт обработчику заказы за период по одному.
+     *
+     * <p>Период задаётся полуинтервалом {@code [from, to + 1 день)}, чтобы заказы последнего дня
+     * попадали в отчёт при любом времени создания, а условие оставалось диапазоном индекса по дате.</p>
+     *
+     * @param from    первый день периода
+     * @param to      последний день периода включительно
+     * @param status  статус заказов или {@code null}
+     * @param expand  встраиваемые клиент и/или автомобиль
+     * @param handler обработчик заказов
+     * @throws IOException      если обработчик не смог записать заказ
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода OrderServiceImpl.streamOrdersByDate")
+    @Override
+    public void streamOrdersByDate(LocalDate from, LocalDate to, OrderStatus status, Set<OrderExpand> expand,
+                                   RowHandler<OrderDTO> handler) throws IOException {
+        List<Object> params = new ArrayList<>(3);
+        params.add(Timestamp.valueOf(from.atStartOfDay()));
+        params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        String sql;
+        if (status != null) {
+            params.add(status.name());
+            sql = OrderQueryBuilder.select(expand, SqlScriptsForOrder.BY_CREATION_DATE,
+                    SqlScriptsForOrder.AND_STATUS, SqlScriptsForOrder.ORDER_BY_CREATION_DATE);
+        } else {
+            sql = OrderQueryBuilder.select(expand, SqlScriptsForOrder.BY_CREATION_DATE,
+                    SqlScriptsForOrder.ORDER_BY_CREATION_DATE);
+        }
+        try {
+            JdbcStreaming.stream(sql, params, rs -> readOrder(rs, expand), handler);
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при получении заказов за период", e);
+        }
+    }
+
+    /**
+     * Читает заказ из текущей строки и встраивает в него присоединённые клиента и автомобиль.
+     *
+     * @param rs     результат запроса, собранного {@link OrderQueryBuilder} с тем же {@code expand}
+     * @param expand встраиваемые данные
+     * @return заказ
+     * @throws SQLException если строку не удалось прочитать
+     */
+    private static OrderDTO readOrder(ResultSet rs, Set<OrderExpand> expand) throws SQLException {
+        OrderDTO orderDTO = new OrderDTO(
+                rs.getInt("id"),
+                rs.getInt("client_id"),
+                rs.getInt("car_id"),
+                rs.getTimestamp("creation_date").toInstant(),
+                OrderStatus.valueOf(rs.getString("status"))
+        );
+        if (expand.contains(OrderExpand.CLIENT)) {
+            orderDTO.setClient(new ClientDTO(
+                    orderDTO.getClientId(),
+                    rs.getString("client_name"),
+                    rs.getString("contact_info")
+            ));
+        }
+        if (expand.contains(OrderExpand.CAR)) {
+            orderDTO.setCar(new CarDTO(
+                    orderDTO.getCarId(),
+                    rs.getString("make"),
+                    rs.getString("model"),
+                    rs.getInt("year"),
+                    rs.getDouble("price"),
+                    CarCondition.valueOf(rs.getString("condition"))
+            ));
+        }
+        return orderDTO;
+    }
+
+    @Override
+    public OrderDTO getOrderById(int id) {
+        return getOrderById(id, NO_EXPAND);
+    }
+
     /**
      * Получает заказ из базы данных по заданному идентификатору.
      *
      * <p>Метод выполняет SQL-запрос для получения заказа на основе его идентификатора.
-     * Если заказ с данным ID найден, возвращает объект Order; если нет, возвращает null.</p>
+     * Если заказ с данным ID найден, возвращает объект Order; если нет, возвращает null.
+     * Клиент и автомобиль читаются тем же запросом, только если они есть в {@code expand}.</p>
      *
-     * @param id идентификатор заказа, который необходимо получить
+     * @param id     идентификатор заказа, который необходимо получить
+     * @param expand встраиваемые клиент и/или автомобиль
      * @return объект Order, представляющий заказ с заданным идентификатором, или null, если заказ не найден
      * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
      */
     @Loggable("Логирование метода OrderServiceImpl.getOrderById")
     @Override
-    public OrderDTO getOrderById(int id) {
+    public OrderDTO getOrderById(int id, Set<OrderExpand> expand) {
         try (Connection conn = DatabaseConnectionManager.getConnection();
-             PreparedStatement preparedStatement = conn.prepareStatement(SqlScriptsForOrder.GET_ORDER_BY_ID)) {
+             PreparedStatement preparedStatement = conn.prepareStatement(
+                     OrderQueryBuilder.select(expand, SqlScriptsForOrder.BY_ID))) {
             preparedStatement.setInt(1, id);
             try (ResultSet rs = preparedStatement.executeQuery()) {
                 if (rs.next()) {
-                    Client client = new Client(
-                            rs.getInt("client_id"),
-                            rs.getString("client_name"),
-                            rs.getString("contact_info")
-                    );
-                    Car car = new Car(
-                            rs.getInt("car_id"),
-                            rs.getString("make"),
-                            rs.getString("model"),
-                            rs.getInt("year"),
-                            rs.getDouble("price"),
-                            CarCondition.valueOf(rs.getString("condition"))
-                    );
-                    return new OrderDTO(
-                            rs.getInt("id"),
-                            client.id(),
-                            car.id(),
-                            rs.getTimestamp("creation_date").toInstant(),
-                            OrderStatus.valueOf(rs.getString("status"))
-                    );
+                    return readOrder(rs, expand);
                 }
             }
         } catch (SQLException e) {
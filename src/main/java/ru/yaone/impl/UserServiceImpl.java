@@ -6,8 +6,10 @@ import ru.yaone.dto.UserDTO;
 import ru.yaone.model.User;
 import ru.yaone.model.enumeration.UserRole;
 import ru.yaone.services.UserService;
+import ru.yaone.services.RowHandler;
 import ru.yaone.manager.DatabaseConnectionManager;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -87,13 +89,7 @@ public class UserServiceImpl implements UserService {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(SqlScriptsForUsers.GET_ALL_USERS)) {
             while (rs.next()) {
-                UserDTO userDTO = new UserDTO(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("password"),
-                        UserRole.valueOf(rs.getString("role"))
-                );
-                usersDTO.add(userDTO);
+                usersDTO.add(readUser(rs));
             }
         } catch (SQLException e) {
             System.err.println("Ошибка SQL: " + e.getMessage());
@@ -102,6 +98,33 @@ public class UserServiceImpl implements UserService {
         return usersDTO;
     }
 
+    /**
+     * Передаёт обработчику всех пользователей по одному по мере чтения курсором на сервере.
+     *
+     * @param handler обработчик пользователей
+     * @throws IOException      если обработчик не смог записать пользователя
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    @Loggable("Логирование метода UserServiceImpl.streamAllUsers")
+    @Override
+    public void streamAllUsers(RowHandler<UserDTO> handler) throws IOException {
+        try {
+            JdbcStreaming.stream(SqlScriptsForUsers.GET_ALL_USERS, UserServiceImpl::readUser, handler);
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при получении пользователей", e);
+        }
+    }
+
+    private static UserDTO readUser(ResultSet rs) throws SQLException {
+        return new UserDTO(
+                rs.getInt("id"),
+                rs.getString("username"),
+                rs.getString("password"),
+                UserRole.valueOf(rs.getString("role"))
+        );
+    }
+
     /**
      * Получает пользователя по уникальному идентификатору.
      *
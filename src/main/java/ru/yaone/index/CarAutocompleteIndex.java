@@ -0,0 +1,332 @@
+package ru.yaone.index;
+
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.constants.SqlScriptsForCar;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarSuggestionDTO;
+import ru.yaone.impl.JdbcStreaming;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Класс {@code CarAutocompleteIndex} подсказывает марки и модели автомобилей по началу строки
+ * без обращения к базе данных.
+ *
+ * <p>Различные марки и модели лежат в префиксном дереве по строке в нижнем регистре. Каждый узел
+ * хранит заранее отобранные {@code cars.autocomplete.topK} значений своего поддерева с наибольшим
+ * числом автомобилей, поэтому ответ на нажатие клавиши — спуск по символам префикса и копирование
+ * готового списка. При изменении числа автомобилей у значения списки пересчитываются только
+ * на пути от его узла к корню: список узла собирается из его собственных значений и списков детей.</p>
+ *
+ * <p>Индекс включается свойством {@code cars.autocomplete.enabled}, загружается при запуске
+ * приложения и обновляется сервисом автомобилей после фиксации транзакции.</p>
+ */
+public class CarAutocompleteIndex implements CarIndex {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("cars.autocomplete.enabled", true);
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong((Entry entry) -> entry.count)
+            .reversed()
+            .thenComparing(entry -> entry.value)
+            .thenComparing(entry -> entry.field);
+
+    private static volatile CarAutocompleteIndex instance;
+
+    private final int topK;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Entry> makes = new HashMap<>();
+    private final Map<String, Entry> models = new HashMap<>();
+    private final Map<Integer, Entry[]> namesById = new HashMap<>();
+
+    /**
+     * Создаёт пустой индекс.
+     *
+     * @param topK число подсказок, хранимых в каждом узле; больше подсказок индекс не выдаёт
+     */
+    public CarAutocompleteIndex(int topK) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("Число подсказок должно быть положительным: " + topK);
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Возвращает общий индекс.
+     *
+     * @return загруженный индекс или {@code null}, если индекс выключен или не загружен
+     */
+    public static CarAutocompleteIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Загружает общий индекс из базы данных, если {@code cars.autocomplete.enabled=true}.
+     *
+     * <p>Если загрузка не удалась, подсказки выдаются запросом к базе данных.</p>
+     */
+    public static synchronized void startInstance() {
+        if (!ENABLED || instance != null) {
+            return;
+        }
+        try {
+            instance = load(ApplicationProperties.getInt("cars.autocomplete.topK", 10));
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка загрузки подсказок автомобилей: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Выгружает общий индекс.
+     */
+    public static synchronized void shutdownInstance() {
+        instance = null;
+    }
+
+    /**
+     * Читает марки и модели всех автомобилей из базы данных и строит по ним индекс.
+     *
+     * <p>Сначала подсчитываются автомобили у каждого значения, затем списки лучших значений
+     * строятся одним обходом дерева снизу вверх.</p>
+     *
+     * @param topK число подсказок, хранимых в каждом узле
+     * @return построенный индекс
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    public static CarAutocompleteIndex load(int topK) {
+        CarAutocompleteIndex index = new CarAutocompleteIndex(topK);
+        try {
+            JdbcStreaming.stream(SqlScriptsForCar.GET_CAR_NAMES,
+                    rs -> new CarName(rs.getInt("id"), rs.getString("make"), rs.getString("model")),
+                    name -> index.namesById.put(name.id(), new Entry[]{
+                            index.count(CarGroupField.MAKE, name.make(), 1, false),
+                            index.count(CarGroupField.MODEL, name.model(), 1, false)}));
+        } catch (SQLException | IOException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при загрузке подсказок автомобилей", e);
+        }
+        index.rank(index.root);
+        return index;
+    }
+
+    /**
+     * Учитывает марку и модель автомобиля; для известного идентификатора прежние значения
+     * перестают учитываться.
+     *
+     * @param carDTO автомобиль
+     */
+    @Override
+    public void put(CarDTO carDTO) {
+        lock.writeLock().lock();
+        try {
+            Entry[] previous = namesById.get(carDTO.getId());
+            if (previous != null) {
+                if (previous[0].value.equals(carDTO.getMake()) && previous[1].value.equals(carDTO.getModel())) {
+                    return;
+                }
+                count(CarGroupField.MAKE, previous[0].value, -1, true);
+                count(CarGroupField.MODEL, previous[1].value, -1, true);
+            }
+            namesById.put(carDTO.getId(), new Entry[]{
+                    count(CarGroupField.MAKE, carDTO.getMake(), 1, true),
+                    count(CarGroupField.MODEL, carDTO.getModel(), 1, true)});
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Перестаёт учитывать марку и модель автомобиля.
+     *
+     * @param id идентификатор автомобиля
+     * @return {@code true}, если автомобиль был в индексе
+     */
+    @Override
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            Entry[] previous = namesById.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            count(CarGroupField.MAKE, previous[0].value, -1, true);
+            count(CarGroupField.MODEL, previous[1].value, -1, true);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает марки и модели, начинающиеся с префикса без учёта регистра, по убыванию
+     * числа автомобилей.
+     *
+     * @param prefix начало марки или модели
+     * @param limit  максимальное число подсказок; больше {@code topK} не выдаётся
+     * @return подсказки; при равном числе автомобилей — по значению
+     */
+    public List<CarSuggestionDTO> suggest(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            int size = Math.min(limit, node.top.length);
+            List<CarSuggestionDTO> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Entry entry = node.top[i];
+                suggestions.add(new CarSuggestionDTO(entry.field.column(), entry.value, entry.count));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Изменяет число автомобилей у значения; значение без автомобилей удаляется из дерева.
+     *
+     * @param field  марка или модель
+     * @param value  значение
+     * @param delta  изменение числа автомобилей
+     * @param rerank пересчитать списки лучших значений на пути к корню
+     * @return запись значения
+     */
+    private Entry count(CarGroupField field, String value, int delta, boolean rerank) {
+        Map<String, Entry> entries = field == CarGroupField.MAKE ? makes : models;
+        String key = value.toLowerCase(Locale.ROOT);
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+        Node node = path[key.length()];
+        Entry entry = entries.get(value);
+        if (entry == null) {
+            entry = new Entry(field, value);
+            entries.put(value, entry);
+            node.entries.add(entry);
+        }
+        entry.count += delta;
+        if (entry.count <= 0) {
+            entries.remove(value);
+            node.entries.remove(entry);
+        }
+        if (rerank) {
+            for (int depth = key.length(); depth >= 0; depth--) {
+                Node current = path[depth];
+                if (depth > 0 && current.isEmpty()) {
+                    path[depth - 1].removeChild(key.charAt(depth - 1));
+                } else {
+                    current.top = top(current);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private void rank(Node node) {
+        for (Node child : node.children) {
+            rank(child);
+        }
+        node.top = top(node);
+    }
+
+    private Entry[] top(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.entries);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(RANKING);
+        return candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_ENTRIES);
+    }
+
+    /**
+     * Марка и модель автомобиля, прочитанные при загрузке индекса.
+     */
+    private record CarName(int id, String make, String model) {
+    }
+
+    private static final class Entry {
+        private final CarGroupField field;
+        private final String value;
+        private long count;
+
+        private Entry(CarGroupField field, String value) {
+            this.field = field;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Узел дерева: дети упорядочены по символу и ищутся двоичным поиском.
+     */
+    private static final class Node {
+        private final List<Entry> entries = new ArrayList<>(1);
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Entry[] top = NO_ENTRIES;
+
+        private Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position < 0 ? null : children[position];
+        }
+
+        private Node childOrCreate(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            position = -position - 1;
+            Node child = new Node();
+            labels = insert(labels, position, label);
+            Node[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, position, grown, position + 1, children.length - position);
+            grown[position] = child;
+            children = grown;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position < 0) {
+                return;
+            }
+            char[] shrunkLabels = new char[labels.length - 1];
+            System.arraycopy(labels, 0, shrunkLabels, 0, position);
+            System.arraycopy(labels, position + 1, shrunkLabels, position, labels.length - position - 1);
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, position);
+            System.arraycopy(children, position + 1, shrunk, position, children.length - position - 1);
+            labels = shrunkLabels;
+            children = shrunk;
+        }
+
+        private boolean isEmpty() {
+            return entries.isEmpty() && children.length == 0;
+        }
+
+        private static char[] insert(char[] array, int position, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, position);
+            grown[position] = value;
+            System.arraycopy(array, position, grown, position + 1, array.length - position);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yaone.index;
+
+import ru.yaone.dto.CarFacetsDTO;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш фасетов автомобилей по фильтру, сбрасываемый при любом изменении таблицы {@code cars}.
+ *
+ * <p>Каждая запись помечена версией кэша на момент начала подсчёта. {@link #invalidate()}
+ * увеличивает версию, поэтому фасеты, подсчитанные параллельно с изменением, не будут
+ * выданы после него. При превышении размера кэш очищается целиком.</p>
+ */
+public class CarFacetsCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final int maxEntries;
+
+    /**
+     * Создаёт кэш.
+     *
+     * @param maxEntries максимальное число фильтров в кэше
+     */
+    public CarFacetsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Возвращает фасеты фильтра из кэша или подсчитывает и запоминает их.
+     *
+     * @param key    ключ фильтра
+     * @param loader подсчёт фасетов
+     * @return фасеты фильтра
+     */
+    public CarFacetsDTO get(String key, Supplier<CarFacetsDTO> loader) {
+        long current = version.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == current) {
+            return entry.facets();
+        }
+        CarFacetsDTO facets = loader.get();
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(current, facets));
+        return facets;
+    }
+
+    /**
+     * Сбрасывает все фасеты.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Фасеты фильтра и версия кэша, в которой они подсчитаны.
+     */
+    private record Entry(long version, CarFacetsDTO facets) {
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yaone.index;
+
+import ru.yaone.dto.CarDTO;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Структура в памяти, построенная по таблице {@code cars} и обновляемая сервисом автомобилей
+ * после фиксации транзакции.
+ */
+public interface CarIndex {
+
+    /**
+     * Добавляет автомобиль или заменяет автомобиль с тем же идентификатором.
+     *
+     * @param carDTO автомобиль
+     */
+    void put(CarDTO carDTO);
+
+    /**
+     * Добавляет или заменяет пачку автомобилей, например, зафиксированную пачку импорта.
+     *
+     * @param carDTOs автомобили
+     */
+    default void putAll(Collection<CarDTO> carDTOs) {
+        carDTOs.forEach(this::put);
+    }
+
+    /**
+     * Удаляет автомобиль по идентификатору.
+     *
+     * @param id идентификатор автомобиля
+     * @return {@code true}, если автомобиль был в индексе
+     */
+    boolean remove(int id);
+
+    /**
+     * Читает автомобиль из текущей строки запроса {@code GET_ALL_CARS} при загрузке индекса.
+     *
+     * @param rs результат запроса, установленный на строку
+     * @return автомобиль
+     * @throws SQLException если строку не удалось прочитать
+     */
+    static CarDTO readCar(ResultSet rs) throws SQLException {
+        return new CarDTO(rs.getInt("id"), rs.getString("make"), rs.getString("model"),
+                rs.getInt("year"), rs.getDouble("price"), CarCondition.valueOf(rs.getString("condition")));
+    }
+}
@@ -0,0 +1,645 @@
+package ru.yaone.index;
+
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.constants.SqlScriptsForCar;
+import ru.yaone.dto.CarAggregateDTO;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFacetsDTO;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.impl.JdbcStreaming;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Класс {@code CarInventoryIndex} хранит таблицу {@code cars} в памяти и отвечает на поиск
+ * автомобилей по {@link CarSearchCriteria} без обращения к базе данных.
+ *
+ * <p>Автомобили лежат в слотах параллельных примитивных массивов: год, цена в копейках,
+ * порядковый номер состояния в {@code byte[]}, марка и модель — кодами {@link StringDictionary}
+ * в {@code int[]}. Над ними построены:
+ * хэш-индексы марки и модели (списки слотов), битовая карта слотов для каждого
+ * {@link CarCondition} и упорядоченные индексы {@link RangeIndex} по году и цене в копейках.
+ * Поиск оценивает размер выборки каждого заданного условия, обходит самую короткую
+ * и проверяет на ней остальные условия по массивам.</p>
+ *
+ * <p>Индекс включается свойством {@code cars.index.enabled}, загружается при запуске
+ * приложения и обновляется сервисом автомобилей после фиксации транзакции, поэтому
+ * изменения, сделанные в обход приложения, в него не попадают.</p>
+ */
+public class CarInventoryIndex implements CarIndex {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("cars.index.enabled", false);
+    private static final CarCondition[] CONDITIONS = CarCondition.values();
+    private static final byte FREE_SLOT = -1;
+    private static final int DENSE_GROUPS = 1 << 16;
+
+    private static volatile CarInventoryIndex instance;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SlotList> byMake = new HashMap<>();
+    private final Map<String, SlotList> byModel = new HashMap<>();
+    private final Map<CarCondition, BitSet> byCondition = new EnumMap<>(CarCondition.class);
+    private final RangeIndex byYear = new RangeIndex();
+    private final RangeIndex byPrice = new RangeIndex();
+    private final BitSet live = new BitSet();
+
+    private final StringDictionary makeDictionary = new StringDictionary();
+    private final StringDictionary modelDictionary = new StringDictionary();
+
+    private int[] ids = new int[16];
+    private int[] makeCodes = new int[16];
+    private int[] modelCodes = new int[16];
+    private int[] years = new int[16];
+    private long[] priceCents = new long[16];
+    private byte[] conditionCodes = new byte[16];
+    private int[] slotById = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    /**
+     * Создаёт пустой индекс.
+     */
+    public CarInventoryIndex() {
+        Arrays.fill(slotById, -1);
+        for (CarCondition condition : CarCondition.values()) {
+            byCondition.put(condition, new BitSet());
+        }
+    }
+
+    /**
+     * Возвращает общий индекс.
+     *
+     * @return загруженный индекс или {@code null}, если индекс выключен или не загружен
+     */
+    public static CarInventoryIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Загружает общий индекс из базы данных, если {@code cars.index.enabled=true}.
+     *
+     * <p>Если загрузка не удалась, поиск продолжает выполняться запросами к базе данных.</p>
+     */
+    public static synchronized void startInstance() {
+        if (!ENABLED || instance != null) {
+            return;
+        }
+        try {
+            instance = load();
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка загрузки индекса автомобилей: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Выгружает общий индекс.
+     */
+    public static synchronized void shutdownInstance() {
+        instance = null;
+    }
+
+    /**
+     * Читает все автомобили из базы данных и строит по ним индекс.
+     *
+     * @return построенный индекс
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    public static CarInventoryIndex load() {
+        CarInventoryIndex index = new CarInventoryIndex();
+        try {
+            JdbcStreaming.stream(SqlScriptsForCar.GET_ALL_CARS, CarIndex::readCar, carDTO ->
+                    index.store(index.allocateSlot(), carDTO.getId(), carDTO.getMake(), carDTO.getModel(),
+                            carDTO.getYear(), toCents(carDTO.getPrice()), carDTO.getCondition()));
+        } catch (SQLException | IOException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при загрузке индекса автомобилей", e);
+        }
+        index.rebuildRangeIndexes();
+        return index;
+    }
+
+    /**
+     * Добавляет автомобиль или заменяет автомобиль с тем же идентификатором.
+     *
+     * @param carDTO автомобиль
+     */
+    @Override
+    public void put(CarDTO carDTO) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(carDTO.getId());
+            if (slot >= 0) {
+                release(slot);
+            }
+            slot = allocateSlot();
+            store(slot, carDTO.getId(), carDTO.getMake(), carDTO.getModel(), carDTO.getYear(),
+                    toCents(carDTO.getPrice()), carDTO.getCondition());
+            byYear.add(years[slot], slot);
+            byPrice.add(priceCents[slot], slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет или заменяет пачку автомобилей.
+     *
+     * <p>Упорядоченные индексы по году и цене обновляются один раз на пачку: заменённые слоты
+     * вычёркиваются одним проходом, а новые сливаются после сортировки пачки.</p>
+     *
+     * @param carDTOs автомобили
+     */
+    @Override
+    public void putAll(Collection<CarDTO> carDTOs) {
+        lock.writeLock().lock();
+        try {
+            BitSet replaced = new BitSet();
+            BitSet added = new BitSet();
+            for (CarDTO carDTO : carDTOs) {
+                int slot = slotOf(carDTO.getId());
+                if (slot >= 0) {
+                    free(slot);
+                    replaced.set(slot);
+                    added.clear(slot);
+                }
+                slot = allocateSlot();
+                store(slot, carDTO.getId(), carDTO.getMake(), carDTO.getModel(), carDTO.getYear(),
+                        toCents(carDTO.getPrice()), carDTO.getCondition());
+                added.set(slot);
+            }
+            byYear.removeAll(replaced);
+            byPrice.removeAll(replaced);
+            int[] slots = added.stream().toArray();
+            long[] yearKeys = new long[slotCount];
+            for (int slot : slots) {
+                yearKeys[slot] = years[slot];
+            }
+            byYear.addAll(yearKeys, slots, slots.length);
+            byPrice.addAll(priceCents, slots, slots.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет автомобиль по идентификатору.
+     *
+     * @param id идентификатор автомобиля
+     * @return {@code true}, если автомобиль был в индексе
+     */
+    @Override
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(id);
+            if (slot < 0) {
+                return false;
+            }
+            release(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает число автомобилей в индексе.
+     *
+     * @return число автомобилей
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotCount - freeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет автомобили по заданным критериям.
+     *
+     * <p>Семантика совпадает с запросом {@code CarQueryBuilder}: точное совпадение марки
+     * и модели, включительные диапазоны года и цены, любое из заданных состояний.
+     * Результат упорядочен по идентификатору.</p>
+     *
+     * @param criteria условия поиска
+     * @return список автомобилей, удовлетворяющих условиям
+     */
+    public List<CarDTO> search(CarSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            return materialize(select(criteria));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Считает фасеты автомобилей, удовлетворяющих критериям, за один проход по выборке.
+     *
+     * @param criteria        условия поиска
+     * @param yearBucketSize  ширина интервала года
+     * @param priceBucketSize ширина интервала цены
+     * @return число автомобилей по марке, состоянию, интервалам года и цены
+     */
+    public CarFacetsDTO facets(CarSearchCriteria criteria, int yearBucketSize, long priceBucketSize) {
+        CarFacetsDTO facets = CarFacetsDTO.empty(yearBucketSize, priceBucketSize);
+        long priceBucketCents = priceBucketSize * 100;
+        lock.readLock().lock();
+        try {
+            int[] selection = select(criteria).toArray();
+            long[] makeCounts = new long[makeDictionary.size()];
+            long[] conditionCounts = new long[CONDITIONS.length];
+            for (int slot : selection) {
+                makeCounts[makeCodes[slot]]++;
+                conditionCounts[conditionCodes[slot]]++;
+                facets.getYears().merge(Math.floorDiv(years[slot], yearBucketSize) * yearBucketSize, 1L, Long::sum);
+                facets.getPrices().merge(Math.floorDiv(priceCents[slot], priceBucketCents) * priceBucketSize,
+                        1L, Long::sum);
+            }
+            for (int code = 0; code < makeCounts.length; code++) {
+                if (makeCounts[code] > 0) {
+                    facets.getMakes().put(makeDictionary.decode(code), makeCounts[code]);
+                }
+            }
+            for (CarCondition condition : CONDITIONS) {
+                if (conditionCounts[condition.ordinal()] > 0) {
+                    facets.getConditions().put(condition.name(), conditionCounts[condition.ordinal()]);
+                }
+            }
+            facets.setTotal(selection.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return facets;
+    }
+
+    /**
+     * Считает число автомобилей и сумму, минимум и максимум цены в группах по заданным полям.
+     *
+     * <p>Выборка переводится в массив слотов, после чего ключ группы собирается по одному столбцу
+     * за проход как число в смешанной системе счисления: основание марки и модели — размер словаря,
+     * года — разброс лет в индексе, состояния — число состояний. Если произведение оснований
+     * превышает размер выборки, ключи сжимаются до рангов различных значений, поэтому счётчики
+     * групп всегда умещаются в плотные массивы. Значения группы читаются из первого попавшего
+     * в неё слота. Средняя цена не заполняется.</p>
+     *
+     * @param criteria условия отбора
+     * @param groupBy  поля группировки; пустой список даёт одну группу со всей выборкой
+     * @return группы, упорядоченные по значениям полей группировки
+     */
+    public List<CarAggregateDTO> aggregate(CarSearchCriteria criteria, List<CarGroupField> groupBy) {
+        lock.readLock().lock();
+        try {
+            int[] selection = select(criteria).toArray();
+            long[] keys = new long[selection.length];
+            long cells = 1;
+            long limit = Math.max(selection.length, DENSE_GROUPS);
+            for (CarGroupField field : groupBy) {
+                int radix = radix(field);
+                if (cells * radix > limit) {
+                    cells = compact(keys);
+                }
+                appendColumn(field, selection, keys, radix);
+                cells *= radix;
+            }
+            if (cells > limit) {
+                cells = compact(keys);
+            }
+
+            int groups = (int) cells;
+            long[] counts = new long[groups];
+            long[] sums = new long[groups];
+            long[] mins = new long[groups];
+            long[] maxs = new long[groups];
+            int[] firstSlots = new int[groups];
+            for (int i = 0; i < selection.length; i++) {
+                int group = (int) keys[i];
+                long cents = priceCents[selection[i]];
+                if (counts[group]++ == 0) {
+                    firstSlots[group] = selection[i];
+                    mins[group] = cents;
+                    maxs[group] = cents;
+                } else {
+                    mins[group] = Math.min(mins[group], cents);
+                    maxs[group] = Math.max(maxs[group], cents);
+                }
+                sums[group] += cents;
+            }
+
+            List<CarAggregateDTO> result = new ArrayList<>();
+            for (int group = 0; group < groups; group++) {
+                if (counts[group] == 0) {
+                    continue;
+                }
+                CarAggregateDTO aggregate = new CarAggregateDTO();
+                for (CarGroupField field : groupBy) {
+                    aggregate.getGroup().put(field.column(), groupValue(field, firstSlots[group]));
+                }
+                aggregate.setCount(counts[group]);
+                aggregate.setTotalPrice(BigDecimal.valueOf(sums[group], 2));
+                aggregate.setMinPrice(BigDecimal.valueOf(mins[group], 2));
+                aggregate.setMaxPrice(BigDecimal.valueOf(maxs[group], 2));
+                result.add(aggregate);
+            }
+            if (groupBy.isEmpty() && result.isEmpty()) {
+                result.add(new CarAggregateDTO());
+            }
+            result.sort(CarInventoryIndex::compareGroups);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int radix(CarGroupField field) {
+        return switch (field) {
+            case MAKE -> Math.max(1, makeDictionary.size());
+            case MODEL -> Math.max(1, modelDictionary.size());
+            case YEAR -> byYear.size() == 0 ? 1 : (int) (byYear.keyAt(byYear.size() - 1) - byYear.keyAt(0) + 1);
+            case CONDITION -> CONDITIONS.length;
+        };
+    }
+
+    private void appendColumn(CarGroupField field, int[] selection, long[] keys, int radix) {
+        switch (field) {
+            case MAKE -> {
+                for (int i = 0; i < selection.length; i++) {
+                    keys[i] = keys[i] * radix + makeCodes[selection[i]];
+                }
+            }
+            case MODEL -> {
+                for (int i = 0; i < selection.length; i++) {
+                    keys[i] = keys[i] * radix + modelCodes[selection[i]];
+                }
+            }
+            case YEAR -> {
+                int base = byYear.size() == 0 ? 0 : (int) byYear.keyAt(0);
+                for (int i = 0; i < selection.length; i++) {
+                    keys[i] = keys[i] * radix + years[selection[i]] - base;
+                }
+            }
+            case CONDITION -> {
+                for (int i = 0; i < selection.length; i++) {
+                    keys[i] = keys[i] * radix + conditionCodes[selection[i]];
+                }
+            }
+        }
+    }
+
+    private Object groupValue(CarGroupField field, int slot) {
+        return switch (field) {
+            case MAKE -> makeDictionary.decode(makeCodes[slot]);
+            case MODEL -> modelDictionary.decode(modelCodes[slot]);
+            case YEAR -> years[slot];
+            case CONDITION -> CONDITIONS[conditionCodes[slot]].name();
+        };
+    }
+
+    /**
+     * Заменяет ключи рангами среди различных значений с сохранением порядка.
+     *
+     * @param keys ключи групп
+     * @return число различных ключей
+     */
+    private static int compact(long[] keys) {
+        long[] distinct = keys.clone();
+        Arrays.sort(distinct);
+        int size = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (size == 0 || distinct[size - 1] != distinct[i]) {
+                distinct[size++] = distinct[i];
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Arrays.binarySearch(distinct, 0, size, keys[i]);
+        }
+        return Math.max(1, size);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareGroups(CarAggregateDTO first, CarAggregateDTO second) {
+        Iterator<Object> others = second.getGroup().values().iterator();
+        for (Object value : first.getGroup().values()) {
+            int result = ((Comparable) value).compareTo(others.next());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Отбирает слоты автомобилей, удовлетворяющих критериям; вызывается под блокировкой чтения.
+     *
+     * <p>Оценивает размер выборки каждого заданного условия, обходит самую короткую
+     * и проверяет на ней остальные условия по массивам.</p>
+     *
+     * @param criteria условия поиска
+     * @return найденные слоты в произвольном порядке
+     */
+    private SlotList select(CarSearchCriteria criteria) {
+        long yearFrom = criteria.getYearFrom() == null ? Long.MIN_VALUE : criteria.getYearFrom();
+        long yearTo = criteria.getYearTo() == null ? Long.MAX_VALUE : criteria.getYearTo();
+        long minCents = criteria.getMinPrice() == null ? Long.MIN_VALUE
+                : BigDecimal.valueOf(criteria.getMinPrice()).movePointRight(2)
+                .setScale(0, RoundingMode.CEILING).longValue();
+        long maxCents = criteria.getMaxPrice() == null ? Long.MAX_VALUE
+                : BigDecimal.valueOf(criteria.getMaxPrice()).movePointRight(2)
+                .setScale(0, RoundingMode.FLOOR).longValue();
+        String make = criteria.getMake();
+        String model = criteria.getModel();
+        SlotList found = new SlotList();
+
+        SlotList makeSlots = make == null ? null : byMake.get(make);
+        SlotList modelSlots = model == null ? null : byModel.get(model);
+        if ((make != null && makeSlots == null) || (model != null && modelSlots == null)) {
+            return found;
+        }
+        int makeCode = make == null ? -1 : makeDictionary.find(make);
+        int modelCode = model == null ? -1 : modelDictionary.find(model);
+        BitSet conditionSlots = null;
+        int conditionMask = -1;
+        if (criteria.getConditions() != null && !criteria.getConditions().isEmpty()) {
+            conditionSlots = new BitSet();
+            conditionMask = 0;
+            for (CarCondition condition : criteria.getConditions()) {
+                conditionSlots.or(byCondition.get(condition));
+                conditionMask |= 1 << condition.ordinal();
+            }
+        }
+        int yearLow = byYear.lowerBound(yearFrom);
+        int yearHigh = byYear.upperBound(yearTo);
+        int priceLow = byPrice.lowerBound(minCents);
+        int priceHigh = byPrice.upperBound(maxCents);
+
+        BitSet conditionFilter = conditionSlots;
+        int conditions = conditionMask;
+        IntConsumer collector = slot -> {
+            long cents = priceCents[slot];
+            if ((makeCode < 0 || makeCodes[slot] == makeCode)
+                    && (modelCode < 0 || modelCodes[slot] == modelCode)
+                    && years[slot] >= yearFrom && years[slot] <= yearTo
+                    && cents >= minCents && cents <= maxCents
+                    && (conditions & 1 << conditionCodes[slot]) != 0) {
+                found.add(slot);
+            }
+        };
+
+        int best = slotCount - freeCount;
+        Runnable scan = () -> live.stream().forEach(collector);
+        if (makeSlots != null && makeSlots.size() < best) {
+            best = makeSlots.size();
+            scan = () -> scan(makeSlots, collector);
+        }
+        if (modelSlots != null && modelSlots.size() < best) {
+            best = modelSlots.size();
+            scan = () -> scan(modelSlots, collector);
+        }
+        if (yearHigh - yearLow < best) {
+            best = Math.max(0, yearHigh - yearLow);
+            scan = () -> scan(byYear, yearLow, yearHigh, collector);
+        }
+        if (priceHigh - priceLow < best) {
+            best = Math.max(0, priceHigh - priceLow);
+            scan = () -> scan(byPrice, priceLow, priceHigh, collector);
+        }
+        if (conditionSlots != null && conditionSlots.cardinality() < best) {
+            scan = () -> conditionFilter.stream().forEach(collector);
+        }
+        scan.run();
+        return found;
+    }
+
+    /**
+     * Переводит цену в копейки с округлением, как при записи в столбец {@code decimal(10,2)}.
+     *
+     * @param price цена
+     * @return цена в копейках
+     */
+    static long toCents(double price) {
+        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+    }
+
+    private static void scan(SlotList slots, IntConsumer collector) {
+        for (int i = 0; i < slots.size(); i++) {
+            collector.accept(slots.get(i));
+        }
+    }
+
+    private static void scan(RangeIndex index, int from, int to, IntConsumer collector) {
+        for (int position = from; position < to; position++) {
+            collector.accept(index.slotAt(position));
+        }
+    }
+
+    private List<CarDTO> materialize(SlotList found) {
+        long[] order = new long[found.size()];
+        for (int i = 0; i < order.length; i++) {
+            int slot = found.get(i);
+            order[i] = (long) ids[slot] << Integer.SIZE | slot;
+        }
+        Arrays.sort(order);
+        List<CarDTO> carDTOs = new ArrayList<>(order.length);
+        for (long entry : order) {
+            int slot = (int) entry;
+            carDTOs.add(new CarDTO(ids[slot], makeDictionary.decode(makeCodes[slot]),
+                    modelDictionary.decode(modelCodes[slot]), years[slot], priceCents[slot] / 100.0,
+                    CONDITIONS[conditionCodes[slot]]));
+        }
+        return carDTOs;
+    }
+
+    private int slotOf(int id) {
+        return id >= 0 && id < slotById.length ? slotById[id] : -1;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            makeCodes = Arrays.copyOf(makeCodes, capacity);
+            modelCodes = Arrays.copyOf(modelCodes, capacity);
+            years = Arrays.copyOf(years, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            conditionCodes = Arrays.copyOf(conditionCodes, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void store(int slot, int id, String make, String model, int year, long cents, CarCondition condition) {
+        if (id >= slotById.length) {
+            int length = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(id + 1, length * 2));
+            Arrays.fill(slotById, length, slotById.length, -1);
+        }
+        ids[slot] = id;
+        makeCodes[slot] = makeDictionary.encode(make);
+        modelCodes[slot] = modelDictionary.encode(model);
+        years[slot] = year;
+        priceCents[slot] = cents;
+        conditionCodes[slot] = (byte) condition.ordinal();
+        slotById[id] = slot;
+        live.set(slot);
+        byMake.computeIfAbsent(make, key -> new SlotList()).add(slot);
+        byModel.computeIfAbsent(model, key -> new SlotList()).add(slot);
+        byCondition.get(condition).set(slot);
+    }
+
+    private void release(int slot) {
+        byYear.remove(years[slot], slot);
+        byPrice.remove(priceCents[slot], slot);
+        free(slot);
+    }
+
+    private void free(int slot) {
+        removeFrom(byMake, makeDictionary.decode(makeCodes[slot]), slot);
+        removeFrom(byModel, modelDictionary.decode(modelCodes[slot]), slot);
+        byCondition.get(CONDITIONS[conditionCodes[slot]]).clear(slot);
+        live.clear(slot);
+        slotById[ids[slot]] = -1;
+        conditionCodes[slot] = FREE_SLOT;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private static void removeFrom(Map<String, SlotList> index, String key, int slot) {
+        SlotList slots = index.get(key);
+        if (slots != null && slots.remove(slot) && slots.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private void rebuildRangeIndexes() {
+        int[] loaded = live.stream().toArray();
+        long[] yearKeys = new long[slotCount];
+        for (int slot : loaded) {
+            yearKeys[slot] = years[slot];
+        }
+        byYear.load(yearKeys, loaded, loaded.length);
+        byPrice.load(priceCents, loaded, loaded.length);
+    }
+}
@@ -0,0 +1,365 @@
+package ru.yaone.index;
+
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.constants.SqlScriptsForCar;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.impl.JdbcStreaming;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Класс {@code CarSimilarityIndex} находит автомобили, похожие на заданный, без обращения к базе данных.
+ *
+ * <p>Автомобиль — точка на плоскости: год, делённый на {@code cars.similar.yearScale}, и логарифм цены
+ * по основанию {@code 1 + cars.similar.priceRatio}, так что единица расстояния — это
+ * {@code yearScale} лет или {@code priceRatio} цены. Похожие автомобили имеют то же состояние;
+ * к евклидову расстоянию до автомобиля другой марки прибавляется {@code cars.similar.makePenalty}.</p>
+ *
+ * <p>Точки разбиты по состоянию и марке, внутри марки — по ячейкам единичной сетки. Поиск обходит
+ * кольца ячеек вокруг заданного автомобиля, пока расстояние до следующего кольца не превысит
+ * худшего из найденных соседей. Другие марки просматриваются, только если соседей своей марки
+ * не хватает или они дальше штрафа за марку.</p>
+ *
+ * <p>Индекс включается свойством {@code cars.similar.enabled}, загружается при запуске
+ * приложения и обновляется сервисом автомобилей после фиксации транзакции.</p>
+ */
+public class CarSimilarityIndex implements CarIndex {
+
+    /**
+     * Число лет, составляющее единицу расстояния.
+     */
+    public static final double YEAR_SCALE = Double.parseDouble(
+            ApplicationProperties.getString("cars.similar.yearScale", "2"));
+
+    /**
+     * Относительная разница цен, составляющая единицу расстояния.
+     */
+    public static final double PRICE_RATIO = Double.parseDouble(
+            ApplicationProperties.getString("cars.similar.priceRatio", "0.1"));
+
+    /**
+     * Прибавка к расстоянию до автомобиля другой марки.
+     */
+    public static final double MAKE_PENALTY = Double.parseDouble(
+            ApplicationProperties.getString("cars.similar.makePenalty", "2"));
+
+    /**
+     * Наименьшая цена, от которой берётся логарифм: нулевая или отрицательная цена, попавшая
+     * в таблицу в обход проверки, считается равной одной копейке.
+     */
+    public static final double MIN_PRICE = 0.01;
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("cars.similar.enabled", true);
+    private static final Comparator<Neighbour> FARTHEST_FIRST = Comparator.comparingDouble(Neighbour::distance)
+            .thenComparingInt(neighbour -> neighbour.point().car().getId())
+            .reversed();
+
+    private static volatile CarSimilarityIndex instance;
+
+    private final double yearScale;
+    private final double priceStep;
+    private final double makePenalty;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Point> pointsById = new HashMap<>();
+    private final Map<CarCondition, Map<String, Grid>> grids = new EnumMap<>(CarCondition.class);
+
+    /**
+     * Создаёт пустой индекс с параметрами расстояния из свойств приложения.
+     */
+    public CarSimilarityIndex() {
+        this(YEAR_SCALE, PRICE_RATIO, MAKE_PENALTY);
+    }
+
+    /**
+     * Создаёт пустой индекс.
+     *
+     * @param yearScale   число лет в единице расстояния
+     * @param priceRatio  относительная разница цен в единице расстояния
+     * @param makePenalty прибавка к расстоянию до автомобиля другой марки
+     */
+    public CarSimilarityIndex(double yearScale, double priceRatio, double makePenalty) {
+        if (!(yearScale > 0) || !(priceRatio > 0) || !(makePenalty >= 0)) {
+            throw new IllegalArgumentException("Некорректные параметры расстояния между автомобилями");
+        }
+        this.yearScale = yearScale;
+        this.priceStep = Math.log1p(priceRatio);
+        this.makePenalty = makePenalty;
+    }
+
+    /**
+     * Возвращает общий индекс.
+     *
+     * @return загруженный индекс или {@code null}, если индекс выключен или не загружен
+     */
+    public static CarSimilarityIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Загружает общий индекс из базы данных, если {@code cars.similar.enabled=true}.
+     *
+     * <p>Если загрузка не удалась, похожие автомобили подбираются запросом к базе данных.</p>
+     */
+    public static synchronized void startInstance() {
+        if (!ENABLED || instance != null) {
+            return;
+        }
+        try {
+            instance = load();
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка загрузки индекса похожих автомобилей: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Выгружает общий индекс.
+     */
+    public static synchronized void shutdownInstance() {
+        instance = null;
+    }
+
+    /**
+     * Читает все автомобили из базы данных и строит по ним индекс.
+     *
+     * @return построенный индекс
+     * @throws RuntimeException если произошла ошибка во время выполнения SQL-запроса
+     */
+    public static CarSimilarityIndex load() {
+        CarSimilarityIndex index = new CarSimilarityIndex();
+        try {
+            JdbcStreaming.stream(SqlScriptsForCar.GET_ALL_CARS, CarIndex::readCar, index::put);
+        } catch (SQLException | IOException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при загрузке индекса похожих автомобилей", e);
+        }
+        return index;
+    }
+
+    /**
+     * Логарифм цены, ограниченной снизу {@link #MIN_PRICE}; так же цена считается в {@code SIMILAR_CARS}.
+     *
+     * @param price цена автомобиля
+     * @return натуральный логарифм цены
+     */
+    public static double logPrice(double price) {
+        return Math.log(Math.max(price, MIN_PRICE));
+    }
+
+    /**
+     * Добавляет автомобиль или заменяет автомобиль с тем же идентификатором.
+     *
+     * @param carDTO автомобиль
+     */
+    @Override
+    public void put(CarDTO carDTO) {
+        Point point = new Point(carDTO, carDTO.getYear() / yearScale, logPrice(carDTO.getPrice()) / priceStep);
+        lock.writeLock().lock();
+        try {
+            Point previous = pointsById.put(carDTO.getId(), point);
+            if (previous != null) {
+                detach(previous);
+            }
+            grids.computeIfAbsent(carDTO.getCondition(), key -> new HashMap<>())
+                    .computeIfAbsent(carDTO.getMake(), key -> new Grid())
+                    .add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет автомобиль по идентификатору.
+     *
+     * @param id идентификатор автомобиля
+     * @return {@code true}, если автомобиль был в индексе
+     */
+    @Override
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            Point previous = pointsById.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            detach(previous);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Находит ближайшие к автомобилю автомобили того же состояния.
+     *
+     * @param id    идентификатор автомобиля
+     * @param limit максимальное число соседей
+     * @return соседи по возрастанию расстояния, при равенстве — по идентификатору,
+     * или {@code null}, если автомобиля нет в индексе
+     */
+    public List<CarDTO> similar(int id, int limit) {
+        PriorityQueue<Neighbour> nearest = new PriorityQueue<>(limit + 1, FARTHEST_FIRST);
+        lock.readLock().lock();
+        try {
+            Point target = pointsById.get(id);
+            if (target == null) {
+                return null;
+            }
+            Map<String, Grid> makes = grids.get(target.car().getCondition());
+            makes.get(target.car().getMake()).nearest(target, 0, limit, nearest);
+            for (Map.Entry<String, Grid> entry : makes.entrySet()) {
+                if (nearest.size() == limit && nearest.peek().distance() < makePenalty) {
+                    break;
+                }
+                if (!entry.getKey().equals(target.car().getMake())) {
+                    entry.getValue().nearest(target, makePenalty, limit, nearest);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Neighbour> neighbours = new ArrayList<>(nearest);
+        neighbours.sort(FARTHEST_FIRST.reversed());
+        List<CarDTO> carDTOs = new ArrayList<>(neighbours.size());
+        for (Neighbour neighbour : neighbours) {
+            carDTOs.add(neighbour.point().car());
+        }
+        return carDTOs;
+    }
+
+    private void detach(Point point) {
+        Map<String, Grid> makes = grids.get(point.car().getCondition());
+        Grid grid = makes.get(point.car().getMake());
+        if (grid.remove(point) && grid.isEmpty()) {
+            makes.remove(point.car().getMake());
+        }
+    }
+
+    private record Point(CarDTO car, double x, double y) {
+
+        private double distanceTo(Point other) {
+            return Math.hypot(x - other.x, y - other.y);
+        }
+    }
+
+    private record Neighbour(Point point, double distance) {
+    }
+
+    /**
+     * Точки одной марки и состояния в ячейках единичной сетки.
+     */
+    private static final class Grid {
+        private final Map<Long, List<Point>> cells = new HashMap<>();
+        private int minX = Integer.MAX_VALUE;
+        private int maxX = Integer.MIN_VALUE;
+        private int minY = Integer.MAX_VALUE;
+        private int maxY = Integer.MIN_VALUE;
+
+        private void add(Point point) {
+            int x = cell(point.x());
+            int y = cell(point.y());
+            cells.computeIfAbsent(key(x, y), k -> new ArrayList<>(2)).add(point);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+
+        private boolean remove(Point point) {
+            long key = key(cell(point.x()), cell(point.y()));
+            List<Point> cell = cells.get(key);
+            if (cell == null || !cell.remove(point)) {
+                return false;
+            }
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+            return true;
+        }
+
+        private boolean isEmpty() {
+            return cells.isEmpty();
+        }
+
+        /**
+         * Добавляет в кучу соседей точки сетки, которые ближе худшего из найденных.
+         *
+         * @param target  точка, для которой ищутся соседи; сама в соседи не попадает
+         * @param penalty прибавка к расстоянию до точек сетки
+         * @param limit   число соседей
+         * @param nearest куча соседей, на вершине — самый дальний
+         */
+        private void nearest(Point target, double penalty, int limit, PriorityQueue<Neighbour> nearest) {
+            int x = cell(target.x());
+            int y = cell(target.y());
+            int outer = Math.max(Math.max(x - minX, maxX - x), Math.max(y - minY, maxY - y));
+            for (int ring = 0; ring <= outer; ring++) {
+                // Точка в кольце ring не ближе ring - 1 по каждой оси.
+                if (nearest.size() == limit && nearest.peek().distance() < ring - 1 + penalty) {
+                    return;
+                }
+                if ((long) (2 * ring + 1) * (2 * ring + 1) > 4L * cells.size()) {
+                    scanFrom(ring, x, y, target, penalty, limit, nearest);
+                    return;
+                }
+                for (int dx = -ring; dx <= ring; dx++) {
+                    int step = dx == -ring || dx == ring ? 1 : 2 * ring;
+                    for (int dy = -ring; dy <= ring; dy += step) {
+                        offer(cells.get(key(x + dx, y + dy)), target, penalty, limit, nearest);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Просматривает все занятые ячейки начиная с кольца {@code ring}, когда их меньше, чем ячеек
+         * в оставшихся кольцах.
+         */
+        private void scanFrom(int ring, int x, int y, Point target, double penalty, int limit,
+                              PriorityQueue<Neighbour> nearest) {
+            for (Map.Entry<Long, List<Point>> entry : cells.entrySet()) {
+                long key = entry.getKey();
+                int distance = Math.max(Math.abs((int) (key >> Integer.SIZE) - x), Math.abs((int) key - y));
+                if (distance >= ring) {
+                    offer(entry.getValue(), target, penalty, limit, nearest);
+                }
+            }
+        }
+
+        private static void offer(List<Point> cell, Point target, double penalty, int limit,
+                                  PriorityQueue<Neighbour> nearest) {
+            if (cell == null) {
+                return;
+            }
+            for (Point point : cell) {
+                if (point.car().getId() == target.car().getId()) {
+                    continue;
+                }
+                Neighbour neighbour = new Neighbour(point, target.distanceTo(point) + penalty);
+                if (nearest.size() < limit) {
+                    nearest.add(neighbour);
+                } else if (FARTHEST_FIRST.compare(neighbour, nearest.peek()) > 0) {
+                    nearest.poll();
+                    nearest.add(neighbour);
+                }
+            }
+        }
+
+        private static int cell(double coordinate) {
+            return (int) Math.floor(coordinate);
+        }
+
+        private static long key(int x, int y) {
+            return (long) x << Integer.SIZE | (y & 0xFFFFFFFFL);
+        }
+    }
+}
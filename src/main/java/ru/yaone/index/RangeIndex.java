@@ -0,0 +1,171 @@
+package ru.yaone.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Упорядоченный индекс диапазонов: параллельные массивы ключей и слотов, отсортированные по ключу.
+ *
+ * <p>Граница диапазона находится двоичным поиском, а число попавших в диапазон
+ * слотов известно без их обхода, что позволяет выбрать самое селективное условие поиска.
+ * Вставка и удаление одного слота сдвигают хвост массива, поэтому пачки слотов сортируются
+ * и сливаются с индексом за один проход через {@link #addAll(long[], int[], int)}
+ * и {@link #removeAll(BitSet)}.</p>
+ */
+final class RangeIndex {
+
+    private long[] keys = new long[16];
+    private int[] slots = new int[16];
+    private int size;
+
+    /**
+     * Заменяет содержимое индекса парами ключ-слот и сортирует их.
+     *
+     * @param keysBySlot ключ каждого слота
+     * @param loaded     загружаемые слоты
+     * @param count      число загружаемых слотов
+     */
+    void load(long[] keysBySlot, int[] loaded, int count) {
+        size = 0;
+        addAll(keysBySlot, loaded, count);
+    }
+
+    /**
+     * Добавляет пачку слотов: сортирует её и сливает с индексом за один проход.
+     *
+     * <p>Слоты с ключом, равным уже имеющемуся, встают после него, как и в {@link #add(long, int)}.</p>
+     *
+     * @param keysBySlot ключ каждого слота
+     * @param added      добавляемые слоты
+     * @param count      число добавляемых слотов
+     */
+    void addAll(long[] keysBySlot, int[] added, int count) {
+        Integer[] order = IntStream.range(0, count).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingLong(i -> keysBySlot[added[i]]));
+        long[] mergedKeys = new long[Math.max(16, size + count)];
+        int[] mergedSlots = new int[mergedKeys.length];
+        int existing = 0;
+        int merged = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = added[order[i]];
+            long key = keysBySlot[slot];
+            while (existing < size && keys[existing] <= key) {
+                mergedKeys[merged] = keys[existing];
+                mergedSlots[merged++] = slots[existing++];
+            }
+            mergedKeys[merged] = key;
+            mergedSlots[merged++] = slot;
+        }
+        System.arraycopy(keys, existing, mergedKeys, merged, size - existing);
+        System.arraycopy(slots, existing, mergedSlots, merged, size - existing);
+        keys = mergedKeys;
+        slots = mergedSlots;
+        size += count;
+    }
+
+    /**
+     * Добавляет слот с заданным ключом.
+     *
+     * @param key  ключ
+     * @param slot номер слота
+     */
+    void add(long key, int slot) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        int position = upperBound(key);
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(slots, position, slots, position + 1, size - position);
+        keys[position] = key;
+        slots[position] = slot;
+        size++;
+    }
+
+    /**
+     * Удаляет слот с заданным ключом.
+     *
+     * @param key  ключ, с которым слот был добавлен
+     * @param slot номер слота
+     */
+    void remove(long key, int slot) {
+        for (int i = lowerBound(key); i < size && keys[i] == key; i++) {
+            if (slots[i] == slot) {
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Удаляет отмеченные слоты за один проход.
+     *
+     * @param removed удаляемые слоты
+     */
+    void removeAll(BitSet removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed.get(slots[i])) {
+                keys[kept] = keys[i];
+                slots[kept++] = slots[i];
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Возвращает позицию первого ключа, не меньшего заданного.
+     *
+     * @param key ключ
+     * @return позиция в диапазоне {@code [0, size]}
+     */
+    int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает позицию первого ключа, большего заданного.
+     *
+     * @param key ключ
+     * @return позиция в диапазоне {@code [0, size]}
+     */
+    int upperBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    int slotAt(int position) {
+        return slots[position];
+    }
+
+    long keyAt(int position) {
+        return keys[position];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yaone.index;
+
+import java.util.Arrays;
+
+/**
+ * Растущий список номеров слотов без упаковки в {@link Integer}.
+ *
+ * <p>Порядок элементов не сохраняется: удаление переносит на место удалённого
+ * последний элемент.</p>
+ */
+final class SlotList {
+
+    private int[] slots = new int[8];
+    private int size;
+
+    /**
+     * Добавляет слот в конец списка.
+     *
+     * @param slot номер слота
+     */
+    void add(int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        slots[size++] = slot;
+    }
+
+    /**
+     * Удаляет слот из списка.
+     *
+     * @param slot номер слота
+     * @return {@code true}, если слот был в списке
+     */
+    boolean remove(int slot) {
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == slot) {
+                slots[i] = slots[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int get(int index) {
+        return slots[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Копирует слоты в массив, по которому затем проходят циклы по столбцам.
+     *
+     * @return массив слотов длиной {@link #size()}
+     */
+    int[] toArray() {
+        return Arrays.copyOf(slots, size);
+    }
+}
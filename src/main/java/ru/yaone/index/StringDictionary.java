@@ -0,0 +1,68 @@
+package ru.yaone.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Словарь, кодирующий строки плотными неотрицательными номерами.
+ *
+ * <p>Столбец, хранящий коды вместо строк, занимает {@code int[]}, сравнивается по числам
+ * и группируется индексами массива. Коды не переиспользуются: строка, пропавшая из данных,
+ * остаётся в словаре, поэтому его размер ограничен числом различных значений за время жизни.</p>
+ */
+final class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    private int size;
+
+    /**
+     * Возвращает код строки, добавляя её в словарь при первом обращении.
+     *
+     * @param value строка
+     * @return код строки
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Возвращает код строки, не добавляя её.
+     *
+     * @param value строка
+     * @return код строки или -1, если строки нет в словаре
+     */
+    int find(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Возвращает строку по коду.
+     *
+     * @param code код
+     * @return строка
+     */
+    String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * Возвращает число закодированных строк; коды лежат в диапазоне {@code [0, size)}.
+     *
+     * @return число строк
+     */
+    int size() {
+        return size;
+    }
+}
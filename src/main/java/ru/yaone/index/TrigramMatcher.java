@@ -0,0 +1,116 @@
+package ru.yaone.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Класс {@code TrigramMatcher} вычисляет триграммное сходство строк так же, как {@code pg_trgm}.
+ *
+ * <p>Строка приводится к нижнему регистру и делится на слова по символам, не являющимся
+ * буквами или цифрами; каждое слово дополняется двумя пробелами слева и одним справа
+ * и разбивается на триграммы. Сходство — отношение числа общих триграмм к числу
+ * всех различных триграмм обеих строк. Используется для нечёткого поиска на базах
+ * данных без {@code pg_trgm}.</p>
+ */
+public final class TrigramMatcher {
+
+    private TrigramMatcher() {
+    }
+
+    /**
+     * Делит поисковую строку на слова.
+     *
+     * @param query поисковая строка
+     * @return слова в нижнем регистре в порядке следования
+     */
+    public static List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        if (query == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (!word.isEmpty()) {
+                words.add(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString().toLowerCase(Locale.ROOT));
+        }
+        return words;
+    }
+
+    /**
+     * Возвращает множество триграмм строки.
+     *
+     * @param value строка
+     * @return триграммы всех слов строки
+     */
+    public static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words(value)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Вычисляет сходство строк, как функция {@code similarity} из {@code pg_trgm}.
+     *
+     * @param left  первая строка
+     * @param right вторая строка
+     * @return сходство от 0 до 1
+     */
+    public static double similarity(String left, String right) {
+        return similarity(trigrams(left), trigrams(right));
+    }
+
+    /**
+     * Вычисляет сходство по заранее построенным множествам триграмм.
+     *
+     * @param left  триграммы первой строки
+     * @param right триграммы второй строки
+     * @return сходство от 0 до 1
+     */
+    public static double similarity(Set<String> left, Set<String> right) {
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0;
+        }
+        int common = 0;
+        for (String trigram : left) {
+            if (right.contains(trigram)) {
+                common++;
+            }
+        }
+        return (double) common / (left.size() + right.size() - common);
+    }
+
+    /**
+     * Оценивает автомобиль по поисковому запросу так же, как запрос {@code CarQueryBuilder.fuzzy}:
+     * среднее по словам запроса лучшего из сходств слова с маркой и с моделью.
+     *
+     * @param make  марка автомобиля
+     * @param model модель автомобиля
+     * @param words триграммы слов поискового запроса
+     * @return оценка от 0 до 1
+     */
+    public static double score(String make, String model, List<Set<String>> words) {
+        Set<String> makeTrigrams = trigrams(make);
+        Set<String> modelTrigrams = trigrams(model);
+        double total = 0;
+        for (Set<String> word : words) {
+            total += Math.max(similarity(makeTrigrams, word), similarity(modelTrigrams, word));
+        }
+        return words.isEmpty() ? 0 : total / words.size();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.yaone.listener;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import ru.yaone.audit.AsyncAuditWriter;
+import ru.yaone.audit.AuditPartitionMaintenance;
+import ru.yaone.audit.AuditPolicyRegistry;
+import ru.yaone.audit.AuditRollupAggregator;
+import ru.yaone.impl.CarServiceImpl;
+import ru.yaone.impl.ClientServiceImpl;
+import ru.yaone.impl.OrderServiceImpl;
+import ru.yaone.impl.UserServiceImpl;
+import ru.yaone.index.CarAutocompleteIndex;
+import ru.yaone.index.CarInventoryIndex;
+import ru.yaone.index.CarSimilarityIndex;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.servlets.AuditPolicyServlet;
+import ru.yaone.servlets.CarServlet;
+import ru.yaone.servlets.ClientServlet;
+import ru.yaone.servlets.MetricsServlet;
+import ru.yaone.servlets.OrderServlet;
+import ru.yaone.servlets.UserServlet;
+
+/**
+ * Слушатель жизненного цикла веб-приложения.
+ * <p>При запуске включает обслуживание секций журнала аудита и загружает индексы автомобилей. При остановке контекста
+ * сервлетов освобождает общие ресурсы приложения: останавливает обслуживание секций,
+ * записывает поминутные агрегаты, дописывает очередь аудита и закрывает пул соединений с базой данных.</p>
+ */
+@WebListener
+public class ApplicationLifecycleListener implements ServletContextListener {
+
+    /**
+     * Вызывается при запуске приложения.
+     *
+     * @param sce событие контекста сервлетов
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        AuditPartitionMaintenance.startInstance();
+        CarInventoryIndex.startInstance();
+        CarAutocompleteIndex.startInstance();
+        CarSimilarityIndex.startInstance();
+        AuditPolicyRegistry.getInstance().register(CarServiceImpl.class, ClientServiceImpl.class,
+                OrderServiceImpl.class, UserServiceImpl.class, CarServlet.class, ClientServlet.class,
+                OrderServlet.class, UserServlet.class, MetricsServlet.class, AuditPolicyServlet.class);
+    }
+
+    /**
+     * Вызывается при остановке приложения.
+     *
+     * @param sce событие контекста сервлетов
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        AuditPartitionMaintenance.shutdownInstance();
+        CarInventoryIndex.shutdownInstance();
+        CarAutocompleteIndex.shutdownInstance();
+        CarSimilarityIndex.shutdownInstance();
+        AuditRollupAggregator.shutdownInstance();
+        AsyncAuditWriter.shutdownInstance();
+        DatabaseConnectionManager.shutdown();
+    }
+}
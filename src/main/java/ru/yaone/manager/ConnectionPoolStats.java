@@ -0,0 +1,25 @@
+package ru.yaone.manager;
+
+/**
+ * Запись (record), представляющая снимок состояния пула соединений.
+ *
+ * @param size                 общее число открытых физических соединений
+ * @param active               число соединений, выданных приложению
+ * @param idle                 число свободных соединений в пуле
+ * @param maxActive            максимальный размер пула
+ * @param waitCount            число потоков, ожидающих соединение в данный момент
+ * @param borrowedCount        общее число выдач соединений с момента старта пула
+ * @param removeAbandonedCount число соединений, отобранных у приложения как брошенные
+ * @param meanBorrowWaitMicros среднее время ожидания выдачи соединения, мкс
+ * @param maxBorrowWaitMicros  максимальное время ожидания выдачи соединения, мкс
+ */
+public record ConnectionPoolStats(int size,
+                                  int active,
+                                  int idle,
+                                  int maxActive,
+                                  int waitCount,
+                                  long borrowedCount,
+                                  long removeAbandonedCount,
+                                  double meanBorrowWaitMicros,
+                                  double maxBorrowWaitMicros) {
+}
@@ -0,0 +1,217 @@
+package ru.yaone.manager;
+
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.apache.tomcat.jdbc.pool.interceptor.ResetAbandonedTimer;
+import ru.yaone.config.ApplicationProperties;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс {@code DatabaseConnectionManager} управляет пулом соединений с базой данных.
+ *
+ * <p>Пул построен на {@code tomcat-jdbc} и создаётся лениво при первом обращении.
+ * Параметры пула (размеры, проверка соединений при выдаче, поиск брошенных соединений)
+ * читаются из {@link ApplicationProperties} с префиксом {@code db.pool.}.
+ * Статистика пула доступна через JMX ({@value #JMX_OBJECT_NAME}) и через
+ * {@link #getPoolStats()}.</p>
+ *
+ * <p>Соединение, полученное через {@link #getConnection()}, необходимо закрывать:
+ * {@code close()} возвращает его в пул, а не разрывает физическое соединение.
+ * Если в текущем потоке открыт {@link TransactionContext}, возвращается соединение
+ * этой транзакции.</p>
+ */
+public final class DatabaseConnectionManager {
+
+    /**
+     * Имя, под которым пул регистрируется в JMX.
+     */
+    public static final String JMX_OBJECT_NAME = "ru.yaone:type=ConnectionPool,name=car_shop";
+
+    private static final LongAdder BORROW_COUNT = new LongAdder();
+    private static final LongAdder BORROW_WAIT_NANOS = new LongAdder();
+    private static final AtomicLong MAX_BORROW_WAIT_NANOS = new AtomicLong();
+
+    private static volatile DataSource dataSource;
+
+    private DatabaseConnectionManager() {
+    }
+
+    /**
+     * Выдаёт соединение из пула или соединение транзакции, открытой в текущем потоке.
+     *
+     * @return соединение с базой данных
+     * @throws SQLException если соединение не удалось получить за {@code db.pool.maxWait} мс
+     */
+    public static Connection getConnection() throws SQLException {
+        TransactionContext transaction = TransactionContext.current();
+        if (transaction != null) {
+            return transaction.getConnection();
+        }
+        return borrowConnection();
+    }
+
+    /**
+     * Выдаёт соединение непосредственно из пула, минуя текущую транзакцию.
+     *
+     * @return соединение с базой данных
+     * @throws SQLException если соединение не удалось получить за {@code db.pool.maxWait} мс
+     */
+    static Connection borrowConnection() throws SQLException {
+        DataSource ds = getDataSource();
+        long start = System.nanoTime();
+        Connection connection = ds.getConnection();
+        long waited = System.nanoTime() - start;
+        BORROW_COUNT.increment();
+        BORROW_WAIT_NANOS.add(waited);
+        MAX_BORROW_WAIT_NANOS.accumulateAndGet(waited, Math::max);
+        return connection;
+    }
+
+    /**
+     * Заменяет текущий пул новым, построенным по переданным параметрам.
+     *
+     * <p>Используется в тестах и при ручной настройке приложения. Предыдущий пул закрывается.</p>
+     *
+     * @param poolProperties параметры нового пула
+     */
+    public static synchronized void configure(PoolProperties poolProperties) {
+        shutdown();
+        dataSource = createDataSource(poolProperties);
+    }
+
+    /**
+     * Строит параметры пула из настроек приложения.
+     *
+     * @return параметры пула
+     */
+    public static PoolProperties createPoolProperties() {
+        PoolProperties p = new PoolProperties();
+        p.setDriverClassName(ApplicationProperties.getString("db.driver", "org.postgresql.Driver"));
+        p.setUrl(ApplicationProperties.getString("db.url", "jdbc:postgresql://localhost:5440/car_shop_db"));
+        p.setUsername(ApplicationProperties.getString("db.username", "user"));
+        p.setPassword(ApplicationProperties.getString("db.password", "password"));
+        p.setInitialSize(ApplicationProperties.getInt("db.pool.initialSize", 5));
+        p.setMinIdle(ApplicationProperties.getInt("db.pool.minIdle", 5));
+        p.setMaxIdle(ApplicationProperties.getInt("db.pool.maxIdle", 20));
+        p.setMaxActive(ApplicationProperties.getInt("db.pool.maxActive", 50));
+        p.setMaxWait(ApplicationProperties.getInt("db.pool.maxWait", 10_000));
+        p.setTestOnBorrow(ApplicationProperties.getBoolean("db.pool.testOnBorrow", true));
+        p.setValidationQuery(ApplicationProperties.getString("db.pool.validationQuery", "SELECT 1"));
+        p.setValidationInterval(ApplicationProperties.getLong("db.pool.validationInterval", 30_000L));
+        p.setTimeBetweenEvictionRunsMillis(ApplicationProperties.getInt("db.pool.timeBetweenEvictionRunsMillis", 30_000));
+        p.setMinEvictableIdleTimeMillis(ApplicationProperties.getInt("db.pool.minEvictableIdleTimeMillis", 60_000));
+        // Потоковые выгрузки, импорт и пакетное изменение цен законно держат соединение дольше таймаута,
+        // поэтому по умолчанию долгие соединения только журналируются, а не отбираются. Таймер
+        // сбрасывается при каждом обращении к соединению, так что пачки не считаются брошенными.
+        p.setRemoveAbandoned(ApplicationProperties.getBoolean("db.pool.removeAbandoned", false));
+        p.setRemoveAbandonedTimeout(ApplicationProperties.getInt("db.pool.removeAbandonedTimeout", 60));
+        p.setSuspectTimeout(ApplicationProperties.getInt("db.pool.suspectTimeout", 60));
+        p.setLogAbandoned(ApplicationProperties.getBoolean("db.pool.logAbandoned", true));
+        p.setJdbcInterceptors(ResetAbandonedTimer.class.getName());
+        p.setJmxEnabled(ApplicationProperties.getBoolean("db.pool.jmxEnabled", true));
+        return p;
+    }
+
+    /**
+     * Возвращает снимок состояния пула.
+     *
+     * @return статистика пула; если пул ещё не создан, все счётчики пула равны нулю
+     */
+    public static ConnectionPoolStats getPoolStats() {
+        DataSource ds = dataSource;
+        ConnectionPool pool = ds != null ? ds.getPool() : null;
+        long borrows = BORROW_COUNT.sum();
+        double meanWaitMicros = borrows == 0 ? 0 : BORROW_WAIT_NANOS.sum() / 1_000.0 / borrows;
+        double maxWaitMicros = MAX_BORROW_WAIT_NANOS.get() / 1_000.0;
+        if (pool == null) {
+            return new ConnectionPoolStats(0, 0, 0, 0, 0, borrows, 0, meanWaitMicros, maxWaitMicros);
+        }
+        return new ConnectionPoolStats(
+                pool.getSize(),
+                pool.getActive(),
+                pool.getIdle(),
+                pool.getPoolProperties().getMaxActive(),
+                pool.getWaitCount(),
+                pool.getBorrowedCount(),
+                pool.getRemoveAbandonedCount(),
+                meanWaitMicros,
+                maxWaitMicros
+        );
+    }
+
+    /**
+     * Закрывает пул и снимает его регистрацию в JMX.
+     *
+     * <p>Вызывается при остановке приложения. Следующий вызов {@link #getConnection()}
+     * создаст пул заново.</p>
+     */
+    public static synchronized void shutdown() {
+        DataSource ds = dataSource;
+        dataSource = null;
+        if (ds == null) {
+            return;
+        }
+        unregisterJmx();
+        ds.close(true);
+    }
+
+    private static DataSource getDataSource() {
+        DataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DatabaseConnectionManager.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = createDataSource(createPoolProperties());
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
+
+    private static DataSource createDataSource(PoolProperties poolProperties) {
+        DataSource ds = new DataSource(poolProperties);
+        try {
+            ConnectionPool pool = ds.createPool();
+            if (poolProperties.isJmxEnabled()) {
+                registerJmx(pool);
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка SQL: " + e.getMessage());
+            throw new RuntimeException("Ошибка при создании пула соединений", e);
+        }
+        return ds;
+    }
+
+    private static void registerJmx(ConnectionPool pool) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(pool.getJmxPool(), name);
+            }
+        } catch (Exception e) {
+            System.err.println("Не удалось зарегистрировать пул соединений в JMX: " + e.getMessage());
+        }
+    }
+
+    private static void unregisterJmx() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (Exception e) {
+            System.err.println("Не удалось снять регистрацию пула соединений в JMX: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package ru.yaone.manager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс {@code TransactionContext} представляет единицу работы, привязанную к текущему потоку.
+ *
+ * <p>Пока контекст активен, {@link DatabaseConnectionManager#getConnection()} возвращает
+ * одно и то же соединение с выключенным auto-commit, поэтому сервисы и запись аудита
+ * выполняются в одной транзакции. Физическое соединение берётся из пула лениво,
+ * при первом обращении, и возвращается в пул в {@link #close()}.</p>
+ *
+ * <p>Вызовы {@code close()}, {@code commit()}, {@code rollback()} и {@code setAutoCommit()}
+ * на выданном соединении игнорируются: границами транзакции управляет владелец контекста.</p>
+ *
+ * <p>Действия, зарегистрированные через {@link #afterCommit(Runnable)}, выполняются только
+ * после успешной фиксации и отбрасываются при откате.</p>
+ */
+public final class TransactionContext implements AutoCloseable {
+
+    private static final ThreadLocal<TransactionContext> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+    private Connection connection;
+    private Connection sharedConnection;
+
+    private TransactionContext() {
+    }
+
+    /**
+     * Открывает новый контекст и привязывает его к текущему потоку.
+     *
+     * @return открытый контекст
+     * @throws IllegalStateException если в текущем потоке уже есть активный контекст
+     */
+    public static TransactionContext begin() {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("Транзакция уже открыта в текущем потоке");
+        }
+        TransactionContext context = new TransactionContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * Возвращает контекст, привязанный к текущему потоку.
+     *
+     * @return активный контекст или {@code null}, если транзакция не открыта
+     */
+    public static TransactionContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Выполняет действие после фиксации текущей транзакции.
+     *
+     * <p>Если транзакция не открыта, изменения уже зафиксированы в режиме auto-commit,
+     * и действие выполняется сразу.</p>
+     *
+     * @param action действие, например обновление кэша по изменённым данным
+     */
+    public static void afterCommit(Runnable action) {
+        TransactionContext context = CURRENT.get();
+        if (context == null) {
+            action.run();
+        } else {
+            context.afterCommitActions.add(action);
+        }
+    }
+
+    /**
+     * Проверяет, было ли в рамках контекста получено соединение с базой данных.
+     *
+     * @return {@code true}, если соединение уже взято из пула
+     */
+    public boolean hasConnection() {
+        return connection != null;
+    }
+
+    /**
+     * Фиксирует транзакцию, если соединение было получено, и выполняет действия,
+     * зарегистрированные через {@link #afterCommit(Runnable)}.
+     *
+     * <p>Ошибки этих действий не пробрасываются: транзакция уже зафиксирована.</p>
+     *
+     * @throws SQLException если фиксация не удалась
+     */
+    public void commit() throws SQLException {
+        if (connection != null) {
+            connection.commit();
+        }
+        for (Runnable action : afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка действия после фиксации транзакции: " + e.getMessage());
+            }
+        }
+        afterCommitActions.clear();
+    }
+
+    /**
+     * Откатывает транзакцию, если соединение было получено.
+     *
+     * <p>Ошибки отката не пробрасываются, чтобы не скрыть исходную причину.</p>
+     */
+    public void rollback() {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                System.err.println("Ошибка при откате транзакции: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Возвращает соединение в пул и отвязывает контекст от потока.
+     *
+     * <p>Незафиксированные изменения откатываются.</p>
+     */
+    @Override
+    public void close() {
+        CURRENT.remove();
+        afterCommitActions.clear();
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка при завершении транзакции: " + e.getMessage());
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Ошибка при возврате соединения в пул: " + e.getMessage());
+            }
+            connection = null;
+            sharedConnection = null;
+        }
+    }
+
+    /**
+     * Возвращает соединение контекста, при необходимости взяв его из пула.
+     *
+     * @return соединение, закрытие которого не возвращает его в пул
+     * @throws SQLException если соединение не удалось получить
+     */
+    Connection getConnection() throws SQLException {
+        if (connection == null) {
+            Connection physical = DatabaseConnectionManager.borrowConnection();
+            try {
+                physical.setAutoCommit(false);
+            } catch (SQLException e) {
+                physical.close();
+                throw e;
+            }
+            connection = physical;
+            sharedConnection = (Connection) Proxy.newProxyInstance(
+                    TransactionContext.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new SharedConnectionHandler(physical));
+        }
+        return sharedConnection;
+    }
+
+    /**
+     * Обработчик, запрещающий участникам транзакции закрывать соединение
+     * и управлять её границами.
+     */
+    private record SharedConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            int argCount = args == null ? 0 : args.length;
+            if (argCount == 0 && (name.equals("close") || name.equals("commit") || name.equals("rollback"))) {
+                return null;
+            }
+            if (name.equals("setAutoCommit")) {
+                return null;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.yaone.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс {@code LatencyHistogram} — неблокирующая гистограмма длительностей в наносекундах.
+ *
+ * <p>Корзины устроены как в HdrHistogram: каждая степень двойки делится на
+ * {@value #SUB_BUCKETS} равных частей, поэтому относительная погрешность перцентиля
+ * не превышает 1/{@value #SUB_BUCKETS} во всём диапазоне {@code long}. Запись — одна
+ * атомарная операция над массивом счётчиков без блокировок и аллокаций.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Добавляет значение в гистограмму.
+     *
+     * @param nanos длительность, нс; отрицательные значения считаются нулём
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Обнуляет гистограмму.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Возвращает число записанных значений.
+     *
+     * @return число значений
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Возвращает сумму записанных значений.
+     *
+     * @return сумма, нс
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Возвращает максимальное записанное значение.
+     *
+     * @return максимум, нс
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Прибавляет счётчики корзин к массиву.
+     *
+     * @param target массив длины {@link #BUCKET_COUNT}
+     */
+    void addTo(long[] target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                target[i] += c;
+            }
+        }
+    }
+
+    /**
+     * Возвращает значение перцентиля по счётчикам корзин.
+     *
+     * @param bucketCounts счётчики корзин
+     * @param total        сумма счётчиков
+     * @param quantile     квантиль от 0.0 до 1.0
+     * @param maxValue     максимальное значение, ограничивающее результат сверху
+     * @return значение перцентиля, нс; 0, если значений нет
+     */
+    static long valueAtQuantile(long[] bucketCounts, long total, double quantile, long maxValue) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Возвращает индекс корзины для значения.
+     *
+     * @param value неотрицательное значение
+     * @return индекс корзины
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Возвращает наибольшее значение, попадающее в корзину.
+     *
+     * @param index индекс корзины
+     * @return верхняя граница корзины включительно
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
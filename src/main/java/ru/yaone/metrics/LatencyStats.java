@@ -0,0 +1,32 @@
+package ru.yaone.metrics;
+
+/**
+ * Запись (record), представляющая перцентили длительности вызовов метода.
+ *
+ * <p>Перцентили, среднее и максимум вычислены за скользящее окно; {@code totalCount}
+ * и {@code totalSumSeconds} накоплены с момента старта приложения.</p>
+ *
+ * @param method          ключ метода в формате {@code Класс.метод}
+ * @param windowSeconds   длина скользящего окна, с
+ * @param count           число вызовов в окне
+ * @param meanMicros      средняя длительность в окне, мкс
+ * @param p50Micros       медиана, мкс
+ * @param p90Micros       90-й перцентиль, мкс
+ * @param p99Micros       99-й перцентиль, мкс
+ * @param p999Micros      99.9-й перцентиль, мкс
+ * @param maxMicros       максимальная длительность в окне, мкс
+ * @param totalCount      число вызовов с момента старта
+ * @param totalSumSeconds суммарная длительность вызовов с момента старта, с
+ */
+public record LatencyStats(String method,
+                           long windowSeconds,
+                           long count,
+                           double meanMicros,
+                           double p50Micros,
+                           double p90Micros,
+                           double p99Micros,
+                           double p999Micros,
+                           double maxMicros,
+                           long totalCount,
+                           double totalSumSeconds) {
+}
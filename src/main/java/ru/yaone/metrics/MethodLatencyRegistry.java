@@ -0,0 +1,116 @@
+package ru.yaone.metrics;
+
+import ru.yaone.config.ApplicationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Класс {@code MethodLatencyRegistry} собирает гистограммы длительностей всех
+ * перехваченных методов и отдаёт их в JSON и в текстовом формате Prometheus.
+ *
+ * <p>Длительности записываются для каждого вызова с включённым аудитом — независимо
+ * от выборки политики, поэтому перцентили не искажаются сэмплированием записей
+ * в {@code audit_log}. Окно задаётся настройками {@code metrics.latency.windowSeconds}
+ * и {@code metrics.latency.slots}.</p>
+ */
+public final class MethodLatencyRegistry {
+
+    private static final MethodLatencyRegistry INSTANCE = new MethodLatencyRegistry(
+            ApplicationProperties.getLong("metrics.latency.windowSeconds", 60),
+            ApplicationProperties.getInt("metrics.latency.slots", 6),
+            System::nanoTime);
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, RollingLatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final long windowSeconds;
+    private final int slotCount;
+    private final LongSupplier clock;
+
+    MethodLatencyRegistry(long windowSeconds, int slotCount, LongSupplier clock) {
+        this.windowSeconds = windowSeconds;
+        this.slotCount = slotCount;
+        this.clock = clock;
+    }
+
+    /**
+     * Возвращает общий реестр гистограмм.
+     *
+     * @return реестр гистограмм
+     */
+    public static MethodLatencyRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Добавляет длительность вызова метода.
+     *
+     * @param method ключ метода в формате {@code Класс.метод}
+     * @param nanos  длительность, нс
+     */
+    public void record(String method, long nanos) {
+        RollingLatencyHistogram histogram = histograms.get(method);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(method,
+                    key -> new RollingLatencyHistogram(windowSeconds, slotCount, clock));
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Возвращает статистику всех методов, упорядоченную по ключу метода.
+     *
+     * @return список снимков статистики
+     */
+    public List<LatencyStats> snapshot() {
+        List<LatencyStats> result = new ArrayList<>();
+        for (Map.Entry<String, RollingLatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            result.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return result;
+    }
+
+    /**
+     * Формирует метрики в текстовом формате Prometheus.
+     *
+     * <p>Перцентили отдаются как {@code summary} за скользящее окно, а {@code _count}
+     * и {@code _sum} — накопленными с момента старта, как того требует формат.</p>
+     *
+     * @return текст метрик
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP car_shop_method_latency_seconds Длительность вызовов методов с аудитом.\n");
+        out.append("# TYPE car_shop_method_latency_seconds summary\n");
+        List<LatencyStats> stats = snapshot();
+        for (LatencyStats s : stats) {
+            String label = escapeLabel(s.method());
+            double[] values = {s.p50Micros(), s.p90Micros(), s.p99Micros(), s.p999Micros()};
+            for (int i = 0; i < QUANTILES.length; i++) {
+                out.append("car_shop_method_latency_seconds{method=\"").append(label)
+                        .append("\",quantile=\"").append(QUANTILES[i]).append("\"} ")
+                        .append(values[i] / 1_000_000.0).append('\n');
+            }
+            out.append("car_shop_method_latency_seconds_count{method=\"").append(label).append("\"} ")
+                    .append(s.totalCount()).append('\n');
+            out.append("car_shop_method_latency_seconds_sum{method=\"").append(label).append("\"} ")
+                    .append(s.totalSumSeconds()).append('\n');
+        }
+        out.append("# HELP car_shop_method_latency_max_seconds Максимальная длительность вызова за окно.\n");
+        out.append("# TYPE car_shop_method_latency_max_seconds gauge\n");
+        for (LatencyStats s : stats) {
+            out.append("car_shop_method_latency_max_seconds{method=\"").append(escapeLabel(s.method()))
+                    .append("\"} ").append(s.maxMicros() / 1_000_000.0).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
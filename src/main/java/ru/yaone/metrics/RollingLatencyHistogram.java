@@ -0,0 +1,105 @@
+package ru.yaone.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Класс {@code RollingLatencyHistogram} хранит длительности вызовов одного метода
+ * за скользящее окно и с момента старта.
+ *
+ * <p>Окно разбито на кольцо интервальных гистограмм. Запись попадает в интервал
+ * текущей эпохи; первый поток, увидевший устаревшую эпоху ячейки, сбрасывает её.
+ * Записи, пришедшие в момент сброса, могут потеряться — для перцентилей это
+ * допустимая погрешность в обмен на отсутствие блокировок.</p>
+ */
+final class RollingLatencyHistogram {
+
+    private final LatencyHistogram[] slots;
+    private final AtomicLongArray slotEpochs;
+    private final long slotNanos;
+    private final LongSupplier clock;
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    /**
+     * Создаёт гистограмму со скользящим окном.
+     *
+     * @param windowSeconds длина окна, с
+     * @param slotCount     число интервалов, на которые делится окно
+     * @param clock         источник времени в наносекундах
+     */
+    RollingLatencyHistogram(long windowSeconds, int slotCount, LongSupplier clock) {
+        if (windowSeconds <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Окно и число интервалов должны быть положительными");
+        }
+        this.slots = new LatencyHistogram[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new LatencyHistogram();
+        }
+        this.slotEpochs = new AtomicLongArray(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slotEpochs.set(i, Long.MIN_VALUE);
+        }
+        this.slotNanos = Math.max(1, TimeUnit.SECONDS.toNanos(windowSeconds) / slotCount);
+        this.clock = clock;
+    }
+
+    /**
+     * Добавляет длительность вызова.
+     *
+     * @param nanos длительность, нс
+     */
+    void record(long nanos) {
+        long epoch = Math.floorDiv(clock.getAsLong(), slotNanos);
+        int index = Math.floorMod(epoch, slots.length);
+        long seen = slotEpochs.get(index);
+        if (seen != epoch && slotEpochs.compareAndSet(index, seen, epoch)) {
+            slots[index].reset();
+        }
+        slots[index].record(nanos);
+        total.record(nanos);
+    }
+
+    /**
+     * Вычисляет перцентили за окно и накопленные итоги.
+     *
+     * @param method ключ метода
+     * @return снимок статистики
+     */
+    LatencyStats snapshot(String method) {
+        long oldestEpoch = Math.floorDiv(clock.getAsLong(), slotNanos) - slots.length + 1;
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slotEpochs.get(i) >= oldestEpoch) {
+                LatencyHistogram slot = slots[i];
+                slot.addTo(counts);
+                count += slot.getCount();
+                sum += slot.getSum();
+                max = Math.max(max, slot.getMax());
+            }
+        }
+        long bucketTotal = 0;
+        for (long c : counts) {
+            bucketTotal += c;
+        }
+        return new LatencyStats(
+                method,
+                TimeUnit.NANOSECONDS.toSeconds(slotNanos * slots.length),
+                count,
+                count == 0 ? 0 : micros(sum) / count,
+                micros(LatencyHistogram.valueAtQuantile(counts, bucketTotal, 0.5, max)),
+                micros(LatencyHistogram.valueAtQuantile(counts, bucketTotal, 0.9, max)),
+                micros(LatencyHistogram.valueAtQuantile(counts, bucketTotal, 0.99, max)),
+                micros(LatencyHistogram.valueAtQuantile(counts, bucketTotal, 0.999, max)),
+                micros(max),
+                total.getCount(),
+                total.getSum() / 1_000_000_000.0);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.yaone.services;
+
+import ru.yaone.audit.AuditLogCursor;
+import ru.yaone.audit.AuditLogEntry;
+import ru.yaone.audit.AuditLogQuery;
+
+import java.io.IOException;
+
+/**
+ * Интерфейс для сервиса просмотра журнала аудита.
+ * <p>
+ * Журнал читается страницами по убыванию времени записи с курсором по
+ * {@code (timestamp, id)}, без {@code OFFSET}: стоимость страницы не зависит
+ * от её номера и размера таблицы.
+ * </p>
+ */
+public interface AuditLogService {
+
+    /**
+     * Потоково передаёт обработчику одну страницу журнала аудита.
+     *
+     * @param query   фильтр и страница запроса
+     * @param handler обработчик строк страницы
+     * @return курсор следующей страницы или {@code null}, если страница последняя
+     * @throws IOException если обработчик не смог записать строку
+     */
+    AuditLogCursor streamAuditLog(AuditLogQuery query, RowHandler<AuditLogEntry> handler) throws IOException;
+}
@@ -1,9 +1,24 @@
 package ru.yaone.services;
 
+import ru.yaone.dto.CarAggregateDTO;
 import ru.yaone.dto.CarDTO;
-import ru.yaone.model.enumeration.CarCondition;
+import ru.yaone.dto.CarFacetsDTO;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarImportReportDTO;
+import ru.yaone.dto.CarMatchDTO;
+import ru.yaone.dto.CarPageDTO;
+import ru.yaone.dto.CarPageRequest;
+import ru.yaone.dto.CarPriceAdjustmentDTO;
+import ru.yaone.dto.CarPriceAdjustmentReportDTO;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.dto.CarSuggestionDTO;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс для сервиса управления автомобилями.
@@ -29,6 +44,14 @@ public interface CarService {
      */
     List<CarDTO> getAllCars();
 
+    /**
+     * Передаёт обработчику все автомобили по одному по мере чтения из базы данных.
+     *
+     * @param handler обработчик автомобилей
+     * @throws IOException если обработчик не смог записать автомобиль
+     */
+    void streamAllCars(RowHandler<CarDTO> handler) throws IOException;
+
     /**
      * Получает автомобиль по его идентификатору.
      *
@@ -50,12 +73,103 @@ public interface CarService {
     /**
      * Ищет автомобили по заданным критериям.
      *
-     * @param make      марка автомобиля
-     * @param model     модель автомобиля
-     * @param year      год выпуска автомобиля
-     * @param price     цена автомобиля
-     * @param condition состояние автомобиля
+     * @param criteria условия поиска; незаданные условия не ограничивают выборку
      * @return список автомобилей, удовлетворяющих заданным критериям
      */
-    List<CarDTO> searchCars(String make, String model, int year, double price, CarCondition condition);
-}
\ No newline at end of file
+    List<CarDTO> searchCars(CarSearchCriteria criteria);
+
+    /**
+     * Ищет автомобили по марке и модели с учётом опечаток.
+     *
+     * @param query     поисковая строка, например {@code "toyta corola"}
+     * @param threshold минимальная оценка сходства, от 0 до 1
+     * @param limit     максимальное число автомобилей
+     * @return найденные автомобили по убыванию оценки сходства
+     */
+    List<CarMatchDTO> fuzzySearchCars(String query, double threshold, int limit);
+
+    /**
+     * Изменяет цены всех автомобилей, подходящих под фильтр, например снижает цены подержанных
+     * Toyota на 5%. Цены меняются по пачкам, каждая пачка фиксируется отдельно.
+     *
+     * @param criteria   фильтр автомобилей; незаданные условия не ограничивают выборку
+     * @param adjustment изменение цены
+     * @param dryRun     только подсчитать автомобили, не меняя цены
+     * @param progress   получает отчёт о ходе изменения после каждой пачки
+     * @return итоговый отчёт
+     * @throws IllegalArgumentException если изменение цены задано неверно
+     */
+    CarPriceAdjustmentReportDTO adjustPrices(CarSearchCriteria criteria, CarPriceAdjustmentDTO adjustment,
+                                             boolean dryRun, Consumer<CarPriceAdjustmentReportDTO> progress);
+
+    /**
+     * Находит автомобили, похожие на заданный: того же состояния, близкие по году выпуска и цене,
+     * предпочтительно той же марки.
+     *
+     * @param id    идентификатор автомобиля
+     * @param limit максимальное число похожих автомобилей
+     * @return похожие автомобили, начиная с самого близкого, или {@code null}, если автомобиль не найден
+     */
+    List<CarDTO> getSimilarCars(int id, int limit);
+
+    /**
+     * Подсказывает марки и модели автомобилей, начинающиеся с префикса без учёта регистра.
+     *
+     * @param prefix начало марки или модели, например {@code "toy"}
+     * @param limit  максимальное число подсказок
+     * @return подсказки по убыванию числа автомобилей, при равенстве — по значению
+     */
+    List<CarSuggestionDTO> suggestCars(String prefix, int limit);
+
+    /**
+     * Считает фасеты автомобилей, удовлетворяющих критериям: число по марке, состоянию,
+     * интервалу года выпуска и интервалу цены.
+     *
+     * @param criteria условия поиска; незаданные условия не ограничивают выборку
+     * @return фасеты автомобилей
+     */
+    CarFacetsDTO getCarFacets(CarSearchCriteria criteria);
+
+    /**
+     * Считает статистику цен автомобилей, удовлетворяющих критериям, в группах по заданным полям:
+     * число автомобилей, сумму, среднее, минимум и максимум цены.
+     *
+     * @param criteria условия поиска; незаданные условия не ограничивают выборку
+     * @param groupBy  поля группировки в порядке вложенности; пустой список — одна общая группа
+     * @return группы, упорядоченные по значениям полей группировки
+     */
+    List<CarAggregateDTO> getCarStats(CarSearchCriteria criteria, List<CarGroupField> groupBy);
+
+    /**
+     * Возвращает страницу списка автомобилей, упорядоченного по полю сортировки и идентификатору.
+     *
+     * @param request фильтр, порядок, курсор и размер страницы
+     * @return автомобили страницы и курсор следующей страницы
+     */
+    CarPageDTO getCarsPage(CarPageRequest request);
+
+    /**
+     * Загружает автомобили из файла CSV или NDJSON, читая его по мере поступления.
+     *
+     * <p>Ошибочные строки пропускаются и попадают в отчёт, остальные записываются пачками.</p>
+     *
+     * @param input  поток файла в кодировке UTF-8
+     * @param format формат файла
+     * @return число прочитанных, загруженных и пропущенных строк и ошибки пропущенных строк
+     * @throws IOException              если поток не удалось прочитать
+     * @throws IllegalArgumentException если в заголовке CSV нет обязательного столбца
+     */
+    CarImportReportDTO importCars(InputStream input, CarFileFormat format) throws IOException;
+
+    /**
+     * Выгружает автомобили, удовлетворяющие критериям, в порядке идентификатора в поток.
+     *
+     * @param criteria условия поиска; незаданные условия не ограничивают выборку
+     * @param afterId  идентификатор последнего полученного автомобиля для продолжения выгрузки или 0
+     * @param format   формат выгрузки
+     * @param output   поток выгрузки; не закрывается
+     * @throws IOException если запись в поток не удалась
+     */
+    void exportCars(CarSearchCriteria criteria, int afterId, CarFileFormat format, OutputStream output)
+            throws IOException;
+}
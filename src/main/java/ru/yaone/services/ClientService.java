@@ -3,6 +3,7 @@ package ru.yaone.services;
 import ru.yaone.dto.ClientDTO;
 import ru.yaone.model.Client;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -31,6 +32,14 @@ public interface ClientService {
      */
     List<ClientDTO> getAllClients();
 
+    /**
+     * Передаёт обработчику всех клиентов по одному, не накапливая список в памяти.
+     *
+     * @param handler обработчик клиентов
+     * @throws IOException если обработчик не смог записать клиента
+     */
+    void streamAllClients(RowHandler<ClientDTO> handler) throws IOException;
+
     /**
      * Получает клиента по уникальному идентификатору.
      *
@@ -1,8 +1,13 @@
 package ru.yaone.services;
 
 import ru.yaone.dto.OrderDTO;
+import ru.yaone.dto.OrderExpand;
+import ru.yaone.model.enumeration.OrderStatus;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Интерфейс для сервиса управления заказами.
@@ -28,6 +33,37 @@ public interface OrderService {
      */
     List<OrderDTO> getAllOrders();
 
+    /**
+     * Потоково передаёт обработчику все заказы в порядке чтения из базы данных.
+     *
+     * @param handler обработчик заказов
+     * @throws IOException если обработчик не смог записать заказ
+     */
+    void streamAllOrders(RowHandler<OrderDTO> handler) throws IOException;
+
+    /**
+     * Потоково передаёт обработчику все заказы со встроенными связанными данными.
+     *
+     * @param expand  встраиваемые клиент и/или автомобиль; пустой набор — только поля заказа
+     * @param handler обработчик заказов
+     * @throws IOException если обработчик не смог записать заказ
+     */
+    void streamAllOrders(Set<OrderExpand> expand, RowHandler<OrderDTO> handler) throws IOException;
+
+    /**
+     * Потоково передаёт обработчику заказы, созданные с начала дня {@code from} до конца дня {@code to},
+     * в порядке даты создания.
+     *
+     * @param from    первый день периода
+     * @param to      последний день периода включительно
+     * @param status  статус заказов или {@code null}, чтобы не фильтровать по статусу
+     * @param expand  встраиваемые клиент и/или автомобиль
+     * @param handler обработчик заказов
+     * @throws IOException если обработчик не смог записать заказ
+     */
+    void streamOrdersByDate(LocalDate from, LocalDate to, OrderStatus status, Set<OrderExpand> expand,
+                            RowHandler<OrderDTO> handler) throws IOException;
+
     /**
      * Получает заказ по его идентификатору.
      *
@@ -37,6 +73,15 @@ public interface OrderService {
      */
     OrderDTO getOrderById(int id);
 
+    /**
+     * Получает заказ по его идентификатору со встроенными связанными данными.
+     *
+     * @param id     идентификатор заказа
+     * @param expand встраиваемые клиент и/или автомобиль
+     * @return заказ или null, если заказ не найден
+     */
+    OrderDTO getOrderById(int id, Set<OrderExpand> expand);
+
     /**
      * Обновляет информацию о заказе.
      *
@@ -0,0 +1,24 @@
+package ru.yaone.services;
+
+import java.io.IOException;
+
+/**
+ * Обработчик строк, получаемых потоково из базы данных.
+ * <p>
+ * Вызывается для каждой строки по мере чтения результата запроса, поэтому
+ * строки не накапливаются в памяти и могут сразу записываться в HTTP-ответ.
+ * </p>
+ *
+ * @param <T> тип строки
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+
+    /**
+     * Обрабатывает очередную строку.
+     *
+     * @param row строка результата
+     * @throws IOException если строку не удалось записать
+     */
+    void handle(T row) throws IOException;
+}
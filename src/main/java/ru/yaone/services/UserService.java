@@ -2,6 +2,7 @@ package ru.yaone.services;
 
 import ru.yaone.dto.UserDTO;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -28,6 +29,14 @@ public interface UserService {
      */
     List<UserDTO> getAllUsers();
 
+    /**
+     * Передаёт обработчику всех пользователей по одному по мере чтения.
+     *
+     * @param handler обработчик пользователей
+     * @throws IOException если обработчик не смог записать пользователя
+     */
+    void streamAllUsers(RowHandler<UserDTO> handler) throws IOException;
+
     /**
      * Получает пользователя по его идентификатору.
      *
@@ -0,0 +1,119 @@
+package ru.yaone.servlets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Setter;
+import ru.yaone.audit.AuditLogCursor;
+import ru.yaone.audit.AuditLogEntry;
+import ru.yaone.audit.AuditLogQuery;
+import ru.yaone.impl.AuditLogServiceImpl;
+import ru.yaone.services.AuditLogService;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Сервлет для просмотра журнала аудита (Администратор).
+ * <p>
+ * GET /api/audit возвращает страницу записей по убыванию времени. Параметры запроса:
+ * <ul>
+ *     <li>{@code method} - точное имя метода;</li>
+ *     <li>{@code from}, {@code to} - интервал времени, ISO-8601 ({@code 2024-05-01T10:00:00} или {@code ...Z});</li>
+ *     <li>{@code minExecutionTime} - минимальное время выполнения, мс;</li>
+ *     <li>{@code limit} - размер страницы, по умолчанию 100, не более 1000;</li>
+ *     <li>{@code cursor} - значение {@code nextCursor} предыдущей страницы.</li>
+ * </ul>
+ * Ответ {@code {"items":[...],"nextCursor":"..."}} пишется потоково по мере чтения строк.
+ * </p>
+ * <p>
+ * Сервлет не отмечен {@link ru.yaone.aspect.annotation.Loggable}: иначе каждое чтение журнала
+ * добавляло бы в него новые записи с копией прочитанной страницы.
+ * </p>
+ */
+@Setter
+@WebServlet(name = "AuditLogServlet", urlPatterns = "/api/audit")
+public class AuditLogServlet extends HttpServlet {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private AuditLogService auditLogService = new AuditLogServiceImpl();
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Обработка HTTP GET запросов.
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json; charset=UTF-8");
+        AuditLogQuery query;
+        try {
+            query = parseQuery(request);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid audit log query\"}");
+            out.flush();
+            return;
+        }
+
+        JsonResponseStreaming.write(objectMapper, response, "Failed to read audit log", generator -> {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            AuditLogCursor next = auditLogService.streamAuditLog(query, entry -> writeEntry(generator, entry));
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", next != null ? next.encode() : null);
+            generator.writeEndObject();
+        });
+    }
+
+    private static AuditLogQuery parseQuery(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        String minExecutionTime = request.getParameter("minExecutionTime");
+        String cursor = request.getParameter("cursor");
+        return new AuditLogQuery(
+                request.getParameter("method"),
+                parseTimestamp(request.getParameter("from")),
+                parseTimestamp(request.getParameter("to")),
+                minExecutionTime != null ? Long.valueOf(minExecutionTime) : null,
+                cursor != null ? AuditLogCursor.decode(cursor) : null,
+                limit != null ? Integer.parseInt(limit) : DEFAULT_LIMIT);
+    }
+
+    private static Timestamp parseTimestamp(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.endsWith("Z") || value.contains("+")) {
+            return Timestamp.from(Instant.parse(value));
+        }
+        return Timestamp.valueOf(LocalDateTime.parse(value));
+    }
+
+    private static void writeEntry(JsonGenerator generator, AuditLogEntry entry) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", entry.id());
+        generator.writeStringField("methodName", entry.methodName());
+        generator.writeStringField("methodArgs", entry.methodArgs());
+        generator.writeNumberField("executionTime", entry.executionTime());
+        generator.writeStringField("result", entry.result());
+        generator.writeStringField("timestamp",
+                entry.timestamp() != null ? entry.timestamp().toLocalDateTime().toString() : null);
+        if (entry.callTree() != null) {
+            generator.writeFieldName("callTree");
+            generator.writeRawValue(entry.callTree());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.yaone.servlets;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Setter;
+import ru.yaone.aspect.annotation.Loggable;
+import ru.yaone.audit.AuditPolicy;
+import ru.yaone.audit.AuditPolicyRegistry;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сервлет для управления политиками аудита во время работы приложения (Администратор).
+ * <p>
+ * Основные пути доступа:
+ * <ul>
+ *     <li>GET /api/audit/policies/ - глобальный выключатель и действующие политики всех методов;</li>
+ *     <li>PUT /api/audit/policies/ - включает или выключает аудит целиком, тело {@code {"enabled": false}};</li>
+ *     <li>PUT /api/audit/policies/{Класс.метод} - переопределяет политику зарегистрированного метода;
+ *     поля, не указанные в теле, берутся из его действующей политики;</li>
+ *     <li>DELETE /api/audit/policies/{Класс.метод} - возвращает политику метода из аннотации.</li>
+ * </ul>
+ * </p>
+ */
+@Loggable("Логирование класса AuditPolicyServlet")
+@Setter
+@WebServlet(name = "AuditPolicyServlet", urlPatterns = "/api/audit/policies/*")
+public class AuditPolicyServlet extends HttpServlet {
+
+    private AuditPolicyRegistry registry = AuditPolicyRegistry.getInstance();
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Обработка HTTP GET запросов.
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    @Loggable("Логирование метода AuditPolicyServlet.doGet")
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json; charset=UTF-8");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", registry.isEnabled());
+        body.put("policies", registry.snapshot());
+        PrintWriter out = response.getWriter();
+        out.print(objectMapper.writeValueAsString(body));
+        out.flush();
+    }
+
+    /**
+     * Обработка HTTP PUT запросов.
+     * <p>Без ключа метода в пути меняет глобальный выключатель, с ключом — политику метода.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    @Loggable("Логирование метода AuditPolicyServlet.doPut")
+    @Override
+    protected void doPut(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        request.setCharacterEncoding("UTF-8");
+        response.setContentType("application/json; charset=UTF-8");
+        String pathInfo = request.getPathInfo();
+
+        if (pathInfo == null || pathInfo.equals("/")) {
+            JsonNode body = objectMapper.readTree(request.getInputStream());
+            if (body == null || !body.path("enabled").isBoolean()) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                PrintWriter out = response.getWriter();
+                out.print("{\"error\":\"Field 'enabled' is required\"}");
+                out.flush();
+                return;
+            }
+            registry.setEnabled(body.get("enabled").asBoolean());
+        } else {
+            String key = pathInfo.substring(1);
+            AuditPolicy current = registry.policyOf(key);
+            if (current == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                PrintWriter out = response.getWriter();
+                out.print("{\"error\":\"Audited method not found\"}");
+                out.flush();
+                return;
+            }
+            AuditPolicy policy;
+            try {
+                // Поля, которых нет в теле, сохраняют значения действующей политики метода.
+                JsonNode body = objectMapper.readTree(request.getInputStream());
+                if (body == null || !body.isObject()) {
+                    throw new JsonMappingException(null, "Audit policy must be a JSON object");
+                }
+                ObjectNode merged = objectMapper.valueToTree(current);
+                merged.setAll((ObjectNode) body);
+                policy = objectMapper.treeToValue(merged, AuditPolicy.class);
+            } catch (IOException e) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                PrintWriter out = response.getWriter();
+                out.print("{\"error\":\"Invalid audit policy\"}");
+                out.flush();
+                return;
+            }
+            registry.setOverride(key, policy);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        PrintWriter out = response.getWriter();
+        out.print("{\"status\":\"Audit policy updated successfully\"}");
+        out.flush();
+    }
+
+    /**
+     * Обработка HTTP DELETE запросов.
+     * <p>Отменяет переопределение политики метода, указанного в пути.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    @Loggable("Логирование метода AuditPolicyServlet.doDelete")
+    @Override
+    protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json; charset=UTF-8");
+        String pathInfo = request.getPathInfo();
+
+        if (pathInfo == null || pathInfo.length() < 2) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Method key must be specified\"}");
+            out.flush();
+        } else if (registry.removeOverride(pathInfo.substring(1))) {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        } else {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Audit policy override not found\"}");
+            out.flush();
+        }
+    }
+}
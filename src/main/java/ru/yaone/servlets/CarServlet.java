@@ -1,5 +1,6 @@
 package ru.yaone.servlets;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -11,14 +12,35 @@ import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 import lombok.Setter;
 import ru.yaone.aspect.annotation.Loggable;
+import ru.yaone.config.ApplicationProperties;
+import ru.yaone.dto.CarAggregateDTO;
 import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFacetsDTO;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarImportReportDTO;
+import ru.yaone.dto.CarMatchDTO;
+import ru.yaone.dto.CarPageCursor;
+import ru.yaone.dto.CarPageRequest;
+import ru.yaone.dto.CarPriceAdjustmentDTO;
+import ru.yaone.dto.CarPriceAdjustmentReportDTO;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.dto.CarSort;
+import ru.yaone.dto.CarSuggestionDTO;
+import ru.yaone.filter.CommitBufferedResponse;
 import ru.yaone.impl.CarServiceImpl;
+import ru.yaone.model.enumeration.CarCondition;
 import ru.yaone.services.CarService;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Сервлет для управления автомобилями.
@@ -29,29 +51,91 @@ import java.util.Set;
 @WebServlet(name = "CarServlet", urlPatterns = "/api/cars/*")
 public class CarServlet extends HttpServlet {
 
+    private static final String FACETS_PATH = "/facets";
+    private static final String STATS_PATH = "/stats";
+    private static final String AUTOCOMPLETE_PATH = "/autocomplete";
+    private static final String SIMILAR_SUFFIX = "/similar";
+    private static final String IMPORT_PATH = "/import";
+    private static final String PRICES_PATH = "/prices";
+    private static final String EXPORT_PATH = "/export";
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final double FUZZY_THRESHOLD = Double.parseDouble(
+            ApplicationProperties.getString("cars.fuzzy.threshold", "0.3"));
+    private static final int FUZZY_LIMIT = ApplicationProperties.getInt("cars.fuzzy.limit", 20);
+    private static final int FUZZY_MAX_LIMIT = ApplicationProperties.getInt("cars.fuzzy.maxLimit", 100);
+    private static final int AUTOCOMPLETE_LIMIT = ApplicationProperties.getInt("cars.autocomplete.topK", 10);
+    private static final int SIMILAR_LIMIT = ApplicationProperties.getInt("cars.similar.limit", 10);
+    private static final int SIMILAR_MAX_LIMIT = ApplicationProperties.getInt("cars.similar.maxLimit", 50);
+
     private CarService carService = new CarServiceImpl();
     private ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * Обработка HTTP GET запросов.
      * <p>Принимает запросы на получение информации об автомобилях. Если URL совпадает с "/api/cars/",
-     * возвращает список всех автомобилей. Если указано ID автомобиля, возвращает информацию о конкретном автомобиле.</p>
+     * возвращает список всех автомобилей, записываемый в ответ потоково по мере чтения из базы данных,
+     * или, если заданы параметры {@code make}, {@code model}, {@code yearFrom}, {@code yearTo},
+     * {@code minPrice}, {@code maxPrice} и {@code condition} (состояния через запятую),
+     * список найденных автомобилей. Параметр {@code q} включает
+     * нечёткий поиск по марке и модели с параметрами {@code threshold} и {@code limit}.
+     * По пути {@code /api/cars/facets} с теми же параметрами фильтра возвращает фасеты автомобилей,
+     * по пути {@code /api/cars/stats} — статистику цен в группах по полям из параметра {@code groupBy}
+     * ({@code make}, {@code model}, {@code year}, {@code condition} через запятую),
+     * по пути {@code /api/cars/autocomplete} — подсказки марок и моделей по началу строки {@code q},
+     * по пути {@code /api/cars/export} — выгрузку автомобилей в CSV или NDJSON.
+     * Если задан хотя бы один из параметров {@code limit}, {@code sort} ({@code price}, {@code year}
+     * или {@code id}, с префиксом {@code -} по убыванию) и {@code cursor}, возвращает страницу
+     * {@code {"items":[...],"nextCursor":"..."}}. Если указано ID автомобиля, возвращает информацию о конкретном автомобиле,
+     * по пути {@code /api/cars/{id}/similar} — похожие на него автомобили.</p>
      *
      * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
      * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
      * @throws IOException если происходит ошибка ввода/вывода
      */
-    @Loggable("Логирование метода CarServlet.doGet")
+    @Loggable(value = "Логирование метода CarServlet.doGet", sampleRate = 0.01, slowThresholdMillis = 500)
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
         response.setContentType("application/json; charset=UTF-8");
         String pathInfo = request.getPathInfo();
 
-        if (pathInfo == null || pathInfo.equals("/")) {
-            List<CarDTO> carDTOs = carService.getAllCars();
+        if ((pathInfo == null || pathInfo.equals("/")) && parameter(request, "q") != null) {
+            doFuzzySearch(request, response);
+        } else if (pathInfo == null || pathInfo.equals("/")) {
+            CarSearchCriteria criteria;
+            CarPageRequest pageRequest;
+            try {
+                criteria = parseCriteria(request);
+                pageRequest = parsePageRequest(request, criteria);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                PrintWriter out = response.getWriter();
+                out.print("{\"error\":\"Invalid search parameters\"}");
+                out.flush();
+                return;
+            }
+            if (criteria.isEmpty() && pageRequest == null) {
+                JsonResponseStreaming.writeArray(objectMapper, response, "Failed to read cars",
+                        generator -> carService.streamAllCars(generator::writeObject));
+                return;
+            }
             PrintWriter out = response.getWriter();
-            out.print(objectMapper.writeValueAsString(carDTOs));
+            if (pageRequest != null) {
+                out.print(objectMapper.writeValueAsString(carService.getCarsPage(pageRequest)));
+            } else {
+                out.print(objectMapper.writeValueAsString(carService.searchCars(criteria)));
+            }
             out.flush();
+        } else if (pathInfo.equals(FACETS_PATH)) {
+            doGetFacets(request, response);
+        } else if (pathInfo.equals(STATS_PATH)) {
+            doGetStats(request, response);
+        } else if (pathInfo.equals(AUTOCOMPLETE_PATH)) {
+            doAutocomplete(request, response);
+        } else if (pathInfo.equals(EXPORT_PATH)) {
+            doExport(request, response);
+        } else if (pathInfo.endsWith(SIMILAR_SUFFIX)) {
+            doGetSimilar(request, response, pathInfo.substring(1, pathInfo.length() - SIMILAR_SUFFIX.length()));
         } else {
             int carId;
             try {
@@ -79,7 +163,9 @@ public class CarServlet extends HttpServlet {
     /**
      * Обработка HTTP POST запросов.
      * <p>Принимает данные нового автомобиля в формате JSON и добавляет его в систему.
-     * В случае ошибок валидации возвращает список ошибок.</p>
+     * В случае ошибок валидации возвращает список ошибок. По пути {@code /api/cars/import}
+     * принимает файл автомобилей в формате CSV или NDJSON и возвращает отчёт об импорте, по пути
+     * {@code /api/cars/prices} изменяет цены автомобилей, подходящих под фильтр из параметров запроса.</p>
      *
      * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
      * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
@@ -91,6 +177,15 @@ public class CarServlet extends HttpServlet {
         request.setCharacterEncoding("UTF-8");
         response.setContentType("application/json; charset=UTF-8");
 
+        if (IMPORT_PATH.equals(request.getPathInfo())) {
+            doImport(request, response);
+            return;
+        }
+        if (PRICES_PATH.equals(request.getPathInfo())) {
+            doAdjustPrices(request, response);
+            return;
+        }
+
         CarDTO carDTO = objectMapper.readValue(request.getInputStream(), CarDTO.class);
         try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
             Validator validator = factory.getValidator();
@@ -155,4 +250,386 @@ public class CarServlet extends HttpServlet {
             out.flush();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Импортирует автомобили из тела запроса.
+     *
+     * <p>Формат задаётся параметром {@code format} ({@code csv} или {@code ndjson}) или типом
+     * содержимого {@code text/csv} или {@code application/x-ndjson}. Тело читается потоково;
+     * ошибочные строки пропускаются и перечисляются в отчёте с номерами строк файла.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doImport(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CarFileFormat format;
+        try {
+            format = CarFileFormat.of(parameter(request, "format"), request.getContentType());
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Unsupported import format\"}");
+            out.flush();
+            return;
+        }
+        CarImportReportDTO report;
+        try {
+            report = carService.importCars(request.getInputStream(), format);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid CSV header\"}");
+            out.flush();
+            return;
+        }
+        PrintWriter out = response.getWriter();
+        out.print(objectMapper.writeValueAsString(report));
+        out.flush();
+    }
+
+    /**
+     * Выгружает автомобили, отобранные параметрами фильтра, в порядке идентификатора.
+     *
+     * <p>Формат задаётся параметром {@code format}: {@code csv} (по умолчанию) или {@code ndjson}.
+     * Ответ пишется в поток по мере чтения из базы данных и сжимается gzip, если клиент указал его
+     * в {@code Accept-Encoding}. Байтовые диапазоны не поддерживаются: содержимое таблицы меняется
+     * между запросами, а сжатый поток нельзя начать с середины. Прерванная выгрузка продолжается
+     * запросом с параметром {@code after}, равным идентификатору последней полученной строки.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doExport(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CarSearchCriteria criteria;
+        CarFileFormat format;
+        int afterId;
+        try {
+            criteria = parseCriteria(request);
+            String formatName = parameter(request, "format");
+            format = formatName == null ? CarFileFormat.CSV : CarFileFormat.of(formatName, null);
+            String after = parameter(request, "after");
+            afterId = after == null ? 0 : Integer.parseInt(after);
+            if (afterId < 0) {
+                throw new IllegalArgumentException("after должен быть неотрицательным");
+            }
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid export parameters\"}");
+            out.flush();
+            return;
+        }
+        response.setContentType(format.contentType());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"cars." + format.name().toLowerCase(Locale.ROOT) + "\"");
+        response.setHeader("Accept-Ranges", "none");
+        response.setHeader("Vary", "Accept-Encoding");
+        if (acceptsGzip(request.getHeader("Accept-Encoding"))) {
+            response.setHeader("Content-Encoding", "gzip");
+            GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+            carService.exportCars(criteria, afterId, format, gzip);
+            gzip.finish();
+        } else {
+            carService.exportCars(criteria, afterId, format, response.getOutputStream());
+        }
+        response.getOutputStream().flush();
+    }
+
+    /**
+     * Проверяет, принимает ли клиент ответ, сжатый gzip.
+     *
+     * @param acceptEncoding значение заголовка {@code Accept-Encoding} или {@code null}
+     * @return {@code true}, если gzip указан и не запрещён {@code q=0}
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает фасеты автомобилей для фильтра из параметров запроса.
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doGetFacets(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CarSearchCriteria criteria;
+        try {
+            criteria = parseCriteria(request);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid search parameters\"}");
+            out.flush();
+            return;
+        }
+        CarFacetsDTO facets = carService.getCarFacets(criteria);
+        PrintWriter out = response.getWriter();
+        out.print(objectMapper.writeValueAsString(facets));
+        out.flush();
+    }
+
+    /**
+     * Возвращает статистику цен автомобилей для фильтра и полей группировки из параметров запроса.
+     *
+     * <p>Повторы в {@code groupBy} отбрасываются; без {@code groupBy} возвращается одна группа
+     * со всеми отобранными автомобилями.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doGetStats(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CarSearchCriteria criteria;
+        Set<CarGroupField> groupBy = new LinkedHashSet<>();
+        try {
+            criteria = parseCriteria(request);
+            String fields = parameter(request, "groupBy");
+            if (fields != null) {
+                for (String field : fields.split(",")) {
+                    groupBy.add(CarGroupField.of(field));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid stats parameters\"}");
+            out.flush();
+            return;
+        }
+        List<CarAggregateDTO> stats = carService.getCarStats(criteria, new ArrayList<>(groupBy));
+        PrintWriter out = response.getWriter();
+        out.print(objectMapper.writeValueAsString(stats));
+        out.flush();
+    }
+
+    /**
+     * Изменяет цены автомобилей, подходящих под фильтр из параметров запроса.
+     *
+     * <p>Тело запроса — {@link CarPriceAdjustmentDTO}, параметр {@code dryRun=true} включает пробный запуск.
+     * Ответ в формате NDJSON: отчёт после каждой зафиксированной пачки и итоговый отчёт
+     * с {@code "done":true}. Каждая строка описывает уже зафиксированные пачки, поэтому ответ
+     * не ждёт фиксации транзакции запроса и отправляется клиенту сразу.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doAdjustPrices(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CarSearchCriteria criteria;
+        CarPriceAdjustmentDTO adjustment;
+        try {
+            criteria = parseCriteria(request);
+            adjustment = objectMapper.readValue(request.getInputStream(), CarPriceAdjustmentDTO.class);
+            adjustment.validate();
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid price adjustment parameters\"}");
+            out.flush();
+            return;
+        }
+        boolean dryRun = "true".equalsIgnoreCase(parameter(request, "dryRun"));
+        response.setContentType(CarFileFormat.NDJSON.contentType());
+        CommitBufferedResponse.stream(response);
+        PrintWriter out = response.getWriter();
+        Consumer<CarPriceAdjustmentReportDTO> writeLine = report -> {
+            try {
+                out.print(objectMapper.writeValueAsString(report) + "\n");
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            out.flush();
+        };
+        writeLine.accept(carService.adjustPrices(criteria, adjustment, dryRun, writeLine));
+    }
+
+    /**
+     * Возвращает автомобили, похожие на автомобиль с указанным ID.
+     *
+     * <p>Размер выдачи {@code limit} — от 1 до {@code cars.similar.maxLimit}.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @param carId    ID автомобиля из пути запроса
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doGetSimilar(HttpServletRequest request, HttpServletResponse response, String carId)
+            throws IOException {
+        int id;
+        int limit;
+        try {
+            id = Integer.parseInt(carId);
+            String limitParameter = parameter(request, "limit");
+            limit = limitParameter == null ? SIMILAR_LIMIT : Integer.parseInt(limitParameter);
+        } catch (NumberFormatException e) {
+            id = -1;
+            limit = -1;
+        }
+        if (limit < 1 || limit > SIMILAR_MAX_LIMIT) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid similar cars parameters\"}");
+            out.flush();
+            return;
+        }
+        List<CarDTO> carDTOs = carService.getSimilarCars(id, limit);
+        PrintWriter out = response.getWriter();
+        if (carDTOs == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            out.print("{\"error\":\"Car not found\"}");
+        } else {
+            out.print(objectMapper.writeValueAsString(carDTOs));
+        }
+        out.flush();
+    }
+
+    /**
+     * Возвращает подсказки марок и моделей, начинающихся с параметра {@code q}.
+     *
+     * <p>Размер выдачи {@code limit} — от 1 до {@code cars.autocomplete.topK}, по умолчанию наибольший.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doAutocomplete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String prefix = parameter(request, "q");
+        int limit;
+        try {
+            String limitParameter = parameter(request, "limit");
+            limit = limitParameter == null ? AUTOCOMPLETE_LIMIT : Integer.parseInt(limitParameter);
+        } catch (NumberFormatException e) {
+            limit = -1;
+        }
+        if (prefix == null || limit < 1 || limit > AUTOCOMPLETE_LIMIT) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid autocomplete parameters\"}");
+            out.flush();
+            return;
+        }
+        List<CarSuggestionDTO> suggestions = carService.suggestCars(prefix, limit);
+        PrintWriter out = response.getWriter();
+        out.print(objectMapper.writeValueAsString(suggestions));
+        out.flush();
+    }
+
+    /**
+     * Выполняет нечёткий поиск по марке и модели.
+     *
+     * <p>Возвращает найденные автомобили с оценкой сходства по её убыванию. Порог сходства
+     * должен быть от 0 до 1, размер выдачи — от 1 до {@code cars.fuzzy.maxLimit}.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doFuzzySearch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        double threshold;
+        int limit;
+        try {
+            String thresholdParameter = parameter(request, "threshold");
+            threshold = thresholdParameter == null ? FUZZY_THRESHOLD : Double.parseDouble(thresholdParameter);
+            String limitParameter = parameter(request, "limit");
+            limit = limitParameter == null ? FUZZY_LIMIT : Integer.parseInt(limitParameter);
+        } catch (NumberFormatException e) {
+            threshold = -1;
+            limit = -1;
+        }
+        if (!(threshold >= 0 && threshold <= 1) || limit < 1 || limit > FUZZY_MAX_LIMIT) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid search parameters\"}");
+            out.flush();
+            return;
+        }
+        List<CarMatchDTO> matches = carService.fuzzySearchCars(parameter(request, "q"), threshold, limit);
+        PrintWriter out = response.getWriter();
+        out.print(objectMapper.writeValueAsString(matches));
+        out.flush();
+    }
+
+    /**
+     * Разбирает параметры страницы списка автомобилей из запроса.
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param criteria фильтр автомобилей
+     * @return запрос страницы или {@code null}, если параметры страницы не заданы
+     * @throws IllegalArgumentException если параметры страницы заданы неверно
+     */
+    private static CarPageRequest parsePageRequest(HttpServletRequest request, CarSearchCriteria criteria) {
+        String limit = parameter(request, "limit");
+        String sort = parameter(request, "sort");
+        String cursor = parameter(request, "cursor");
+        if (limit == null && sort == null && cursor == null) {
+            return null;
+        }
+        boolean descending = sort != null && sort.startsWith("-");
+        return new CarPageRequest(criteria,
+                sort == null ? CarSort.ID : CarSort.of(descending ? sort.substring(1) : sort),
+                descending,
+                cursor == null ? null : CarPageCursor.decode(cursor),
+                limit == null ? DEFAULT_PAGE_LIMIT : Integer.parseInt(limit));
+    }
+
+    /**
+     * Разбирает параметры поиска автомобилей из запроса.
+     *
+     * @param request объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @return условия поиска; пустые, если параметры не заданы
+     * @throws IllegalArgumentException если числовой параметр или состояние заданы неверно
+     */
+    private static CarSearchCriteria parseCriteria(HttpServletRequest request) {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake(parameter(request, "make"));
+        criteria.setModel(parameter(request, "model"));
+        String yearFrom = parameter(request, "yearFrom");
+        if (yearFrom != null) {
+            criteria.setYearFrom(Integer.valueOf(yearFrom));
+        }
+        String yearTo = parameter(request, "yearTo");
+        if (yearTo != null) {
+            criteria.setYearTo(Integer.valueOf(yearTo));
+        }
+        String minPrice = parameter(request, "minPrice");
+        if (minPrice != null) {
+            criteria.setMinPrice(Double.valueOf(minPrice));
+        }
+        String maxPrice = parameter(request, "maxPrice");
+        if (maxPrice != null) {
+            criteria.setMaxPrice(Double.valueOf(maxPrice));
+        }
+        String conditions = parameter(request, "condition");
+        if (conditions != null) {
+            for (String condition : conditions.split(",")) {
+                criteria.getConditions().add(CarCondition.valueOf(condition.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return criteria;
+    }
+
+    private static String parameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -18,7 +18,6 @@ import ru.yaone.services.ClientService;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -44,7 +43,8 @@ public class ClientServlet extends HttpServlet {
 
     /**
      * Обработка HTTP GET запросов для получения информации о клиентах.
-     * <p>Если путь запроса не содержит идентификатора клиента, возвращает список всех клиентов.
+     * <p>Если путь запроса не содержит идентификатора клиента, возвращает список всех клиентов,
+     * записывая его в ответ по мере чтения из базы данных.
      * Если путь содержит идентификатор клиента, возвращает информацию о конкретном клиенте.</p>
      *
      * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
@@ -59,10 +59,8 @@ public class ClientServlet extends HttpServlet {
         String pathInfo = request.getPathInfo();
 
         if (pathInfo == null || pathInfo.equals("/")) {
-            List<ClientDTO> clientsDTO = clientService.getAllClients();
-            PrintWriter out = response.getWriter();
-            out.print(objectMapper.writeValueAsString(clientsDTO));
-            out.flush();
+            JsonResponseStreaming.writeArray(objectMapper, response, "Failed to read clients",
+                    generator -> clientService.streamAllClients(generator::writeObject));
         } else {
             int clientId;
             try {
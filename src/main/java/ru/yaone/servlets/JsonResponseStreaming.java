@@ -0,0 +1,90 @@
+package ru.yaone.servlets;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Класс {@code JsonResponseStreaming} пишет JSON-ответ сервлета по мере чтения данных.
+ *
+ * <p>Генератор создаётся без {@link JsonGenerator.Feature#AUTO_CLOSE_JSON_CONTENT}: если чтение
+ * оборвалось, незакрытые массивы и объекты не дописываются, и клиент не получает усечённый,
+ * но корректный JSON со статусом 200. Пока заголовки не отправлены, ответ заменяется ошибкой 500;
+ * после этого исключение пробрасывается дальше и соединение обрывается.</p>
+ */
+final class JsonResponseStreaming {
+
+    private JsonResponseStreaming() {
+    }
+
+    /**
+     * Записывает тело ответа генератором.
+     *
+     * @see #write(ObjectMapper, HttpServletResponse, String, JsonBody)
+     */
+    @FunctionalInterface
+    interface JsonBody {
+
+        /**
+         * Пишет JSON целиком.
+         *
+         * @param generator генератор ответа
+         * @throws IOException если запись не удалась
+         */
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Пишет ответ потоком или, если чтение данных завершилось ошибкой до отправки заголовков,
+     * ответ 500 с сообщением {@code error}.
+     *
+     * @param objectMapper преобразователь объектов в JSON
+     * @param response     HTTP-ответ
+     * @param error        сообщение об ошибке для клиента
+     * @param body         запись тела ответа
+     * @throws IOException если запись в ответ не удалась
+     */
+    static void write(ObjectMapper objectMapper, HttpServletResponse response, String error, JsonBody body)
+            throws IOException {
+        JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(response.getOutputStream(), JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        try {
+            body.write(generator);
+            generator.close();
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            System.err.println("Ошибка потоковой записи ответа: " + e.getMessage());
+            response.reset();
+            response.setContentType("application/json; charset=UTF-8");
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"" + error + "\"}");
+            out.flush();
+        }
+    }
+
+    /**
+     * Пишет JSON-массив строк, которые {@code rows} передаёт генератору.
+     *
+     * @param objectMapper преобразователь объектов в JSON
+     * @param response     HTTP-ответ
+     * @param error        сообщение об ошибке для клиента
+     * @param rows         запись элементов массива
+     * @throws IOException если запись в ответ не удалась
+     */
+    static void writeArray(ObjectMapper objectMapper, HttpServletResponse response, String error, JsonBody rows)
+            throws IOException {
+        write(objectMapper, response, error, generator -> {
+            generator.writeStartArray();
+            rows.write(generator);
+            generator.writeEndArray();
+        });
+    }
+}
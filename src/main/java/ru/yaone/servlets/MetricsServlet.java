@@ -0,0 +1,86 @@
+package ru.yaone.servlets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Setter;
+import ru.yaone.audit.AsyncAuditWriter;
+import ru.yaone.audit.AuditSink;
+import ru.yaone.audit.SpillingAuditSink;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.metrics.MethodLatencyRegistry;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Сервлет для получения эксплуатационных метрик приложения.
+ * <p>
+ * Основные пути доступа:
+ * <ul>
+ *     <li>GET /api/metrics/pool - состояние пула соединений с базой данных;</li>
+ *     <li>GET /api/metrics/audit - состояние очереди асинхронной записи аудита;</li>
+ *     <li>GET /api/metrics/audit/spill - состояние дискового журнала аудита;</li>
+ *     <li>GET /api/metrics/latency - перцентили длительности вызовов методов за скользящее окно;</li>
+ *     <li>GET /api/metrics/prometheus - те же гистограммы в текстовом формате Prometheus.</li>
+ * </ul>
+ * Сервлет намеренно не помечен {@code @Loggable}: опрос метрик не должен порождать записи аудита.
+ * </p>
+ */
+@Setter
+@WebServlet(name = "MetricsServlet", urlPatterns = "/api/metrics/*")
+public class MetricsServlet extends HttpServlet {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Обработка HTTP GET запросов.
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json; charset=UTF-8");
+        String pathInfo = request.getPathInfo();
+
+        if ("/pool".equals(pathInfo)) {
+            PrintWriter out = response.getWriter();
+            out.print(objectMapper.writeValueAsString(DatabaseConnectionManager.getPoolStats()));
+            out.flush();
+        } else if ("/audit".equals(pathInfo)) {
+            PrintWriter out = response.getWriter();
+            out.print(objectMapper.writeValueAsString(AsyncAuditWriter.getInstance().getStats()));
+            out.flush();
+        } else if ("/audit/spill".equals(pathInfo)) {
+            AuditSink sink = AsyncAuditWriter.getInstance().getSink();
+            if (sink instanceof SpillingAuditSink spillingSink) {
+                PrintWriter out = response.getWriter();
+                out.print(objectMapper.writeValueAsString(spillingSink.getStats()));
+                out.flush();
+            } else {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                PrintWriter out = response.getWriter();
+                out.print("{\"error\":\"Audit spill is disabled\"}");
+                out.flush();
+            }
+        } else if ("/latency".equals(pathInfo)) {
+            PrintWriter out = response.getWriter();
+            out.print(objectMapper.writeValueAsString(MethodLatencyRegistry.getInstance().snapshot()));
+            out.flush();
+        } else if ("/prometheus".equals(pathInfo)) {
+            response.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+            PrintWriter out = response.getWriter();
+            out.print(MethodLatencyRegistry.getInstance().toPrometheus());
+            out.flush();
+        } else {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Unknown metrics path\"}");
+            out.flush();
+        }
+    }
+}
@@ -13,12 +13,16 @@ import jakarta.validation.ConstraintViolation;
 import lombok.Setter;
 import ru.yaone.aspect.annotation.Loggable;
 import ru.yaone.dto.OrderDTO;
+import ru.yaone.dto.OrderExpand;
 import ru.yaone.impl.OrderServiceImpl;
+import ru.yaone.model.enumeration.OrderStatus;
 import ru.yaone.services.OrderService;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -30,6 +34,8 @@ import java.util.Set;
 @WebServlet(name = "OrderServlet", urlPatterns = "/api/orders/*")
 public class OrderServlet extends HttpServlet {
 
+    private static final String REPORT_PATH = "/report";
+
     private OrderService orderService = new OrderServiceImpl();
     private ObjectMapper objectMapper = new ObjectMapper();
 
@@ -42,8 +48,11 @@ public class OrderServlet extends HttpServlet {
 
     /**
      * Обработка HTTP GET запросов.
-     * <p>Если идентификатор заказа не указан, возвращает список всех заказов.
-     * Если указан идентификатор заказа, возвращает информацию о конкретном заказе.</p>
+     * <p>Если идентификатор заказа не указан, возвращает список всех заказов, не собирая его в памяти целиком.
+     * Если указан идентификатор заказа, возвращает информацию о конкретном заказе.
+     * По пути {@code /report} возвращает заказы за период.
+     * Параметр {@code expand=client,car} встраивает в заказы клиента и/или автомобиль,
+     * которые читаются тем же SQL-запросом.</p>
      *
      * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
      * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
@@ -55,17 +64,27 @@ public class OrderServlet extends HttpServlet {
             throws IOException {
         response.setContentType("application/json; charset=UTF-8");
         String pathInfo = request.getPathInfo();
-
-        if (pathInfo == null || pathInfo.equals("/")) {
-            List<OrderDTO> ordersDTO = orderService.getAllOrders();
+        Set<OrderExpand> expand;
+        try {
+            expand = OrderExpand.parse(parameter(request, "expand"));
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             PrintWriter out = response.getWriter();
-            out.print(objectMapper.writeValueAsString(ordersDTO));
+            out.print("{\"error\":\"Invalid expand parameter\"}");
             out.flush();
+            return;
+        }
+
+        if (pathInfo == null || pathInfo.equals("/")) {
+            JsonResponseStreaming.writeArray(objectMapper, response, "Failed to read orders",
+                    generator -> orderService.streamAllOrders(expand, generator::writeObject));
+        } else if (pathInfo.equals(REPORT_PATH)) {
+            doGetReport(request, response, expand);
         } else {
             int orderId;
             try {
                 orderId = Integer.parseInt(pathInfo.substring(1));
-                OrderDTO orderDTO = orderService.getOrderById(orderId);
+                OrderDTO orderDTO = orderService.getOrderById(orderId, expand);
 
                 if (orderDTO != null) {
                     PrintWriter out = response.getWriter();
@@ -86,6 +105,46 @@ public class OrderServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Возвращает заказы, созданные с даты {@code from} по дату {@code to} включительно (формат yyyy-MM-dd),
+     * с необязательным фильтром {@code status}.
+     *
+     * <p>Заказы пишутся в ответ по мере чтения из базы данных.</p>
+     *
+     * @param request  объект {@link HttpServletRequest}, представляющий HTTP-запрос
+     * @param response объект {@link HttpServletResponse}, представляющий HTTP-ответ
+     * @param expand   встраиваемые в заказы клиент и/или автомобиль
+     * @throws IOException если происходит ошибка ввода/вывода
+     */
+    private void doGetReport(HttpServletRequest request, HttpServletResponse response, Set<OrderExpand> expand)
+            throws IOException {
+        LocalDate from;
+        LocalDate to;
+        OrderStatus status;
+        try {
+            String fromValue = parameter(request, "from");
+            String toValue = parameter(request, "to");
+            if (fromValue == null || toValue == null) {
+                throw new IllegalArgumentException("Не задан период отчёта");
+            }
+            from = LocalDate.parse(fromValue);
+            to = LocalDate.parse(toValue);
+            String statusValue = parameter(request, "status");
+            status = statusValue != null ? OrderStatus.valueOf(statusValue.toUpperCase(Locale.ROOT)) : null;
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("Начало периода позже его конца");
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            PrintWriter out = response.getWriter();
+            out.print("{\"error\":\"Invalid report parameters\"}");
+            out.flush();
+            return;
+        }
+        JsonResponseStreaming.writeArray(objectMapper, response, "Failed to build order report",
+                generator -> orderService.streamOrdersByDate(from, to, status, expand, generator::writeObject));
+    }
+
     /**
      * Обработка HTTP POST запросов для добавления нового заказа.
      * <p>Получает данные заказа из тела запроса, валидирует их, и если данные корректны, добавляет новый заказ.</p>
@@ -259,4 +318,9 @@ public class OrderServlet extends HttpServlet {
             }
         }
     }
+
+    private static String parameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
 }
\ No newline at end of file
@@ -18,7 +18,6 @@ import ru.yaone.services.UserService;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -44,7 +43,8 @@ public class UserServlet extends HttpServlet {
     /**
      * Обработка HTTP GET запросов.
      * <p>
-     * Если путь запроса не содержит идентификатора пользователя, возвращает список всех пользователей.
+     * Если путь запроса не содержит идентификатора пользователя, возвращает список всех пользователей
+     * потоком JSON, построчно читая его из базы данных.
      * Если идентификатор указан, возвращает информацию о пользователе с данным идентификатором.
      * В случае отсутствия пользователя возвращается ошибка 404 Not Found.
      * </p>
@@ -60,10 +60,8 @@ public class UserServlet extends HttpServlet {
         String pathInfo = request.getPathInfo();
 
         if (pathInfo == null || pathInfo.equals("/")) {
-            List<UserDTO> usersDTO = userService.getAllUsers();
-            PrintWriter out = response.getWriter();
-            out.print(objectMapper.writeValueAsString(usersDTO));
-            out.flush();
+            JsonResponseStreaming.writeArray(objectMapper, response, "Failed to read users",
+                    generator -> userService.streamAllUsers(generator::writeObject));
         } else {
             int clientId;
             try {
@@ -16,6 +16,9 @@ import java.util.List;
  */
 public class CarDTOValidator {
 
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final double MAX_PRICE = 100_000_000;
+
     /**
      * Проверяет корректность данных, содержащихся в {@code CarDTO}.
      *
@@ -29,12 +32,34 @@ public class CarDTOValidator {
             errors.add("ID должен быть положительным");
         }
 
+        errors.addAll(validateNew(carDTO));
+        return errors;
+    }
+
+    /**
+     * Проверяет данные нового автомобиля, идентификатор которого ещё не назначен.
+     * <p>
+     * Проверяет все поля, кроме идентификатора. Марка и модель должны помещаться в столбцы
+     * {@code varchar(255)}, а цена — в {@code decimal(10,2)}, чтобы такая строка импорта
+     * была отклонена до записи в базу данных.
+     * </p>
+     *
+     * @param carDTO объект {@code CarDTO} нового автомобиля.
+     * @return список строк с описаниями ошибок валидации. Если ошибок нет, возвращается пустой список.
+     */
+    public static List<String> validateNew(CarDTO carDTO) {
+        List<String> errors = new ArrayList<>();
+
         if (carDTO.getMake() == null || carDTO.getMake().isBlank()) {
             errors.add("Марка является обязательной");
+        } else if (carDTO.getMake().length() > MAX_NAME_LENGTH) {
+            errors.add("Марка не должна быть длиннее " + MAX_NAME_LENGTH + " символов");
         }
 
         if (carDTO.getModel() == null || carDTO.getModel().isBlank()) {
             errors.add("Модель является обязательной");
+        } else if (carDTO.getModel().length() > MAX_NAME_LENGTH) {
+            errors.add("Модель не должна быть длиннее " + MAX_NAME_LENGTH + " символов");
         }
 
         if (carDTO.getYear() <= 0) {
@@ -43,6 +68,8 @@ public class CarDTOValidator {
 
         if (carDTO.getPrice() <= 0) {
             errors.add("Цена должна быть положительной");
+        } else if (carDTO.getPrice() >= MAX_PRICE) {
+            errors.add("Цена должна быть меньше " + (long) MAX_PRICE);
         }
 
         if (carDTO.getCondition() == null) {
@@ -0,0 +1,112 @@
+package ru.yaone.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование асинхронной записи аудита")
+public class AsyncAuditWriterTest {
+
+    private static AuditEvent event(String name) {
+        return new AuditEvent(name, "[]", 1, null, new Timestamp(System.currentTimeMillis()), null);
+    }
+
+    @Test
+    @DisplayName("Пакет записывается при достижении размера")
+    public void testFlushBySize() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncAuditWriter writer = new AsyncAuditWriter(100, 3, 60_000, OverflowPolicy.BLOCK, events -> {
+            batchSizes.add(events.size());
+            latch.countDown();
+        });
+        writer.submit(event("a"));
+        writer.submit(event("b"));
+        writer.submit(event("c"));
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.shutdown();
+        assertThat(batchSizes).containsExactly(3);
+        assertThat(writer.getStats().written()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Пакет записывается по истечении интервала")
+    public void testFlushByTime() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncAuditWriter writer = new AsyncAuditWriter(100, 50, 20, OverflowPolicy.BLOCK, events -> latch.countDown());
+        writer.submit(event("a"));
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.shutdown();
+        assertThat(writer.getStats().written()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Политика DROP отбрасывает новые события и считает их")
+    public void testDropPolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncAuditWriter writer = new AsyncAuditWriter(2, 1, 60_000, OverflowPolicy.DROP, events -> release.await());
+        writer.submit(event("in-flight"));
+        waitUntilQueueEmpty(writer);
+        assertThat(writer.submit(event("a"))).isTrue();
+        assertThat(writer.submit(event("b"))).isTrue();
+        assertThat(writer.submit(event("c"))).isFalse();
+        assertThat(writer.getStats().dropped()).isEqualTo(1);
+        release.countDown();
+        writer.shutdown();
+        assertThat(writer.getStats().written()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Политика DROP_OLDEST сохраняет самые новые события")
+    public void testDropOldestPolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> names = new CopyOnWriteArrayList<>();
+        AsyncAuditWriter writer = new AsyncAuditWriter(2, 1, 60_000, OverflowPolicy.DROP_OLDEST, events -> {
+            release.await();
+            for (AuditEvent e : events) {
+                names.add(e.methodName());
+            }
+        });
+        writer.submit(event("in-flight"));
+        waitUntilQueueEmpty(writer);
+        writer.submit(event("a"));
+        writer.submit(event("b"));
+        writer.submit(event("c"));
+        release.countDown();
+        writer.shutdown();
+        assertThat(names).containsExactly("in-flight", "b", "c");
+        assertThat(writer.getStats().dropped()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ошибка записи учитывается, а события после неё записываются")
+    public void testSinkFailureIsCounted() {
+        List<String> names = new ArrayList<>();
+        AsyncAuditWriter writer = new AsyncAuditWriter(100, 1, 60_000, OverflowPolicy.BLOCK, events -> {
+            if (events.get(0).methodName().equals("bad")) {
+                throw new IllegalStateException("sink failure");
+            }
+            names.add(events.get(0).methodName());
+        });
+        writer.submit(event("bad"));
+        writer.submit(event("good"));
+        writer.shutdown();
+        assertThat(writer.getStats().failed()).isEqualTo(1);
+        assertThat(names).containsExactly("good");
+    }
+
+    private static void waitUntilQueueEmpty(AsyncAuditWriter writer) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getStats().queueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.yaone.audit;
+
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.yaone.manager.DatabaseConnectionManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование обслуживания секций audit_log на PostgreSQL")
+public class AuditPartitionMaintenancePostgresTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private static PostgreSQLContainer<?> postgresContainer;
+
+    @BeforeAll
+    public static void setupContainer() {
+        postgresContainer = new PostgreSQLContainer<>("postgres:14.13")
+                .withDatabaseName("car_shop")
+                .withUsername("test")
+                .withPassword("test");
+        postgresContainer.start();
+    }
+
+    @AfterAll
+    public static void stopContainer() {
+        postgresContainer.stop();
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        PoolProperties poolProperties = DatabaseConnectionManager.createPoolProperties();
+        poolProperties.setDriverClassName("org.postgresql.Driver");
+        poolProperties.setUrl(postgresContainer.getJdbcUrl());
+        poolProperties.setUsername(postgresContainer.getUsername());
+        poolProperties.setPassword(postgresContainer.getPassword());
+        poolProperties.setJmxEnabled(false);
+        DatabaseConnectionManager.configure(poolProperties);
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS car_shop CASCADE");
+            stmt.execute("CREATE SCHEMA car_shop");
+            stmt.execute("""
+                    CREATE TABLE car_shop.audit_log
+                    (
+                        id             bigint       NOT NULL,
+                        method_name    varchar(255) NOT NULL,
+                        method_args    text,
+                        execution_time bigint,
+                        result         text,
+                        "timestamp"    timestamp    NOT NULL,
+                        call_tree      jsonb,
+                        PRIMARY KEY (id, "timestamp")
+                    ) PARTITION BY RANGE ("timestamp")
+                    """);
+            stmt.execute("CREATE TABLE car_shop.audit_log_p20240501 PARTITION OF car_shop.audit_log "
+                    + "FOR VALUES FROM ('2024-05-01 00:00:00') TO ('2024-05-02 00:00:00')");
+            stmt.execute("CREATE TABLE car_shop.audit_log_default PARTITION OF car_shop.audit_log DEFAULT");
+            stmt.execute("INSERT INTO car_shop.audit_log (id, method_name, \"timestamp\") "
+                    + "VALUES (1, 'getAllCars', '2024-05-02 10:00:00'), (2, 'getCarById', '2024-06-01 10:00:00')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Строки из DEFAULT за создаваемый день переносятся в новую секцию")
+    public void testRowsInDefaultMovedToNewPartition() throws SQLException {
+        AuditPartitionMaintenance maintenance = new AuditPartitionMaintenance(2, 30);
+
+        maintenance.runOnce(TODAY);
+        maintenance.runOnce(TODAY.plusDays(1));
+
+        assertThat(ids("car_shop.audit_log_p20240502")).isEqualTo("1");
+        assertThat(ids("car_shop.audit_log_default")).isEqualTo("2");
+        assertThat(ids("car_shop.audit_log")).isEqualTo("1,2");
+        assertThat(ids("car_shop.audit_log_p20240504")).isEmpty();
+    }
+
+    private static String ids(String table) throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT string_agg(id::text, ',' ORDER BY id) FROM " + table)) {
+            rs.next();
+            String ids = rs.getString(1);
+            return ids == null ? "" : ids;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.yaone.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование обслуживания секций журнала аудита")
+public class AuditPartitionMaintenanceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    @Test
+    @DisplayName("Верхняя граница секции читается из выражения PostgreSQL")
+    public void testParseBound() {
+        AuditPartition daily = AuditPartition.of("audit_log_p20240510",
+                "FOR VALUES FROM ('2024-05-10 00:00:00') TO ('2024-05-11 00:00:00')");
+        AuditPartition legacy = AuditPartition.of("audit_log_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2024-05-11 00:00:00')");
+        AuditPartition fallback = AuditPartition.of("audit_log_default", "DEFAULT");
+
+        assertThat(daily.upperBound()).isEqualTo(LocalDateTime.of(2024, 5, 11, 0, 0));
+        assertThat(legacy.upperBound()).isEqualTo(LocalDateTime.of(2024, 5, 11, 0, 0));
+        assertThat(fallback.upperBound()).isNull();
+    }
+
+    @Test
+    @DisplayName("Новые секции начинаются с конца покрытого диапазона")
+    public void testDaysToCreate() {
+        List<AuditPartition> partitions = List.of(
+                new AuditPartition("audit_log_legacy", LocalDateTime.of(2024, 5, 11, 0, 0)),
+                new AuditPartition("audit_log_default", null));
+
+        List<LocalDate> days = AuditPartitionMaintenance.daysToCreate(partitions, TODAY, 3);
+
+        assertThat(days).containsExactly(
+                LocalDate.of(2024, 5, 11), LocalDate.of(2024, 5, 12), LocalDate.of(2024, 5, 13));
+        assertThat(AuditPartitionMaintenance.partitionName(days.get(0))).isEqualTo("audit_log_p20240511");
+    }
+
+    @Test
+    @DisplayName("Удаляются только секции целиком старше срока хранения")
+    public void testPartitionsToDrop() {
+        AuditPartition expired = new AuditPartition("audit_log_p20240409", LocalDateTime.of(2024, 4, 10, 0, 0));
+        AuditPartition kept = new AuditPartition("audit_log_p20240410", LocalDateTime.of(2024, 4, 11, 0, 0));
+        AuditPartition fallback = new AuditPartition("audit_log_default", null);
+
+        assertThat(AuditPartitionMaintenance.partitionsToDrop(List.of(expired, kept, fallback), TODAY, 30))
+                .containsExactly(expired);
+    }
+}
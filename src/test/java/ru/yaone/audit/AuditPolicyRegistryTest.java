@@ -0,0 +1,78 @@
+package ru.yaone.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.aspect.annotation.AuditLevel;
+import ru.yaone.aspect.annotation.Loggable;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование политик аудита")
+public class AuditPolicyRegistryTest {
+
+    @Loggable(level = AuditLevel.BASIC)
+    static class Annotated {
+
+        @Loggable(sampleRate = 0.0, slowThresholdMillis = 100)
+        public void read() {
+        }
+
+        public void write() {
+        }
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return Annotated.class.getMethod(name);
+    }
+
+    @Test
+    @DisplayName("Аннотация метода имеет приоритет над аннотацией класса")
+    public void testMethodAnnotationWins() throws NoSuchMethodException {
+        AuditPolicyRegistry registry = new AuditPolicyRegistry();
+        AuditPolicy read = registry.resolve(method("read"));
+        AuditPolicy write = registry.resolve(method("write"));
+        assertThat(read.sampleRate()).isZero();
+        assertThat(read.slowThresholdMillis()).isEqualTo(100);
+        assertThat(write.level()).isEqualTo(AuditLevel.BASIC);
+        assertThat(write.sampleRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Переопределение действует до его отмены")
+    public void testOverride() throws NoSuchMethodException {
+        AuditPolicyRegistry registry = new AuditPolicyRegistry();
+        registry.setOverride("Annotated.write", AuditPolicy.DISABLED);
+        assertThat(registry.resolve(method("write")).enabled()).isFalse();
+        assertThat(registry.snapshot()).containsEntry("Annotated.write", AuditPolicy.DISABLED);
+        assertThat(registry.removeOverride("Annotated.write")).isTrue();
+        assertThat(registry.resolve(method("write")).enabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Глобальный выключатель отключает все методы")
+    public void testGlobalSwitch() throws NoSuchMethodException {
+        AuditPolicyRegistry registry = new AuditPolicyRegistry();
+        registry.setEnabled(false);
+        assertThat(registry.resolve(method("write")).enabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Медленный вызов записывается независимо от выборки")
+    public void testSlowCallIsAlwaysRecorded() {
+        AuditPolicy policy = new AuditPolicy(true, AuditLevel.FULL, 0.0, 100);
+        assertThat(policy.shouldRecord(99)).isFalse();
+        assertThat(policy.shouldRecord(100)).isTrue();
+        assertThat(AuditPolicy.DEFAULT.shouldRecord(0)).isTrue();
+        assertThat(AuditPolicy.DISABLED.shouldRecord(10_000)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Доля выборки вне диапазона отклоняется")
+    public void testInvalidSampleRate() {
+        assertThatThrownBy(() -> new AuditPolicy(true, AuditLevel.FULL, 1.5, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
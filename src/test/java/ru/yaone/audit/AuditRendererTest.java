@@ -0,0 +1,98 @@
+package ru.yaone.audit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarPageDTO;
+import ru.yaone.dto.UserDTO;
+import ru.yaone.model.enumeration.CarCondition;
+import ru.yaone.model.enumeration.UserRole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Тестирование форматирования аргументов и результата аудита")
+public class AuditRendererTest {
+
+    private final AuditRenderer renderer = AuditRenderer.createDefault(64);
+
+    @Test
+    @DisplayName("Список записывается сводкой с типом элементов и размером")
+    public void testCollectionSummary() {
+        List<CarDTO> cars = new ArrayList<>();
+        for (int i = 0; i < 12_000; i++) {
+            cars.add(new CarDTO(i, "Toyota", "Camry", 2020, 1000, CarCondition.NEW));
+        }
+        assertThat(renderer.renderResult(cars)).isEqualTo("List<CarDTO>[size=12000]");
+        assertThat(renderer.renderResult(List.of())).isEqualTo("List<?>[size=0]");
+        assertThat(renderer.renderResult(Map.of("a", 1))).isEqualTo("Map[size=1]");
+    }
+
+    @Test
+    @DisplayName("Аргументы записываются в формате Arrays.toString")
+    public void testArgs() {
+        assertThat(renderer.renderArgs(new Object[]{1, "Toyota", null, CarCondition.USED}))
+                .isEqualTo("[1, Toyota, null, USED]");
+        assertThat(renderer.renderArgs(new Object[0])).isEqualTo("[]");
+        assertThat(renderer.renderResult(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Пароль пользователя скрывается")
+    public void testUserPasswordIsRedacted() {
+        UserDTO user = new UserDTO(1, "admin", "secret", UserRole.ADMIN);
+        String rendered = renderer.renderArgs(new Object[]{user});
+        assertThat(rendered).contains("username=admin").contains("password=***").doesNotContain("secret");
+    }
+
+    @Test
+    @DisplayName("Длинное значение усекается до лимита")
+    public void testTruncation() {
+        String rendered = renderer.renderResult("x".repeat(1_000));
+        assertThat(rendered).hasSize(64).endsWith("...(truncated)");
+    }
+
+    @Test
+    @DisplayName("Зарегистрированный тип использует собственное представление")
+    public void testCustomSummarizer() {
+        AuditRenderer custom = new AuditRenderer(64);
+        custom.register(CarDTO.class, (value, out) -> out.append("car#").append(((CarDTO) value).getId()));
+        assertThat(custom.renderResult(new CarDTO(7, "Lada", "Granta", 2000, 100, CarCondition.USED)))
+                .isEqualTo("car#7");
+    }
+
+    @Test
+    @DisplayName("Объект приложения разбирается по полям, вложенный список записывается сводкой")
+    public void testApplicationObjectFields() {
+        List<CarDTO> items = new ArrayList<>();
+        for (int i = 0; i < 12_000; i++) {
+            items.add(new CarDTO(i, "Toyota", "Camry", 2020, 1000, CarCondition.NEW));
+        }
+        AuditRenderer wide = new AuditRenderer(256);
+
+        assertThat(wide.renderResult(new CarPageDTO(items, "abc")))
+                .isEqualTo("CarPageDTO(items=List<CarDTO>[size=12000], nextCursor=abc)");
+        assertThat(wide.renderResult(new CarDTO(7, "Lada", "Granta", 2000, 100, CarCondition.USED)))
+                .isEqualTo("CarDTO(id=7, make=Lada, model=Granta, year=2000, price=100.0, condition=USED)");
+    }
+
+    @Test
+    @DisplayName("Запрос и ответ сервлета записываются методом, адресом и статусом")
+    public void testServletObjects() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/cars");
+        when(response.getStatus()).thenReturn(200);
+
+        assertThat(new AuditRenderer(256).renderArgs(new Object[]{request, response}))
+                .isEqualTo("[HttpServletRequest(GET /api/cars), HttpServletResponse(status=200)]");
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yaone.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование поминутных агрегатов аудита")
+public class AuditRollupAggregatorTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final AtomicLong clock = new AtomicLong(100 * MINUTE);
+    private final List<AuditRollup> written = new ArrayList<>();
+
+    @Test
+    @DisplayName("Вызовы складываются в ячейку метода и минуты")
+    public void testAggregation() throws Exception {
+        AuditRollupAggregator aggregator = new AuditRollupAggregator(written::addAll, clock::get);
+        aggregator.record("CarServlet.doGet", TimeUnit.MILLISECONDS.toNanos(3));
+        aggregator.record("CarServlet.doGet", TimeUnit.MILLISECONDS.toNanos(700));
+        aggregator.record("OrderServlet.doGet", TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(aggregator.flush(true)).isEqualTo(2);
+        AuditRollup car = written.stream()
+                .filter(rollup -> rollup.methodName().equals("CarServlet.doGet")).findFirst().orElseThrow();
+        assertThat(car.minute()).isEqualTo(new Timestamp(100 * MINUTE));
+        assertThat(car.callCount()).isEqualTo(2);
+        assertThat(car.totalMicros()).isEqualTo(703_000);
+        assertThat(car.maxMicros()).isEqualTo(700_000);
+        assertThat(car.bucketCounts()[AuditRollupAggregator.bucketOf(3_000)]).isEqualTo(1);
+        assertThat(car.bucketCounts()[AuditRollupAggregator.bucketOf(700_000)]).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Записываются только минуты, завершившиеся раньше льготного интервала")
+    public void testOnlyCompletedMinutesAreFlushed() throws Exception {
+        AuditRollupAggregator aggregator = new AuditRollupAggregator(written::addAll, clock::get);
+        aggregator.record("CarServlet.doGet", 1_000);
+        clock.addAndGet(MINUTE);
+        aggregator.record("CarServlet.doGet", 1_000);
+
+        assertThat(aggregator.flush(false)).isZero();
+        clock.addAndGet(MINUTE);
+        assertThat(aggregator.flush(false)).isEqualTo(1);
+        assertThat(written.get(0).minute()).isEqualTo(new Timestamp(100 * MINUTE));
+    }
+
+    @Test
+    @DisplayName("При ошибке записи агрегаты остаются до следующей попытки")
+    public void testFailedFlushKeepsCells() throws Exception {
+        boolean[] fail = {true};
+        AuditRollupAggregator aggregator = new AuditRollupAggregator(rollups -> {
+            if (fail[0]) {
+                throw new IllegalStateException("db down");
+            }
+            written.addAll(rollups);
+        }, clock::get);
+        aggregator.record("CarServlet.doGet", 1_000);
+
+        assertThatThrownBy(() -> aggregator.flush(true)).isInstanceOf(IllegalStateException.class);
+        fail[0] = false;
+        assertThat(aggregator.flush(true)).isEqualTo(1);
+        assertThat(written.get(0).callCount()).isEqualTo(1);
+    }
+}
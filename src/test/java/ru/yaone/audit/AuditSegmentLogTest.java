@@ -0,0 +1,129 @@
+package ru.yaone.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование дискового журнала аудита")
+public class AuditSegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static AuditEvent record(String name) {
+        return new AuditEvent(name, "[1]", 5, "ok", Timestamp.valueOf("2024-05-01 10:00:00.123456"), null);
+    }
+
+    private static List<AuditEvent> records(int from, int to) {
+        List<AuditEvent> records = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            records.add(record("m" + i));
+        }
+        return records;
+    }
+
+    private static List<String> names(List<AuditEvent> records) {
+        return records.stream().map(AuditEvent::methodName).toList();
+    }
+
+    @Test
+    @DisplayName("Записи читаются в порядке записи через границы сегментов")
+    public void testAppendAndReadAcrossSegments() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 256, 8)) {
+            log.append(records(0, 10));
+            AuditSegmentLog.ReplayBatch batch = log.read(100);
+
+            assertThat(names(batch.events())).containsExactlyElementsOf(names(records(0, 10)));
+            assertThat(batch.events().get(0)).isEqualTo(record("m0"));
+            assertThat(batch.seq()).isPositive();
+            log.commit(batch);
+            assertThat(log.isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("После перезапуска чтение продолжается с подтверждённой позиции")
+    public void testRecoveryFromCheckpoint() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 256, 8)) {
+            log.append(records(0, 6));
+            log.commit(log.read(2));
+        }
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 256, 8)) {
+            assertThat(names(log.read(100).events())).containsExactly("m2", "m3", "m4", "m5");
+            log.append(records(6, 7));
+            assertThat(names(log.read(100).events())).containsExactly("m2", "m3", "m4", "m5", "m6");
+        }
+    }
+
+    @Test
+    @DisplayName("Переполнение кольца перезаписывает самые старые сегменты")
+    public void testRingOverflowDropsOldest() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 128, 2)) {
+            log.append(records(0, 20));
+            List<String> replayed = names(log.read(100).events());
+
+            assertThat(replayed).isNotEmpty().endsWith("m19").doesNotContain("m0");
+            assertThat(log.getStats(true).lostSegments()).isPositive();
+        }
+    }
+
+    @Test
+    @DisplayName("Запись с неверной контрольной суммой не читается")
+    public void testCorruptRecordIsIgnored() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 4096, 2)) {
+            log.append(records(0, 2));
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("segment-0.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 20);
+        }
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 4096, 2)) {
+            assertThat(log.read(100).events()).isEmpty();
+            assertThat(log.isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("При ошибке базы данных записи сохраняются на диск и затем повторяются")
+    public void testSpillAndReplay() throws Exception {
+        List<AuditEvent> inserted = new ArrayList<>();
+        boolean[] available = {false};
+        JdbcAuditSink jdbcSink = new JdbcAuditSink() {
+            @Override
+            public void write(List<AuditEvent> events) throws SQLException {
+                if (!available[0]) {
+                    throw new SQLException("connection refused");
+                }
+                inserted.addAll(events);
+            }
+        };
+        AuditSegmentLog log = new AuditSegmentLog(directory, 4096, 4);
+        SpillingAuditSink sink = new SpillingAuditSink(jdbcSink, log, 60_000, 100, 60_000);
+        List<AuditEvent> events = List.of(
+                new AuditEvent("a", null, 1, null, new Timestamp(0), null),
+                new AuditEvent("b", null, 1, null, new Timestamp(0), null));
+
+        sink.write(events);
+        assertThat(inserted).isEmpty();
+        assertThat(sink.getStats().degraded()).isTrue();
+
+        available[0] = true;
+        sink.replayPending();
+        sink.close();
+
+        assertThat(names(inserted)).containsExactly("a", "b");
+        assertThat(sink.getStats().degraded()).isFalse();
+        assertThat(sink.getStats().replayed()).isEqualTo(2);
+    }
+}
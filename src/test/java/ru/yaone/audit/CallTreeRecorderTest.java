@@ -0,0 +1,70 @@
+package ru.yaone.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование сбора дерева вызовов")
+public class CallTreeRecorderTest {
+
+    @Test
+    @DisplayName("Вложенные вызовы собираются в одно дерево")
+    public void testNestedCallsFormTree() {
+        CallTreeRecorder recorder = new CallTreeRecorder(16);
+        recorder.enter("CarServlet.doGet");
+        recorder.enter("CarServiceImpl.getCarById");
+        recorder.enter("CarServiceImpl.getCarDTO");
+        assertThat(recorder.exit()).isNull();
+        assertThat(recorder.exit()).isNull();
+        recorder.enter("CarServiceImpl.getAllCars");
+        assertThat(recorder.exit()).isNull();
+        CallSpan root = recorder.exit();
+
+        assertThat(root).isNotNull();
+        assertThat(root.getName()).isEqualTo("CarServlet.doGet");
+        assertThat(root.getOffsetNanos()).isZero();
+        assertThat(root.getChildren()).extracting(CallSpan::getName)
+                .containsExactly("CarServiceImpl.getCarById", "CarServiceImpl.getAllCars");
+        CallSpan getCarById = root.getChildren().get(0);
+        assertThat(getCarById.getChildren()).extracting(CallSpan::getName).containsExactly("CarServiceImpl.getCarDTO");
+        assertThat(root.getDurationNanos()).isGreaterThanOrEqualTo(getCarById.getDurationNanos());
+        assertThat(recorder.isNested()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Узлы сверх лимита не попадают в дерево")
+    public void testSpanLimit() {
+        CallTreeRecorder recorder = new CallTreeRecorder(2);
+        recorder.enter("root");
+        recorder.enter("a");
+        recorder.exit();
+        recorder.enter("b");
+        recorder.enter("c");
+        recorder.exit();
+        recorder.exit();
+        CallSpan root = recorder.exit();
+        assertThat(root.getChildren()).extracting(CallSpan::getName).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Дерево сериализуется в компактный JSON")
+    public void testJsonSerialization() throws Exception {
+        CallTreeRecorder recorder = new CallTreeRecorder(16);
+        recorder.enter("root");
+        recorder.enter("child");
+        recorder.exit();
+        String json = new ObjectMapper().writeValueAsString(recorder.exit());
+        assertThat(json).startsWith("{\"name\":\"root\"").contains("\"children\":[{\"name\":\"child\"");
+        assertThat(json.indexOf("children")).isEqualTo(json.lastIndexOf("children"));
+    }
+
+    @Test
+    @DisplayName("Закрытие без открытого вызова запрещено")
+    public void testExitWithoutEnter() {
+        CallTreeRecorder recorder = new CallTreeRecorder(16);
+        assertThatThrownBy(recorder::exit).isInstanceOf(IllegalStateException.class);
+    }
+}
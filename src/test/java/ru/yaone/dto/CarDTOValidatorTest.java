@@ -66,4 +66,14 @@ public class CarDTOValidatorTest {
         List<String> validationResult = CarDTOValidator.validate(carDTO);
         assertFalse(validationResult.contains("Car condition cannot be null"), "Validation should fail for null condition.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Тест: новый автомобиль без ID, слишком длинная марка и цена вне decimal(10,2)")
+    public void testValidateNew() {
+        assertTrue(CarDTOValidator.validateNew(new CarDTO(0, "Toyota", "Camry", 2022, 30000.0, CarCondition.NEW)).isEmpty());
+        CarDTO carDTO = new CarDTO(0, "T".repeat(256), "Camry", 2022, 100_000_000.0, CarCondition.NEW);
+        List<String> validationResult = CarDTOValidator.validateNew(carDTO);
+        assertEquals(List.of("Марка не должна быть длиннее 255 символов", "Цена должна быть меньше 100000000"),
+                validationResult);
+    }
+}
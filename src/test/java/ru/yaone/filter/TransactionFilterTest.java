@@ -0,0 +1,116 @@
+package ru.yaone.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Тестирование фильтра транзакций")
+public class TransactionFilterTest {
+
+    private final TransactionFilter transactionFilter = new TransactionFilter();
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private StringWriter body;
+
+    @BeforeEach
+    public void setUp() throws SQLException, IOException {
+        TestDatabase.start("tx_filter_test");
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        body = new StringWriter();
+        when(request.getRequestURI()).thenReturn("/api/cars");
+        when(request.getContextPath()).thenReturn("");
+        when(request.getMethod()).thenReturn("POST");
+        when(response.getWriter()).thenReturn(new PrintWriter(body, true));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Ответ на изменяющий запрос отправляется только после фиксации")
+    public void testBodyIsSentAfterCommit() throws IOException, ServletException {
+        FilterChain chain = (req, res) -> {
+            PrintWriter out = res.getWriter();
+            out.print("created");
+            out.flush();
+            res.flushBuffer();
+            assertThat(body.toString()).isEmpty();
+        };
+
+        transactionFilter.doFilter(request, response, chain);
+
+        assertThat(body.toString()).isEqualTo("created");
+    }
+
+    @Test
+    @DisplayName("При ошибке фиксации клиент не получает ответ об успехе")
+    public void testBodyIsDiscardedWhenCommitFails() {
+        FilterChain chain = (req, res) -> {
+            try (Connection conn = DatabaseConnectionManager.getConnection()) {
+                conn.createStatement().execute("SHUTDOWN");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            PrintWriter out = res.getWriter();
+            out.print("created");
+            out.flush();
+        };
+
+        assertThatThrownBy(() -> transactionFilter.doFilter(request, response, chain))
+                .isInstanceOf(ServletException.class);
+        verify(response).reset();
+        assertThat(body.toString()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Потоковый ответ передаётся клиенту без ожидания фиксации")
+    public void testStreamedBodyIsSentImmediately() throws IOException, ServletException {
+        FilterChain chain = (req, res) -> {
+            CommitBufferedResponse.stream(res);
+            PrintWriter out = res.getWriter();
+            out.print("chunk");
+            out.flush();
+            assertThat(body.toString()).isEqualTo("chunk");
+        };
+
+        transactionFilter.doFilter(request, response, chain);
+
+        assertThat(body.toString()).isEqualTo("chunk");
+    }
+
+    @Test
+    @DisplayName("Ответ на чтение не буферизуется")
+    public void testReadIsNotBuffered() throws IOException, ServletException {
+        when(request.getMethod()).thenReturn("GET");
+        FilterChain chain = (req, res) -> {
+            assertThat(res).isSameAs(response);
+            res.getWriter().print("list");
+        };
+
+        transactionFilter.doFilter(request, response, chain);
+
+        assertThat(body.toString()).isEqualTo("list");
+    }
+}
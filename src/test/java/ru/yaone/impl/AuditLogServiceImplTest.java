@@ -0,0 +1,89 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.audit.AuditLogCursor;
+import ru.yaone.audit.AuditLogEntry;
+import ru.yaone.audit.AuditLogQuery;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование постраничного чтения журнала аудита")
+public class AuditLogServiceImplTest {
+
+    private static final Timestamp BASE = Timestamp.valueOf("2024-05-01 10:00:00");
+
+    private final AuditLogServiceImpl auditLogService = new AuditLogServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("audit_log_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO car_shop.audit_log VALUES (?, ?, NULL, ?, NULL, ?, NULL)")) {
+            for (int id = 1; id <= 10; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, id % 2 == 0 ? "getAllCars" : "addOrder");
+                insert.setLong(3, id * 10L);
+                // Пары записей с одинаковым временем проверяют разрешение равенства по id.
+                insert.setTimestamp(4, new Timestamp(BASE.getTime() + (id / 2) * 1000L));
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Страницы идут по убыванию (timestamp, id) без пропусков и повторов")
+    public void testKeysetPagination() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        AuditLogCursor cursor = null;
+        int pages = 0;
+        do {
+            AuditLogQuery query = new AuditLogQuery(null, null, null, null, cursor, 3);
+            cursor = auditLogService.streamAuditLog(query, entry -> ids.add(entry.id()));
+            pages++;
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Фильтры по методу, интервалу и времени выполнения сочетаются")
+    public void testFilters() throws IOException {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        AuditLogQuery query = new AuditLogQuery("getAllCars",
+                new Timestamp(BASE.getTime() + 2000), new Timestamp(BASE.getTime() + 5000), 50L, null, 100);
+
+        AuditLogCursor cursor = auditLogService.streamAuditLog(query, entries::add);
+
+        assertThat(cursor).isNull();
+        assertThat(entries).extracting(AuditLogEntry::id).containsExactly(8L, 6L);
+    }
+
+    @Test
+    @DisplayName("Курсор восстанавливается из строки без потери точности")
+    public void testCursorRoundTrip() {
+        Timestamp timestamp = Timestamp.valueOf("2024-05-01 10:00:00.123456");
+        AuditLogCursor cursor = new AuditLogCursor(timestamp, 42);
+
+        assertThat(AuditLogCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarMatchDTO;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование нечёткого поиска автомобилей без pg_trgm")
+public class CarFuzzySearchTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_fuzzy_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars VALUES "
+                    + "(1, 'Toyota', 'Camry', 2015, 15000.00, 'NEW'), "
+                    + "(2, 'Toyota', 'Corolla', 2010, 9000.00, 'USED'), "
+                    + "(3, 'Lada', 'Granta', 2018, 7000.00, 'NEW'), "
+                    + "(4, 'Toyota', 'Corolla', 2005, 5000.00, 'DAMAGED')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Запрос с опечатками находит автомобили по убыванию сходства")
+    public void testTypoTolerantRanking() {
+        List<CarMatchDTO> matches = carService.fuzzySearchCars("toyta corola", 0.2, 10);
+
+        assertThat(matches).extracting(match -> match.getCar().getId()).containsExactly(2, 4, 1);
+        assertThat(matches.get(0).getScore()).isGreaterThan(matches.get(2).getScore());
+    }
+
+    @Test
+    @DisplayName("Порог и размер выдачи ограничивают результат")
+    public void testThresholdAndLimit() {
+        assertThat(carService.fuzzySearchCars("toyta corola", 0.3, 1))
+                .extracting(match -> match.getCar().getId()).containsExactly(2);
+        assertThat(carService.fuzzySearchCars("toyta corola", 0.99, 10)).isEmpty();
+        assertThat(carService.fuzzySearchCars("  ", 0.3, 10)).isEmpty();
+    }
+}
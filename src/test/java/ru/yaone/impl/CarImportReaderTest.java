@@ -0,0 +1,105 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование разбора файлов импорта автомобилей")
+public class CarImportReaderTest {
+
+    private static List<CarImportReader.Row> readAll(CarFileFormat format, String content) throws IOException {
+        List<CarImportReader.Row> rows = new ArrayList<>();
+        try (CarImportReader reader = CarImportReader.open(format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))) {
+            CarImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("CSV: столбцы в любом порядке, кавычки, переводы строк внутри поля и CRLF")
+    public void testCsvQuotingAndColumnOrder() throws IOException {
+        String csv = "\uFEFFprice,condition,make,model,year\r\n"
+                + "19999.99,new,Toyota,Camry,2022\r\n"
+                + "\r\n"
+                + "5000,USED,\"Lada, \"\"АвтоВАЗ\"\"\",\"Granta\nSport\",2015\r\n"
+                + "100.5,damaged,Kia,Rio,2010";
+
+        List<CarImportReader.Row> rows = readAll(CarFileFormat.CSV, csv);
+
+        assertThat(rows).hasSize(3).allMatch(CarImportReader.Row::isValid);
+        assertThat(rows).extracting(CarImportReader.Row::line).containsExactly(2L, 4L, 6L);
+        assertThat(rows.get(0).car().getPrice()).isEqualTo(19999.99);
+        assertThat(rows.get(0).car().getCondition()).isEqualTo(CarCondition.NEW);
+        assertThat(rows.get(1).car().getMake()).isEqualTo("Lada, \"АвтоВАЗ\"");
+        assertThat(rows.get(1).car().getModel()).isEqualTo("Granta\nSport");
+        assertThat(rows.get(2).car().getYear()).isEqualTo(2010);
+    }
+
+    @Test
+    @DisplayName("CSV: ошибочные строки возвращаются с ошибками, чтение продолжается")
+    public void testCsvRowErrors() throws IOException {
+        String csv = "make,model,year,price,condition\n"
+                + "Toyota,Camry,20x2,100,NEW\n"
+                + "Toyota,Camry,2022\n"
+                + ",Camry,2022,-5,NEW\n"
+                + "Toyota,Camry,2022,1.999,BROKEN\n"
+                + "Kia,Rio,2010,500,USED\n";
+
+        List<CarImportReader.Row> rows = readAll(CarFileFormat.CSV, csv);
+
+        assertThat(rows).hasSize(5);
+        assertThat(rows.get(0).errors()).containsExactly("Год должен быть целым числом: '20x2'");
+        assertThat(rows.get(1).errors()).containsExactly("Ожидалось столбцов: 5, получено: 3");
+        assertThat(rows.get(2).errors()).containsExactly("Марка является обязательной", "Цена должна быть положительной");
+        assertThat(rows.get(3).errors()).hasSize(2);
+        assertThat(rows.get(3).car()).isNull();
+        assertThat(rows.get(4).isValid()).isTrue();
+        assertThat(rows.get(4).line()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("CSV: незакрытая кавычка в конце файла и заголовок без обязательного столбца")
+    public void testCsvMalformedInput() throws IOException {
+        List<CarImportReader.Row> rows = readAll(CarFileFormat.CSV,
+                "make,model,year,price,condition\nKia,\"Rio,2010,500,USED\n");
+
+        assertThat(rows).singleElement()
+                .satisfies(row -> assertThat(row.errors()).containsExactly("Кавычка поля не закрыта до конца файла"));
+        assertThatThrownBy(() -> readAll(CarFileFormat.CSV, "make,model,year,price\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("condition");
+    }
+
+    @Test
+    @DisplayName("NDJSON: пустые строки пропускаются, некорректный JSON отмечается ошибкой строки")
+    public void testNdjson() throws IOException {
+        String ndjson = "{\"make\":\"Toyota\",\"model\":\"Camry\",\"year\":2022,\"price\":100.0,\"condition\":\"NEW\"}\n"
+                + "\n"
+                + "{\"make\":\"Toyota\",\"model\":\n"
+                + "null\n"
+                + "{\"id\":7,\"make\":\"Kia\",\"model\":\"Rio\",\"year\":0,\"price\":10.0,\"condition\":\"USED\"}\n";
+
+        List<CarImportReader.Row> rows = readAll(CarFileFormat.NDJSON, ndjson);
+
+        assertThat(rows).extracting(CarImportReader.Row::line).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(rows.get(0).isValid()).isTrue();
+        assertThat(rows.get(0).car().getMake()).isEqualTo("Toyota");
+        assertThat(rows.get(1).errors()).singleElement().asString().startsWith("Некорректный JSON");
+        assertThat(rows.get(2).errors()).containsExactly("Строка должна быть JSON-объектом автомобиля");
+        assertThat(rows.get(3).errors()).containsExactly("Год должен быть положительным");
+    }
+}
@@ -0,0 +1,128 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarPriceAdjustmentDTO;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование построения запроса поиска автомобилей")
+public class CarQueryBuilderTest {
+
+    @Test
+    @DisplayName("Пустые критерии не добавляют условий")
+    public void testEmptyCriteria() {
+        List<Object> params = new ArrayList<>();
+
+        assertThat(CarQueryBuilder.where(new CarSearchCriteria(), params)).isEmpty();
+        assertThat(params).isEmpty();
+    }
+
+    @Test
+    @DisplayName("В запрос попадают только заданные условия")
+    public void testOnlySuppliedPredicates() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("Toyota");
+        criteria.setYearTo(2010);
+        criteria.setMinPrice(1500.5);
+        List<Object> params = new ArrayList<>();
+
+        String where = CarQueryBuilder.where(criteria, params);
+
+        assertThat(where).isEqualTo("WHERE make = ? AND year <= ? AND price >= ?\n");
+        assertThat(params).containsExactly("Toyota", 2010, new BigDecimal("1500.5"));
+    }
+
+    @Test
+    @DisplayName("Состояния передаются условием IN")
+    public void testConditionsIn() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setConditions(EnumSet.of(CarCondition.NEW, CarCondition.DAMAGED));
+        List<Object> params = new ArrayList<>();
+
+        String sql = CarQueryBuilder.search(criteria, params);
+
+        assertThat(sql).contains("WHERE condition IN (?, ?)\n").endsWith("ORDER BY id\n");
+        assertThat(params).containsExactly("NEW", "DAMAGED");
+    }
+
+    @Test
+    @DisplayName("Параметры интервалов фасетов предшествуют параметрам фильтра")
+    public void testFacetsQuery() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setModel("Corolla");
+        List<Object> params = new ArrayList<>();
+
+        String sql = CarQueryBuilder.facets(criteria, 5, 5000, params);
+
+        assertThat(sql).contains("WHERE model = ?\n").contains("GROUPING SETS");
+        assertThat(params).containsExactly(5, 5, BigDecimal.valueOf(5000), BigDecimal.valueOf(5000), "Corolla");
+    }
+
+    @Test
+    @DisplayName("Статистика группирует и упорядочивает по заданным полям после фильтра")
+    public void testAggregateQuery() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(2010);
+        List<Object> params = new ArrayList<>();
+
+        String sql = CarQueryBuilder.aggregate(criteria, List.of(CarGroupField.MAKE, CarGroupField.YEAR), params);
+
+        assertThat(sql).startsWith("SELECT make, year, count(*) AS car_count")
+                .contains("WHERE year >= ?\nGROUP BY make, year\nORDER BY make, year\n");
+        assertThat(params).containsExactly(2010);
+        assertThat(CarQueryBuilder.aggregate(new CarSearchCriteria(), List.of(), new ArrayList<>()))
+                .startsWith("SELECT count(*)").doesNotContain("GROUP BY");
+    }
+
+    @Test
+    @DisplayName("Изменение цен пачки ограничено промежутком идентификаторов и допустимой ценой")
+    public void testAdjustPricesQuery() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("Toyota");
+        CarPriceAdjustmentDTO adjustment = new CarPriceAdjustmentDTO(new BigDecimal("-5"), null, new BigDecimal("100"));
+        List<Object> params = new ArrayList<>();
+
+        String sql = CarQueryBuilder.adjustPrices(criteria, adjustment, 10, 20, params);
+
+        assertThat(sql).startsWith("UPDATE car_shop.cars SET price = round((price * ? + ?) / ?) * ?\n")
+                .contains("WHERE id > ? AND id <= ? AND make = ? AND round((price * ? + ?) / ?) * ? BETWEEN");
+        assertThat(params).containsExactly(new BigDecimal("0.95"), BigDecimal.ZERO, new BigDecimal("100"),
+                new BigDecimal("100"), 10, 20, "Toyota", new BigDecimal("0.95"), BigDecimal.ZERO,
+                new BigDecimal("100"), new BigDecimal("100"));
+    }
+
+    @Test
+    @DisplayName("Выгрузка продолжается после идентификатора и подставляет параметры литералами для COPY")
+    public void testExportQueryInlined() throws SQLException {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("O'Neil ?");
+        criteria.setMinPrice(1500.5);
+        List<Object> params = new ArrayList<>();
+
+        String sql = CarQueryBuilder.export(criteria, 42, params);
+
+        assertThat(sql).contains("WHERE make = ? AND price >= ? AND id > ?\n").endsWith("ORDER BY id\n");
+        assertThat(params).containsExactly("O'Neil ?", new BigDecimal("1500.5"), 42);
+        assertThat(CarQueryBuilder.inline(sql, params, true))
+                .contains("WHERE make = 'O''Neil ?' AND price >= 1500.5 AND id > 42\n");
+    }
+
+    @Test
+    @DisplayName("При standard_conforming_strings=off обратная косая черта не закрывает литерал")
+    public void testInlineEscapesBackslashes() throws SQLException {
+        List<Object> params = List.of("x\\' OR 1=1 --");
+
+        assertThat(CarQueryBuilder.inline("make = ?", params, false)).isEqualTo("make = 'x\\\\'' OR 1=1 --'");
+        assertThat(CarQueryBuilder.inline("make = ?", params, true)).isEqualTo("make = 'x\\'' OR 1=1 --'");
+    }
+}
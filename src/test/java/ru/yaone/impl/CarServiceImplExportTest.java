@@ -0,0 +1,69 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование выгрузки автомобилей")
+public class CarServiceImplExportTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_export_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars VALUES (3, 'Kia', 'Rio', 2010, 500.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (1, 'Toyota', 'Camry, XLE', 2022, 19999.99, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (2, 'Lada', 'Granta \"Sport\"', 2015, 1000.00, 'NEW')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    private String export(CarSearchCriteria criteria, int afterId, CarFileFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        carService.exportCars(criteria, afterId, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSV выгружается в порядке id с экранированием как у COPY")
+    public void testExportCsv() throws IOException {
+        assertThat(export(new CarSearchCriteria(), 0, CarFileFormat.CSV)).isEqualTo("""
+                id,make,model,year,price,condition
+                1,Toyota,"Camry, XLE",2022,19999.99,NEW
+                2,Lada,"Granta ""Sport\""",2015,1000.00,NEW
+                3,Kia,Rio,2010,500.00,USED
+                """);
+    }
+
+    @Test
+    @DisplayName("NDJSON учитывает фильтр и продолжение после идентификатора")
+    public void testExportNdjsonFilteredAndResumed() throws IOException {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(2011);
+
+        assertThat(export(criteria, 1, CarFileFormat.NDJSON)).isEqualTo(
+                "{\"id\":2,\"make\":\"Lada\",\"model\":\"Granta \\\"Sport\\\"\",\"year\":2015,"
+                        + "\"price\":1000.0,\"condition\":\"NEW\"}\n");
+    }
+}
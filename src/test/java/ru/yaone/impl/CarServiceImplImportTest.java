@@ -0,0 +1,129 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.dto.CarImportError;
+import ru.yaone.dto.CarImportReportDTO;
+import ru.yaone.dto.CarSuggestionDTO;
+import ru.yaone.index.CarAutocompleteIndex;
+import ru.yaone.index.CarInventoryIndex;
+import ru.yaone.index.CarSimilarityIndex;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.manager.TransactionContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование массового импорта автомобилей")
+public class CarServiceImplImportTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_import_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars (make, model, year, price, condition) "
+                    + "VALUES ('Lada', 'Vesta', 2020, 1000.00, 'USED')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CarAutocompleteIndex.shutdownInstance();
+        CarSimilarityIndex.shutdownInstance();
+        DatabaseConnectionManager.shutdown();
+    }
+
+    private CarImportReportDTO importCars(CarFileFormat format, String content) throws IOException {
+        return carService.importCars(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    @Test
+    @DisplayName("Корректные строки CSV загружаются, ошибочные попадают в отчёт")
+    public void testImportCsv() throws IOException {
+        CarImportReportDTO report = importCars(CarFileFormat.CSV, "make,model,year,price,condition\n"
+                + "Toyota,Camry,2022,19999.99,NEW\n"
+                + "Toyota,Camry,0,100,NEW\n"
+                + "\"Kia, Inc\",Rio,2010,500,USED\n");
+
+        assertThat(report.getReceived()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly(new CarImportError(3, List.of("Год должен быть положительным")));
+
+        List<CarDTO> cars = carService.getAllCars();
+        assertThat(cars).extracting(CarDTO::getMake).containsExactlyInAnyOrder("Lada", "Toyota", "Kia, Inc");
+        assertThat(cars).extracting(CarDTO::getPrice).contains(19999.99, 500.0);
+        assertThat(cars).extracting(CarDTO::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("NDJSON загружается пакетом, идентификаторы назначаются базой данных")
+    public void testImportNdjson() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append("{\"id\":1,\"make\":\"Make").append(i % 3).append("\",\"model\":\"M\",\"year\":2000,")
+                    .append("\"price\":").append(1000 + i).append(",\"condition\":\"NEW\"}\n");
+        }
+
+        CarImportReportDTO report = importCars(CarFileFormat.NDJSON, ndjson.toString());
+
+        assertThat(report.getImported()).isEqualTo(250);
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(carService.getAllCars()).hasSize(251).extracting(CarDTO::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Импорт попадает в подсказки и индекс похожих автомобилей и без индекса каталога")
+    public void testImportUpdatesIndexesWithoutInventoryIndex() throws IOException {
+        CarAutocompleteIndex.startInstance();
+        CarSimilarityIndex.startInstance();
+        assertThat(CarInventoryIndex.getInstance()).isNull();
+
+        importCars(CarFileFormat.CSV, "make,model,year,price,condition\n"
+                + "Toyota,Camry,2021,21000,USED\n");
+
+        assertThat(CarAutocompleteIndex.getInstance().suggest("toy", 10))
+                .containsExactly(new CarSuggestionDTO("make", "Toyota", 1));
+        int ladaId = carService.getAllCars().stream()
+                .filter(car -> car.getMake().equals("Lada"))
+                .findFirst().orElseThrow().getId();
+        assertThat(CarSimilarityIndex.getInstance().similar(ladaId, 10))
+                .extracting(CarDTO::getMake).containsExactly("Toyota");
+    }
+
+    @Test
+    @DisplayName("Внутри транзакции запроса каждая пачка импорта фиксируется и попадает в индекс сразу")
+    public void testChunksCommittedInsideTransaction() throws IOException {
+        CarAutocompleteIndex.startInstance();
+        StringBuilder csv = new StringBuilder("make,model,year,price,condition\n");
+        for (int i = 0; i < 5001; i++) {
+            csv.append("Toyota,Camry,2021,21000,USED\n");
+        }
+
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            CarImportReportDTO report = importCars(CarFileFormat.CSV, csv.toString());
+
+            assertThat(transaction.hasConnection()).isTrue();
+            assertThat(report.getImported()).isEqualTo(5001);
+            assertThat(CarAutocompleteIndex.getInstance().suggest("toy", 10))
+                    .containsExactly(new CarSuggestionDTO("make", "Toyota", 5001));
+        }
+
+        assertThat(carService.getAllCars()).hasSize(5002);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarPageCursor;
+import ru.yaone.dto.CarPageDTO;
+import ru.yaone.dto.CarPageRequest;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.dto.CarSort;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование постраничного списка автомобилей")
+public class CarServiceImplPagingTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_paging_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (int id = 1; id <= 23; id++) {
+                // Повторяющиеся цены проверяют разрешение равенства по id.
+                stmt.execute("INSERT INTO car_shop.cars VALUES (" + id + ", 'Make', 'Model', "
+                        + (2000 + id % 7) + ", " + (id % 5) * 1000 + ".50, 'NEW')");
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Страницы по убыванию цены покрывают все автомобили без повторов")
+    public void testWalkAllPagesByPriceDescending() {
+        List<CarDTO> all = new ArrayList<>();
+        CarPageCursor cursor = null;
+        int pages = 0;
+        do {
+            CarPageDTO page = carService.getCarsPage(
+                    new CarPageRequest(new CarSearchCriteria(), CarSort.PRICE, true, cursor, 5));
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor() == null ? null : CarPageCursor.decode(page.getNextCursor());
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(all).extracting(CarDTO::getId).doesNotHaveDuplicates().hasSize(23);
+        for (int i = 1; i < all.size(); i++) {
+            CarDTO previous = all.get(i - 1);
+            CarDTO current = all.get(i);
+            assertThat(previous.getPrice() > current.getPrice()
+                    || previous.getPrice() == current.getPrice() && previous.getId() > current.getId()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Страница по году учитывает фильтр, последняя страница без курсора")
+    public void testFilteredPageByYear() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(2005);
+        CarPageDTO first = carService.getCarsPage(new CarPageRequest(criteria, CarSort.YEAR, false, null, 4));
+        CarPageDTO second = carService.getCarsPage(new CarPageRequest(criteria, CarSort.YEAR, false,
+                CarPageCursor.decode(first.getNextCursor()), 4));
+
+        assertThat(first.getItems()).extracting(CarDTO::getId).containsExactly(5, 12, 19, 6);
+        assertThat(second.getItems()).extracting(CarDTO::getId).containsExactly(13, 20);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Курсор другого порядка сортировки отклоняется")
+    public void testCursorSortMismatch() {
+        CarPageCursor cursor = CarPageCursor.decode(carService.getCarsPage(
+                new CarPageRequest(new CarSearchCriteria(), CarSort.ID, false, null, 2)).getNextCursor());
+
+        assertThat(cursor.id()).isEqualTo(2);
+        assertThatThrownBy(() -> new CarPageRequest(new CarSearchCriteria(), CarSort.PRICE, false, cursor, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CarPageCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
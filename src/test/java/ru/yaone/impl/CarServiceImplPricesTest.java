@@ -0,0 +1,121 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarPriceAdjustmentDTO;
+import ru.yaone.dto.CarPriceAdjustmentReportDTO;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.manager.TransactionContext;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование массового изменения цен автомобилей")
+public class CarServiceImplPricesTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_prices_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars SELECT x, CASE WHEN MOD(x, 2) = 0 THEN 'Toyota' ELSE 'Kia' END, "
+                    + "'Model', 2020, 1000.00, CASE WHEN MOD(x, 4) < 2 THEN 'USED' ELSE 'NEW' END "
+                    + "FROM SYSTEM_RANGE(1, 2500)");
+            stmt.execute("UPDATE car_shop.cars SET price = 10.00 WHERE id = 4");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    private static CarSearchCriteria usedToyotas() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("Toyota");
+        criteria.setConditions(EnumSet.of(CarCondition.USED));
+        return criteria;
+    }
+
+    private static BigDecimal priceOf(int id) throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT price FROM car_shop.cars WHERE id = " + id)) {
+            rs.next();
+            return rs.getBigDecimal("price");
+        }
+    }
+
+    @Test
+    @DisplayName("Пробный запуск считает автомобили и не меняет цены")
+    public void testDryRun() throws SQLException {
+        CarPriceAdjustmentDTO adjustment = new CarPriceAdjustmentDTO(null, new BigDecimal("-50"), null);
+
+        CarPriceAdjustmentReportDTO report = carService.adjustPrices(usedToyotas(), adjustment, true, r -> {
+        });
+
+        assertThat(report.isDryRun()).isTrue();
+        assertThat(report.getMatched()).isEqualTo(625);
+        assertThat(report.getUpdated()).isEqualTo(624);
+        assertThat(report.getSkipped()).isEqualTo(1);
+        assertThat(priceOf(8)).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    @DisplayName("Цены меняются по пачкам с отчётом после каждой, недопустимая цена пропускается")
+    public void testAdjustInChunks() throws SQLException {
+        CarPriceAdjustmentDTO adjustment = new CarPriceAdjustmentDTO(new BigDecimal("-5"), new BigDecimal("-40"),
+                new BigDecimal("100"));
+        List<Long> progress = new ArrayList<>();
+
+        CarPriceAdjustmentReportDTO report = carService.adjustPrices(usedToyotas(), adjustment, false,
+                r -> progress.add(r.getMatched()));
+
+        assertThat(progress).containsExactly(625L);
+        assertThat(report.isDone()).isTrue();
+        assertThat(report.getUpdated()).isEqualTo(624);
+        assertThat(report.getSkipped()).isEqualTo(1);
+        assertThat(priceOf(8)).isEqualByComparingTo("900.00");
+        assertThat(priceOf(4)).isEqualByComparingTo("10.00");
+        assertThat(priceOf(6)).isEqualByComparingTo("1000.00");
+        assertThat(priceOf(5)).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    @DisplayName("Внутри транзакции запроса каждая пачка фиксируется сразу")
+    public void testChunksCommittedInsideTransaction() throws SQLException {
+        List<Integer> chunks = new ArrayList<>();
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            carService.adjustPrices(new CarSearchCriteria(), new CarPriceAdjustmentDTO(new BigDecimal("10"), null, null),
+                    false, r -> chunks.add(r.getChunks()));
+            assertThat(transaction.hasConnection()).isTrue();
+        }
+
+        assertThat(chunks).containsExactly(1, 2, 3);
+        assertThat(priceOf(2500)).isEqualByComparingTo("1100.00");
+    }
+
+    @Test
+    @DisplayName("Изменение без полей отклоняется")
+    public void testEmptyAdjustmentRejected() {
+        assertThatThrownBy(() -> carService.adjustPrices(new CarSearchCriteria(), new CarPriceAdjustmentDTO(),
+                true, r -> {
+                })).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование подбора похожих автомобилей запросом к базе данных")
+public class CarServiceImplSimilarTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_similar_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars VALUES (1, 'Toyota', 'Camry', 2015, 15000.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (2, 'Toyota', 'Corolla', 2016, 14000.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (3, 'Toyota', 'Corolla', 2015, 15000.00, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (4, 'Toyota', 'Prius', 2005, 4000.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (5, 'Honda', 'Accord', 2015, 15000.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (6, 'Toyota', 'Yaris', 2014, 16500.00, 'USED')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Без индекса запрос упорядочивает автомобили того же состояния по расстоянию")
+    public void testSimilarWithoutIndex() {
+        assertThat(carService.getSimilarCars(1, 10)).extracting(CarDTO::getId).containsExactly(2, 6, 5, 4);
+        assertThat(carService.getSimilarCars(3, 10)).isEmpty();
+        assertThat(carService.getSimilarCars(42, 10)).isNull();
+    }
+
+    @Test
+    @DisplayName("Без индекса автомобиль с нулевой ценой не ломает запрос")
+    public void testSimilarWithoutIndexZeroPrice() throws SQLException {
+        TestDatabase.execute("INSERT INTO car_shop.cars VALUES (7, 'Toyota', 'Camry', 2015, 0.00, 'USED')");
+
+        assertThat(carService.getSimilarCars(1, 10)).extracting(CarDTO::getId).containsExactly(2, 6, 5, 4, 7);
+        assertThat(carService.getSimilarCars(7, 1)).extracting(CarDTO::getId).containsExactly(4);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarAggregateDTO;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование статистики цен автомобилей по базе данных")
+public class CarServiceImplStatsTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_stats_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars VALUES (1, 'Toyota', 'Camry', 2015, 15000.50, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (2, 'Lada', 'Vesta', 2015, 12000.00, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (3, 'Lada', 'Granta', 2015, 7000.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (4, 'Kia', 'Rio', 2010, 500.00, 'USED')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Запрос GROUP BY считает среднюю цену с округлением до копеек")
+    public void testStatsByYearAndCondition() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(2015);
+
+        List<CarAggregateDTO> stats = carService.getCarStats(criteria,
+                List.of(CarGroupField.YEAR, CarGroupField.CONDITION));
+
+        assertThat(stats).extracting(CarAggregateDTO::getGroup).containsExactly(
+                Map.of("year", 2015, "condition", "NEW"),
+                Map.of("year", 2015, "condition", "USED"));
+        assertThat(stats.get(0)).satisfies(group -> {
+            assertThat(group.getCount()).isEqualTo(2);
+            assertThat(group.getTotalPrice()).isEqualByComparingTo("27000.50");
+            assertThat(group.getAveragePrice()).isEqualByComparingTo("13500.25");
+            assertThat(group.getMinPrice()).isEqualByComparingTo("12000.00");
+            assertThat(group.getMaxPrice()).isEqualByComparingTo("15000.50");
+        });
+    }
+
+    @Test
+    @DisplayName("Без группировки запрос возвращает одну строку и при пустой выборке")
+    public void testStatsWithoutGroups() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("Opel");
+
+        assertThat(carService.getCarStats(criteria, List.of())).singleElement().satisfies(group -> {
+            assertThat(group.getCount()).isZero();
+            assertThat(group.getAveragePrice()).isNull();
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarSuggestionDTO;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование подсказок автомобилей запросом к базе данных")
+public class CarServiceImplSuggestTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("car_suggest_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars VALUES (1, 'Toyota', 'Corolla', 2020, 100.00, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (2, 'Toyota', 'Camry', 2020, 100.00, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (3, 'Tesla', 'T_100%', 2020, 100.00, 'NEW')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Без индекса подсказки считаются запросом по началу строки")
+    public void testSuggestWithoutIndex() {
+        assertThat(carService.suggestCars("T", 2)).containsExactly(
+                new CarSuggestionDTO("make", "Toyota", 2),
+                new CarSuggestionDTO("model", "T_100%", 1));
+        assertThat(carService.suggestCars("t_", 10)).containsExactly(new CarSuggestionDTO("model", "T_100%", 1));
+        assertThat(carService.suggestCars("ca", 10)).containsExactly(new CarSuggestionDTO("model", "Camry", 1));
+    }
+}
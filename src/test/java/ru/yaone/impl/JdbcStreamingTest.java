@@ -0,0 +1,74 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование потокового чтения таблиц")
+public class JdbcStreamingTest {
+
+    private final CarServiceImpl carService = new CarServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("jdbc_streaming_test", 1);
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (int id = 1; id <= 1200; id++) {
+                stmt.execute("INSERT INTO car_shop.cars VALUES (" + id + ", 'Lada', 'Vesta', 2020, 1000.00, 'USED')");
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Все строки передаются обработчику, а auto-commit соединения восстанавливается")
+    public void testStreamAllCars() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        carService.streamAllCars(car -> {
+            assertThat(car.getCondition()).isEqualTo(CarCondition.USED);
+            ids.add(car.getId());
+        });
+
+        assertThat(ids).hasSize(1200).doesNotHaveDuplicates();
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            assertThat(conn.getAutoCommit()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Ошибка записи обработчика прерывает чтение и не оставляет соединение в транзакции")
+    public void testHandlerFailureStopsStreaming() throws SQLException {
+        List<CarDTO> seen = new ArrayList<>();
+        assertThatThrownBy(() -> carService.streamAllCars(car -> {
+            seen.add(car);
+            if (seen.size() == 3) {
+                throw new IOException("client disconnected");
+            }
+        })).isInstanceOf(IOException.class);
+
+        assertThat(seen).hasSize(3);
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            assertThat(conn.getAutoCommit()).isTrue();
+        }
+    }
+}
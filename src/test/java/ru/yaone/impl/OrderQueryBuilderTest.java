@@ -0,0 +1,40 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.constants.SqlScriptsForOrder;
+import ru.yaone.dto.OrderExpand;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование сборки запросов заказов")
+public class OrderQueryBuilderTest {
+
+    @Test
+    @DisplayName("Без expand запрос читает только таблицу заказов")
+    public void testSelectWithoutExpand() {
+        String sql = OrderQueryBuilder.select(Set.of(), SqlScriptsForOrder.BY_ID);
+
+        assertThat(sql).isEqualTo("SELECT o.id, o.client_id, o.car_id, o.creation_date, o.status "
+                + "FROM car_shop.orders o WHERE o.id = ?");
+    }
+
+    @Test
+    @DisplayName("Каждое значение expand добавляет свои столбцы и соединение")
+    public void testSelectWithExpand() {
+        String clientOnly = OrderQueryBuilder.select(EnumSet.of(OrderExpand.CLIENT));
+        String both = OrderQueryBuilder.select(EnumSet.allOf(OrderExpand.class),
+                SqlScriptsForOrder.BY_CREATION_DATE, SqlScriptsForOrder.ORDER_BY_CREATION_DATE);
+
+        assertThat(clientOnly)
+                .contains(SqlScriptsForOrder.CLIENT_COLUMNS, SqlScriptsForOrder.JOIN_CLIENTS)
+                .doesNotContain("car_shop.cars");
+        assertThat(both)
+                .contains(SqlScriptsForOrder.JOIN_CLIENTS, SqlScriptsForOrder.JOIN_CARS)
+                .endsWith("JOIN car_shop.cars car ON o.car_id = car.id "
+                        + "WHERE o.creation_date >= ? AND o.creation_date < ? ORDER BY o.creation_date, o.id");
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.OrderDTO;
+import ru.yaone.dto.OrderExpand;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование встраивания клиента и автомобиля в заказы по базе данных")
+public class OrderServiceImplExpandTest {
+
+    private final OrderServiceImpl orderService = new OrderServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("order_expand_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.cars VALUES (1, 'Toyota', 'Camry', 2015, 15000.50, 'NEW')");
+            stmt.execute("INSERT INTO car_shop.cars VALUES (2, 'Lada', 'Vesta', 2019, 12000.00, 'USED')");
+            stmt.execute("INSERT INTO car_shop.clients VALUES (1, 'Иван', '+79990000001')");
+            stmt.execute("INSERT INTO car_shop.clients VALUES (2, 'Пётр', '+79990000002')");
+            stmt.execute("INSERT INTO car_shop.orders VALUES (1, 1, 2, '2024-03-10 10:00:00', 'PENDING')");
+            stmt.execute("INSERT INTO car_shop.orders VALUES (2, 2, 1, '2024-03-11 10:00:00', 'APPROVED')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Без expand заказ содержит только идентификаторы клиента и автомобиля")
+    public void testOrderWithoutExpand() {
+        OrderDTO orderDTO = orderService.getOrderById(1);
+
+        assertThat(orderDTO.getClientId()).isEqualTo(1);
+        assertThat(orderDTO.getCarId()).isEqualTo(2);
+        assertThat(orderDTO.getClient()).isNull();
+        assertThat(orderDTO.getCar()).isNull();
+    }
+
+    @Test
+    @DisplayName("expand=client,car встраивает данные из того же запроса")
+    public void testOrderWithExpand() {
+        OrderDTO orderDTO = orderService.getOrderById(1, EnumSet.allOf(OrderExpand.class));
+
+        assertThat(orderDTO.getClient()).satisfies(client -> {
+            assertThat(client.getId()).isEqualTo(1);
+            assertThat(client.getClientName()).isEqualTo("Иван");
+            assertThat(client.getContactInfo()).isEqualTo("+79990000001");
+        });
+        assertThat(orderDTO.getCar()).satisfies(car -> {
+            assertThat(car.getId()).isEqualTo(2);
+            assertThat(car.getMake()).isEqualTo("Lada");
+            assertThat(car.getModel()).isEqualTo("Vesta");
+            assertThat(car.getYear()).isEqualTo(2019);
+            assertThat(car.getPrice()).isEqualTo(12000.00);
+            assertThat(car.getCondition()).isEqualTo(CarCondition.USED);
+        });
+    }
+
+    @Test
+    @DisplayName("Потоковый список встраивает только запрошенные данные")
+    public void testStreamWithClientExpand() throws IOException {
+        List<OrderDTO> orders = new ArrayList<>();
+
+        orderService.streamAllOrders(Set.of(OrderExpand.CLIENT), orders::add);
+
+        assertThat(orders).hasSize(2).allSatisfy(order -> {
+            assertThat(order.getClient().getId()).isEqualTo(order.getClientId());
+            assertThat(order.getCar()).isNull();
+        });
+        assertThat(orders).extracting(order -> order.getClient().getClientName())
+                .containsExactlyInAnyOrder("Иван", "Пётр");
+    }
+}
@@ -0,0 +1,82 @@
+package ru.yaone.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.OrderDTO;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.model.enumeration.OrderStatus;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование отчёта по заказам за период по базе данных")
+public class OrderServiceImplReportTest {
+
+    private final OrderServiceImpl orderService = new OrderServiceImpl();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("order_report_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO car_shop.orders VALUES (1, 1, 1, '2024-03-09 23:59:59', 'PENDING')");
+            stmt.execute("INSERT INTO car_shop.orders VALUES (2, 1, 2, '2024-03-10 00:00:00', 'APPROVED')");
+            stmt.execute("INSERT INTO car_shop.orders VALUES (3, 2, 3, '2024-03-11 23:59:59', 'PENDING')");
+            stmt.execute("INSERT INTO car_shop.orders VALUES (4, 2, 4, '2024-03-10 12:00:00', 'PENDING')");
+            stmt.execute("INSERT INTO car_shop.orders VALUES (5, 3, 5, '2024-03-12 00:00:00', 'PENDING')");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Период включает оба граничных дня целиком, заказы идут по дате создания")
+    public void testOrdersByDateIncludesWholeDays() throws IOException {
+        List<OrderDTO> orders = new ArrayList<>();
+
+        orderService.streamOrdersByDate(LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 11), null, Set.of(),
+                orders::add);
+
+        assertThat(orders).extracting(OrderDTO::getId).containsExactly(2, 4, 3);
+    }
+
+    @Test
+    @DisplayName("Фильтр по статусу применяется внутри периода")
+    public void testOrdersByDateAndStatus() throws IOException {
+        List<OrderDTO> orders = new ArrayList<>();
+
+        orderService.streamOrdersByDate(LocalDate.of(2024, 3, 9), LocalDate.of(2024, 3, 12),
+                OrderStatus.APPROVED, Set.of(), orders::add);
+
+        assertThat(orders).singleElement().satisfies(order -> {
+            assertThat(order.getId()).isEqualTo(2);
+            assertThat(order.getCarId()).isEqualTo(2);
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.APPROVED);
+        });
+    }
+
+    @Test
+    @DisplayName("Один день без заказов даёт пустой отчёт")
+    public void testOrdersByDateEmptyDay() throws IOException {
+        List<OrderDTO> orders = new ArrayList<>();
+
+        orderService.streamOrdersByDate(LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 13), null, Set.of(),
+                orders::add);
+
+        assertThat(orders).isEmpty();
+    }
+}
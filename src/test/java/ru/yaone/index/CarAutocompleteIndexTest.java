@@ -0,0 +1,93 @@
+package ru.yaone.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarSuggestionDTO;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование подсказок марок и моделей")
+public class CarAutocompleteIndexTest {
+
+    private CarAutocompleteIndex index;
+
+    private static CarDTO car(int id, String make, String model) {
+        return new CarDTO(id, make, model, 2020, 1000.0, CarCondition.NEW);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = new CarAutocompleteIndex(3);
+        index.put(car(1, "Toyota", "Corolla"));
+        index.put(car(2, "Toyota", "Camry"));
+        index.put(car(3, "Toyota", "Corolla"));
+        index.put(car(4, "Tesla", "Model 3"));
+        index.put(car(5, "Chevrolet", "Tahoe"));
+        index.put(car(6, "Chevrolet", "Cruze"));
+    }
+
+    @Test
+    @DisplayName("Подсказки по префиксу без учёта регистра упорядочены по числу автомобилей")
+    public void testSuggestRanking() {
+        assertThat(index.suggest("t", 10)).containsExactly(
+                new CarSuggestionDTO("make", "Toyota", 3),
+                new CarSuggestionDTO("model", "Tahoe", 1),
+                new CarSuggestionDTO("make", "Tesla", 1));
+        assertThat(index.suggest("CO", 10)).containsExactly(new CarSuggestionDTO("model", "Corolla", 2));
+        assertThat(index.suggest("c", 2)).extracting(CarSuggestionDTO::getValue).containsExactly("Chevrolet", "Corolla");
+        assertThat(index.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Обновление и удаление пересчитывают подсказки на пути к корню")
+    public void testUpdateAndRemove() {
+        index.put(car(1, "Tesla", "Model Y"));
+        index.put(car(4, "Tesla", "Model 3"));
+
+        assertThat(index.suggest("te", 10)).containsExactly(new CarSuggestionDTO("make", "Tesla", 2));
+        assertThat(index.suggest("model", 10)).extracting(CarSuggestionDTO::getValue)
+                .containsExactly("Model 3", "Model Y");
+
+        assertThat(index.remove(2)).isTrue();
+        assertThat(index.remove(3)).isTrue();
+        assertThat(index.remove(3)).isFalse();
+        assertThat(index.suggest("to", 10)).isEmpty();
+        assertThat(index.suggest("ca", 10)).isEmpty();
+        assertThat(index.suggest("", 10)).containsExactly(
+                new CarSuggestionDTO("make", "Chevrolet", 2),
+                new CarSuggestionDTO("make", "Tesla", 2),
+                new CarSuggestionDTO("model", "Cruze", 1));
+    }
+
+    @Test
+    @DisplayName("Подсказки загружаются из таблицы cars")
+    public void testLoad() throws SQLException {
+        TestDatabase.start("car_autocomplete_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (int id = 1; id <= 30; id++) {
+                stmt.execute("INSERT INTO car_shop.cars VALUES (" + id + ", 'Make" + id % 4 + "', 'Model" + id % 2
+                        + "', 2020, 100.00, 'NEW')");
+            }
+            CarAutocompleteIndex loaded = CarAutocompleteIndex.load(3);
+
+            assertThat(loaded.suggest("make", 10)).containsExactly(
+                    new CarSuggestionDTO("make", "Make1", 8),
+                    new CarSuggestionDTO("make", "Make2", 8),
+                    new CarSuggestionDTO("make", "Make0", 7));
+            assertThat(loaded.suggest("m", 10)).extracting(CarSuggestionDTO::getValue)
+                    .containsExactly("Model0", "Model1", "Make1");
+        } finally {
+            DatabaseConnectionManager.shutdown();
+        }
+    }
+}
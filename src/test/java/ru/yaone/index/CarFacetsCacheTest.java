@@ -0,0 +1,50 @@
+package ru.yaone.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarFacetsDTO;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование кэша фасетов автомобилей")
+public class CarFacetsCacheTest {
+
+    @Test
+    @DisplayName("Фасеты подсчитываются один раз до сброса кэша")
+    public void testCachedUntilInvalidated() {
+        CarFacetsCache cache = new CarFacetsCache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        CarFacetsDTO first = cache.get("make=Lada", () -> {
+            loads.incrementAndGet();
+            return CarFacetsDTO.empty(5, 5000);
+        });
+        CarFacetsDTO second = cache.get("make=Lada", () -> {
+            loads.incrementAndGet();
+            return CarFacetsDTO.empty(5, 5000);
+        });
+        cache.invalidate();
+        cache.get("make=Lada", () -> {
+            loads.incrementAndGet();
+            return CarFacetsDTO.empty(5, 5000);
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Фасеты, подсчитанные во время изменения, не выдаются после него")
+    public void testLoadRacingWithInvalidation() {
+        CarFacetsCache cache = new CarFacetsCache(10);
+        CarFacetsDTO stale = cache.get("all", () -> {
+            cache.invalidate();
+            return CarFacetsDTO.empty(5, 5000);
+        });
+        CarFacetsDTO fresh = cache.get("all", () -> CarFacetsDTO.empty(5, 5000));
+
+        assertThat(fresh).isNotSameAs(stale);
+    }
+}
@@ -0,0 +1,220 @@
+package ru.yaone.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarAggregateDTO;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFacetsDTO;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarSearchCriteria;
+import ru.yaone.manager.DatabaseConnectionManager;
+import ru.yaone.manager.TestDatabase;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayName("Тестирование индекса автомобилей в памяти")
+public class CarInventoryIndexTest {
+
+    private CarInventoryIndex index;
+
+    private static List<Integer> ids(List<CarDTO> carDTOs) {
+        return carDTOs.stream().map(CarDTO::getId).toList();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = new CarInventoryIndex();
+        index.put(new CarDTO(5, "Toyota", "Corolla", 2005, 5000.00, CarCondition.USED));
+        index.put(new CarDTO(1, "Toyota", "Camry", 2015, 15000.50, CarCondition.NEW));
+        index.put(new CarDTO(3, "Lada", "Granta", 2015, 7000.00, CarCondition.DAMAGED));
+        index.put(new CarDTO(2, "Lada", "Vesta", 2020, 12000.00, CarCondition.NEW));
+        index.put(new CarDTO(4, "Toyota", "Corolla", 2010, 9000.00, CarCondition.USED));
+    }
+
+    @Test
+    @DisplayName("Пересечение условий возвращает автомобили по возрастанию идентификатора")
+    public void testSearchIntersection() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("Toyota");
+        criteria.setYearFrom(2005);
+        criteria.setMaxPrice(9000.0);
+
+        assertThat(ids(index.search(criteria))).containsExactly(4, 5);
+        assertThat(ids(index.search(new CarSearchCriteria()))).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    @DisplayName("Диапазоны года и цены включительные, состояния объединяются")
+    public void testRangesAndConditions() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(2015);
+        criteria.setYearTo(2015);
+        criteria.setMinPrice(7000.0);
+        criteria.setMaxPrice(15000.5);
+        criteria.setConditions(EnumSet.of(CarCondition.NEW, CarCondition.DAMAGED));
+
+        assertThat(ids(index.search(criteria))).containsExactly(1, 3);
+
+        criteria.setMinPrice(15000.51);
+        assertThat(index.search(criteria)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Обновление и удаление поддерживают индексы в согласованном состоянии")
+    public void testUpdateAndRemove() {
+        index.put(new CarDTO(4, "Lada", "Niva", 2021, 11000.00, CarCondition.NEW));
+        assertThat(index.remove(2)).isTrue();
+        assertThat(index.remove(2)).isFalse();
+
+        CarSearchCriteria toyota = new CarSearchCriteria();
+        toyota.setModel("Corolla");
+        CarSearchCriteria newCars = new CarSearchCriteria();
+        newCars.setConditions(EnumSet.of(CarCondition.NEW));
+        newCars.setYearFrom(2016);
+
+        assertThat(ids(index.search(toyota))).containsExactly(5);
+        assertThat(index.search(newCars)).singleElement()
+                .satisfies(car -> {
+                    assertThat(car.getId()).isEqualTo(4);
+                    assertThat(car.getModel()).isEqualTo("Niva");
+                    assertThat(car.getPrice()).isEqualTo(11000.00);
+                });
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Пачка заменяет и добавляет автомобили, сохраняя порядок диапазонов")
+    public void testPutAll() {
+        index.putAll(List.of(
+                new CarDTO(5, "Toyota", "Corolla", 2005, 16000.00, CarCondition.USED),
+                new CarDTO(6, "Lada", "Niva", 2012, 3000.00, CarCondition.USED),
+                new CarDTO(7, "Lada", "Largus", 2015, 7000.00, CarCondition.NEW),
+                new CarDTO(6, "Lada", "Niva", 2012, 8000.00, CarCondition.USED)));
+
+        CarSearchCriteria cheap = new CarSearchCriteria();
+        cheap.setMaxPrice(8000.0);
+        CarSearchCriteria year2015 = new CarSearchCriteria();
+        year2015.setYearFrom(2015);
+        year2015.setYearTo(2015);
+        CarSearchCriteria expensive = new CarSearchCriteria();
+        expensive.setMinPrice(15000.0);
+
+        assertThat(ids(index.search(cheap))).containsExactly(3, 6, 7);
+        assertThat(ids(index.search(year2015))).containsExactly(1, 3, 7);
+        assertThat(ids(index.search(expensive))).containsExactly(1, 5);
+        assertThat(index.size()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Фасеты считаются по отфильтрованной выборке")
+    public void testFacets() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(2010);
+
+        CarFacetsDTO facets = index.facets(criteria, 5, 5000);
+
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getMakes()).containsExactly(entry("Lada", 2L), entry("Toyota", 2L));
+        assertThat(facets.getConditions()).containsOnly(entry("NEW", 2L), entry("DAMAGED", 1L), entry("USED", 1L));
+        assertThat(facets.getYears()).containsExactly(entry(2010, 1L), entry(2015, 2L), entry(2020, 1L));
+        assertThat(facets.getPrices()).containsExactly(entry(5000L, 2L), entry(10000L, 1L), entry(15000L, 1L));
+    }
+
+    @Test
+    @DisplayName("Статистика группируется по году и состоянию в порядке значений")
+    public void testAggregateByYearAndCondition() {
+        index.put(new CarDTO(6, "Kia", "Rio", 2015, 8000.00, CarCondition.DAMAGED));
+
+        List<CarAggregateDTO> stats = index.aggregate(new CarSearchCriteria(),
+                List.of(CarGroupField.YEAR, CarGroupField.CONDITION));
+
+        assertThat(stats).extracting(CarAggregateDTO::getGroup).containsExactly(
+                Map.of("year", 2005, "condition", "USED"),
+                Map.of("year", 2010, "condition", "USED"),
+                Map.of("year", 2015, "condition", "DAMAGED"),
+                Map.of("year", 2015, "condition", "NEW"),
+                Map.of("year", 2020, "condition", "NEW"));
+        assertThat(stats.get(2)).satisfies(group -> {
+            assertThat(group.getCount()).isEqualTo(2);
+            assertThat(group.getTotalPrice()).isEqualByComparingTo("15000.00");
+            assertThat(group.getMinPrice()).isEqualByComparingTo("7000.00");
+            assertThat(group.getMaxPrice()).isEqualByComparingTo("8000.00");
+        });
+    }
+
+    @Test
+    @DisplayName("Без группировки возвращается одна группа, в том числе пустая")
+    public void testAggregateWithoutGroups() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMaxPrice(9000.0);
+
+        assertThat(index.aggregate(criteria, List.of())).singleElement().satisfies(group -> {
+            assertThat(group.getGroup()).isEmpty();
+            assertThat(group.getCount()).isEqualTo(3);
+            assertThat(group.getTotalPrice()).isEqualByComparingTo("21000.00");
+        });
+
+        criteria.setMaxPrice(1.0);
+        assertThat(index.aggregate(criteria, List.of())).singleElement().satisfies(group -> {
+            assertThat(group.getCount()).isZero();
+            assertThat(group.getTotalPrice()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Статистика по марке и модели учитывает обновление и удаление")
+    public void testAggregateAfterUpdate() {
+        index.put(new CarDTO(4, "Lada", "Niva", 2021, 11000.00, CarCondition.NEW));
+        index.remove(5);
+
+        List<CarAggregateDTO> stats = index.aggregate(new CarSearchCriteria(),
+                List.of(CarGroupField.MAKE, CarGroupField.MODEL));
+
+        assertThat(stats).extracting(group -> group.getGroup().values().stream().toList())
+                .containsExactly(List.of("Lada", "Granta"), List.of("Lada", "Niva"), List.of("Lada", "Vesta"),
+                        List.of("Toyota", "Camry"));
+        assertThat(stats).extracting(CarAggregateDTO::getCount).containsOnly(1L);
+    }
+
+    @Test
+    @DisplayName("Индекс загружается из таблицы cars")
+    public void testLoad() throws SQLException {
+        TestDatabase.start("car_index_test");
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (int id = 1; id <= 100; id++) {
+                stmt.execute("INSERT INTO car_shop.cars VALUES (" + id + ", 'Make" + id % 3 + "', 'Model', "
+                        + (2000 + id % 20) + ", " + (100 - id) + ".25, '" + CarCondition.values()[id % 3] + "')");
+            }
+            CarInventoryIndex loaded = CarInventoryIndex.load();
+            CarSearchCriteria criteria = new CarSearchCriteria();
+            criteria.setMake("Make1");
+            criteria.setYearFrom(2005);
+            criteria.setYearTo(2010);
+            criteria.setMaxPrice(80.25);
+
+            assertThat(loaded.size()).isEqualTo(100);
+            assertThat(ids(loaded.search(criteria))).containsExactly(25, 28, 46, 49, 67, 70, 85, 88);
+            assertThat(loaded.search(criteria).get(0).getPrice()).isEqualTo(75.25);
+        } finally {
+            DatabaseConnectionManager.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Цена округляется до копеек как в столбце decimal(10,2)")
+    public void testToCents() {
+        assertThat(CarInventoryIndex.toCents(12.345)).isEqualTo(1235);
+        assertThat(CarInventoryIndex.toCents(10.1)).isEqualTo(1010);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.yaone.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.model.enumeration.CarCondition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование индекса похожих автомобилей")
+public class CarSimilarityIndexTest {
+
+    private CarSimilarityIndex index;
+
+    private static List<Integer> ids(List<CarDTO> carDTOs) {
+        return carDTOs.stream().map(CarDTO::getId).toList();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = new CarSimilarityIndex(2, 0.1, 2);
+        index.put(new CarDTO(1, "Toyota", "Camry", 2015, 15000.00, CarCondition.USED));
+        index.put(new CarDTO(2, "Toyota", "Corolla", 2016, 14000.00, CarCondition.USED));
+        index.put(new CarDTO(3, "Toyota", "Corolla", 2015, 15000.00, CarCondition.NEW));
+        index.put(new CarDTO(4, "Toyota", "Prius", 2005, 4000.00, CarCondition.USED));
+        index.put(new CarDTO(5, "Honda", "Accord", 2015, 15000.00, CarCondition.USED));
+        index.put(new CarDTO(6, "Toyota", "Yaris", 2014, 16500.00, CarCondition.USED));
+    }
+
+    @Test
+    @DisplayName("Соседи того же состояния упорядочены по расстоянию, другая марка со штрафом")
+    public void testSimilar() {
+        assertThat(ids(index.similar(1, 10))).containsExactly(2, 6, 5, 4);
+        assertThat(ids(index.similar(1, 2))).containsExactly(2, 6);
+        assertThat(ids(index.similar(3, 10))).isEmpty();
+        assertThat(index.similar(42, 10)).isNull();
+    }
+
+    @Test
+    @DisplayName("Обновление и удаление переносят автомобиль между разделами")
+    public void testUpdateAndRemove() {
+        index.put(new CarDTO(5, "Toyota", "Camry", 2015, 15100.00, CarCondition.USED));
+        assertThat(index.remove(2)).isTrue();
+        assertThat(index.remove(2)).isFalse();
+        index.put(new CarDTO(6, "Toyota", "Yaris", 2014, 16500.00, CarCondition.NEW));
+
+        assertThat(ids(index.similar(1, 10))).containsExactly(5, 4);
+        assertThat(ids(index.similar(3, 10))).containsExactly(6);
+    }
+
+    @Test
+    @DisplayName("Нулевая и отрицательная цена считаются минимальной ценой")
+    public void testNonPositivePrice() {
+        index.put(new CarDTO(7, "Toyota", "Camry", 2015, 0.00, CarCondition.USED));
+        index.put(new CarDTO(8, "Toyota", "Camry", 2015, -5.00, CarCondition.USED));
+        index.put(new CarDTO(9, "Toyota", "Camry", 2015, 0.01, CarCondition.USED));
+
+        assertThat(ids(index.similar(7, 2))).containsExactly(8, 9);
+        assertThat(ids(index.similar(1, 3))).containsExactly(2, 6, 5);
+        assertThat(index.similar(8, 10)).hasSize(7);
+    }
+
+    @Test
+    @DisplayName("Поиск по сетке совпадает с полным перебором")
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        CarSimilarityIndex large = new CarSimilarityIndex(2, 0.1, 2);
+        List<CarDTO> carDTOs = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            CarDTO carDTO = new CarDTO(id, "Make" + random.nextInt(5), "Model", 1990 + random.nextInt(35),
+                    1000 + random.nextInt(99000), CarCondition.values()[random.nextInt(3)]);
+            carDTOs.add(carDTO);
+            large.put(carDTO);
+        }
+        for (int id = 1; id <= 2000; id += 97) {
+            CarDTO target = carDTOs.get(id - 1);
+            List<Integer> expected = carDTOs.stream()
+                    .filter(car -> car.getId() != target.getId() && car.getCondition() == target.getCondition())
+                    .sorted(Comparator.comparingDouble((CarDTO car) -> distance(target, car))
+                            .thenComparingInt(CarDTO::getId))
+                    .limit(7)
+                    .map(CarDTO::getId)
+                    .toList();
+
+            assertThat(ids(large.similar(id, 7))).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static double distance(CarDTO target, CarDTO car) {
+        double years = (car.getYear() - target.getYear()) / 2.0;
+        double prices = (Math.log(car.getPrice()) - Math.log(target.getPrice())) / Math.log1p(0.1);
+        return Math.hypot(years, prices) + (car.getMake().equals(target.getMake()) ? 0 : 2);
+    }
+}
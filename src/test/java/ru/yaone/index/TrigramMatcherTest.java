@@ -0,0 +1,40 @@
+package ru.yaone.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Тестирование триграммного сходства")
+public class TrigramMatcherTest {
+
+    @Test
+    @DisplayName("Триграммы строятся как в pg_trgm")
+    public void testTrigrams() {
+        assertThat(TrigramMatcher.trigrams("Cat")).containsExactlyInAnyOrder("  c", " ca", "cat", "at ");
+        assertThat(TrigramMatcher.words("  Land-Rover  defender2 ")).containsExactly("land", "rover", "defender2");
+    }
+
+    @Test
+    @DisplayName("Сходство слова с опечаткой")
+    public void testSimilarity() {
+        assertThat(TrigramMatcher.similarity("Toyota", "toyta")).isCloseTo(4.0 / 9, within(1e-9));
+        assertThat(TrigramMatcher.similarity("Toyota", "TOYOTA")).isEqualTo(1.0);
+        assertThat(TrigramMatcher.similarity("Toyota", "")).isZero();
+    }
+
+    @Test
+    @DisplayName("Оценка автомобиля — среднее лучших сходств слов запроса")
+    public void testScore() {
+        List<Set<String>> words = List.of(TrigramMatcher.trigrams("toyta"), TrigramMatcher.trigrams("corola"));
+
+        double corolla = TrigramMatcher.score("Toyota", "Corolla", words);
+        double camry = TrigramMatcher.score("Toyota", "Camry", words);
+
+        assertThat(corolla).isGreaterThan(camry).isGreaterThan(0.3);
+    }
+}
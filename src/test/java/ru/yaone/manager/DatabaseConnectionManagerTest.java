@@ -0,0 +1,73 @@
+package ru.yaone.manager;
+
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Тестирование пула соединений")
+public class DatabaseConnectionManagerTest {
+
+    @BeforeEach
+    public void setUp() {
+        PoolProperties poolProperties = TestDatabase.poolProperties("pool_test");
+        poolProperties.setInitialSize(2);
+        poolProperties.setMinIdle(2);
+        DatabaseConnectionManager.configure(poolProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Соединение возвращается в пул после закрытия")
+    public void testConnectionIsReturnedToPool() throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            assertThat(conn.isValid(1)).isTrue();
+            assertThat(DatabaseConnectionManager.getPoolStats().active()).isEqualTo(1);
+        }
+        ConnectionPoolStats stats = DatabaseConnectionManager.getPoolStats();
+        assertThat(stats.active()).isZero();
+        assertThat(stats.idle()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.maxActive()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Физическое соединение переиспользуется")
+    public void testPhysicalConnectionIsReused() throws SQLException {
+        Object first;
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            first = conn.unwrap(org.h2.jdbc.JdbcConnection.class);
+        }
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            assertThat(conn.unwrap(org.h2.jdbc.JdbcConnection.class)).isSameAs(first);
+        }
+        assertThat(DatabaseConnectionManager.getPoolStats().size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("После остановки статистика пула обнуляется")
+    public void testStatsAfterShutdown() {
+        DatabaseConnectionManager.shutdown();
+        ConnectionPoolStats stats = DatabaseConnectionManager.getPoolStats();
+        assertThat(stats.size()).isZero();
+        assertThat(stats.active()).isZero();
+    }
+
+    @Test
+    @DisplayName("Долгие соединения по умолчанию не отбираются, а только журналируются")
+    public void testLongHeldConnectionsAreNotRemoved() {
+        PoolProperties poolProperties = DatabaseConnectionManager.createPoolProperties();
+        assertThat(poolProperties.isRemoveAbandoned()).isFalse();
+        assertThat(poolProperties.getSuspectTimeout()).isPositive();
+        assertThat(poolProperties.getJdbcInterceptors()).contains("ResetAbandonedTimer");
+    }
+}
@@ -0,0 +1,82 @@
+package ru.yaone.manager;
+
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Пул соединений с базой H2 в памяти для тестов, работающих с SQL.
+ *
+ * <p>Каждый тест передаёт своё имя базы, поэтому данные тестов не пересекаются. Таблицы
+ * {@code car_shop} создаются одним скриптом {@code db/h2-schema.sql}.</p>
+ */
+public final class TestDatabase {
+
+    private static final String SCHEMA_SCRIPT = "classpath:db/h2-schema.sql";
+    private static final int POOL_SIZE = 4;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Создаёт настройки пула для базы H2 в памяти.
+     *
+     * @param name имя базы
+     * @return настройки пула, которые тест может изменить до {@link DatabaseConnectionManager#configure}
+     */
+    public static PoolProperties poolProperties(String name) {
+        PoolProperties poolProperties = DatabaseConnectionManager.createPoolProperties();
+        poolProperties.setDriverClassName("org.h2.Driver");
+        poolProperties.setUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR");
+        poolProperties.setUsername("sa");
+        poolProperties.setPassword("");
+        poolProperties.setInitialSize(1);
+        poolProperties.setMinIdle(1);
+        poolProperties.setMaxIdle(POOL_SIZE);
+        poolProperties.setMaxActive(POOL_SIZE);
+        poolProperties.setJmxEnabled(false);
+        return poolProperties;
+    }
+
+    /**
+     * Настраивает пул на пустую базу со схемой {@code car_shop}.
+     *
+     * @param name имя базы
+     * @throws SQLException если схему не удалось создать
+     */
+    public static void start(String name) throws SQLException {
+        start(name, POOL_SIZE);
+    }
+
+    /**
+     * Настраивает пул заданного размера на пустую базу со схемой {@code car_shop}.
+     *
+     * @param name     имя базы
+     * @param poolSize наибольшее число соединений
+     * @throws SQLException если схему не удалось создать
+     */
+    public static void start(String name, int poolSize) throws SQLException {
+        PoolProperties poolProperties = poolProperties(name);
+        poolProperties.setMaxIdle(poolSize);
+        poolProperties.setMaxActive(poolSize);
+        DatabaseConnectionManager.configure(poolProperties);
+        execute("RUNSCRIPT FROM '" + SCHEMA_SCRIPT + "'");
+    }
+
+    /**
+     * Выполняет SQL-запросы по порядку на одном соединении пула.
+     *
+     * @param sql запросы
+     * @throws SQLException если запрос не удалось выполнить
+     */
+    public static void execute(String... sql) throws SQLException {
+        try (Connection conn = DatabaseConnectionManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String statement : sql) {
+                stmt.execute(statement);
+            }
+        }
+    }
+}
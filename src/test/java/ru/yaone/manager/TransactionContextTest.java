@@ -0,0 +1,115 @@
+package ru.yaone.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тестирование транзакции уровня запроса")
+public class TransactionContextTest {
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TestDatabase.start("tx_test");
+        TestDatabase.execute("DROP TABLE IF EXISTS items", "CREATE TABLE items (id INT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Все вызовы в транзакции получают одно соединение")
+    public void testConnectionIsShared() throws SQLException {
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            assertThat(TransactionContext.current()).isSameAs(transaction);
+            try (Connection first = DatabaseConnectionManager.getConnection()) {
+                first.createStatement().execute("INSERT INTO items VALUES (1)");
+            }
+            assertThat(transaction.hasConnection()).isTrue();
+            try (Connection second = DatabaseConnectionManager.getConnection()) {
+                assertThat(second.isClosed()).isFalse();
+                assertThat(second.getAutoCommit()).isFalse();
+                assertThat(count(second)).isEqualTo(1);
+            }
+            assertThat(DatabaseConnectionManager.getPoolStats().active()).isEqualTo(1);
+        }
+        assertThat(DatabaseConnectionManager.getPoolStats().active()).isZero();
+    }
+
+    @Test
+    @DisplayName("Незафиксированные изменения откатываются при закрытии")
+    public void testUncommittedChangesAreRolledBack() throws SQLException {
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            try (Connection conn = DatabaseConnectionManager.getConnection()) {
+                conn.createStatement().execute("INSERT INTO items VALUES (1)");
+                conn.commit();
+            }
+            assertThat(transaction.hasConnection()).isTrue();
+        }
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            assertThat(count(conn)).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Зафиксированные изменения видны после закрытия")
+    public void testCommittedChangesAreVisible() throws SQLException {
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            try (Connection conn = DatabaseConnectionManager.getConnection()) {
+                conn.createStatement().execute("INSERT INTO items VALUES (1)");
+            }
+            transaction.commit();
+        }
+        try (Connection conn = DatabaseConnectionManager.getConnection()) {
+            assertThat(count(conn)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Вложенная транзакция в одном потоке запрещена")
+    public void testNestedBeginIsRejected() {
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            assertThatThrownBy(TransactionContext::begin).isInstanceOf(IllegalStateException.class);
+            assertThat(TransactionContext.current()).isSameAs(transaction);
+        }
+        assertThat(TransactionContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Действия после фиксации выполняются только при фиксации")
+    public void testAfterCommitActions() throws SQLException {
+        List<String> actions = new ArrayList<>();
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            TransactionContext.afterCommit(() -> actions.add("rolled back"));
+            assertThat(transaction.hasConnection()).isFalse();
+        }
+        try (TransactionContext transaction = TransactionContext.begin()) {
+            TransactionContext.afterCommit(() -> actions.add("committed"));
+            assertThat(actions).isEmpty();
+            transaction.commit();
+        }
+        TransactionContext.afterCommit(() -> actions.add("auto-commit"));
+
+        assertThat(actions).containsExactly("committed", "auto-commit");
+    }
+
+    private static int count(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.yaone.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Тестирование гистограмм длительностей методов")
+public class MethodLatencyRegistryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Корзины гистограммы идут подряд и покрывают значения без разрывов")
+    public void testBucketsAreContiguous() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestEquivalentValue(index - 1)).isLessThan(value);
+            }
+        }
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("Перцентили укладываются в относительную погрешность корзин")
+    public void testPercentiles() {
+        MethodLatencyRegistry registry = new MethodLatencyRegistry(60, 6, clock::get);
+        for (int i = 1; i <= 1000; i++) {
+            registry.record("CarServiceImpl.getAllCars", TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencyStats stats = registry.snapshot().get(0);
+        assertThat(stats.count()).isEqualTo(1000);
+        assertThat(stats.p50Micros()).isCloseTo(500, within(500 / 16.0));
+        assertThat(stats.p99Micros()).isCloseTo(990, within(990 / 16.0));
+        assertThat(stats.maxMicros()).isEqualTo(1000);
+        assertThat(stats.meanMicros()).isCloseTo(500.5, within(0.001));
+    }
+
+    @Test
+    @DisplayName("Вызовы старше окна не учитываются в перцентилях, но остаются в итогах")
+    public void testRollingWindow() {
+        MethodLatencyRegistry registry = new MethodLatencyRegistry(60, 6, clock::get);
+        registry.record("CarServlet.doGet", TimeUnit.MILLISECONDS.toNanos(900));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        registry.record("CarServlet.doGet", TimeUnit.MILLISECONDS.toNanos(5));
+
+        LatencyStats stats = registry.snapshot().get(0);
+        assertThat(stats.count()).isEqualTo(1);
+        assertThat(stats.maxMicros()).isEqualTo(5_000);
+        assertThat(stats.totalCount()).isEqualTo(2);
+        assertThat(stats.totalSumSeconds()).isCloseTo(0.905, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Метрики выводятся в текстовом формате Prometheus")
+    public void testPrometheusFormat() {
+        MethodLatencyRegistry registry = new MethodLatencyRegistry(60, 6, clock::get);
+        registry.record("OrderServiceImpl.addOrder", TimeUnit.MILLISECONDS.toNanos(2));
+
+        List<String> lines = registry.toPrometheus().lines().toList();
+        assertThat(lines).contains(
+                "# TYPE car_shop_method_latency_seconds summary",
+                "car_shop_method_latency_seconds_count{method=\"OrderServiceImpl.addOrder\"} 1",
+                "car_shop_method_latency_seconds_sum{method=\"OrderServiceImpl.addOrder\"} 0.002");
+        assertThat(lines).anyMatch(line ->
+                line.startsWith("car_shop_method_latency_seconds{method=\"OrderServiceImpl.addOrder\",quantile=\"0.99\"}"));
+    }
+}
@@ -0,0 +1,83 @@
+package ru.yaone.servlets;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.audit.AuditLogEntry;
+import ru.yaone.services.AuditLogService;
+import ru.yaone.services.RowHandler;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Тестирование сервлета журнала аудита")
+public class AuditLogServletTest {
+
+    private AuditLogServlet auditLogServlet;
+    private AuditLogService auditLogService;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private StringWriter body;
+    private CapturingOutputStream outputStream;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        auditLogServlet = new AuditLogServlet();
+        auditLogService = mock(AuditLogService.class);
+        auditLogServlet.setAuditLogService(auditLogService);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+        outputStream = new CapturingOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream);
+    }
+
+    private void failAfterFirstEntry() throws IOException {
+        doAnswer(invocation -> {
+            RowHandler<AuditLogEntry> handler = invocation.getArgument(1);
+            handler.handle(new AuditLogEntry(1, "getAllCars", "[]", 5, null, new Timestamp(0), null));
+            throw new IllegalStateException("connection reset");
+        }).when(auditLogService).streamAuditLog(any(), any());
+    }
+
+    @Test
+    @DisplayName("Ошибка до отправки заголовков возвращает 500 вместо части страницы")
+    public void testErrorBeforeCommit() throws IOException {
+        failAfterFirstEntry();
+        when(response.isCommitted()).thenReturn(false);
+
+        auditLogServlet.doGet(request, response);
+
+        verify(response).reset();
+        verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        assertThat(body.toString()).isEqualTo("{\"error\":\"Failed to read audit log\"}");
+    }
+
+    @Test
+    @DisplayName("Ошибка после отправки заголовков обрывает ответ без закрытия массива")
+    public void testErrorAfterCommit() throws IOException {
+        failAfterFirstEntry();
+        when(response.isCommitted()).thenReturn(true);
+
+        assertThatThrownBy(() -> auditLogServlet.doGet(request, response))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(response, never()).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        assertThat(body.toString()).isEmpty();
+        assertThat(outputStream.content()).doesNotContain("]").doesNotEndWith("}");
+    }
+}
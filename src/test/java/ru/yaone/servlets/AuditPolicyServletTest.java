@@ -0,0 +1,88 @@
+package ru.yaone.servlets;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yaone.aspect.annotation.AuditLevel;
+import ru.yaone.aspect.annotation.Loggable;
+import ru.yaone.audit.AuditPolicy;
+import ru.yaone.audit.AuditPolicyRegistry;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Тестирование сервлета политик аудита")
+public class AuditPolicyServletTest {
+
+    @Loggable(level = AuditLevel.BASIC, slowThresholdMillis = 200)
+    static class Audited {
+
+        public void read() {
+        }
+    }
+
+    private final AuditPolicyRegistry registry = AuditPolicyRegistry.getInstance();
+    private AuditPolicyServlet auditPolicyServlet;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private StringWriter body;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        registry.register(Audited.class);
+        auditPolicyServlet = new AuditPolicyServlet();
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.removeOverride("Audited.read");
+    }
+
+    private void put(String path, String content) throws IOException {
+        when(request.getPathInfo()).thenReturn(path);
+        when(request.getInputStream()).thenReturn(new ByteArrayServletInputStream(content));
+        auditPolicyServlet.doPut(request, response);
+    }
+
+    @Test
+    @DisplayName("Поля, не указанные в теле, берутся из действующей политики метода")
+    public void testPartialBody() throws IOException {
+        put("/Audited.read", "{\"level\":\"FULL\",\"sampleRate\":0.01}");
+
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        assertThat(registry.policyOf("Audited.read"))
+                .isEqualTo(new AuditPolicy(true, AuditLevel.FULL, 0.01, 200));
+        assertThat(registry.policyOf("Audited.read").shouldRecord(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Политику незарегистрированного метода переопределить нельзя")
+    public void testUnknownMethod() throws IOException {
+        put("/Audited.write", "{\"enabled\":false}");
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+        assertThat(registry.policyOf("Audited.write")).isNull();
+    }
+
+    @Test
+    @DisplayName("Тело, не являющееся объектом, отклоняется")
+    public void testInvalidBody() throws IOException {
+        put("/Audited.read", "[1]");
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        assertThat(registry.policyOf("Audited.read").level()).isEqualTo(AuditLevel.BASIC);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yaone.servlets;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Поток тела запроса сервлета из заданной строки для тестов.
+ */
+class ByteArrayServletInputStream extends ServletInputStream {
+
+    private final ByteArrayInputStream buffer;
+
+    ByteArrayServletInputStream(String content) {
+        buffer = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int read() {
+        return buffer.read();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return buffer.available() == 0;
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yaone.servlets;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Поток ответа сервлета, сохраняющий записанные байты для проверки в тестах.
+ */
+class CapturingOutputStream extends ServletOutputStream {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    @Override
+    public void write(int b) {
+        buffer.write(b);
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+    }
+
+    String content() {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    byte[] bytes() {
+        return buffer.toByteArray();
+    }
+}
@@ -8,17 +8,34 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.CarFacetsDTO;
+import ru.yaone.dto.CarFileFormat;
+import ru.yaone.dto.CarGroupField;
+import ru.yaone.dto.CarImportError;
+import ru.yaone.dto.CarImportReportDTO;
+import ru.yaone.dto.CarPageDTO;
+import ru.yaone.dto.CarPriceAdjustmentReportDTO;
+import ru.yaone.dto.CarSort;
+import ru.yaone.dto.CarSuggestionDTO;
 import ru.yaone.impl.CarServiceImpl;
 import ru.yaone.model.enumeration.CarCondition;
+import ru.yaone.services.RowHandler;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 
 public class CarServletTest {
@@ -43,12 +60,44 @@ public class CarServletTest {
         carServlet.setCarService(carServiceMock);
         List<CarDTO> mockCars = Arrays.asList(new CarDTO(1, "Toyota", "Corolla", 1999, 200.00, CarCondition.NEW),
                 new CarDTO(2, "Lada", "Granta", 2000, 100.00, CarCondition.USED));
-        when(carServiceMock.getAllCars()).thenReturn(mockCars);
+        doAnswer(invocation -> {
+            RowHandler<CarDTO> handler = invocation.getArgument(0);
+            for (CarDTO car : mockCars) {
+                handler.handle(car);
+            }
+            return null;
+        }).when(carServiceMock).streamAllCars(any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
         when(request.getPathInfo()).thenReturn("/");
-        when(response.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
+        when(response.getOutputStream()).thenReturn(outputStream);
         carServlet.doGet(request, response);
         verify(response).setContentType("application/json; charset=UTF-8");
-        verify(carServiceMock).getAllCars();
+        verify(carServiceMock).streamAllCars(any());
+        verify(carServiceMock, never()).getAllCars();
+        assertThat(outputStream.content()).startsWith("[{\"id\":1,").contains("\"model\":\"Granta\"").endsWith("}]");
+    }
+
+    @Test
+    @DisplayName("Ошибка чтения автомобилей до отправки заголовков возвращает 500, а не усечённый массив")
+    public void testDoGetAllCarsFailure() throws IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        doAnswer(invocation -> {
+            RowHandler<CarDTO> handler = invocation.getArgument(0);
+            handler.handle(new CarDTO(1, "Toyota", "Corolla", 1999, 200.00, CarCondition.NEW));
+            throw new RuntimeException("Ошибка при получении автомобилей");
+        }).when(carServiceMock).streamAllCars(any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
+        when(request.getPathInfo()).thenReturn("/");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(response.isCommitted()).thenReturn(false);
+
+        carServlet.doGet(request, response);
+
+        verify(response).reset();
+        verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        verify(writerMock).print("{\"error\":\"Failed to read cars\"}");
+        assertThat(outputStream.content()).doesNotContain("]");
     }
 
     @Test
@@ -65,6 +114,264 @@ public class CarServletTest {
         verify(carServiceMock).getCarById(1);
     }
 
+    @Test
+    @DisplayName("Тест GET-запроса с параметрами поиска автомобилей")
+    public void testDoGetSearchCars() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/");
+        when(request.getParameter("make")).thenReturn("Toyota");
+        when(request.getParameter("yearFrom")).thenReturn("1995");
+        when(request.getParameter("condition")).thenReturn("new,used");
+        when(carServiceMock.searchCars(any())).thenReturn(List.of());
+        when(response.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
+        carServlet.doGet(request, response);
+        verify(carServiceMock).searchCars(argThat(criteria -> "Toyota".equals(criteria.getMake())
+                && criteria.getYearFrom() == 1995
+                && criteria.getConditions().equals(EnumSet.of(CarCondition.NEW, CarCondition.USED))));
+        verify(carServiceMock, never()).getAllCars();
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса с некорректными параметрами поиска")
+    public void testDoGetSearchCarsInvalidParameter() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/");
+        when(request.getParameter("minPrice")).thenReturn("cheap");
+        carServlet.doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verifyNoInteractions(carServiceMock);
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса нечёткого поиска автомобилей")
+    public void testDoGetFuzzySearch() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn(null);
+        when(request.getParameter("q")).thenReturn("toyta corola");
+        when(request.getParameter("limit")).thenReturn("5");
+        when(response.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
+        carServlet.doGet(request, response);
+        verify(carServiceMock).fuzzySearchCars("toyta corola", 0.3, 5);
+        verify(carServiceMock, never()).getAllCars();
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса фасетов автомобилей")
+    public void testDoGetFacets() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/facets");
+        when(request.getParameter("make")).thenReturn("Lada");
+        when(carServiceMock.getCarFacets(any())).thenReturn(CarFacetsDTO.empty(5, 5000));
+        when(response.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
+        carServlet.doGet(request, response);
+        verify(carServiceMock).getCarFacets(argThat(criteria -> "Lada".equals(criteria.getMake())));
+        verify(carServiceMock, never()).getCarById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса статистики автомобилей с повторами в groupBy")
+    public void testDoGetStats() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/stats");
+        when(request.getParameter("groupBy")).thenReturn("year, condition,YEAR");
+        when(request.getParameter("condition")).thenReturn("NEW");
+        when(carServiceMock.getCarStats(any(), any())).thenReturn(List.of());
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doGet(request, response);
+        verify(carServiceMock).getCarStats(argThat(criteria -> criteria.getConditions().contains(CarCondition.NEW)),
+                eq(List.of(CarGroupField.YEAR, CarGroupField.CONDITION)));
+        verify(writerMock).print("[]");
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса статистики с неизвестным полем группировки")
+    public void testDoGetStatsInvalidGroup() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/stats");
+        when(request.getParameter("groupBy")).thenReturn("price");
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(writerMock).print("{\"error\":\"Invalid stats parameters\"}");
+        verify(carServiceMock, never()).getCarStats(any(), any());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса подсказок автомобилей")
+    public void testDoGetAutocomplete() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/autocomplete");
+        when(request.getParameter("q")).thenReturn("toy");
+        when(request.getParameter("limit")).thenReturn("5");
+        when(carServiceMock.suggestCars("toy", 5)).thenReturn(List.of(new CarSuggestionDTO("make", "Toyota", 2)));
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doGet(request, response);
+        verify(writerMock).print("[{\"field\":\"make\",\"value\":\"Toyota\",\"count\":2}]");
+        verify(carServiceMock, never()).fuzzySearchCars(any(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса подсказок без префикса")
+    public void testDoGetAutocompleteWithoutPrefix() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/autocomplete");
+        when(request.getParameter("q")).thenReturn(" ");
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(writerMock).print("{\"error\":\"Invalid autocomplete parameters\"}");
+        verify(carServiceMock, never()).suggestCars(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса похожих автомобилей")
+    public void testDoGetSimilar() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/1/similar");
+        when(request.getParameter("limit")).thenReturn("3");
+        when(carServiceMock.getSimilarCars(1, 3))
+                .thenReturn(List.of(new CarDTO(2, "Toyota", "Corolla", 2016, 14000.0, CarCondition.USED)));
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doGet(request, response);
+        verify(writerMock).print(contains("\"id\":2"));
+        verify(carServiceMock, never()).getCarById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса похожих автомобилей для несуществующего автомобиля")
+    public void testDoGetSimilarNotFound() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/42/similar");
+        when(carServiceMock.getSimilarCars(eq(42), anyInt())).thenReturn(null);
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+        verify(writerMock).print("{\"error\":\"Car not found\"}");
+    }
+
+    @Test
+    @DisplayName("Тест POST-запроса изменения цен с отчётами в NDJSON")
+    public void testDoPostPrices() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/prices");
+        when(request.getParameter("make")).thenReturn("Toyota");
+        when(request.getInputStream()).thenReturn(new ByteArrayServletInputStream("{\"percent\":-5}"));
+        when(carServiceMock.adjustPrices(any(), any(), eq(false), any())).thenAnswer(invocation -> {
+            CarPriceAdjustmentReportDTO progress = new CarPriceAdjustmentReportDTO(false, 3, 3, 0, 1, false);
+            invocation.<Consumer<CarPriceAdjustmentReportDTO>>getArgument(3).accept(progress);
+            return new CarPriceAdjustmentReportDTO(false, 3, 3, 0, 1, true);
+        });
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doPost(request, response);
+        verify(carServiceMock).adjustPrices(argThat(criteria -> "Toyota".equals(criteria.getMake())),
+                argThat(adjustment -> adjustment.getPercent().intValue() == -5), eq(false), any());
+        verify(writerMock).print(contains("\"done\":false"));
+        verify(writerMock).print(contains("\"done\":true"));
+        verify(response).setContentType("application/x-ndjson; charset=UTF-8");
+    }
+
+    @Test
+    @DisplayName("Тест POST-запроса изменения цен без изменения")
+    public void testDoPostPricesInvalid() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/prices");
+        when(request.getInputStream()).thenReturn(new ByteArrayServletInputStream("{}"));
+        when(response.getWriter()).thenReturn(writerMock);
+        carServlet.doPost(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(writerMock).print("{\"error\":\"Invalid price adjustment parameters\"}");
+        verify(carServiceMock, never()).adjustPrices(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса страницы автомобилей")
+    public void testDoGetCarsPage() throws ServletException, IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/");
+        when(request.getParameter("sort")).thenReturn("-price");
+        when(request.getParameter("limit")).thenReturn("10");
+        when(carServiceMock.getCarsPage(any())).thenReturn(new CarPageDTO(List.of(), null));
+        when(response.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
+        carServlet.doGet(request, response);
+        verify(carServiceMock).getCarsPage(argThat(page -> page.sort() == CarSort.PRICE
+                && page.descending() && page.limit() == 10 && page.cursor() == null));
+        verify(carServiceMock, never()).getAllCars();
+    }
+
+    @Test
+    @DisplayName("Тест POST-запроса импорта автомобилей из CSV")
+    public void testDoPostImport() throws IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/import");
+        when(request.getContentType()).thenReturn("text/csv; charset=UTF-8");
+        when(carServiceMock.importCars(any(), eq(CarFileFormat.CSV)))
+                .thenReturn(new CarImportReportDTO(2, 1, 1, List.of(new CarImportError(3, List.of("x"))), false));
+        carServlet.doPost(request, response);
+        verify(carServiceMock).importCars(any(), eq(CarFileFormat.CSV));
+        verify(writerMock).print(contains("\"imported\":1"));
+        verify(writerMock).print(contains("\"errors\":[{\"row\":3,\"messages\":[\"x\"]}]"));
+    }
+
+    @Test
+    @DisplayName("Тест POST-запроса импорта в неподдерживаемом формате")
+    public void testDoPostImportUnsupportedFormat() throws IOException {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        when(request.getPathInfo()).thenReturn("/import");
+        when(request.getContentType()).thenReturn("application/xml");
+        carServlet.doPost(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+        verify(carServiceMock, never()).importCars(any(), any());
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса выгрузки автомобилей в NDJSON со сжатием gzip")
+    public void testDoGetExportGzip() throws Exception {
+        CarServiceImpl carServiceMock = mock(CarServiceImpl.class);
+        carServlet.setCarService(carServiceMock);
+        CapturingOutputStream outputStream = new CapturingOutputStream();
+        when(request.getPathInfo()).thenReturn("/export");
+        when(request.getParameter("format")).thenReturn("ndjson");
+        when(request.getParameter("after")).thenReturn("10");
+        when(request.getHeader("Accept-Encoding")).thenReturn("deflate, gzip;q=0.8");
+        when(response.getOutputStream()).thenReturn(outputStream);
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(3);
+            output.write("{\"id\":11}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(carServiceMock).exportCars(any(), eq(10), eq(CarFileFormat.NDJSON), any());
+        carServlet.doGet(request, response);
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).setContentType("application/x-ndjson; charset=UTF-8");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(outputStream.bytes()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":11}\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Тест разбора заголовка Accept-Encoding")
+    public void testAcceptsGzip() {
+        assertThat(CarServlet.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(CarServlet.acceptsGzip("*")).isTrue();
+        assertThat(CarServlet.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CarServlet.acceptsGzip("identity")).isFalse();
+        assertThat(CarServlet.acceptsGzip(null)).isFalse();
+    }
+
     @Test
     @DisplayName("Тест POST-запроса с некорректным форматом JSON")
     public void testDoPostInvalidJsonFormat() throws Exception {
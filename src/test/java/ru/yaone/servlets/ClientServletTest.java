@@ -9,12 +9,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import ru.yaone.dto.ClientDTO;
 import ru.yaone.impl.ClientServiceImpl;
+import ru.yaone.services.RowHandler;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.*;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -43,12 +45,20 @@ public class ClientServletTest {
         clientServlet.setClientService(clientServiceMock);
         List<ClientDTO> mockClients = Arrays.asList(new ClientDTO(1, "Vasa", "+71234567"),
                 new ClientDTO(2, "Misha", "+81234567"));
-        when(clientServiceMock.getAllClients()).thenReturn(mockClients);
+        doAnswer(invocation -> {
+            RowHandler<ClientDTO> handler = invocation.getArgument(0);
+            for (ClientDTO client : mockClients) {
+                handler.handle(client);
+            }
+            return null;
+        }).when(clientServiceMock).streamAllClients(any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
         when(requestMock.getPathInfo()).thenReturn("/");
-        when(responseMock.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
+        when(responseMock.getOutputStream()).thenReturn(outputStream);
         clientServlet.doGet(requestMock, responseMock);
         verify(responseMock).setContentType("application/json; charset=UTF-8");
-        verify(clientServiceMock).getAllClients();
+        verify(clientServiceMock).streamAllClients(any());
+        assertThat(outputStream.content()).contains("\"Vasa\"", "\"Misha\"").startsWith("[").endsWith("]");
     }
 
     @Test
@@ -7,18 +7,27 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import ru.yaone.dto.CarDTO;
+import ru.yaone.dto.ClientDTO;
 import ru.yaone.dto.OrderDTO;
+import ru.yaone.dto.OrderExpand;
 import ru.yaone.impl.OrderServiceImpl;
+import ru.yaone.model.enumeration.CarCondition;
 import ru.yaone.model.enumeration.OrderStatus;
 import ru.yaone.services.OrderService;
+import ru.yaone.services.RowHandler;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -83,12 +92,18 @@ public class OrderServletTest {
         OrderDTO orderDTO = new OrderDTO();
         orderDTO.setClientId(2);
         orderDTO.setCarId(3);
-        when(orderServiceMock.getAllOrders()).thenReturn(Collections.singletonList(orderDTO));
+        doAnswer(invocation -> {
+            RowHandler<OrderDTO> handler = invocation.getArgument(1);
+            handler.handle(orderDTO);
+            return null;
+        }).when(orderServiceMock).streamAllOrders(anySet(), any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream);
         orderServlet.doGet(request, response);
         verify(response).setContentType("application/json; charset=UTF-8");
-        verify(orderServiceMock).getAllOrders();
+        verify(orderServiceMock).streamAllOrders(eq(Set.of()), any());
         String expectedJson = "[{\"id\":0,\"clientId\":2,\"carId\":3,\"creationDate\":null,\"status\":null}]";
-        verify(writerMock).print(contains(expectedJson));
+        assertThat(outputStream.content()).isEqualTo(expectedJson);
     }
 
     @Test
@@ -106,12 +121,12 @@ public class OrderServletTest {
         OrderServiceImpl orderService = mock(OrderServiceImpl.class);
         orderServlet.setOrderService(orderService);
         OrderDTO mockUser = new OrderDTO(1, 2, 3, LocalDateTime.now().toInstant(ZoneOffset.UTC), OrderStatus.PENDING);
-        when(orderService.getOrderById(1)).thenReturn(mockUser);
+        when(orderService.getOrderById(eq(1), anySet())).thenReturn(mockUser);
         when(request.getPathInfo()).thenReturn("/1");
         when(response.getWriter()).thenReturn(new PrintWriter(new ByteArrayOutputStream()));
         orderServlet.doGet(request, response);
         verify(response).setContentType("application/json; charset=UTF-8");
-        verify(orderService).getOrderById(1);
+        verify(orderService).getOrderById(eq(1), eq(Set.of()));
     }
 
     @Test
@@ -132,4 +147,127 @@ public class OrderServletTest {
         verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
         verify(writerMock).print("{\"error\":\"Order ID must be specified\"}");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Тест GET-запроса отчёта по заказам за период")
+    public void testDoGetReport() throws IOException {
+        OrderDTO orderDTO = new OrderDTO(7, 2, 3, null, OrderStatus.PENDING);
+        doAnswer(invocation -> {
+            RowHandler<OrderDTO> handler = invocation.getArgument(4);
+            handler.handle(orderDTO);
+            return null;
+        }).when(orderServiceMock).streamOrdersByDate(any(), any(), any(), anySet(), any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(request.getPathInfo()).thenReturn("/report");
+        when(request.getParameter("from")).thenReturn("2024-03-01");
+        when(request.getParameter("to")).thenReturn("2024-03-01");
+        when(request.getParameter("status")).thenReturn("pending");
+
+        orderServlet.doGet(request, response);
+
+        verify(orderServiceMock).streamOrdersByDate(eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 1)),
+                eq(OrderStatus.PENDING), eq(Set.of()), any());
+        assertThat(outputStream.content())
+                .isEqualTo("[{\"id\":7,\"clientId\":2,\"carId\":3,\"creationDate\":null,\"status\":\"PENDING\"}]");
+    }
+
+    @Test
+    @DisplayName("Ошибка запроса отчёта до отправки заголовков возвращает 500, а не усечённый список")
+    public void testDoGetReportFailure() throws IOException {
+        doAnswer(invocation -> {
+            RowHandler<OrderDTO> handler = invocation.getArgument(4);
+            handler.handle(new OrderDTO(7, 2, 3, null, OrderStatus.PENDING));
+            throw new RuntimeException("Ошибка при получении заказов за период");
+        }).when(orderServiceMock).streamOrdersByDate(any(), any(), any(), anySet(), any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(response.isCommitted()).thenReturn(false);
+        when(request.getPathInfo()).thenReturn("/report");
+        when(request.getParameter("from")).thenReturn("2024-03-01");
+        when(request.getParameter("to")).thenReturn("2024-03-01");
+
+        orderServlet.doGet(request, response);
+
+        verify(response).reset();
+        verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        verify(writerMock).print("{\"error\":\"Failed to build order report\"}");
+        assertThat(outputStream.content()).doesNotContain("]");
+    }
+
+    @Test
+    @DisplayName("Ошибка запроса отчёта после отправки заголовков обрывает ответ")
+    public void testDoGetReportFailureAfterCommit() throws IOException {
+        doThrow(new RuntimeException("Ошибка при получении заказов за период"))
+                .when(orderServiceMock).streamOrdersByDate(any(), any(), any(), anySet(), any());
+        when(response.getOutputStream()).thenReturn(new CapturingOutputStream());
+        when(response.isCommitted()).thenReturn(true);
+        when(request.getPathInfo()).thenReturn("/report");
+        when(request.getParameter("from")).thenReturn("2024-03-01");
+        when(request.getParameter("to")).thenReturn("2024-03-01");
+
+        assertThatThrownBy(() -> orderServlet.doGet(request, response)).isInstanceOf(RuntimeException.class);
+
+        verify(response, never()).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса отчёта с периодом, где начало позже конца")
+    public void testDoGetReportInvalidPeriod() throws IOException {
+        when(request.getPathInfo()).thenReturn("/report");
+        when(request.getParameter("from")).thenReturn("2024-03-02");
+        when(request.getParameter("to")).thenReturn("2024-03-01");
+
+        orderServlet.doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(writerMock).print("{\"error\":\"Invalid report parameters\"}");
+        verifyNoInteractions(orderServiceMock);
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса отчёта без даты окончания")
+    public void testDoGetReportMissingDate() throws IOException {
+        when(request.getPathInfo()).thenReturn("/report");
+        when(request.getParameter("from")).thenReturn("01.03.2024");
+
+        orderServlet.doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(writerMock).print("{\"error\":\"Invalid report parameters\"}");
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса заказа со встроенными клиентом и автомобилем")
+    public void testDoGetOrderByIdExpanded() throws IOException {
+        OrderDTO orderDTO = new OrderDTO(1, 2, 3, null, OrderStatus.PENDING);
+        orderDTO.setClient(new ClientDTO(2, "Иван", "+79990000000"));
+        orderDTO.setCar(new CarDTO(3, "Lada", "Vesta", 2020, 12000.0, CarCondition.NEW));
+        when(orderServiceMock.getOrderById(eq(1), anySet())).thenReturn(orderDTO);
+        when(request.getPathInfo()).thenReturn("/1");
+        when(request.getParameter("expand")).thenReturn("client, CAR");
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        orderServlet.doGet(request, response);
+
+        verify(orderServiceMock).getOrderById(eq(1), eq(EnumSet.of(OrderExpand.CLIENT, OrderExpand.CAR)));
+        assertThat(body.toString()).isEqualTo("{\"id\":1,\"clientId\":2,\"carId\":3,\"creationDate\":null,"
+                + "\"status\":\"PENDING\",\"client\":{\"id\":2,\"clientName\":\"Иван\",\"contactInfo\":\"+79990000000\"},"
+                + "\"car\":{\"id\":3,\"make\":\"Lada\",\"model\":\"Vesta\",\"year\":2020,\"price\":12000.0,"
+                + "\"condition\":\"NEW\"}}");
+    }
+
+    @Test
+    @DisplayName("Тест GET-запроса с неизвестным значением expand")
+    public void testDoGetInvalidExpand() throws IOException {
+        when(request.getPathInfo()).thenReturn(null);
+        when(request.getParameter("expand")).thenReturn("client,user");
+
+        orderServlet.doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(writerMock).print("{\"error\":\"Invalid expand parameter\"}");
+        verifyNoInteractions(orderServiceMock);
+    }
+}
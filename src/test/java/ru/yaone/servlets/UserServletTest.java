@@ -12,16 +12,17 @@ import ru.yaone.dto.UserDTO;
 
 import ru.yaone.impl.UserServiceImpl;
 import ru.yaone.model.enumeration.UserRole;
+import ru.yaone.services.RowHandler;
 import ru.yaone.services.UserService;
 
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Collections;
 
 
 import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
@@ -49,11 +50,17 @@ public class UserServletTest {
         UserDTO mockUser = new UserDTO();
         mockUser.setUsername("testuser");
         mockUser.setPassword("password");
-        when(userServiceMock.getAllUsers()).thenReturn(Collections.singletonList(mockUser));
+        doAnswer(invocation -> {
+            RowHandler<UserDTO> handler = invocation.getArgument(0);
+            handler.handle(mockUser);
+            return null;
+        }).when(userServiceMock).streamAllUsers(any());
+        CapturingOutputStream outputStream = new CapturingOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream);
         userServlet.doGet(request, response);
         verify(response).setContentType("application/json; charset=UTF-8");
-        verify(userServiceMock).getAllUsers();
-        verify(writerMock).print(contains("testuser"));
+        verify(userServiceMock).streamAllUsers(any());
+        assertThat(outputStream.content()).startsWith("[{").contains("testuser").endsWith("}]");
     }
 
     @Test
@@ -0,0 +1,43 @@
+-- Схема car_shop для тестов на H2: таблицы создаются заново при каждой настройке пула.
+-- Идентификаторы автомобилей генерируются, но тесты могут задавать их явно.
+CREATE SCHEMA IF NOT EXISTS car_shop;
+
+DROP TABLE IF EXISTS car_shop.orders;
+DROP TABLE IF EXISTS car_shop.clients;
+DROP TABLE IF EXISTS car_shop.cars;
+DROP TABLE IF EXISTS car_shop.audit_log;
+
+CREATE TABLE car_shop.cars (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    make      VARCHAR(255),
+    model     VARCHAR(255),
+    year      INTEGER,
+    price     DECIMAL(10, 2),
+    condition VARCHAR(50)
+);
+
+CREATE TABLE car_shop.clients (
+    id           BIGINT PRIMARY KEY,
+    client_name  VARCHAR(255),
+    contact_info VARCHAR(255)
+);
+
+CREATE TABLE car_shop.orders (
+    id            BIGINT PRIMARY KEY,
+    client_id     BIGINT,
+    car_id        BIGINT,
+    creation_date TIMESTAMP,
+    status        VARCHAR(50)
+);
+
+CREATE INDEX idx_orders_creation_date_id ON car_shop.orders (creation_date, id);
+
+CREATE TABLE car_shop.audit_log (
+    id             BIGINT PRIMARY KEY,
+    method_name    VARCHAR(255),
+    method_args    TEXT,
+    execution_time BIGINT,
+    result         TEXT,
+    timestamp      TIMESTAMP,
+    call_tree      TEXT
+);